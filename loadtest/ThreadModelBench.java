@@ -0,0 +1,137 @@
+// 플랫폼 스레드 풀(Tomcat 기본 최대 200) 과 가상 스레드에서 "느린 하위 호출로 막혀 있는 요청"을
+// 동시에 몇 건까지 처리하는지 비교하는 JDK 단독 실험 (애플리케이션, Spring, Tomcat 을 쓰지 않음)
+//
+// 사용법 (Java 21, 빌드 불필요):
+//   java loadtest/ThreadModelBench.java [clients=1000] [latencyMs=500] [seconds=10] [poolSize=200]
+//
+// 구성: 부하 클라이언트(가상 스레드 clients 개) -> 앱 서버(JDK HttpServer) -> 지연 서버(latencyMs 대기 후 응답)
+// 앱 서버 핸들러는 지연 서버를 동기 호출하며, 실행기만 고정 풀(poolSize)과 가상 스레드로 바꿔 두 번 측정한다.
+// AI 호출 bulkhead, 사용자 입장 제어, single-flight 는 포함하지 않으므로 스레드 모델의 상한만 보여준다.
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class ThreadModelBench {
+
+    public static void main(String[] args) throws Exception {
+        int clients = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        int latencyMs = args.length > 1 ? Integer.parseInt(args[1]) : 500;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+        int poolSize = args.length > 3 ? Integer.parseInt(args[3]) : 200;
+
+        HttpServer backend = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 4096);
+        backend.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        backend.createContext("/", exchange -> {
+            try {
+                Thread.sleep(latencyMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            respond(exchange, "{\"report\":\"ok\"}".getBytes());
+        });
+        backend.start();
+        URI backendUri = URI.create("http://127.0.0.1:" + backend.getAddress().getPort() + "/");
+
+        System.out.printf("clients=%d latencyMs=%d seconds=%d poolSize=%d%n", clients, latencyMs, seconds, poolSize);
+        run("platform(" + poolSize + ")", Executors.newFixedThreadPool(poolSize), backendUri, clients, seconds);
+        run("virtual", Executors.newVirtualThreadPerTaskExecutor(), backendUri, clients, seconds);
+        backend.stop(0);
+        System.exit(0);
+    }
+
+    private static void run(String mode, ExecutorService executor, URI backendUri, int clients, int seconds)
+            throws Exception {
+        HttpClient upstream = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1)
+                .executor(Executors.newVirtualThreadPerTaskExecutor()).build();
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+
+        HttpServer app = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 4096);
+        app.setExecutor(executor);
+        app.createContext("/financial", exchange -> {
+            int now = inFlight.incrementAndGet();
+            peak.accumulateAndGet(now, Math::max);
+            try {
+                exchange.getRequestBody().readAllBytes();
+                byte[] body = upstream.send(HttpRequest.newBuilder(backendUri).build(),
+                        HttpResponse.BodyHandlers.ofByteArray()).body();
+                respond(exchange, body);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                inFlight.decrementAndGet();
+            }
+        });
+        app.start();
+        URI appUri = URI.create("http://127.0.0.1:" + app.getAddress().getPort() + "/financial");
+
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1)
+                .executor(Executors.newVirtualThreadPerTaskExecutor()).build();
+        long deadline = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+        List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+        AtomicLong errors = new AtomicLong();
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < clients; i++) {
+            threads.add(Thread.ofVirtual().start(() -> {
+                HttpRequest request = HttpRequest.newBuilder(appUri)
+                        .timeout(Duration.ofSeconds(180))
+                        .POST(HttpRequest.BodyPublishers.ofString("{\"company_name\":\"loadtest\"}"))
+                        .build();
+                while (System.nanoTime() < deadline) {
+                    long start = System.nanoTime();
+                    try {
+                        HttpResponse<Void> res = client.send(request, HttpResponse.BodyHandlers.discarding());
+                        if (res.statusCode() != 200) {
+                            errors.incrementAndGet();
+                        }
+                    } catch (IOException e) {
+                        errors.incrementAndGet();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    latencies.add(System.nanoTime() - start);
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        app.stop(0);
+        executor.shutdownNow();
+
+        List<Long> sorted = new ArrayList<>(latencies);
+        Collections.sort(sorted);
+        System.out.printf("%-14s peak in-flight=%4d  completed=%6d  throughput=%7.1f req/s  p50=%6d ms  p99=%6d ms  errors=%d%n",
+                mode, peak.get(), sorted.size(), sorted.size() / (double) seconds,
+                percentileMs(sorted, 0.50), percentileMs(sorted, 0.99), errors.get());
+    }
+
+    private static long percentileMs(List<Long> sorted, double p) {
+        if (sorted.isEmpty()) {
+            return 0;
+        }
+        return sorted.get((int) Math.min(sorted.size() - 1, Math.floor(p * sorted.size()))) / 1_000_000;
+    }
+
+    private static void respond(com.sun.net.httpserver.HttpExchange exchange, byte[] body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+// /api/query/financial 동시 처리량 비교용 k6 스크립트
+//
+// 사용법:
+//   k6 run -e BASE_URL=http://localhost:8080 -e TOKEN=<JWT> -e VUS=1000 loadtest/financial-concurrency.js
+//
+// 토큰 하나로 요청하므로 서버는 query.admission.enabled=false 로 실행한다 (켜 두면 사용자별 한도로 대부분 429).
+//
+// 플랫폼 스레드(spring.threads.virtual.enabled=false)와 가상 스레드(true)로 각각 실행하여
+// http_req_duration, 동시 처리 중 요청 수(vus), 실패율을 비교한다.
+// 같은 기업 요청은 캐시/single-flight 로 합쳐지므로 COMPANIES 개수로 AI 호출 비율을 조절한다.
+// 같은 수치로 만든 보고서는 저장된 보고서로 응답하므로 UNIQUE_DATA(기본 true) 면 반복마다 수치를 바꾼다.
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const TOKEN = __ENV.TOKEN || '';
+const VUS = parseInt(__ENV.VUS || '1000', 10);
+const COMPANIES = parseInt(__ENV.COMPANIES || '20', 10);
+const UNIQUE_DATA = (__ENV.UNIQUE_DATA || 'true') === 'true';
+
+export const options = {
+    scenarios: {
+        financial: {
+            executor: 'constant-vus',
+            vus: VUS,
+            duration: __ENV.DURATION || '60s',
+        },
+    },
+};
+
+export default function () {
+    const corp = `loadtest-corp-${__VU % COMPANIES}`;
+    const body = JSON.stringify({
+        company_name: corp,
+        financial_data: { corp_name: corp, revenue: UNIQUE_DATA ? 1000 + __ITER : 1000, debt_ratio: 0.5 },
+    });
+    const res = http.post(`${BASE_URL}/api/query/financial`, body, {
+        headers: { 'Content-Type': 'application/json', Authorization: `Bearer ${TOKEN}` },
+        timeout: '180s',
+    });
+    check(res, { 'status is 200 or 503': (r) => r.status === 200 || r.status === 503 });
+}
@@ -0,0 +1,56 @@
+package com.example.finalproject.config;
+
+import com.example.finalproject.domain.query.service.UserAdmissionService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpMethod;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * AI 서버를 호출하는 API 앞에서 사용자별 입장 제어를 적용하는 인터셉터입니다.
+ *
+ * <p>사용자 키는 JwtAuthenticationFilter 가 SecurityContext 에 넣은 JWT subject 이며,
+ * 인증 정보가 없으면 클라이언트 IP 를 사용합니다.
+ * 한도 초과 시 UserAdmissionService 가 던진 TooManyRequestsException 은 GlobalExceptionHandler 에서 429 로 응답합니다.
+ *
+ * @see UserAdmissionService
+ */
+@Component
+@RequiredArgsConstructor
+public class AdmissionControlInterceptor implements HandlerInterceptor {
+
+    private static final String PERMIT_ATTRIBUTE = AdmissionControlInterceptor.class.getName() + ".permit";
+
+    private final UserAdmissionService userAdmissionService;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!HttpMethod.POST.matches(request.getMethod())) {
+            return true;
+        }
+        UserAdmissionService.Permit permit = userAdmissionService.acquire(resolveUser(request));
+        request.setAttribute(PERMIT_ATTRIBUTE, permit);
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        Object permit = request.getAttribute(PERMIT_ATTRIBUTE);
+        if (permit instanceof UserAdmissionService.Permit p) {
+            request.removeAttribute(PERMIT_ATTRIBUTE);
+            p.close();
+        }
+    }
+
+    private String resolveUser(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated() && authentication.getName() != null) {
+            return "user:" + authentication.getName();
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+}
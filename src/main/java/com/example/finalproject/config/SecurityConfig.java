@@ -115,6 +115,8 @@ public class SecurityConfig {
 		configuration.setAllowedOrigins(Collections.singletonList("http://localhost:3000"));
 		configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS"));
 		configuration.setAllowedHeaders(Collections.singletonList("*"));
+		// 보고서 재검증(If-None-Match)에 쓰는 헤더를 프론트엔드에서 읽을 수 있도록
+		configuration.setExposedHeaders(Arrays.asList("ETag", "Last-Modified"));
 		configuration.setAllowCredentials(true);
 
 		UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
@@ -1,9 +1,9 @@
 package com.example.finalproject.config;
 
-import org.springframework.context.annotation.Bean;
+import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.web.client.RestTemplate;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 /**
@@ -16,11 +16,15 @@ import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
  *   <li>HTTP 메서드(GET, POST, PUT, DELETE, OPTIONS) 허용</li>
  *   <li>모든 헤더 허용</li>
  *   <li>쿠키 인증 허용 (세션 사용 시 필요)</li>
+ *   <li>AI 서버를 호출하는 API 에 사용자별 입장 제어 적용 (AdmissionControlInterceptor)</li>
  * </ul>
  */
 @Configuration
+@RequiredArgsConstructor
 public class WebConfig implements WebMvcConfigurer {
 
+    private final AdmissionControlInterceptor admissionControlInterceptor;
+
     @Override
     public void addCorsMappings(CorsRegistry registry) {
         // CORS 설정: 프론트엔드에서 접근 허용
@@ -33,8 +37,10 @@ public class WebConfig implements WebMvcConfigurer {
                 .maxAge(3600); // preflight 캐시 시간 (1시간)
     }
 
-    @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // AI 서버를 호출하는 API 만 대상 (POST 요청에만 적용)
+        registry.addInterceptor(admissionControlInterceptor)
+                .addPathPatterns("/api/query/ask", "/api/query/financial", "/api/query/financial/**", "/api/query/jobs");
     }
 }
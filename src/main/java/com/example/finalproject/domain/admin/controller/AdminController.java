@@ -0,0 +1,121 @@
+package com.example.finalproject.domain.admin.controller;
+
+import com.example.finalproject.domain.company.service.CompanyNameIndex;
+import com.example.finalproject.domain.query.client.AiServerClient;
+import com.example.finalproject.domain.query.service.ReportBatchService;
+import com.example.finalproject.domain.query.service.ReportGenerationService;
+import com.example.finalproject.domain.query.service.ReportJobService;
+import com.example.finalproject.domain.query.service.SearchResultCache;
+import com.example.finalproject.domain.query.service.UserAdmissionService;
+import com.example.finalproject.domain.report.service.ReportBytesCache;
+import com.example.finalproject.domain.report.service.ReportMetadataWriter;
+import com.example.finalproject.domain.report.service.ReportStore;
+import com.example.finalproject.domain.report.service.ReportSweeper;
+import com.example.finalproject.exception.ApiResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * AdminController
+ * <p>
+ * 운영용 캐시 관리 및 통계 REST 컨트롤러. /api/admin/** 는 SecurityConfig 에서 ADMIN 권한만 허용.
+ * <p>
+ * ✅ 주요 기능:
+ * - 검색 결과 캐시 무효화 (DELETE /api/admin/query/ask/cache, prompt 지정 시 해당 질의만)
+ * - 검색 결과 캐시 통계 (GET /api/admin/query/ask/cache/stats)
+ * - AI 클라이언트 / 입장 제어 / 보고서 생성 / 배치 / 작업 큐 통계
+ *   (GET /api/admin/query/ai-client/stats, /admission/stats, /report-generation/stats, /financial/batch/stats, /jobs/stats)
+ * - 보고서 캐시 / 저장소 / 정리(ReportSweeper) 통계 (GET /api/admin/report/cache/stats, GET /api/admin/report/store/stats)
+ * - 기업명 자동완성 색인 통계 (GET /api/admin/company/suggest/stats)
+ */
+@RestController
+@RequestMapping("/api/admin")
+@RequiredArgsConstructor
+public class AdminController {
+
+    private final SearchResultCache searchResultCache;
+    private final AiServerClient aiServerClient;
+    private final UserAdmissionService userAdmissionService;
+    private final ReportGenerationService reportGenerationService;
+    private final ReportBatchService reportBatchService;
+    private final ReportJobService reportJobService;
+    private final ReportBytesCache reportBytesCache;
+    private final ReportStore reportStore;
+    private final ReportMetadataWriter reportMetadataWriter;
+    private final ReportSweeper reportSweeper;
+    private final CompanyNameIndex companyNameIndex;
+
+    // 1. 검색 결과 캐시 무효화 (prompt 가 없으면 전체 삭제)
+    @DeleteMapping("/query/ask/cache")
+    public ResponseEntity<ApiResponse<Integer>> invalidateSearchCache(@RequestParam(required = false) String prompt) {
+        int removed = (prompt == null || prompt.isBlank())
+                ? searchResultCache.invalidateAll()
+                : searchResultCache.invalidatePrompt(prompt);
+        return ResponseEntity.ok(ApiResponse.success(removed));
+    }
+
+    // 2. 검색 결과 캐시 통계 (적중률, 크기, 제거 횟수)
+    @GetMapping("/query/ask/cache/stats")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> searchCacheStats() {
+        return ResponseEntity.ok(ApiResponse.success(searchResultCache.getStats()));
+    }
+
+    // 3. AI 클라이언트 커넥션 풀 및 요청 통계
+    @GetMapping("/query/ai-client/stats")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> aiClientStats() {
+        return ResponseEntity.ok(ApiResponse.success(aiServerClient.getStats()));
+    }
+
+    // 4. 사용자별 입장 제어 통계 (진행 중/대기 중 요청 수, 속도 제한 및 대기열 거절 수)
+    @GetMapping("/query/admission/stats")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> admissionStats() {
+        return ResponseEntity.ok(ApiResponse.success(userAdmissionService.getStats()));
+    }
+
+    // 5. 보고서 생성 Single-flight 통계 (실행 횟수, 합쳐진 호출 수, 진행 중 개수)
+    @GetMapping("/query/report-generation/stats")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> reportGenerationStats() {
+        return ResponseEntity.ok(ApiResponse.success(reportGenerationService.getStats()));
+    }
+
+    // 6. 배치 보고서 처리 통계
+    @GetMapping("/query/financial/batch/stats")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> reportBatchStats() {
+        return ResponseEntity.ok(ApiResponse.success(reportBatchService.getStats()));
+    }
+
+    // 7. 보고서 작업 큐 통계
+    @GetMapping("/query/jobs/stats")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> reportJobStats() {
+        return ResponseEntity.ok(ApiResponse.success(reportJobService.getStats()));
+    }
+
+    // 8. 보고서 캐시 통계 (적중률, 보관 바이트, 제거 수)
+    @GetMapping("/report/cache/stats")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> reportCacheStats() {
+        return ResponseEntity.ok(ApiResponse.success(reportBytesCache.getStats()));
+    }
+
+    // 9. 보고서 저장소 통계 (저장소 종류별 사용량, 기록/읽기 횟수, 보고서 정보 배치 저장 대기열, 정리 현황)
+    @GetMapping("/report/store/stats")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> reportStoreStats() {
+        Map<String, Object> stats = new LinkedHashMap<>(reportStore.getStats());
+        stats.put("metadata", reportMetadataWriter.getStats());
+        stats.put("sweeper", reportSweeper.getStats());
+        return ResponseEntity.ok(ApiResponse.success(stats));
+    }
+
+    // 10. 자동완성 색인 통계 (기업 수, 평균 검색 시간)
+    @GetMapping("/company/suggest/stats")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> suggestStats() {
+        return ResponseEntity.ok(ApiResponse.success(companyNameIndex.getStats()));
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.finalproject.domain.company.controller;
+
+import com.example.finalproject.domain.company.dto.CompanySuggestionDTO;
+import com.example.finalproject.domain.company.service.CompanyNameIndex;
+import com.example.finalproject.domain.report.service.ReportService;
+import com.example.finalproject.exception.ApiResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * CompanyController
+ * <p>
+ * 기업명 자동완성 REST 컨트롤러.
+ * <p>
+ * ✅ 주요 기능:
+ * - 기업명 자동완성 (GET /api/company/suggest?q=&limit=): 접두어, 초성(ㅅㅅㅈㅈ), 오타 보정 (CompanyNameIndex)
+ * - 자동완성 색인 통계는 AdminController (GET /api/admin/company/suggest/stats)
+ * <p>
+ * 검색어 입력창에서 정확한 기업명을 고르게 해 /api/query/financial, /api/report/download-json 의 캐시 적중을 높임
+ */
+@RestController
+@RequestMapping("/api/company")
+@RequiredArgsConstructor
+public class CompanyController {
+
+    private final CompanyNameIndex companyNameIndex;
+    private final ReportService reportService;
+
+    // 1. 기업명 자동완성 (보고서가 있는 기업은 보고서 URL 포함)
+    @GetMapping("/suggest")
+    public ResponseEntity<ApiResponse<List<CompanySuggestionDTO>>> suggest(@RequestParam String q,
+                                                                          @RequestParam(defaultValue = "10") int limit) {
+        List<CompanySuggestionDTO> suggestions = companyNameIndex.suggest(q, limit).stream()
+                .map(suggestion -> CompanySuggestionDTO.of(suggestion,
+                        suggestion.hasReport() ? reportService.reportUrl(suggestion.corpName(), null) : null))
+                .toList();
+        return ResponseEntity.ok(ApiResponse.success(suggestions));
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.finalproject.domain.company.dto;
+
+import com.example.finalproject.domain.company.service.CompanyNameIndex.MatchType;
+import com.example.finalproject.domain.company.service.CompanyNameIndex.Suggestion;
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class CompanySuggestionDTO {
+    private String corpName;
+    // PREFIX(접두어) | CHOSUNG(초성) | FUZZY(오타 보정)
+    private MatchType match;
+    // 저장된 보고서 URL (보고서가 없는 기업은 null)
+    private String reportUrl;
+
+    public static CompanySuggestionDTO of(Suggestion suggestion, String reportUrl) {
+        return CompanySuggestionDTO.builder()
+                .corpName(suggestion.corpName())
+                .match(suggestion.match())
+                .reportUrl(reportUrl)
+                .build();
+    }
+}
@@ -0,0 +1,357 @@
+package com.example.finalproject.domain.company.service;
+
+import com.example.finalproject.domain.report.entity.ReportCatalogEntity;
+import com.example.finalproject.domain.report.repository.ReportCatalogRepository;
+import com.example.finalproject.domain.report.service.CompanyKey;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 기업명 자동완성 색인입니다. (GET /api/company/suggest)
+ *
+ * <p>기업명은 CompanyKey 로 정규화한 뒤 자모로 분해해(HangulJamo) 세 가지 방식으로 찾습니다.
+ * <ul>
+ *   <li>접두어: 자모 문자열의 정렬 맵 범위 조회. 입력 중인 글자("삼성저")도 "삼성전자" 에 맞음</li>
+ *   <li>초성: 초성 문자열의 정렬 맵 범위 조회 ("ㅅㅅㅈㅈ", "skㅎㅇ")</li>
+ *   <li>오타: 앞의 두 방식으로 limit 개를 채우지 못하면 자모 bigram 역색인으로 후보를 고른 뒤
+ *       접두어 편집 거리(자모 단위)가 허용치 이하인 기업 ("삼송전자" → 삼성전자)</li>
+ * </ul>
+ * 조회는 모두 메모리의 동시성 맵에서 잠금 없이 수행되며 결과 수만큼만 읽습니다.
+ *
+ * <p>기업 목록은 다음에서 채웁니다. 추가만 하므로 색인 전체를 다시 만들지 않습니다.
+ * <ul>
+ *   <li>시작 시 번들 목록(company.suggest.bundled-list, 한 줄에 기업명 하나)</li>
+ *   <li>보고서 카탈로그(REPORT_CATALOG): 시작 시 전체, 이후 refresh-interval-ms 마다 새로 추가된 행만 (다른 서버가 저장한 기업)</li>
+ *   <li>이 서버에서 보고서를 저장할 때 바로 추가 (ReportService)</li>
+ * </ul>
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CompanyNameIndex {
+
+    private final ReportCatalogRepository reportCatalogRepository;
+    private final ResourceLoader resourceLoader;
+
+    @Value("${company.suggest.bundled-list:classpath:company/companies.txt}")
+    private String bundledList;
+
+    @Value("${company.suggest.refresh-interval-ms:5000}")
+    private long refreshIntervalMs;
+
+    @Value("${company.suggest.max-results:20}")
+    private int maxResults;
+
+    private static final int CATALOG_PAGE_SIZE = 1000;
+    // 접두어/초성 범위에서 순위를 매길 최대 후보 수 (짧은 검색어가 수천 개와 맞아도 이만큼만 읽음)
+    private static final int RANGE_SCAN_LIMIT = 256;
+    // 이보다 짧은 검색어(자모 수)는 오타 검색을 하지 않음
+    private static final int FUZZY_MIN_JAMO = 4;
+    // 자모 수가 이 이상이면 오타 2개까지 허용 (그 미만은 1개)
+    private static final int FUZZY_TWO_EDITS_JAMO = 9;
+    private static final char KEY_SEPARATOR = '\u0000';
+
+    public enum MatchType {
+        PREFIX, CHOSUNG, FUZZY
+    }
+
+    /**
+     * @param hasReport 저장된 보고서가 있는지 (카탈로그에 있는 기업)
+     */
+    public record Suggestion(String corpName, MatchType match, boolean hasReport) {
+    }
+
+    private static final class Entry {
+        private final String corpKey;
+        private final String jamo;
+        private volatile String corpName;
+        private volatile boolean hasReport;
+
+        private Entry(String corpKey, String corpName, boolean hasReport) {
+            this.corpKey = corpKey;
+            this.jamo = HangulJamo.decompose(corpKey);
+            this.corpName = corpName;
+            this.hasReport = hasReport;
+        }
+    }
+
+    // 정규화한 기업명 -> 항목
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    // (자모 | 초성) + 구분자 + 정규화한 기업명 -> 항목 (접두어 범위 조회)
+    private final ConcurrentSkipListMap<String, Entry> byJamo = new ConcurrentSkipListMap<>();
+    private final ConcurrentSkipListMap<String, Entry> byChosung = new ConcurrentSkipListMap<>();
+    // 자모 bigram -> 항목 (오타 후보)
+    private final Map<String, Set<Entry>> byBigram = new ConcurrentHashMap<>();
+
+    private volatile long lastCatalogId;
+    private ScheduledExecutorService refresher;
+
+    private final AtomicLong searches = new AtomicLong();
+    private final AtomicLong searchNanos = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        loadBundledList();
+        refresher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "company-name-index");
+            t.setDaemon(true);
+            return t;
+        });
+        refresher.scheduleWithFixedDelay(this::syncCatalog, 0, refreshIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refresher.shutdownNow();
+    }
+
+    private void loadBundledList() {
+        Resource resource = resourceLoader.getResource(bundledList);
+        if (!resource.exists()) {
+            log.info("기업명 목록 없음: {}", bundledList);
+            return;
+        }
+        int count = 0;
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.strip();
+                if (!line.isEmpty() && !line.startsWith("#")) {
+                    add(line, false);
+                    count++;
+                }
+            }
+            log.info("기업명 목록 {}건 색인: {}", count, bundledList);
+        } catch (IOException e) {
+            log.error("기업명 목록 읽기 실패: {}", bundledList, e);
+        }
+    }
+
+    /**
+     * 마지막으로 읽은 카탈로그 행 이후에 추가된 기업을 색인 (카탈로그는 기업마다 한 행이므로 새 행 = 새 기업)
+     */
+    private void syncCatalog() {
+        try {
+            while (true) {
+                List<ReportCatalogEntity> page = reportCatalogRepository.findByIdGreaterThanOrderByIdAsc(lastCatalogId,
+                        PageRequest.of(0, CATALOG_PAGE_SIZE));
+                for (ReportCatalogEntity catalog : page) {
+                    add(catalog.getCorpName(), true);
+                    lastCatalogId = catalog.getId();
+                }
+                if (page.size() < CATALOG_PAGE_SIZE) {
+                    return;
+                }
+            }
+        } catch (RuntimeException e) {
+            log.warn("보고서 카탈로그에서 기업명 색인 실패: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 기업명 추가. 이미 있으면 보고서가 있는 기업일 때 표시 이름만 보고서의 기업명으로 바꿈
+     */
+    public void add(String corpName, boolean hasReport) {
+        String corpKey = CompanyKey.of(corpName);
+        if (corpKey.isEmpty()) {
+            return;
+        }
+        String displayName = corpName.strip();
+        Entry entry = entries.get(corpKey);
+        if (entry == null) {
+            Entry created = new Entry(corpKey, displayName, hasReport);
+            entry = entries.putIfAbsent(corpKey, created);
+            if (entry == null) {
+                index(created);
+                return;
+            }
+        }
+        if (hasReport) {
+            entry.corpName = displayName;
+            entry.hasReport = true;
+        }
+    }
+
+    private void index(Entry entry) {
+        byJamo.put(entry.jamo + KEY_SEPARATOR + entry.corpKey, entry);
+        byChosung.put(HangulJamo.chosung(entry.corpKey) + KEY_SEPARATOR + entry.corpKey, entry);
+        for (String bigram : bigrams(entry.jamo)) {
+            byBigram.computeIfAbsent(bigram, k -> ConcurrentHashMap.newKeySet()).add(entry);
+        }
+    }
+
+    /**
+     * 검색어에 맞는 기업명 (접두어, 초성, 오타 순으로 limit 개까지)
+     * <p>
+     * 같은 방식으로 찾은 기업끼리는 보고서가 있는 기업, 짧은 이름(오타는 거리가 작은 것) 순
+     */
+    public List<Suggestion> suggest(String query, int limit) {
+        long started = System.nanoTime();
+        int max = Math.max(1, Math.min(limit, maxResults));
+        String key = CompanyKey.of(query);
+        if (key.isEmpty()) {
+            return List.of();
+        }
+        String jamo = HangulJamo.decompose(key);
+
+        Map<Entry, MatchType> found = new LinkedHashMap<>();
+        collectRange(byJamo, jamo, MatchType.PREFIX, found, max);
+        if (found.size() < max && HangulJamo.isChosungQuery(key)) {
+            collectRange(byChosung, HangulJamo.chosung(key), MatchType.CHOSUNG, found, max);
+        }
+        if (found.size() < max && jamo.length() >= FUZZY_MIN_JAMO) {
+            collectFuzzy(jamo, found, max);
+        }
+
+        List<Suggestion> suggestions = new ArrayList<>(found.size());
+        found.forEach((entry, match) -> suggestions.add(new Suggestion(entry.corpName, match, entry.hasReport)));
+        searches.incrementAndGet();
+        searchNanos.addAndGet(System.nanoTime() - started);
+        return suggestions;
+    }
+
+    private static void collectRange(ConcurrentSkipListMap<String, Entry> index, String prefix, MatchType match,
+                                     Map<Entry, MatchType> found, int max) {
+        NavigableMap<String, Entry> range = index.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+        List<Entry> candidates = new ArrayList<>();
+        for (Entry entry : range.values()) {
+            if (candidates.size() >= RANGE_SCAN_LIMIT) {
+                break;
+            }
+            if (!found.containsKey(entry)) {
+                candidates.add(entry);
+            }
+        }
+        candidates.sort(Comparator.comparing((Entry entry) -> !entry.hasReport)
+                .thenComparingInt(entry -> entry.corpKey.length())
+                .thenComparing(entry -> entry.corpKey));
+        for (Entry entry : candidates) {
+            if (found.size() >= max) {
+                return;
+            }
+            found.put(entry, match);
+        }
+    }
+
+    /**
+     * bigram 을 일정 수 이상 공유하는 기업만 편집 거리를 계산 (오타 하나는 bigram 을 최대 두 개 바꿈)
+     */
+    private void collectFuzzy(String jamo, Map<Entry, MatchType> found, int max) {
+        int maxEdits = jamo.length() >= FUZZY_TWO_EDITS_JAMO ? 2 : 1;
+        List<String> queryBigrams = bigrams(jamo);
+        int minShared = Math.max(1, queryBigrams.size() - 2 * maxEdits);
+
+        Map<Entry, Integer> shared = new HashMap<>();
+        for (String bigram : queryBigrams) {
+            Set<Entry> posting = byBigram.get(bigram);
+            if (posting != null) {
+                for (Entry entry : posting) {
+                    shared.merge(entry, 1, Integer::sum);
+                }
+            }
+        }
+
+        record Candidate(Entry entry, int distance) {
+        }
+        List<Candidate> candidates = new ArrayList<>();
+        shared.forEach((entry, count) -> {
+            if (count >= minShared && !found.containsKey(entry)) {
+                int distance = prefixEditDistance(jamo, entry.jamo, maxEdits);
+                if (distance <= maxEdits) {
+                    candidates.add(new Candidate(entry, distance));
+                }
+            }
+        });
+        candidates.sort(Comparator.comparingInt(Candidate::distance)
+                .thenComparing(candidate -> !candidate.entry().hasReport)
+                .thenComparingInt(candidate -> candidate.entry().corpKey.length()));
+        for (Candidate candidate : candidates) {
+            if (found.size() >= max) {
+                return;
+            }
+            found.put(candidate.entry(), MatchType.FUZZY);
+        }
+    }
+
+    /**
+     * query 와 target 의 접두어 중 가장 가까운 것과의 편집 거리 (maxEdits 를 넘으면 maxEdits + 1)
+     */
+    static int prefixEditDistance(String query, String target, int maxEdits) {
+        int m = query.length();
+        int n = Math.min(target.length(), m + maxEdits);
+        // prev[i]: query 앞 i 글자와 target 앞 j 글자의 편집 거리
+        int[] prev = new int[m + 1];
+        int[] cur = new int[m + 1];
+        for (int i = 0; i <= m; i++) {
+            prev[i] = i;
+        }
+        int best = prev[m];
+        for (int j = 1; j <= n; j++) {
+            cur[0] = j;
+            int rowMin = cur[0];
+            char t = target.charAt(j - 1);
+            for (int i = 1; i <= m; i++) {
+                int cost = query.charAt(i - 1) == t ? 0 : 1;
+                cur[i] = Math.min(Math.min(cur[i - 1] + 1, prev[i] + 1), prev[i - 1] + cost);
+                rowMin = Math.min(rowMin, cur[i]);
+            }
+            best = Math.min(best, cur[m]);
+            if (rowMin > maxEdits) {
+                break;
+            }
+            int[] swap = prev;
+            prev = cur;
+            cur = swap;
+        }
+        return Math.min(best, maxEdits + 1);
+    }
+
+    private static List<String> bigrams(String jamo) {
+        List<String> bigrams = new ArrayList<>(Math.max(0, jamo.length() - 1));
+        for (int i = 0; i + 1 < jamo.length(); i++) {
+            String bigram = jamo.substring(i, i + 2);
+            if (!bigrams.contains(bigram)) {
+                bigrams.add(bigram);
+            }
+        }
+        return bigrams;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        long count = searches.get();
+        stats.put("companies", entries.size());
+        stats.put("withReport", entries.values().stream().filter(entry -> entry.hasReport).count());
+        stats.put("searches", count);
+        stats.put("avgSearchMicros", count == 0 ? 0 : searchNanos.get() / count / 1000);
+        stats.put("lastCatalogId", lastCatalogId);
+        return stats;
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.finalproject.domain.company.service;
+
+/**
+ * 한글 음절을 자모(호환 자모)로 분해합니다. (CompanyNameIndex)
+ *
+ * <p>"삼성전자" 는 "ㅅㅏㅁㅅㅓㅇㅈㅓㄴㅈㅏ" 가 되므로 입력 중인 글자("삼성저")도 접두어로 찾을 수 있고,
+ * 오타 거리도 자모 단위로 계산합니다(삼송전자 → 한 글자).
+ * 겹모음(ㅘ), 겹받침(ㄳ)은 입력 순서대로 나눕니다.
+ *
+ * <p>CompanyKey 의 NFKC 정규화를 거친 입력은 호환 자모(ㅅ)가 첫가끝 자모(U+1109)로 바뀌어 있으므로 둘 다 처리합니다.
+ */
+public final class HangulJamo {
+
+    private HangulJamo() {
+    }
+
+    private static final char SYLLABLE_BASE = 0xAC00;
+    private static final char SYLLABLE_LAST = 0xD7A3;
+    private static final char CHOSEONG_BASE = 0x1100;
+    private static final char JUNGSEONG_BASE = 0x1161;
+    private static final char JONGSEONG_BASE = 0x11A8;
+
+    private static final String CHOSEONG = "ㄱㄲㄴㄷㄸㄹㅁㅂㅃㅅㅆㅇㅈㅉㅊㅋㅌㅍㅎ";
+    private static final String[] JUNGSEONG = {
+            "ㅏ", "ㅐ", "ㅑ", "ㅒ", "ㅓ", "ㅔ", "ㅕ", "ㅖ", "ㅗ", "ㅗㅏ", "ㅗㅐ", "ㅗㅣ", "ㅛ", "ㅜ",
+            "ㅜㅓ", "ㅜㅔ", "ㅜㅣ", "ㅠ", "ㅡ", "ㅡㅣ", "ㅣ"
+    };
+    // 0 은 받침 없음
+    private static final String[] JONGSEONG = {
+            "", "ㄱ", "ㄲ", "ㄱㅅ", "ㄴ", "ㄴㅈ", "ㄴㅎ", "ㄷ", "ㄹ", "ㄹㄱ", "ㄹㅁ", "ㄹㅂ", "ㄹㅅ", "ㄹㅌ",
+            "ㄹㅍ", "ㄹㅎ", "ㅁ", "ㅂ", "ㅂㅅ", "ㅅ", "ㅆ", "ㅇ", "ㅈ", "ㅊ", "ㅋ", "ㅌ", "ㅍ", "ㅎ"
+    };
+
+    /**
+     * 한글을 자모로 분해 (한글이 아닌 문자는 그대로)
+     */
+    public static String decompose(String text) {
+        StringBuilder jamo = new StringBuilder(text.length() * 3);
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c >= SYLLABLE_BASE && c <= SYLLABLE_LAST) {
+                int syllable = c - SYLLABLE_BASE;
+                jamo.append(CHOSEONG.charAt(syllable / 588))
+                        .append(JUNGSEONG[syllable % 588 / 28])
+                        .append(JONGSEONG[syllable % 28]);
+            } else if (c >= CHOSEONG_BASE && c < CHOSEONG_BASE + CHOSEONG.length()) {
+                jamo.append(CHOSEONG.charAt(c - CHOSEONG_BASE));
+            } else if (c >= JUNGSEONG_BASE && c < JUNGSEONG_BASE + JUNGSEONG.length) {
+                jamo.append(JUNGSEONG[c - JUNGSEONG_BASE]);
+            } else if (c >= JONGSEONG_BASE && c < JONGSEONG_BASE + JONGSEONG.length - 1) {
+                jamo.append(JONGSEONG[c - JONGSEONG_BASE + 1]);
+            } else {
+                jamo.append(c);
+            }
+        }
+        return jamo.toString();
+    }
+
+    /**
+     * 한글 음절을 초성으로 바꿈 ("삼성전자" → "ㅅㅅㅈㅈ", 한글이 아닌 문자는 그대로)
+     */
+    public static String chosung(String text) {
+        StringBuilder chosung = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c >= SYLLABLE_BASE && c <= SYLLABLE_LAST) {
+                chosung.append(CHOSEONG.charAt((c - SYLLABLE_BASE) / 588));
+            } else if (c >= CHOSEONG_BASE && c < CHOSEONG_BASE + CHOSEONG.length()) {
+                chosung.append(CHOSEONG.charAt(c - CHOSEONG_BASE));
+            } else {
+                chosung.append(c);
+            }
+        }
+        return chosung.toString();
+    }
+
+    /**
+     * 초성 검색어인지 ("ㅅㅅㅈㅈ", "skㅎㅇ" 처럼 완성된 음절과 모음 없이 자음이 하나 이상)
+     */
+    public static boolean isChosungQuery(String text) {
+        boolean consonant = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if ((c >= CHOSEONG_BASE && c < CHOSEONG_BASE + CHOSEONG.length()) || CHOSEONG.indexOf(c) >= 0) {
+                consonant = true;
+            } else if ((c >= SYLLABLE_BASE && c <= SYLLABLE_LAST) || (c >= 0x1100 && c <= 0x11FF)
+                    || (c >= 0x3131 && c <= 0x318E)) {
+                return false;
+            }
+        }
+        return consonant;
+    }
+}
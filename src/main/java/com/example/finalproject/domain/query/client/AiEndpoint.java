@@ -0,0 +1,25 @@
+package com.example.finalproject.domain.query.client;
+
+/**
+ * AI 서버가 제공하는 엔드포인트 목록입니다.
+ *
+ * <p>엔드포인트별로 타임아웃 등의 정책을 따로 적용하기 위해 경로를 한 곳에서 관리합니다.
+ * <ul>
+ *   <li>SEARCH: VectorDB 기반 기업 검색 (짧은 응답 시간)</li>
+ *   <li>REPORT: 재무제표 기반 보고서 생성 (수십 초 소요 가능)</li>
+ * </ul>
+ */
+public enum AiEndpoint {
+    SEARCH("/api/ai/v1/financial-data/search"),
+    REPORT("/api/ai/v1/report/generate-from-financial-data");
+
+    private final String path;
+
+    AiEndpoint(String path) {
+        this.path = path;
+    }
+
+    public String getPath() {
+        return path;
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.finalproject.domain.query.client;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * AI 서버 인스턴스 한 대의 상태입니다.
+ *
+ * <p>라우팅에 쓰는 값:
+ * <ul>
+ *   <li>healthy: 헬스 체크 또는 연속 실패 횟수로 판단한 사용 가능 여부</li>
+ *   <li>ewmaMs: 최근 응답 시간의 지수 가중 이동 평균</li>
+ *   <li>inFlight: 현재 진행 중인 요청 수</li>
+ * </ul>
+ */
+@Slf4j
+public class AiNode {
+
+    // EWMA 가중치 (새 샘플 비중)
+    private static final double EWMA_ALPHA = 0.2;
+
+    private final String url;
+    private final int unhealthyAfterFailures;
+
+    private volatile boolean healthy = true;
+    private volatile double ewmaMs;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+
+    public AiNode(String url, int unhealthyAfterFailures) {
+        this.url = url;
+        this.unhealthyAfterFailures = unhealthyAfterFailures;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public boolean isHealthy() {
+        return healthy;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * 라우팅 점수 (낮을수록 우선). 응답이 느리거나 진행 중 요청이 많을수록 커짐
+     */
+    public double score() {
+        return (ewmaMs + 1) * (inFlight.get() + 1);
+    }
+
+    public void onStart() {
+        requests.incrementAndGet();
+        inFlight.incrementAndGet();
+    }
+
+    public synchronized void onSuccess(long elapsedMs) {
+        inFlight.decrementAndGet();
+        consecutiveFailures.set(0);
+        ewmaMs = ewmaMs == 0 ? elapsedMs : EWMA_ALPHA * elapsedMs + (1 - EWMA_ALPHA) * ewmaMs;
+    }
+
+    /**
+     * 실패 기록. 연속 실패가 unhealthyAfterFailures 에 도달하면 헬스 체크가 복구할 때까지 제외
+     */
+    public void onFailure() {
+        inFlight.decrementAndGet();
+        failures.incrementAndGet();
+        if (consecutiveFailures.incrementAndGet() >= unhealthyAfterFailures && healthy) {
+            markHealthy(false);
+        }
+    }
+
+    /**
+     * 노드 장애로 보지 않는 실패 (4xx 응답, 응답을 받은 뒤 handler 나 출력 측에서 난 오류)
+     */
+    public void onNeutral() {
+        inFlight.decrementAndGet();
+    }
+
+    /**
+     * 결과와 무관하게 취소된 요청 (hedge 에서 진 쪽)
+     */
+    public void onAbandoned() {
+        inFlight.decrementAndGet();
+    }
+
+    public void markHealthy(boolean healthy) {
+        if (this.healthy != healthy) {
+            log.warn("AI 서버 노드 상태 변경: {} -> {}", url, healthy ? "UP" : "DOWN");
+        }
+        this.healthy = healthy;
+        if (healthy) {
+            consecutiveFailures.set(0);
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("url", url);
+        stats.put("healthy", healthy);
+        stats.put("ewmaMs", Math.round(ewmaMs));
+        stats.put("inFlight", inFlight.get());
+        stats.put("requests", requests.get());
+        stats.put("failures", failures.get());
+        return stats;
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.finalproject.domain.query.client;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 여러 AI 서버 인스턴스 중 요청을 보낼 노드를 고르는 라우터입니다.
+ *
+ * <p>선택 방식:
+ * <ul>
+ *   <li>키가 있는 요청(기업 보고서 등): consistent hashing. 같은 기업은 항상 같은 노드로 가서 AI 서버 쪽 캐시를 재사용하고,
+ *       노드가 빠지면 그 노드의 키만 링의 다음 정상 노드로 이동</li>
+ *   <li>키가 없는 요청(검색 등): 정상 노드 중 임의의 두 개를 골라 점수(EWMA 응답 시간 × 진행 중 요청 수)가 낮은 쪽 선택</li>
+ * </ul>
+ *
+ * <p>정상 노드가 하나도 없으면 null 을 반환합니다.
+ */
+public class AiNodeRouter {
+
+    // 노드당 링에 올리는 가상 노드 수 (키 분포를 고르게 하기 위함)
+    private static final int VIRTUAL_NODES = 128;
+
+    private final List<AiNode> nodes;
+    private final TreeMap<Long, AiNode> ring = new TreeMap<>();
+
+    public AiNodeRouter(List<AiNode> nodes) {
+        this.nodes = List.copyOf(nodes);
+        for (AiNode node : nodes) {
+            for (int i = 0; i < VIRTUAL_NODES; i++) {
+                ring.put(hash(node.getUrl() + "#" + i), node);
+            }
+        }
+    }
+
+    public List<AiNode> getNodes() {
+        return nodes;
+    }
+
+    /**
+     * affinityKey 가 있으면 consistent hashing, 없으면 응답 시간 기반 선택
+     */
+    public AiNode select(String affinityKey) {
+        if (affinityKey != null) {
+            return selectByKey(affinityKey);
+        }
+        return selectOther(null);
+    }
+
+    /**
+     * exclude 를 제외한 정상 노드 중 응답 시간 기반 선택 (power of two choices)
+     */
+    public AiNode selectOther(AiNode exclude) {
+        List<AiNode> candidates = new ArrayList<>(nodes.size());
+        for (AiNode node : nodes) {
+            if (node.isHealthy() && node != exclude) {
+                candidates.add(node);
+            }
+        }
+        if (candidates.isEmpty()) {
+            return null;
+        }
+        if (candidates.size() == 1) {
+            return candidates.get(0);
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(candidates.size());
+        int second = random.nextInt(candidates.size() - 1);
+        if (second >= first) {
+            second++;
+        }
+        AiNode a = candidates.get(first);
+        AiNode b = candidates.get(second);
+        return a.score() <= b.score() ? a : b;
+    }
+
+    private AiNode selectByKey(String key) {
+        long h = hash(key);
+        for (Map.Entry<Long, AiNode> entry : ring.tailMap(h, true).entrySet()) {
+            if (entry.getValue().isHealthy()) {
+                return entry.getValue();
+            }
+        }
+        for (Map.Entry<Long, AiNode> entry : ring.headMap(h, false).entrySet()) {
+            if (entry.getValue().isHealthy()) {
+                return entry.getValue();
+            }
+        }
+        return null;
+    }
+
+    private static long hash(String value) {
+        try {
+            byte[] digest = MessageDigest.getInstance("MD5").digest(value.getBytes(StandardCharsets.UTF_8));
+            long h = 0;
+            for (int i = 0; i < 8; i++) {
+                h = (h << 8) | (digest[i] & 0xff);
+            }
+            return h;
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,710 @@
+package com.example.finalproject.domain.query.client;
+
+import com.example.finalproject.exception.error.AIServerOverloadedException;
+import com.example.finalproject.exception.error.AIServerUnavailableException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.classic.methods.HttpGet;
+import org.apache.hc.client5.http.classic.methods.HttpPost;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.io.entity.ByteArrayEntity;
+import org.apache.hc.core5.http.io.entity.EntityUtils;
+import org.apache.hc.core5.pool.PoolStats;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * AI 서버 전용 HTTP 클라이언트입니다.
+ *
+ * <p>기존에는 매 요청마다 {@code new RestTemplate()} 기반의 HttpURLConnection 을 새로 열고,
+ * 타임아웃도 없어 AI 서버가 멈추면 Tomcat 스레드가 무한정 묶였습니다.
+ * 이 컴포넌트는 Keep-Alive 커넥션 풀을 재사용하고 엔드포인트별 제한 시간을 적용합니다.
+ *
+ * <p>타임아웃 종류:
+ * <ul>
+ *   <li>connect-timeout: TCP 연결 수립 제한 시간 (공통)</li>
+ *   <li>pool-acquire-timeout: 풀에서 커넥션을 빌리기까지의 대기 시간 (공통)</li>
+ *   <li>read-timeout: 소켓에서 다음 바이트를 기다리는 시간 (엔드포인트별)</li>
+ *   <li>deadline: 요청 전송부터 응답 본문 수신까지의 전체 제한 시간 (엔드포인트별, 초과 시 요청 취소)</li>
+ * </ul>
+ *
+ * <p>장애 격리:
+ * <ul>
+ *   <li>서킷 브레이커: 엔드포인트별 최근 실패/지연 비율이 임계치를 넘으면 일정 시간 호출 없이 즉시 거절</li>
+ *   <li>bulkhead: 엔드포인트별 동시 호출 수 제한 (보고서 생성이 검색 트래픽을 굶기지 않도록 분리)</li>
+ * </ul>
+ *
+ * <p>다중 인스턴스:
+ * <ul>
+ *   <li>ai.server.urls 에 여러 노드를 지정하면 AiNodeRouter 로 노드 선택 (기업 키는 consistent hashing, 그 외는 응답 시간 기반)</li>
+ *   <li>헬스 체크: health-check-interval-seconds 마다 각 노드에 GET 요청, 연결 실패/5xx 면 제외. 연속 실패 시에도 제외</li>
+ *   <li>hedged request: /search 는 선택 사항으로, p95 응답 시간이 지나도 응답이 없으면 다른 노드에 한 번 더 보내고 먼저 온 응답 사용</li>
+ * </ul>
+ *
+ * <p>예외 처리:
+ * - 연결 실패, 시간 초과, 2xx 이외의 응답은 모두 AIServerUnavailableException 으로 변환
+ * - 서킷 열림, 동시 호출 한도 초과는 AIServerOverloadedException (503 + Retry-After)
+ * - 노드 실패로 집계하는 것은 연결/읽기 실패, 시간 초과, 5xx 뿐이며 (AiServerFaultException),
+ *   4xx 응답과 handler 쪽 오류(예: 스트리밍 중 클라이언트 연결 끊김)는 노드 상태에 반영하지 않음
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AiServerClient {
+
+    // 쉼표로 구분한 노드 목록. 지정하지 않으면 단일 ai.server.url 사용
+    @Value("${ai.server.urls:${ai.server.url:http://localhost:8000}}")
+    private List<String> aiServerUrls;
+
+    @Value("${ai.client.health-path:/health}")
+    private String healthPath;
+
+    @Value("${ai.client.health-check-interval-seconds:10}")
+    private long healthCheckIntervalSeconds;
+
+    @Value("${ai.client.unhealthy-after-failures:3}")
+    private int unhealthyAfterFailures;
+
+    @Value("${ai.client.search.hedge.enabled:false}")
+    private boolean searchHedgeEnabled;
+
+    @Value("${ai.client.search.hedge.min-delay-ms:50}")
+    private long searchHedgeMinDelayMs;
+
+    @Value("${ai.client.max-total:50}")
+    private int maxTotal;
+
+    @Value("${ai.client.max-per-route:20}")
+    private int maxPerRoute;
+
+    @Value("${ai.client.connect-timeout-ms:2000}")
+    private long connectTimeoutMs;
+
+    @Value("${ai.client.pool-acquire-timeout-ms:1000}")
+    private long poolAcquireTimeoutMs;
+
+    @Value("${ai.client.idle-evict-seconds:30}")
+    private long idleEvictSeconds;
+
+    @Value("${ai.client.search.read-timeout-ms:10000}")
+    private long searchReadTimeoutMs;
+
+    @Value("${ai.client.search.deadline-ms:15000}")
+    private long searchDeadlineMs;
+
+    @Value("${ai.client.report.read-timeout-ms:60000}")
+    private long reportReadTimeoutMs;
+
+    @Value("${ai.client.report.deadline-ms:120000}")
+    private long reportDeadlineMs;
+
+    @Value("${ai.client.search.slow-call-ms:5000}")
+    private long searchSlowCallMs;
+
+    @Value("${ai.client.report.slow-call-ms:60000}")
+    private long reportSlowCallMs;
+
+    @Value("${ai.client.search.max-concurrent:15}")
+    private int searchMaxConcurrent;
+
+    @Value("${ai.client.report.max-concurrent:5}")
+    private int reportMaxConcurrent;
+
+    @Value("${ai.client.bulkhead.max-wait-ms:100}")
+    private long bulkheadMaxWaitMs;
+
+    @Value("${ai.client.circuit.window-size:20}")
+    private int circuitWindowSize;
+
+    @Value("${ai.client.circuit.min-calls:10}")
+    private int circuitMinCalls;
+
+    @Value("${ai.client.circuit.failure-rate-threshold:0.5}")
+    private double circuitFailureRateThreshold;
+
+    @Value("${ai.client.circuit.open-duration-seconds:30}")
+    private long circuitOpenDurationSeconds;
+
+    @Value("${ai.client.circuit.half-open-calls:1}")
+    private int circuitHalfOpenCalls;
+
+    private final ObjectMapper objectMapper;
+
+    private PoolingHttpClientConnectionManager connectionManager;
+    private CloseableHttpClient httpClient;
+    private ScheduledExecutorService deadlineScheduler;
+    private ScheduledExecutorService healthScheduler;
+    private ExecutorService hedgeExecutor;
+    private AiNodeRouter router;
+    private RequestConfig healthRequestConfig;
+
+    private final Map<AiEndpoint, RequestConfig> requestConfigs = new EnumMap<>(AiEndpoint.class);
+    private final Map<AiEndpoint, Long> deadlines = new EnumMap<>(AiEndpoint.class);
+    private final Map<AiEndpoint, CircuitBreaker> circuitBreakers = new EnumMap<>(AiEndpoint.class);
+    private final Map<AiEndpoint, Semaphore> bulkheads = new EnumMap<>(AiEndpoint.class);
+    private final Map<AiEndpoint, AtomicLong> bulkheadRejected = new EnumMap<>(AiEndpoint.class);
+    private final Map<AiEndpoint, LatencyWindow> latencies = new EnumMap<>(AiEndpoint.class);
+
+    // 모니터링용 카운터
+    private final AtomicLong totalRequests = new AtomicLong();
+    private final AtomicLong failedRequests = new AtomicLong();
+    private final AtomicLong deadlineExceeded = new AtomicLong();
+    private final AtomicLong poolSaturated = new AtomicLong();
+    private final AtomicLong hedgedRequests = new AtomicLong();
+    private final AtomicLong hedgeWins = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxTotal)
+                .setMaxConnPerRoute(maxPerRoute)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(connectTimeoutMs))
+                        .setValidateAfterInactivity(TimeValue.ofSeconds(5))
+                        .setTimeToLive(TimeValue.ofMinutes(5))
+                        .build())
+                .build();
+
+        httpClient = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.ofSeconds(idleEvictSeconds))
+                .disableAutomaticRetries()
+                .build();
+
+        requestConfigs.put(AiEndpoint.SEARCH, buildRequestConfig(searchReadTimeoutMs));
+        requestConfigs.put(AiEndpoint.REPORT, buildRequestConfig(reportReadTimeoutMs));
+        deadlines.put(AiEndpoint.SEARCH, searchDeadlineMs);
+        deadlines.put(AiEndpoint.REPORT, reportDeadlineMs);
+        circuitBreakers.put(AiEndpoint.SEARCH, buildCircuitBreaker(AiEndpoint.SEARCH, searchSlowCallMs));
+        circuitBreakers.put(AiEndpoint.REPORT, buildCircuitBreaker(AiEndpoint.REPORT, reportSlowCallMs));
+        bulkheads.put(AiEndpoint.SEARCH, new Semaphore(searchMaxConcurrent));
+        bulkheads.put(AiEndpoint.REPORT, new Semaphore(reportMaxConcurrent));
+        for (AiEndpoint endpoint : AiEndpoint.values()) {
+            bulkheadRejected.put(endpoint, new AtomicLong());
+            latencies.put(endpoint, new LatencyWindow(256));
+        }
+
+        List<AiNode> nodes = new ArrayList<>();
+        for (String url : aiServerUrls) {
+            if (!url.isBlank()) {
+                nodes.add(new AiNode(stripTrailingSlash(url.trim()), unhealthyAfterFailures));
+            }
+        }
+        router = new AiNodeRouter(nodes);
+        healthRequestConfig = buildRequestConfig(connectTimeoutMs);
+
+        deadlineScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "ai-client-deadline");
+            t.setDaemon(true);
+            return t;
+        });
+
+        healthScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "ai-client-health");
+            t.setDaemon(true);
+            return t;
+        });
+        healthScheduler.scheduleWithFixedDelay(this::checkHealth,
+                healthCheckIntervalSeconds, healthCheckIntervalSeconds, TimeUnit.SECONDS);
+
+        AtomicInteger hedgeSeq = new AtomicInteger();
+        hedgeExecutor = Executors.newCachedThreadPool(r -> {
+            Thread t = new Thread(r, "ai-client-hedge-" + hedgeSeq.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+
+        log.info("AI 클라이언트 초기화: nodes={}, maxTotal={}, maxPerRoute={}, searchHedge={}",
+                nodes.stream().map(AiNode::getUrl).toList(), maxTotal, maxPerRoute, searchHedgeEnabled);
+    }
+
+    private String stripTrailingSlash(String url) {
+        return url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+    }
+
+    private RequestConfig buildRequestConfig(long readTimeoutMs) {
+        return RequestConfig.custom()
+                .setConnectionRequestTimeout(Timeout.ofMilliseconds(poolAcquireTimeoutMs))
+                .setResponseTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                .build();
+    }
+
+    private CircuitBreaker buildCircuitBreaker(AiEndpoint endpoint, long slowCallMs) {
+        return new CircuitBreaker(endpoint.name(), circuitWindowSize, circuitMinCalls, circuitFailureRateThreshold,
+                slowCallMs, circuitOpenDurationSeconds * 1000, circuitHalfOpenCalls);
+    }
+
+    /**
+     * AI 서버 응답 본문을 스트림으로 처리하는 콜백
+     */
+    @FunctionalInterface
+    public interface BodyHandler<T> {
+        T handle(InputStream body) throws IOException;
+    }
+
+    /**
+     * AI 서버에 JSON 을 POST 하고 응답 본문을 문자열로 반환
+     */
+    public String post(AiEndpoint endpoint, Object payload) {
+        return post(endpoint, payload, (String) null);
+    }
+
+    /**
+     * affinityKey(예: 정제된 기업명)가 같은 요청은 같은 AI 노드로 보냄
+     */
+    public String post(AiEndpoint endpoint, Object payload, String affinityKey) {
+        return post(endpoint, payload, affinityKey, body -> new String(body.readAllBytes(), StandardCharsets.UTF_8));
+    }
+
+    public <T> T post(AiEndpoint endpoint, Object payload, BodyHandler<T> handler) {
+        return post(endpoint, payload, null, handler);
+    }
+
+    /**
+     * AI 서버에 JSON 을 POST 하고 응답 본문을 버퍼링 없이 handler 에 스트림으로 전달
+     * <p>
+     * handler 는 2xx 응답일 때만 호출되며, 전체 제한 시간(deadline)은 본문을 다 읽을 때까지 적용된다.
+     * /search 에 hedge 가 켜져 있으면 handler 가 두 노드의 응답에 대해 동시에 호출될 수 있으므로
+     * 부수 효과가 없어야 한다 (진 쪽 결과는 버려짐).
+     */
+    public <T> T post(AiEndpoint endpoint, Object payload, String affinityKey, BodyHandler<T> handler) {
+        // 서킷이 열려 있으면 AI 서버를 호출하지 않고 즉시 거절
+        CircuitBreaker circuitBreaker = circuitBreakers.get(endpoint);
+        CircuitBreaker.Permit permit = circuitBreaker.acquirePermission();
+
+        // 엔드포인트별 동시 호출 한도 (느린 보고서 생성이 검색 트래픽을 막지 않도록 분리)
+        Semaphore bulkhead = bulkheads.get(endpoint);
+        if (!tryEnterBulkhead(bulkhead)) {
+            circuitBreaker.releasePermission(permit);
+            bulkheadRejected.get(endpoint).incrementAndGet();
+            throw new AIServerOverloadedException("AI 서버 동시 호출 한도 초과: " + endpoint.name(), 1);
+        }
+
+        long startedAt = System.currentTimeMillis();
+        try {
+            byte[] body = toJsonBytes(payload);
+            T result = shouldHedge(endpoint, affinityKey)
+                    ? executeHedged(endpoint, body, handler)
+                    : execute(endpoint, selectNode(affinityKey, null), body, handler, new Attempt());
+            circuitBreaker.onResult(permit, System.currentTimeMillis() - startedAt, false);
+            return result;
+        } catch (AiServerFaultException e) {
+            circuitBreaker.onResult(permit, System.currentTimeMillis() - startedAt, true);
+            throw e;
+        } catch (RuntimeException | Error e) {
+            // 4xx, 요청 직렬화 실패, handler(출력 측) 오류는 AI 서버 장애가 아니므로 집계하지 않음
+            circuitBreaker.releasePermission(permit);
+            throw e;
+        } finally {
+            bulkhead.release();
+        }
+    }
+
+    private boolean tryEnterBulkhead(Semaphore bulkhead) {
+        try {
+            return bulkhead.tryAcquire(bulkheadMaxWaitMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private AiNode selectNode(String affinityKey, AiNode exclude) {
+        AiNode node = exclude == null ? router.select(affinityKey) : router.selectOther(exclude);
+        if (node == null) {
+            throw new AiServerFaultException("사용 가능한 AI 서버 노드가 없습니다.");
+        }
+        return node;
+    }
+
+    private boolean shouldHedge(AiEndpoint endpoint, String affinityKey) {
+        return searchHedgeEnabled && endpoint == AiEndpoint.SEARCH && affinityKey == null
+                && router.getNodes().size() > 1;
+    }
+
+    /**
+     * 첫 노드에 요청하고, p95 응답 시간이 지나도 끝나지 않으면 다른 노드에 한 번 더 보내 먼저 온 응답 사용
+     */
+    private <T> T executeHedged(AiEndpoint endpoint, byte[] body, BodyHandler<T> handler) {
+        AiNode primaryNode = selectNode(null, null);
+        Attempt primaryAttempt = new Attempt();
+        CompletableFuture<T> primary = CompletableFuture.supplyAsync(
+                () -> execute(endpoint, primaryNode, body, handler, primaryAttempt), hedgeExecutor);
+
+        long hedgeDelayMs = latencies.get(endpoint).percentile(0.95, 20, deadlines.get(endpoint));
+        hedgeDelayMs = Math.max(hedgeDelayMs, searchHedgeMinDelayMs);
+        try {
+            return primary.get(hedgeDelayMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // 아래에서 hedge 요청
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            primaryAttempt.abandon();
+            throw new AIServerUnavailableException("AI 서버 요청 대기 중 인터럽트");
+        } catch (ExecutionException e) {
+            throw unwrap(e.getCause());
+        }
+
+        AiNode hedgeNode = router.selectOther(primaryNode);
+        if (hedgeNode == null) {
+            return join(primary);
+        }
+        hedgedRequests.incrementAndGet();
+        Attempt hedgeAttempt = new Attempt();
+        CompletableFuture<T> hedge = CompletableFuture.supplyAsync(
+                () -> execute(endpoint, hedgeNode, body, handler, hedgeAttempt), hedgeExecutor);
+
+        // 먼저 성공한 쪽을 사용하고, 둘 다 실패하면 나중에 실패한 쪽 예외 전달
+        CompletableFuture<T> winner = new CompletableFuture<>();
+        AtomicInteger failures = new AtomicInteger();
+        primary.whenComplete((result, ex) -> complete(winner, result, ex, failures));
+        hedge.whenComplete((result, ex) -> complete(winner, result, ex, failures));
+        try {
+            T result = join(winner);
+            if (hedge.isDone() && !hedge.isCompletedExceptionally() && hedge.getNow(null) == result) {
+                hedgeWins.incrementAndGet();
+            }
+            return result;
+        } finally {
+            // 아직 진행 중인 쪽(진 쪽) 요청 취소
+            primaryAttempt.abandon();
+            hedgeAttempt.abandon();
+        }
+    }
+
+    private <T> void complete(CompletableFuture<T> winner, T result, Throwable ex, AtomicInteger failures) {
+        if (ex == null) {
+            winner.complete(result);
+        } else if (failures.incrementAndGet() == 2) {
+            winner.completeExceptionally(ex);
+        }
+    }
+
+    private <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            throw unwrap(e.getCause());
+        }
+    }
+
+    private RuntimeException unwrap(Throwable cause) {
+        if (cause instanceof CompletionException && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        if (cause instanceof RuntimeException runtime) {
+            return runtime;
+        }
+        return new AIServerUnavailableException("AI 서버와 통신 중 오류 발생: " + cause.getMessage());
+    }
+
+    /**
+     * 요청 1회의 취소 핸들. hedge 에서 진 쪽은 abandon() 으로 취소하며 실패로 집계하지 않음
+     */
+    private static class Attempt {
+        private final AtomicBoolean abandoned = new AtomicBoolean(false);
+        private volatile HttpPost request;
+
+        void bind(HttpPost request) {
+            this.request = request;
+            if (abandoned.get()) {
+                request.cancel();
+            }
+        }
+
+        void abandon() {
+            abandoned.set(true);
+            HttpPost current = request;
+            if (current != null) {
+                current.cancel();
+            }
+        }
+
+        boolean isAbandoned() {
+            return abandoned.get();
+        }
+    }
+
+    /**
+     * 지정한 노드에 요청 1회 실행
+     */
+    private <T> T execute(AiEndpoint endpoint, AiNode node, byte[] body, BodyHandler<T> handler, Attempt attempt) {
+        totalRequests.incrementAndGet();
+        checkPoolSaturation();
+
+        HttpPost request = new HttpPost(node.getUrl() + endpoint.getPath());
+        request.setConfig(requestConfigs.get(endpoint));
+        request.setEntity(new ByteArrayEntity(body, ContentType.APPLICATION_JSON));
+
+        // 전체 제한 시간이 지나면 요청을 취소하여 스레드를 반환
+        AtomicBoolean expired = new AtomicBoolean(false);
+        ScheduledFuture<?> deadline = deadlineScheduler.schedule(() -> {
+            expired.set(true);
+            request.cancel();
+        }, deadlines.get(endpoint), TimeUnit.MILLISECONDS);
+        attempt.bind(request);
+
+        long startedAt = System.currentTimeMillis();
+        node.onStart();
+        try {
+            T result = httpClient.execute(request, response -> {
+                int code = response.getCode();
+                if (code >= 500) {
+                    EntityUtils.consume(response.getEntity());
+                    throw new AiServerFaultException("AI 서버 응답 코드 " + code);
+                }
+                if (code < 200 || code >= 300) {
+                    EntityUtils.consume(response.getEntity());
+                    throw new AIServerUnavailableException("AI 서버 응답 코드 " + code);
+                }
+                UpstreamInputStream upstream = new UpstreamInputStream(response.getEntity() == null
+                        ? InputStream.nullInputStream() : response.getEntity().getContent());
+                try (upstream) {
+                    return handler.handle(upstream);
+                } catch (IOException | RuntimeException e) {
+                    // AI 서버 본문을 읽다 실패했으면 통신 오류, 아니면 handler(출력 측) 오류
+                    if (upstream.failure != null) {
+                        throw upstream.failure;
+                    }
+                    throw new HandlerException(e);
+                }
+            });
+            long elapsed = System.currentTimeMillis() - startedAt;
+            node.onSuccess(elapsed);
+            latencies.get(endpoint).record(elapsed);
+            return result;
+        } catch (HandlerException e) {
+            node.onNeutral();
+            throw e.unwrap();
+        } catch (AiServerFaultException e) {
+            failedRequests.incrementAndGet();
+            node.onFailure();
+            throw e;
+        } catch (AIServerUnavailableException e) {
+            // 4xx 등 요청 자체의 문제는 노드 장애가 아님
+            node.onNeutral();
+            throw e;
+        } catch (IOException e) {
+            if (attempt.isAbandoned()) {
+                node.onAbandoned();
+                throw new AIServerUnavailableException("hedge 요청 취소: " + node.getUrl());
+            }
+            failedRequests.incrementAndGet();
+            node.onFailure();
+            if (expired.get()) {
+                deadlineExceeded.incrementAndGet();
+                throw new AiServerFaultException(
+                        "AI 서버 응답 제한 시간(" + deadlines.get(endpoint) + "ms) 초과: " + endpoint.getPath());
+            }
+            throw new AiServerFaultException("AI 서버와 통신 중 오류 발생: " + e.getMessage());
+        } catch (RuntimeException e) {
+            node.onNeutral();
+            throw e;
+        } finally {
+            deadline.cancel(false);
+        }
+    }
+
+    /**
+     * 같은 요청을 나중에 다시 보내면 성공할 수 있는 실패인지 (과부하로 거절, 연결/읽기 실패, 시간 초과, 5xx).
+     * 4xx, 요청 직렬화 실패, handler 오류처럼 다시 보내도 결과가 같은 실패는 false
+     */
+    public static boolean isRetryable(Throwable e) {
+        return e instanceof AIServerOverloadedException || e instanceof AiServerFaultException;
+    }
+
+    /**
+     * 연결/읽기 실패, 시간 초과, 5xx 처럼 AI 서버 쪽 장애로 집계하는 실패
+     */
+    static class AiServerFaultException extends AIServerUnavailableException {
+        AiServerFaultException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * AI 서버 응답은 정상이었지만 handler 에서 난 예외 (execute 에서 원래 예외로 되돌림)
+     */
+    private static class HandlerException extends RuntimeException {
+        HandlerException(Exception cause) {
+            super(cause);
+        }
+
+        RuntimeException unwrap() {
+            if (getCause() instanceof IOException io) {
+                return new UncheckedIOException(io);
+            }
+            return (RuntimeException) getCause();
+        }
+    }
+
+    /**
+     * AI 서버 응답 본문 스트림. 읽기 중 난 IOException 을 기록하여 handler 오류와 구분
+     */
+    private static class UpstreamInputStream extends FilterInputStream {
+        private IOException failure;
+
+        UpstreamInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            try {
+                return super.read();
+            } catch (IOException e) {
+                failure = e;
+                throw e;
+            }
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            try {
+                return super.read(b, off, len);
+            } catch (IOException e) {
+                failure = e;
+                throw e;
+            }
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            try {
+                return super.skip(n);
+            } catch (IOException e) {
+                failure = e;
+                throw e;
+            }
+        }
+
+        @Override
+        public int available() throws IOException {
+            try {
+                return super.available();
+            } catch (IOException e) {
+                failure = e;
+                throw e;
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                super.close();
+            } catch (IOException e) {
+                failure = e;
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * 각 노드에 GET health-path 요청. 연결 실패나 5xx 면 DOWN, 그 외 응답은 UP
+     */
+    private void checkHealth() {
+        for (AiNode node : router.getNodes()) {
+            HttpGet request = new HttpGet(node.getUrl() + healthPath);
+            request.setConfig(healthRequestConfig);
+            try {
+                int code = httpClient.execute(request, response -> {
+                    EntityUtils.consume(response.getEntity());
+                    return response.getCode();
+                });
+                node.markHealthy(code < 500);
+            } catch (Exception e) {
+                node.markHealthy(false);
+            }
+        }
+    }
+
+    private byte[] toJsonBytes(Object payload) {
+        try {
+            return objectMapper.writeValueAsBytes(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("AI 서버 요청 본문 직렬화 실패: " + e.getOriginalMessage());
+        }
+    }
+
+    private void checkPoolSaturation() {
+        PoolStats stats = connectionManager.getTotalStats();
+        if (stats.getLeased() >= stats.getMax()) {
+            poolSaturated.incrementAndGet();
+            log.warn("AI 클라이언트 커넥션 풀 포화: leased={}, pending={}, max={}",
+                    stats.getLeased(), stats.getPending(), stats.getMax());
+        }
+    }
+
+    /**
+     * 커넥션 풀 및 요청 통계
+     */
+    public Map<String, Object> getStats() {
+        PoolStats pool = connectionManager.getTotalStats();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("leased", pool.getLeased());
+        stats.put("available", pool.getAvailable());
+        stats.put("pending", pool.getPending());
+        stats.put("max", pool.getMax());
+        stats.put("totalRequests", totalRequests.get());
+        stats.put("failedRequests", failedRequests.get());
+        stats.put("deadlineExceeded", deadlineExceeded.get());
+        stats.put("poolSaturated", poolSaturated.get());
+        stats.put("hedgedRequests", hedgedRequests.get());
+        stats.put("hedgeWins", hedgeWins.get());
+        stats.put("searchP95Ms", latencies.get(AiEndpoint.SEARCH).percentile(0.95, 1, 0));
+        stats.put("nodes", router.getNodes().stream().map(AiNode::getStats).toList());
+        for (AiEndpoint endpoint : AiEndpoint.values()) {
+            Map<String, Object> endpointStats = new LinkedHashMap<>();
+            endpointStats.put("circuitBreaker", circuitBreakers.get(endpoint).getStats());
+            endpointStats.put("bulkheadAvailable", bulkheads.get(endpoint).availablePermits());
+            endpointStats.put("bulkheadRejected", bulkheadRejected.get(endpoint).get());
+            stats.put(endpoint.name().toLowerCase(), endpointStats);
+        }
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() throws IOException {
+        deadlineScheduler.shutdownNow();
+        healthScheduler.shutdownNow();
+        hedgeExecutor.shutdownNow();
+        httpClient.close();
+    }
+}
@@ -0,0 +1,180 @@
+package com.example.finalproject.domain.query.client;
+
+import com.example.finalproject.exception.error.AIServerOverloadedException;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 최근 호출 결과를 기준으로 AI 서버 호출을 차단하는 서킷 브레이커입니다.
+ *
+ * <p>상태 전이:
+ * <ul>
+ *   <li>CLOSED: 정상 호출. 최근 windowSize 건 중 실패(오류 또는 느린 호출) 비율이 임계치를 넘으면 OPEN</li>
+ *   <li>OPEN: 호출 없이 즉시 거절. openDurationMs 가 지나면 HALF_OPEN</li>
+ *   <li>HALF_OPEN: halfOpenCalls 건만 시험 호출 허용. 모두 성공하면 CLOSED, 하나라도 실패하면 다시 OPEN</li>
+ * </ul>
+ *
+ * <p>호출 측은 acquirePermission() → 호출 → onResult(permit, ...) 순서로 사용하고,
+ * 호출을 시도하지 못했거나 결과를 집계하지 않을 호출이면 onResult() 대신 releasePermission(permit) 을 호출해야 합니다.
+ *
+ * <p>permit 에는 발급 당시의 상태 세대(generation)가 담겨 있어, 상태가 바뀐 뒤에 끝난 이전 세대의 호출 결과는 무시합니다.
+ * 따라서 HALF_OPEN 전이는 그 세대에 허용된 시험 호출의 결과로만 결정됩니다.
+ */
+@Slf4j
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    /**
+     * 호출 허용 증표. generation 은 발급 시점의 상태 세대, probe 는 HALF_OPEN 시험 호출 여부
+     */
+    public record Permit(long generation, boolean probe) {
+    }
+
+    private final String name;
+    private final int windowSize;
+    private final int minCalls;
+    private final double failureRateThreshold;
+    private final long slowCallMs;
+    private final long openDurationMs;
+    private final int halfOpenCalls;
+
+    // 최근 호출 결과 (true = 실패 또는 느린 호출)
+    private final boolean[] window;
+    private int windowIndex;
+    private int windowCount;
+    private int badCount;
+
+    private State state = State.CLOSED;
+    // 상태가 바뀔 때마다 증가
+    private long generation;
+    private long openedAt;
+    private int halfOpenInFlight;
+    private int halfOpenSucceeded;
+
+    private long rejectedCalls;
+    private long openedCount;
+
+    public CircuitBreaker(String name, int windowSize, int minCalls, double failureRateThreshold,
+                          long slowCallMs, long openDurationMs, int halfOpenCalls) {
+        this.name = name;
+        this.windowSize = windowSize;
+        this.minCalls = minCalls;
+        this.failureRateThreshold = failureRateThreshold;
+        this.slowCallMs = slowCallMs;
+        this.openDurationMs = openDurationMs;
+        this.halfOpenCalls = halfOpenCalls;
+        this.window = new boolean[windowSize];
+    }
+
+    /**
+     * 호출 허용 여부 확인. 허용되지 않으면 AIServerOverloadedException 발생
+     */
+    public synchronized Permit acquirePermission() {
+        long now = System.currentTimeMillis();
+        if (state == State.OPEN) {
+            long remaining = openedAt + openDurationMs - now;
+            if (remaining > 0) {
+                rejectedCalls++;
+                throw new AIServerOverloadedException(
+                        "AI 서버 서킷 브레이커 열림(" + name + ")", toRetryAfterSeconds(remaining));
+            }
+            transitionTo(State.HALF_OPEN);
+        }
+        if (state == State.HALF_OPEN) {
+            if (halfOpenInFlight >= halfOpenCalls) {
+                rejectedCalls++;
+                throw new AIServerOverloadedException(
+                        "AI 서버 복구 확인 중(" + name + ")", toRetryAfterSeconds(openDurationMs));
+            }
+            halfOpenInFlight++;
+            return new Permit(generation, true);
+        }
+        return new Permit(generation, false);
+    }
+
+    /**
+     * 허용받았지만 실제로 호출하지 못했거나 결과를 집계하지 않는 경우 (예: bulkhead 초과, 4xx 응답) 허용 반납
+     */
+    public synchronized void releasePermission(Permit permit) {
+        if (permit.generation() == generation && permit.probe() && halfOpenInFlight > 0) {
+            halfOpenInFlight--;
+        }
+    }
+
+    /**
+     * 호출 결과 기록. 발급 이후 상태가 바뀌었으면 (이전 세대의 호출) 무시
+     */
+    public synchronized void onResult(Permit permit, long elapsedMs, boolean error) {
+        if (permit.generation() != generation) {
+            return;
+        }
+        boolean bad = error || elapsedMs >= slowCallMs;
+
+        if (state == State.HALF_OPEN) {
+            halfOpenInFlight = Math.max(0, halfOpenInFlight - 1);
+            if (bad) {
+                transitionTo(State.OPEN);
+            } else if (++halfOpenSucceeded >= halfOpenCalls) {
+                transitionTo(State.CLOSED);
+            }
+            return;
+        }
+
+        if (windowCount == windowSize) {
+            if (window[windowIndex]) {
+                badCount--;
+            }
+        } else {
+            windowCount++;
+        }
+        window[windowIndex] = bad;
+        if (bad) {
+            badCount++;
+        }
+        windowIndex = (windowIndex + 1) % windowSize;
+
+        if (windowCount >= minCalls && getFailureRate() >= failureRateThreshold) {
+            transitionTo(State.OPEN);
+        }
+    }
+
+    private void transitionTo(State next) {
+        log.warn("AI 서킷 브레이커 상태 변경({}): {} -> {} (실패율 {})", name, state, next, getFailureRate());
+        state = next;
+        generation++;
+        halfOpenInFlight = 0;
+        halfOpenSucceeded = 0;
+        if (next == State.OPEN) {
+            openedAt = System.currentTimeMillis();
+            openedCount++;
+        }
+        if (next == State.CLOSED) {
+            windowIndex = 0;
+            windowCount = 0;
+            badCount = 0;
+        }
+    }
+
+    private double getFailureRate() {
+        return windowCount == 0 ? 0.0 : (double) badCount / windowCount;
+    }
+
+    private long toRetryAfterSeconds(long millis) {
+        return Math.max(1, (millis + 999) / 1000);
+    }
+
+    public synchronized Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("state", state);
+        stats.put("failureRate", getFailureRate());
+        stats.put("recordedCalls", windowCount);
+        stats.put("rejectedCalls", rejectedCalls);
+        stats.put("openedCount", openedCount);
+        return stats;
+    }
+}
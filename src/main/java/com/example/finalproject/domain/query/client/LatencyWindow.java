@@ -0,0 +1,39 @@
+package com.example.finalproject.domain.query.client;
+
+import java.util.Arrays;
+
+/**
+ * 최근 응답 시간 샘플을 고정 크기로 보관하고 백분위 값을 계산합니다.
+ * hedged request 의 대기 시간(p95)을 정하는 데 사용합니다.
+ */
+public class LatencyWindow {
+
+    private final long[] samples;
+    private int index;
+    private int count;
+
+    public LatencyWindow(int size) {
+        this.samples = new long[size];
+    }
+
+    public synchronized void record(long elapsedMs) {
+        samples[index] = elapsedMs;
+        index = (index + 1) % samples.length;
+        if (count < samples.length) {
+            count++;
+        }
+    }
+
+    /**
+     * 백분위 값 (샘플이 minSamples 보다 적으면 fallback 반환)
+     */
+    public synchronized long percentile(double p, int minSamples, long fallback) {
+        if (count < minSamples) {
+            return fallback;
+        }
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+        int rank = (int) Math.ceil(p * count) - 1;
+        return sorted[Math.max(0, Math.min(rank, count - 1))];
+    }
+}
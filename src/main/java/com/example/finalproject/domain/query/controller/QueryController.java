@@ -1,20 +1,39 @@
 package com.example.finalproject.domain.query.controller;
 
+import com.example.finalproject.domain.query.client.AiEndpoint;
+import com.example.finalproject.domain.query.client.AiServerClient;
+import com.example.finalproject.domain.query.dto.ReportJobResponseDTO;
+import com.example.finalproject.domain.query.entity.ReportJobEntity;
+import com.example.finalproject.domain.query.service.ReportBatchService;
+import com.example.finalproject.domain.query.service.ReportGenerationService;
+import com.example.finalproject.domain.query.service.ReportJobService;
+import com.example.finalproject.domain.query.service.SearchResultCache;
+import com.example.finalproject.domain.report.controller.ReportResponseWriter;
 import com.example.finalproject.domain.report.entity.ReportEntity;
+import com.example.finalproject.domain.report.service.ReportBytesCache.CachedReport;
 import com.example.finalproject.domain.report.service.ReportService;
-import com.example.finalproject.exception.error.AIServerUnavailableException;
+import com.example.finalproject.domain.report.service.ReportService.SavedReport;
+import com.example.finalproject.domain.report.service.ReportStore;
+import com.example.finalproject.domain.report.service.ReportStore.StoredReportRef;
+import com.example.finalproject.exception.ApiResponse;
+import com.example.finalproject.exception.error.AIServerOverloadedException;
 import com.example.finalproject.exception.error.FinancialDataParseException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.*;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
-import org.springframework.web.client.RestTemplate;
 
 import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
@@ -27,15 +46,22 @@ import java.util.Optional;
  * 주요 기능:
  * - POST /api/query/ask: 사용자의 자연어 질의를 AI 서버로 전달하고, 응답을 반환
  * - POST /api/query/financial: 사용자가 직접 입력한 재무제표 데이터를 AI 서버로 전달하고, 분석 결과를 반환
+ * - POST /api/query/financial/stream: /financial 과 같지만 AI 응답을 버퍼링 없이 클라이언트와 저장소로 동시에 흘려보냄
+ * - POST /api/query/financial/batch: 여러 기업의 보고서를 한 번에 요청, 완료되는 순서대로 NDJSON 으로 응답
+ * - POST /api/query/jobs: /financial 과 같은 요청을 비동기 작업으로 등록하고 작업 ID 를 즉시 반환
+ * - GET /api/query/jobs/{id}: 작업 상태와 완료 시 보고서 URL 조회
+ * - 캐시 무효화와 통계 API 는 AdminController (/api/admin/query/**) 로 분리
  * <p>
  * 내부 구현:
  * - 두 API 모두 JSON 형식의 데이터를 받으며, 각각 "query" 또는 "financialData" 필드를 사용
- * - RestTemplate을 이용하여 외부 AI 서버와 통신
+ * - AiServerClient(커넥션 풀 + 엔드포인트별 타임아웃)를 이용하여 외부 AI 서버와 통신
  * - 공통 전송 로직은 sendToAiServer() 메서드로 분리하여 중복 제거
  * <p>
  * 예외 처리:
  * - AI 서버가 응답하지 않거나 연결 실패 시 AIServerUnavailableException 발생
+ * - 서킷 브레이커가 열려 있거나 동시 호출 한도를 넘으면 AIServerOverloadedException 발생 (503 + Retry-After)
  * - 재무데이터가 없거나 형식이 잘못되었을 경우 FinancialDataParseException 발생
+ * - 사용자별 속도/대기열 한도 초과 시 TooManyRequestsException 발생 (429 + Retry-After, AdmissionControlInterceptor)
  * - 기타 예외는 GlobalExceptionHandler 를 통해 처리
  * <p>
  * 보안:
@@ -54,25 +80,20 @@ import java.util.Optional;
 @Slf4j
 public class QueryController {
 
-    @Value("${ai.server.url:http://localhost:8000}")
-    private String aiServerUrl;
-
-    private final RestTemplate restTemplate;
+    private final AiServerClient aiServerClient;
     private final ReportService reportService;
+    private final ReportStore reportStore;
+    private final SearchResultCache searchResultCache;
+    private final ReportGenerationService reportGenerationService;
+    private final ReportJobService reportJobService;
+    private final ReportBatchService reportBatchService;
+    private final ObjectMapper objectMapper;
 
     /**
      * 공통적으로 AI 서버에 요청을 보내는 메서드
      */
-    private ResponseEntity<String> sendToAiServer(Object payload, String endpoint) {
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_JSON);
-        HttpEntity<Object> requestEntity = new HttpEntity<>(payload, headers);
-
-        try {
-            return restTemplate.postForEntity(aiServerUrl + endpoint, requestEntity, String.class);
-        } catch (Exception e) {
-            throw new AIServerUnavailableException("AI 서버와 통신 중 오류 발생: " + e.getMessage());
-        }
+    private String sendToAiServer(Object payload, AiEndpoint endpoint) {
+        return aiServerClient.post(endpoint, payload);
     }
 
     /**
@@ -87,29 +108,24 @@ public class QueryController {
         }
         log.info("VectorDB(AI 서버)로 전송할 질의: " + payload.get("prompt"));
 
-        ResponseEntity<String> response = sendToAiServer(payload, "/api/ai/v1/financial-data/search");
+        // 같은 질의 + 파라미터는 TTL 동안 캐시된 응답 사용
+        String response = searchResultCache.getOrLoad(payload, () -> sendToAiServer(payload, AiEndpoint.SEARCH));
 
-        log.info("AI 서버로부터 응답: " + response.getBody());
+        log.info("AI 서버로부터 응답 수신: {} chars", response != null ? response.length() : 0);
+        log.debug("AI 서버 응답 본문: {}", response);
 
-        return ResponseEntity.ok(response.getBody());
-    }
-
-    /**
-     * AI 서버에 요청해서 보고서 저장 및 JSON 반환
-     */
-    private Map<String, Object> fetchAndSaveReportFromAi(Map<String, Object> payload, String companyName) throws IOException {
-        ResponseEntity<String> response = sendToAiServer(payload, "/api/ai/v1/report/generate-from-financial-data");
-        String savedUrl = reportService.saveReportFromJsonString(response.getBody());
-        com.fasterxml.jackson.databind.ObjectMapper objectMapper = new com.fasterxml.jackson.databind.ObjectMapper();
-        return objectMapper.readValue(response.getBody(), Map.class);
+        return ResponseEntity.ok(response);
     }
 
     /**
      * 2. 재무제표 직접 입력 처리
      * 실제 AI 서버에 POST 요청을 보냄
+     * <p>
+     * 응답에는 보고서 내용 해시(ETag)와 생성 시각(Last-Modified)을 붙이며, 같은 수치로 다시 요청할 때
+     * If-None-Match 가 현재 보고서의 ETag 와 같으면 본문 없이 304 를 반환한다.
      */
     @PostMapping("/financial")
-    public ResponseEntity<?> forwardFinancialData(@RequestBody Map<String, Object> payload) {
+    public ResponseEntity<?> forwardFinancialData(@RequestBody Map<String, Object> payload, HttpServletRequest request) {
         if (!payload.containsKey("financial_data")) {
             throw new FinancialDataParseException("financial_data가 누락되었거나 형식이 올바르지 않습니다.");
         }
@@ -119,43 +135,145 @@ public class QueryController {
             return ResponseEntity.badRequest().body("company_name 또는 financial_data.corp_name이 필요합니다.");
         }
 
-        try {
-            Optional<ReportEntity> optional = reportService.findReportByCorpName(companyName);
-            String safeCorpName = reportService.sanitizeDirectoryName(companyName);
-
-            if (optional.isPresent()) {
-                try {
-                    Map<String, Object> reportJson = reportService.readReportFromFile(safeCorpName);
-                    return ResponseEntity.ok(reportJson);
-                } catch (java.io.FileNotFoundException fileNotFound) {
-                    log.warn("DB에는 있지만 JSON 파일이 없어 AI 서버에 재요청: {}", companyName);
-                    Map<String, Object> reportJson = fetchAndSaveReportFromAi(payload, companyName);
-                    return ResponseEntity.ok(reportJson);
-                }
+        // 클라이언트가 가진 보고서(If-None-Match)가 같은 수치로 만든 현재 보고서면 파일을 읽지 않고 304
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null) {
+            Optional<ReportEntity> stored = reportGenerationService.findStoredReportEntity(payload);
+            if (stored.isPresent() && ReportResponseWriter.matchesIfNoneMatch(request, stored.get().getContentHash())) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                        .headers(ReportResponseWriter.validatorHeaders(stored.get().getContentHash(), stored.get().getDateCreated()))
+                        .build();
             }
+        }
 
-            // DB에도 없으면 AI 서버 호출 후 저장
-            Map<String, Object> reportJson = fetchAndSaveReportFromAi(payload, companyName);
-            return ResponseEntity.ok(reportJson);
+        try {
+            // 저장된 보고서가 있으면 그대로, 없으면 AI 서버 호출 후 저장 (같은 기업 동시 요청은 1회로 합침)
+            // 보고서 JSON 바이트를 다시 파싱/직렬화하지 않고 그대로 응답
+            SavedReport report = reportGenerationService.getOrGenerate(payload, companyName);
+            return ResponseEntity.ok()
+                    .headers(ReportResponseWriter.validatorHeaders(report.contentHash(), report.dateCreated()))
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(report.json());
 
         } catch (IOException e) {
             log.error("파일 처리 중 오류", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("보고서 파일 오류");
+        } catch (AIServerOverloadedException e) {
+            // 503 + Retry-After 는 GlobalExceptionHandler 에서 응답
+            throw e;
         } catch (Exception e) {
             log.error("AI 호출 또는 저장 실패", e);
             return ResponseEntity.internalServerError().body("보고서 생성 오류");
         }
     }
 
-    private String extractCompanyName(Map<String, Object> payload) {
-        String name = (String) payload.getOrDefault("company_name", null);
-        if (name != null && !name.isBlank()) return name;
+    /**
+     * 3. 재무제표 직접 입력 처리 (스트리밍 모드)
+     * <p>
+     * 저장된 보고서가 있으면 파일을 그대로 흘려보내고, 없으면 AI 서버 응답 바이트를
+     * 클라이언트와 보고서 저장소에 동시에 기록한다. 보고서 크기와 무관하게 요청당 메모리는 버퍼 크기로 제한된다.
+     * <p>
+     * 응답이 스트림으로 나가므로 동시 요청 합치기(single-flight)는 적용하지 않는다.
+     */
+    @PostMapping("/financial/stream")
+    public void streamFinancialData(@RequestBody Map<String, Object> payload, HttpServletRequest request,
+                                    HttpServletResponse response) throws IOException {
+        if (!payload.containsKey("financial_data")) {
+            throw new FinancialDataParseException("financial_data가 누락되었거나 형식이 올바르지 않습니다.");
+        }
+        String companyName = extractCompanyName(payload);
+        if (companyName == null || companyName.isBlank()) {
+            throw new FinancialDataParseException("company_name 또는 financial_data.corp_name이 필요합니다.");
+        }
+        String safeCorpName = reportService.sanitizeDirectoryName(companyName);
 
-        Map<String, Object> financialData = (Map<String, Object>) payload.get("financial_data");
-        return (String) financialData.getOrDefault("corp_name", null);
+        // 같은 수치로 만든 보고서가 있으면 캐시 또는 파일에서 그대로 전송
+        Optional<ReportEntity> stored = reportGenerationService.findStoredReportEntity(payload);
+        if (stored.isPresent()) {
+            Optional<StoredReportRef> ref = reportService.findStoredReport(stored.get());
+            if (ref.isPresent()) {
+                Optional<CachedReport> cached = reportService.findCachedReport(ref.get().key())
+                        .filter(report -> report.version() == ref.get().version());
+                if (cached.isPresent()) {
+                    ReportResponseWriter.write(request, response, cached.get().gzip());
+                } else {
+                    ReportResponseWriter.write(request, response, reportStore, ref.get());
+                }
+                return;
+            }
+            log.warn("DB에는 있지만 저장소에 보고서가 없어 AI 서버에 재요청: {}", companyName);
+        }
+
+        log.info("AI 서버 보고서 스트리밍 시작: {}", companyName);
+        String dataFingerprint = reportGenerationService.fingerprint(payload);
+        String reportUrl = aiServerClient.post(AiEndpoint.REPORT, payload, safeCorpName, body -> {
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            OutputStream out = response.getOutputStream();
+            return reportService.saveReportFromStream(body, out, companyName, dataFingerprint);
+        });
+        log.info("AI 서버 보고서 스트리밍 완료: {}", reportUrl);
     }
 
+    /**
+     * 4. 여러 기업의 재무제표를 한 번에 처리 (배치)
+     * <p>
+     * 요청 본문은 /financial 요청 본문의 배열이다. 저장된 보고서는 바로, 나머지는 동시 생성 수를 제한하여
+     * AI 서버로 생성하며, 기업별 결과를 완료되는 순서대로 한 줄씩(NDJSON) 흘려보낸다.
+     * 각 줄에는 요청 배열의 위치(index), status(ok/error), cached 여부와 report 또는 error 가 담긴다.
+     */
+    @PostMapping(value = "/financial/batch", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void batchFinancialData(@RequestBody List<Map<String, Object>> payloads, HttpServletResponse response) throws IOException {
+        if (payloads.isEmpty()) {
+            throw new FinancialDataParseException("배치 요청이 비어 있습니다.");
+        }
+        if (payloads.size() > reportBatchService.getMaxItems()) {
+            throw new FinancialDataParseException("배치 요청은 최대 " + reportBatchService.getMaxItems() + "건까지 가능합니다.");
+        }
+        log.info("배치 보고서 요청: {}건", payloads.size());
 
-}
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        OutputStream out = response.getOutputStream();
+        reportBatchService.execute(payloads, result -> {
+            out.write(objectMapper.writeValueAsBytes(result));
+            out.write('\n');
+            out.flush();
+        });
+    }
+
+    /**
+     * 5. 재무제표 보고서 생성을 비동기 작업으로 등록
+     * <p>
+     * 작업은 DB 에 저장되어 재시작 후에도 이어서 실행되며, 실패 시 backoff 후 재시도된다.
+     * 결과는 GET /api/query/jobs/{id} 로 조회한다.
+     */
+    @PostMapping("/jobs")
+    public ResponseEntity<ApiResponse<ReportJobResponseDTO>> submitReportJob(@RequestBody Map<String, Object> payload) {
+        if (!payload.containsKey("financial_data")) {
+            throw new FinancialDataParseException("financial_data가 누락되었거나 형식이 올바르지 않습니다.");
+        }
+        String companyName = extractCompanyName(payload);
+        if (companyName == null || companyName.isBlank()) {
+            throw new FinancialDataParseException("company_name 또는 financial_data.corp_name이 필요합니다.");
+        }
+
+        ReportJobEntity job = reportJobService.submit(payload, companyName);
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .header(HttpHeaders.LOCATION, "/api/query/jobs/" + job.getId())
+                .body(ApiResponse.success(ReportJobResponseDTO.of(job)));
+    }
 
+    /**
+     * 보고서 생성 작업 상태 조회 (완료 시 reportUrl 포함)
+     */
+    @GetMapping("/jobs/{id}")
+    public ResponseEntity<ApiResponse<ReportJobResponseDTO>> getReportJob(@PathVariable Long id) {
+        return reportJobService.findJob(id)
+                .map(job -> ResponseEntity.ok(ApiResponse.success(ReportJobResponseDTO.of(job))))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(ApiResponse.error("작업을 찾을 수 없습니다: " + id)));
+    }
 
+    private String extractCompanyName(Map<String, Object> payload) {
+        return reportGenerationService.extractCompanyName(payload);
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.finalproject.domain.query.dto;
+
+import com.example.finalproject.domain.query.entity.ReportJobEntity;
+import com.example.finalproject.domain.query.entity.ReportJobStatus;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+public class ReportJobResponseDTO {
+    private Long jobId;
+    private String companyName;
+    private ReportJobStatus status;
+    private int attempts;
+    private String reportUrl;
+    private String error;
+    private LocalDateTime nextAttemptAt;
+    private LocalDateTime dateCreated;
+    private LocalDateTime dateUpdated;
+
+    public static ReportJobResponseDTO of(ReportJobEntity job) {
+        return ReportJobResponseDTO.builder()
+                .jobId(job.getId())
+                .companyName(job.getCompanyName())
+                .status(job.getStatus())
+                .attempts(job.getAttempts())
+                .reportUrl(job.getReportUrl())
+                .error(job.getLastError())
+                .nextAttemptAt(job.getNextAttemptAt())
+                .dateCreated(job.getDateCreated())
+                .dateUpdated(job.getDateUpdated())
+                .build();
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.finalproject.domain.query.entity;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 비동기 보고서 생성 작업을 나타내는 엔티티 클래스입니다.
+ * 데이터베이스의 REPORT_JOB 테이블과 매핑됩니다.
+ *
+ * <p>작업을 테이블에 저장하므로 서버가 재시작되어도 대기/진행 중이던 작업이 다시 실행됩니다.
+ *
+ * <p>주요 필드:
+ * <ul>
+ *   <li>payload: AI 서버에 보낼 요청 본문(JSON)</li>
+ *   <li>status: 작업 상태 (ReportJobStatus)</li>
+ *   <li>attempts: 지금까지 실행한 횟수</li>
+ *   <li>nextAttemptAt: 다음 실행 가능 시각 (재시도 backoff)</li>
+ *   <li>reportUrl: 완료 시 보고서 다운로드 URL</li>
+ * </ul>
+ */
+@Entity
+@Table(name = "REPORT_JOB", indexes = @Index(name = "IDX_REPORT_JOB_STATUS_NEXT", columnList = "status, nextAttemptAt"))
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@AllArgsConstructor
+@Builder
+public class ReportJobEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "REPORT_JOB_PK")
+    private Long id;
+
+    @Column(nullable = false)
+    private String companyName;
+
+    @Lob
+    @Column(nullable = false, columnDefinition = "LONGTEXT")
+    private String payload;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private ReportJobStatus status;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    private String reportUrl;
+
+    @Column(length = 1000)
+    private String lastError;
+
+    @Column(nullable = false)
+    private LocalDateTime dateCreated;
+
+    @Column(nullable = false)
+    private LocalDateTime dateUpdated;
+
+    public void complete(String reportUrl) {
+        this.status = ReportJobStatus.DONE;
+        this.reportUrl = reportUrl;
+        this.lastError = null;
+        this.dateUpdated = LocalDateTime.now();
+    }
+
+    /**
+     * 실패 기록. 재시도할 수 있으면 nextAttemptAt 이후 다시 대기, 아니면 FAILED
+     */
+    public void fail(String error, LocalDateTime nextAttemptAt, boolean retry) {
+        this.status = retry ? ReportJobStatus.QUEUED : ReportJobStatus.FAILED;
+        this.nextAttemptAt = nextAttemptAt;
+        this.lastError = error != null && error.length() > 1000 ? error.substring(0, 1000) : error;
+        this.dateUpdated = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.finalproject.domain.query.entity;
+
+/**
+ * 보고서 생성 작업 상태
+ * <ul>
+ *   <li>QUEUED: 대기 중 (재시도 대기 포함, nextAttemptAt 이후 실행)</li>
+ *   <li>IN_PROGRESS: 워커가 실행 중</li>
+ *   <li>DONE: 보고서 저장 완료</li>
+ *   <li>FAILED: 최대 재시도 횟수 초과</li>
+ * </ul>
+ */
+public enum ReportJobStatus {
+    QUEUED, IN_PROGRESS, DONE, FAILED
+}
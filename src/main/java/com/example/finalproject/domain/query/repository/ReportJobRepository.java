@@ -0,0 +1,39 @@
+package com.example.finalproject.domain.query.repository;
+
+import com.example.finalproject.domain.query.entity.ReportJobEntity;
+import com.example.finalproject.domain.query.entity.ReportJobStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface ReportJobRepository extends JpaRepository<ReportJobEntity, Long> {
+
+    List<ReportJobEntity> findByStatusAndNextAttemptAtLessThanEqualOrderByIdAsc(
+            ReportJobStatus status, LocalDateTime now, Pageable pageable);
+
+    /**
+     * QUEUED 상태인 작업만 IN_PROGRESS 로 바꾸고 시도 횟수 증가 (다른 워커가 먼저 가져갔으면 0 반환)
+     */
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("update ReportJobEntity j set j.status = com.example.finalproject.domain.query.entity.ReportJobStatus.IN_PROGRESS,"
+            + " j.attempts = j.attempts + 1, j.dateUpdated = :now"
+            + " where j.id = :id and j.status = com.example.finalproject.domain.query.entity.ReportJobStatus.QUEUED")
+    int claim(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    /**
+     * 재시작 시 이전 프로세스에서 실행 중이던 작업을 다시 대기 상태로 되돌림
+     */
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("update ReportJobEntity j set j.status = com.example.finalproject.domain.query.entity.ReportJobStatus.QUEUED,"
+            + " j.nextAttemptAt = :now, j.dateUpdated = :now"
+            + " where j.status = com.example.finalproject.domain.query.entity.ReportJobStatus.IN_PROGRESS")
+    int requeueInProgress(@Param("now") LocalDateTime now);
+}
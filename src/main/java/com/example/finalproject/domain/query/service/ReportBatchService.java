@@ -0,0 +1,225 @@
+package com.example.finalproject.domain.query.service;
+
+import com.example.finalproject.domain.report.service.ReportService.SavedReport;
+import com.example.finalproject.exception.error.AIServerOverloadedException;
+import com.fasterxml.jackson.databind.util.RawValue;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 여러 기업의 보고서를 한 번에 조회/생성하는 배치 서비스입니다.
+ *
+ * <p>동작 방식:
+ * <ol>
+ *   <li>저장된 보고서가 있는 기업은 즉시 결과 전달</li>
+ *   <li>나머지만 AI 서버로 생성하되, 배치당 동시 생성 수를 max-concurrency 로 제한</li>
+ *   <li>생성이 끝나는 순서대로 결과 전달 (요청 순서와 다를 수 있으므로 index 포함)</li>
+ * </ol>
+ *
+ * <p>결과 전달(sink)은 항상 호출한 스레드에서 이루어지므로 sink 는 스레드 안전할 필요가 없습니다.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ReportBatchService {
+
+    @Value("${query.report-batch.workers:8}")
+    private int workers;
+
+    @Value("${query.report-batch.max-concurrency:4}")
+    private int maxConcurrency;
+
+    @Value("${query.report-batch.max-items:100}")
+    private int maxItems;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    private final ReportGenerationService reportGenerationService;
+
+    private ExecutorService workerPool;
+
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong cacheHits = new AtomicLong();
+    private final AtomicLong generated = new AtomicLong();
+    private final AtomicLong errors = new AtomicLong();
+
+    /**
+     * 배치 결과 한 건을 받는 콜백
+     */
+    @FunctionalInterface
+    public interface ResultSink {
+        void accept(Map<String, Object> result) throws IOException;
+    }
+
+    @PostConstruct
+    public void init() {
+        if (virtualThreads) {
+            // 가상 스레드 모드: 작업마다 가상 스레드 (동시 생성 수는 배치별 max-concurrency 로 제한)
+            workerPool = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("report-batch-worker-", 1).factory());
+        } else {
+            AtomicInteger workerSeq = new AtomicInteger();
+            workerPool = Executors.newFixedThreadPool(workers, r -> {
+                Thread t = new Thread(r, "report-batch-worker-" + workerSeq.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            });
+        }
+    }
+
+    public int getMaxItems() {
+        return maxItems;
+    }
+
+    /**
+     * 배치 실행. 결과는 완료되는 순서대로 sink 에 전달된다.
+     * sink 에서 IOException 이 나면 (예: 클라이언트 연결 끊김) 남은 생성 작업을 취소하고 예외를 전파한다.
+     */
+    public void execute(List<Map<String, Object>> payloads, ResultSink sink) throws IOException {
+        batches.incrementAndGet();
+
+        // 1. 저장된 보고서는 바로 전달하고, 생성이 필요한 항목만 모음
+        Deque<Integer> misses = new ArrayDeque<>();
+        for (int i = 0; i < payloads.size(); i++) {
+            Map<String, Object> payload = payloads.get(i);
+            String companyName = resolveCompanyName(payload);
+            if (companyName == null) {
+                errors.incrementAndGet();
+                sink.accept(errorResult(i, null, "company_name 또는 financial_data.corp_name이 필요합니다."));
+                continue;
+            }
+            try {
+                Optional<SavedReport> stored = reportGenerationService.findStoredReport(payload);
+                if (stored.isPresent()) {
+                    cacheHits.incrementAndGet();
+                    sink.accept(successResult(i, companyName, true, stored.get().json()));
+                    continue;
+                }
+            } catch (IOException e) {
+                log.warn("저장된 보고서 읽기 실패, 재생성: {}", companyName, e);
+            }
+            misses.add(i);
+        }
+
+        // 2. 생성이 필요한 항목은 동시 max-concurrency 건까지만 실행
+        ExecutorCompletionService<Map<String, Object>> completion = new ExecutorCompletionService<>(workerPool);
+        List<Future<Map<String, Object>>> futures = new ArrayList<>();
+        int inFlight = 0;
+        try {
+            while (!misses.isEmpty() || inFlight > 0) {
+                while (inFlight < maxConcurrency && !misses.isEmpty()) {
+                    int index = misses.poll();
+                    futures.add(completion.submit(() -> generate(index, payloads.get(index))));
+                    inFlight++;
+                }
+                Map<String, Object> result = takeResult(completion);
+                inFlight--;
+                sink.accept(result);
+            }
+        } finally {
+            for (Future<Map<String, Object>> future : futures) {
+                future.cancel(true);
+            }
+        }
+    }
+
+    private Map<String, Object> generate(int index, Map<String, Object> payload) {
+        String companyName = resolveCompanyName(payload);
+        try {
+            byte[] report = reportGenerationService.generateOnce(payload, companyName).json();
+            generated.incrementAndGet();
+            return successResult(index, companyName, false, report);
+        } catch (AIServerOverloadedException e) {
+            errors.incrementAndGet();
+            Map<String, Object> result = errorResult(index, companyName, e.getMessage());
+            result.put("retry_after", e.getRetryAfterSeconds());
+            return result;
+        } catch (Exception e) {
+            errors.incrementAndGet();
+            log.error("배치 보고서 생성 실패: {}", companyName, e);
+            return errorResult(index, companyName, e.getMessage());
+        }
+    }
+
+    private Map<String, Object> takeResult(ExecutorCompletionService<Map<String, Object>> completion) throws IOException {
+        try {
+            return completion.take().get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("배치 처리 중단", e);
+        } catch (ExecutionException e) {
+            // generate() 는 예외를 결과로 변환하므로 여기까지 오지 않음
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private String resolveCompanyName(Map<String, Object> payload) {
+        if (!(payload.get("financial_data") instanceof Map)) {
+            return null;
+        }
+        String companyName = reportGenerationService.extractCompanyName(payload);
+        return companyName == null || companyName.isBlank() ? null : companyName;
+    }
+
+    /**
+     * 보고서는 저장된 JSON 바이트를 그대로 끼워 넣음 (저장 시 공백을 제거했으므로 NDJSON 한 줄을 깨지 않음)
+     */
+    private Map<String, Object> successResult(int index, String companyName, boolean cached, byte[] report) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("index", index);
+        result.put("company_name", companyName);
+        result.put("status", "ok");
+        result.put("cached", cached);
+        result.put("report", new RawValue(new String(report, StandardCharsets.UTF_8)));
+        return result;
+    }
+
+    private Map<String, Object> errorResult(int index, String companyName, String error) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("index", index);
+        result.put("company_name", companyName);
+        result.put("status", "error");
+        result.put("error", error);
+        return result;
+    }
+
+    /**
+     * 배치 통계 (배치 수, 캐시 적중, 생성, 실패 건수)
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("workers", workers);
+        stats.put("maxConcurrency", maxConcurrency);
+        stats.put("batches", batches.get());
+        stats.put("cacheHits", cacheHits.get());
+        stats.put("generated", generated.get());
+        stats.put("errors", errors.get());
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workerPool.shutdownNow();
+    }
+}
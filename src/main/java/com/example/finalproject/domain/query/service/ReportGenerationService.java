@@ -0,0 +1,122 @@
+package com.example.finalproject.domain.query.service;
+
+import com.example.finalproject.domain.query.client.AiEndpoint;
+import com.example.finalproject.domain.query.client.AiServerClient;
+import com.example.finalproject.domain.query.client.SingleFlight;
+import com.example.finalproject.domain.report.entity.ReportEntity;
+import com.example.finalproject.domain.report.service.ReportFingerprint;
+import com.example.finalproject.domain.report.service.ReportService;
+import com.example.finalproject.domain.report.service.ReportService.SavedReport;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * 재무제표 기반 보고서를 조회하거나 AI 서버로 생성하는 서비스입니다.
+ *
+ * <p>/api/query/financial 동기 요청과 비동기 작업(ReportJobService)이 같은 경로를 사용합니다.
+ * <ul>
+ *   <li>보고서는 기업명과 financial_data 의 지문(ReportFingerprint)으로 찾음. 수치가 바뀌면 재생성하고,
+ *       같은 기업의 같은 수치면 필드 순서/공백/기업명 표기가 달라도 저장된 보고서 사용 (다른 기업은 수치가 같아도 따로 생성)</li>
+ *   <li>없거나 파일이 사라졌으면 AI 서버에 생성 요청 후 지문과 함께 저장</li>
+ *   <li>같은 기업, 같은 수치의 생성 요청이 동시에 들어오면 AI 호출을 1회로 합침 (키: 지문)</li>
+ * </ul>
+ *
+ * <p>보고서는 JSON 바이트로 주고받습니다. AI 응답은 ReportService 에서 한 번만 스트리밍 검증 후 저장되며,
+ * 조회 경로에서는 파일 바이트를 그대로 반환합니다.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ReportGenerationService {
+
+    private final AiServerClient aiServerClient;
+    private final ReportService reportService;
+
+    // 결과는 저장된 보고서 JSON 바이트와 내용 해시 (Map 으로 파싱하지 않음)
+    private final SingleFlight<SavedReport> reportGenerationFlights = new SingleFlight<>();
+
+    /**
+     * 저장된 보고서 JSON 을 반환하고, 없으면 AI 서버로 생성
+     */
+    public SavedReport getOrGenerate(Map<String, Object> payload, String companyName) throws Exception {
+        Optional<SavedReport> stored = findStoredReport(payload);
+        if (stored.isPresent()) {
+            return stored.get();
+        }
+
+        // 같은 수치로 만든 보고서가 없으면 AI 서버 호출 후 저장
+        return generateOnce(payload, companyName);
+    }
+
+    /**
+     * 기업명과 financial_data 지문으로 저장된 보고서 조회 (없거나 파일이 사라졌으면 empty)
+     */
+    public Optional<SavedReport> findStoredReport(Map<String, Object> payload) throws IOException {
+        Optional<ReportEntity> report = findStoredReportEntity(payload);
+        if (report.isEmpty()) {
+            return Optional.empty();
+        }
+        String corpName = report.get().getCorpName();
+        try {
+            return Optional.of(reportService.readReport(report.get()));
+        } catch (FileNotFoundException fileNotFound) {
+            log.warn("DB에는 있지만 저장소에 보고서가 없어 AI 서버에 재요청: {}", corpName);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * 기업명과 financial_data 지문으로 저장된 보고서 정보 조회
+     */
+    public Optional<ReportEntity> findStoredReportEntity(Map<String, Object> payload) {
+        return reportService.findReportByFingerprint(fingerprint(payload));
+    }
+
+    public String fingerprint(Map<String, Object> payload) {
+        return ReportFingerprint.of(extractCompanyName(payload), payload.get("financial_data"));
+    }
+
+    /**
+     * 같은 수치에 대해 진행 중인 생성 요청이 있으면 그 결과를 기다리고, 없으면 새로 생성
+     */
+    public SavedReport generateOnce(Map<String, Object> payload, String companyName) throws Exception {
+        String dataFingerprint = fingerprint(payload);
+        return reportGenerationFlights.execute(dataFingerprint,
+                () -> fetchAndSaveReportFromAi(payload, reportService.sanitizeDirectoryName(companyName), dataFingerprint));
+    }
+
+    /**
+     * AI 서버에 요청해서 보고서 저장 및 저장된 보고서 반환
+     */
+    private SavedReport fetchAndSaveReportFromAi(Map<String, Object> payload, String safeCorpName,
+                                            String dataFingerprint) throws IOException {
+        // 같은 기업은 같은 AI 노드로 보내 AI 서버 쪽 캐시 재사용
+        byte[] response = aiServerClient.post(AiEndpoint.REPORT, payload, safeCorpName, InputStream::readAllBytes);
+        return reportService.saveReportBytes(response, safeCorpName, dataFingerprint);
+    }
+
+    /**
+     * 요청 본문에서 기업명 추출 (company_name 우선, 없으면 financial_data.corp_name)
+     */
+    public String extractCompanyName(Map<String, Object> payload) {
+        String name = (String) payload.getOrDefault("company_name", null);
+        if (name != null && !name.isBlank()) return name;
+
+        Map<String, Object> financialData = (Map<String, Object>) payload.get("financial_data");
+        return (String) financialData.getOrDefault("corp_name", null);
+    }
+
+    /**
+     * 보고서 생성 Single-flight 통계 (실행 횟수, 합쳐진 호출 수, 진행 중 개수)
+     */
+    public Map<String, Object> getStats() {
+        return reportGenerationFlights.getStats();
+    }
+}
@@ -0,0 +1,253 @@
+package com.example.finalproject.domain.query.service;
+
+import com.example.finalproject.domain.query.client.AiServerClient;
+import com.example.finalproject.domain.query.entity.ReportJobEntity;
+import com.example.finalproject.domain.query.entity.ReportJobStatus;
+import com.example.finalproject.domain.query.repository.ReportJobRepository;
+import com.example.finalproject.domain.report.service.ReportService.SavedReport;
+import com.example.finalproject.exception.error.AIServerOverloadedException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 보고서 생성을 비동기 작업으로 실행하는 서비스입니다.
+ *
+ * <p>POST /api/query/jobs 는 작업을 REPORT_JOB 테이블에 저장하고 바로 작업 ID 를 반환합니다.
+ * 보고서 생성은 크기가 제한된 워커 풀에서 실행되므로 요청 지연이 AI 서버 응답 시간과 분리됩니다.
+ *
+ * <p>동작 방식:
+ * <ol>
+ *   <li>디스패처가 poll-interval-ms 마다 (또는 작업 등록 직후) 실행 가능한 QUEUED 작업을 빈 워커 수만큼 조회</li>
+ *   <li>조건부 update 로 작업을 IN_PROGRESS 로 선점한 뒤 워커에 전달</li>
+ *   <li>성공하면 DONE + 보고서 URL. AI 서버 과부하, 시간 초과, 5xx 같은 일시적 실패는 지수 backoff 후 재시도하고
+ *       max-attempts 초과 시 FAILED. 요청/응답 JSON 오류나 AI 서버의 4xx 처럼 다시 해도 같은 실패는 바로 FAILED</li>
+ * </ol>
+ *
+ * <p>재시작 시 IN_PROGRESS 로 남아 있던 작업은 QUEUED 로 되돌려 다시 실행합니다.
+ * (단일 인스턴스 기준. 여러 인스턴스가 같은 테이블을 쓰면 다른 인스턴스의 진행 중 작업도 되돌려짐)
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ReportJobService {
+
+    @Value("${query.report-job.workers:4}")
+    private int workers;
+
+    @Value("${query.report-job.poll-interval-ms:1000}")
+    private long pollIntervalMs;
+
+    @Value("${query.report-job.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${query.report-job.backoff-initial-ms:5000}")
+    private long backoffInitialMs;
+
+    @Value("${query.report-job.backoff-max-ms:300000}")
+    private long backoffMaxMs;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    private final ReportJobRepository reportJobRepository;
+    private final ReportGenerationService reportGenerationService;
+    private final ObjectMapper objectMapper;
+
+    private ScheduledExecutorService dispatcher;
+    private ExecutorService workerPool;
+
+    // 워커 풀에서 실행 중인 작업 수 (디스패처는 빈 자리만큼만 선점)
+    private final AtomicInteger running = new AtomicInteger();
+
+    private final AtomicLong submitted = new AtomicLong();
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong retried = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        int recovered = reportJobRepository.requeueInProgress(LocalDateTime.now());
+        if (recovered > 0) {
+            log.info("재시작 전 진행 중이던 보고서 작업 {}건을 다시 대기열에 등록", recovered);
+        }
+
+        if (virtualThreads) {
+            // 가상 스레드 모드: 작업마다 가상 스레드 (동시 실행 수는 디스패처가 workers 로 제한)
+            workerPool = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("report-job-worker-", 1).factory());
+        } else {
+            AtomicInteger workerSeq = new AtomicInteger();
+            workerPool = Executors.newFixedThreadPool(workers, r -> {
+                Thread t = new Thread(r, "report-job-worker-" + workerSeq.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            });
+        }
+        dispatcher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "report-job-dispatcher");
+            t.setDaemon(true);
+            return t;
+        });
+        dispatcher.scheduleWithFixedDelay(this::dispatch, pollIntervalMs, pollIntervalMs, TimeUnit.MILLISECONDS);
+
+        log.info("보고서 작업 큐 초기화: workers={}, maxAttempts={}", workers, maxAttempts);
+    }
+
+    /**
+     * 작업 등록 후 작업 ID 반환 (보고서 생성은 워커에서 진행)
+     */
+    public ReportJobEntity submit(Map<String, Object> payload, String companyName) {
+        LocalDateTime now = LocalDateTime.now();
+        ReportJobEntity job = reportJobRepository.save(ReportJobEntity.builder()
+                .companyName(companyName)
+                .payload(toJson(payload))
+                .status(ReportJobStatus.QUEUED)
+                .attempts(0)
+                .nextAttemptAt(now)
+                .dateCreated(now)
+                .dateUpdated(now)
+                .build());
+        submitted.incrementAndGet();
+        log.info("보고서 작업 등록: id={}, 기업명={}", job.getId(), companyName);
+
+        // 다음 polling 주기를 기다리지 않고 바로 실행 시도
+        dispatcher.execute(this::dispatch);
+        return job;
+    }
+
+    public Optional<ReportJobEntity> findJob(Long id) {
+        return reportJobRepository.findById(id);
+    }
+
+    /**
+     * 빈 워커 수만큼 실행 가능한 작업을 선점하여 워커 풀에 전달 (디스패처 스레드에서만 호출)
+     */
+    private void dispatch() {
+        try {
+            int free = workers - running.get();
+            if (free <= 0) {
+                return;
+            }
+            LocalDateTime now = LocalDateTime.now();
+            List<ReportJobEntity> due = reportJobRepository.findByStatusAndNextAttemptAtLessThanEqualOrderByIdAsc(
+                    ReportJobStatus.QUEUED, now, PageRequest.of(0, free));
+            for (ReportJobEntity job : due) {
+                if (reportJobRepository.claim(job.getId(), now) == 0) {
+                    continue;
+                }
+                running.incrementAndGet();
+                workerPool.execute(() -> {
+                    try {
+                        run(job.getId());
+                    } finally {
+                        running.decrementAndGet();
+                    }
+                });
+            }
+        } catch (Exception e) {
+            log.error("보고서 작업 디스패치 실패", e);
+        }
+    }
+
+    private void run(Long jobId) {
+        ReportJobEntity job = reportJobRepository.findById(jobId).orElse(null);
+        if (job == null) {
+            return;
+        }
+
+        try {
+            Map<String, Object> payload = objectMapper.readValue(job.getPayload(), Map.class);
+            SavedReport saved = reportGenerationService.getOrGenerate(payload, job.getCompanyName());
+            job.complete(saved.reportUrl());
+            reportJobRepository.save(job);
+            completed.incrementAndGet();
+            log.info("보고서 작업 완료: id={}, 기업명={}", jobId, job.getCompanyName());
+        } catch (Exception e) {
+            boolean retry = isRetryable(e) && job.getAttempts() < maxAttempts;
+            long delayMs = backoffDelayMs(job.getAttempts(), e);
+            job.fail(e.getMessage(), LocalDateTime.now().plusNanos(delayMs * 1_000_000), retry);
+            reportJobRepository.save(job);
+            if (retry) {
+                retried.incrementAndGet();
+                log.warn("보고서 작업 실패, {}ms 후 재시도: id={}, 시도={}, 원인={}", delayMs, jobId, job.getAttempts(), e.getMessage());
+            } else {
+                failed.incrementAndGet();
+                log.error("보고서 작업 최종 실패: id={}, 시도={}", jobId, job.getAttempts(), e);
+            }
+        }
+    }
+
+    /**
+     * AiServerClient 가 일시적 실패로 분류한 예외만 재시도 (감싼 예외도 확인, JSON 오류가 먼저 나오면 재시도하지 않음)
+     */
+    private static boolean isRetryable(Exception e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof JsonProcessingException) {
+                return false;
+            }
+            if (AiServerClient.isRetryable(cause)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 지수 backoff (initial * 2^(attempts-1), 최대 backoff-max-ms). AI 서버가 Retry-After 를 알려주면 그 이상 대기
+     */
+    private long backoffDelayMs(int attempts, Exception e) {
+        long delay = backoffInitialMs << Math.min(Math.max(attempts - 1, 0), 20);
+        delay = Math.min(delay, backoffMaxMs);
+        if (e instanceof AIServerOverloadedException overloaded) {
+            delay = Math.max(delay, overloaded.getRetryAfterSeconds() * 1000);
+        }
+        return delay;
+    }
+
+    private String toJson(Map<String, Object> payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("보고서 작업 요청 본문 직렬화 실패: " + e.getOriginalMessage());
+        }
+    }
+
+    /**
+     * 작업 큐 통계 (등록/완료/재시도/실패 수, 실행 중 워커 수)
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("workers", workers);
+        stats.put("running", running.get());
+        stats.put("submitted", submitted.get());
+        stats.put("completed", completed.get());
+        stats.put("retried", retried.get());
+        stats.put("failed", failed.get());
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        dispatcher.shutdownNow();
+        // 실행 중이던 작업은 IN_PROGRESS 로 남고, 다음 기동 시 다시 대기열로 돌아감
+        workerPool.shutdownNow();
+    }
+}
@@ -0,0 +1,215 @@
+package com.example.finalproject.domain.query.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * /api/query/ask 의 VectorDB 검색 결과를 보관하는 TTL + LRU 캐시입니다.
+ *
+ * <p>같은 질의(prompt)와 같은 파라미터(top_k 등)가 반복되면 AI 서버를 다시 호출하지 않고
+ * 직전 응답을 반환합니다.
+ *
+ * <p>캐시 키:
+ * <ul>
+ *   <li>prompt: 앞뒤 공백 제거, 연속 공백 1칸으로 축소, 소문자 변환</li>
+ *   <li>그 외 파라미터: ReportFingerprint 처럼 정규화한 JSON 문자열
+ *     <ul>
+ *       <li>객체 키는 중첩된 객체까지 이름 순으로 정렬 (요청 JSON 의 필드 순서와 무관)</li>
+ *       <li>숫자는 값이 같으면 같은 표현 (5, 5.0, 5.00 → 5)</li>
+ *       <li>배열은 순서를 유지 (AI 서버가 순서를 의미 있게 볼 수 있으므로), 원소는 같은 규칙으로 정규화</li>
+ *       <li>키 이름과 문자열 값은 그대로 (AI 서버가 구분하는 값이므로 대소문자, 표기 차이를 합치지 않음)</li>
+ *     </ul>
+ *   </li>
+ * </ul>
+ *
+ * <p>정책:
+ * <ul>
+ *   <li>ttl-seconds 가 지난 항목은 조회 시 만료 처리</li>
+ *   <li>max-entries 를 넘으면 가장 오래 사용되지 않은 항목부터 제거</li>
+ * </ul>
+ */
+@Component
+@Slf4j
+public class SearchResultCache {
+
+    @Value("${query.search-cache.max-entries:1000}")
+    private int maxEntries;
+
+    @Value("${query.search-cache.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong expirations = new AtomicLong();
+
+    private record Entry(String value, long expiresAt) {
+    }
+
+    /**
+     * 캐시에 있으면 반환하고, 없으면 loader 결과를 저장 후 반환
+     */
+    public String getOrLoad(Map<String, Object> payload, Supplier<String> loader) {
+        String key = buildKey(payload);
+        String cached = get(key);
+        if (cached != null) {
+            hits.incrementAndGet();
+            return cached;
+        }
+        misses.incrementAndGet();
+
+        String loaded = loader.get();
+        if (loaded != null) {
+            put(key, loaded);
+        }
+        return loaded;
+    }
+
+    private synchronized String get(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAt() <= System.currentTimeMillis()) {
+            entries.remove(key);
+            expirations.incrementAndGet();
+            return null;
+        }
+        return entry.value();
+    }
+
+    private synchronized void put(String key, String value) {
+        entries.put(key, new Entry(value, System.currentTimeMillis() + ttlSeconds * 1000));
+        Iterator<String> eldest = entries.keySet().iterator();
+        while (entries.size() > maxEntries && eldest.hasNext()) {
+            eldest.next();
+            eldest.remove();
+            evictions.incrementAndGet();
+        }
+    }
+
+    /**
+     * 전체 캐시 비우기
+     */
+    public synchronized int invalidateAll() {
+        int size = entries.size();
+        entries.clear();
+        log.info("검색 결과 캐시 전체 삭제: {}건", size);
+        return size;
+    }
+
+    /**
+     * 특정 prompt 로 시작하는 항목 삭제 (파라미터 조합과 무관하게 모두 삭제)
+     */
+    public synchronized int invalidatePrompt(String prompt) {
+        String prefix = normalizePrompt(prompt) + "|";
+        int before = entries.size();
+        entries.keySet().removeIf(key -> key.startsWith(prefix));
+        int removed = before - entries.size();
+        log.info("검색 결과 캐시 삭제: prompt={}, {}건", prompt, removed);
+        return removed;
+    }
+
+    public Map<String, Object> getStats() {
+        long hitCount = hits.get();
+        long missCount = misses.get();
+        long total = hitCount + missCount;
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        synchronized (this) {
+            stats.put("size", entries.size());
+        }
+        stats.put("maxEntries", maxEntries);
+        stats.put("ttlSeconds", ttlSeconds);
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("hitRate", total == 0 ? 0.0 : (double) hitCount / total);
+        stats.put("evictions", evictions.get());
+        stats.put("expirations", expirations.get());
+        return stats;
+    }
+
+    static String buildKey(Map<String, Object> payload) {
+        Map<String, Object> params = new TreeMap<>(payload);
+        Object prompt = params.remove("prompt");
+        StringBuilder key = new StringBuilder(normalizePrompt(String.valueOf(prompt))).append('|');
+        writeCanonical(key, params);
+        return key.toString();
+    }
+
+    private static void writeCanonical(StringBuilder out, Object value) {
+        if (value instanceof Map<?, ?> map) {
+            TreeMap<String, Object> sorted = new TreeMap<>();
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                sorted.put(String.valueOf(entry.getKey()), entry.getValue());
+            }
+            out.append('{');
+            boolean first = true;
+            for (Map.Entry<String, Object> entry : sorted.entrySet()) {
+                if (!first) {
+                    out.append(',');
+                }
+                first = false;
+                writeString(out, entry.getKey());
+                out.append(':');
+                writeCanonical(out, entry.getValue());
+            }
+            out.append('}');
+        } else if (value instanceof List<?> list) {
+            out.append('[');
+            for (int i = 0; i < list.size(); i++) {
+                if (i > 0) {
+                    out.append(',');
+                }
+                writeCanonical(out, list.get(i));
+            }
+            out.append(']');
+        } else if (value instanceof Number number) {
+            out.append(normalizeNumber(number));
+        } else if (value instanceof String text) {
+            writeString(out, text);
+        } else {
+            out.append(value);
+        }
+    }
+
+    private static String normalizeNumber(Number number) {
+        BigDecimal decimal;
+        try {
+            decimal = new BigDecimal(number.toString());
+        } catch (NumberFormatException e) {
+            // NaN, Infinity
+            return number.toString();
+        }
+        return decimal.signum() == 0 ? "0" : decimal.stripTrailingZeros().toPlainString();
+    }
+
+    private static void writeString(StringBuilder out, String text) {
+        out.append('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '"' || c == '\\') {
+                out.append('\\');
+            }
+            out.append(c);
+        }
+        out.append('"');
+    }
+
+    private static String normalizePrompt(String prompt) {
+        return prompt.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+}
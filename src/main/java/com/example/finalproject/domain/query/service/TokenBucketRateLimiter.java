@@ -0,0 +1,95 @@
+package com.example.finalproject.domain.query.service;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * 사용자별 토큰 버킷 속도 제한기입니다. DB 없이 메모리에서만 동작합니다.
+ *
+ * <p>버킷은 사용자 키의 해시로 나눈 stripe 에 저장되고 stripe 마다 별도 락을 사용하므로,
+ * 서로 다른 stripe 의 사용자끼리는 경합하지 않습니다.
+ * 가득 찬 채로 오래 쓰이지 않은 버킷은 stripe 크기가 커질 때 정리합니다.
+ */
+public class TokenBucketRateLimiter {
+
+    private static final int EVICT_THRESHOLD = 1024;
+
+    private final double tokensPerSecond;
+    private final double capacity;
+    private final Stripe[] stripes;
+
+    private static class Bucket {
+        double tokens;
+        long updatedAt;
+    }
+
+    private static class Stripe {
+        final Map<String, Bucket> buckets = new HashMap<>();
+    }
+
+    public TokenBucketRateLimiter(double tokensPerSecond, double capacity, int stripeCount) {
+        this.tokensPerSecond = tokensPerSecond;
+        this.capacity = capacity;
+        this.stripes = new Stripe[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    /**
+     * 토큰 1개 사용 시도. 허용되면 0, 아니면 다음 토큰까지 남은 시간(ms)
+     */
+    public long tryAcquire(String key) {
+        Stripe stripe = stripes[Math.floorMod(key.hashCode(), stripes.length)];
+        long now = System.nanoTime();
+        synchronized (stripe) {
+            Bucket bucket = stripe.buckets.get(key);
+            if (bucket == null) {
+                if (stripe.buckets.size() >= EVICT_THRESHOLD) {
+                    evictIdle(stripe, now);
+                }
+                bucket = new Bucket();
+                bucket.tokens = capacity;
+                bucket.updatedAt = now;
+                stripe.buckets.put(key, bucket);
+            }
+            refill(bucket, now);
+            if (bucket.tokens >= 1) {
+                bucket.tokens -= 1;
+                return 0;
+            }
+            return (long) Math.ceil((1 - bucket.tokens) / tokensPerSecond * 1000);
+        }
+    }
+
+    private void refill(Bucket bucket, long now) {
+        double elapsedSeconds = (now - bucket.updatedAt) / 1_000_000_000.0;
+        bucket.tokens = Math.min(capacity, bucket.tokens + elapsedSeconds * tokensPerSecond);
+        bucket.updatedAt = now;
+    }
+
+    /**
+     * 다시 가득 찼을 시간이 지난 버킷 제거 (제거해도 새로 만들면 같은 상태)
+     */
+    private void evictIdle(Stripe stripe, long now) {
+        Iterator<Bucket> it = stripe.buckets.values().iterator();
+        while (it.hasNext()) {
+            Bucket bucket = it.next();
+            refill(bucket, now);
+            if (bucket.tokens >= capacity) {
+                it.remove();
+            }
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.buckets.size();
+            }
+        }
+        return size;
+    }
+}
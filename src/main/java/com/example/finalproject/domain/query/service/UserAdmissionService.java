@@ -0,0 +1,249 @@
+package com.example.finalproject.domain.query.service;
+
+import com.example.finalproject.exception.error.TooManyRequestsException;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * AI 서버를 사용하는 요청에 대한 사용자별 입장 제어(admission control)입니다.
+ *
+ * <p>한 사용자가 스크립트로 /api/query/financial 을 반복 호출해도 다른 사용자의 지연이 늘지 않도록 합니다.
+ * 사용자 키는 JWT subject 입니다.
+ *
+ * <p>단계:
+ * <ol>
+ *   <li>속도 제한: 사용자별 토큰 버킷 (rate-per-second, burst). 초과 시 429</li>
+ *   <li>동시 실행 제한: 전체 max-concurrent, 사용자별 per-user-concurrent</li>
+ *   <li>자리가 없으면 사용자별 대기열에 넣고, 자리가 나면 대기 중인 사용자들을 라운드 로빈으로 돌며 한 건씩 입장
+ *       (요청을 많이 쌓은 사용자가 다른 사용자의 순서를 밀어내지 못함)</li>
+ *   <li>전체 대기열이 max-queued, 사용자 대기열이 per-user-queued 를 넘거나 queue-timeout-ms 동안 입장하지 못하면 429</li>
+ * </ol>
+ *
+ * <p>acquire() 로 받은 Permit 은 요청이 끝나면 반드시 close() 해야 합니다.
+ */
+@Service
+@Slf4j
+public class UserAdmissionService {
+
+    @Value("${query.admission.enabled:true}")
+    private boolean enabled;
+
+    @Value("${query.admission.rate-per-second:2}")
+    private double ratePerSecond;
+
+    @Value("${query.admission.burst:10}")
+    private double burst;
+
+    @Value("${query.admission.max-concurrent:32}")
+    private int maxConcurrent;
+
+    @Value("${query.admission.per-user-concurrent:4}")
+    private int perUserConcurrent;
+
+    @Value("${query.admission.max-queued:200}")
+    private int maxQueued;
+
+    @Value("${query.admission.per-user-queued:20}")
+    private int perUserQueued;
+
+    @Value("${query.admission.queue-timeout-ms:30000}")
+    private long queueTimeoutMs;
+
+    private TokenBucketRateLimiter rateLimiter;
+
+    // 아래 상태는 모두 this 락으로 보호
+    private final Map<String, UserState> users = new HashMap<>();
+    // 대기 요청이 있는 사용자 (라운드 로빈 순서)
+    private final ArrayDeque<UserState> waitingUsers = new ArrayDeque<>();
+    private int inFlight;
+    private int queued;
+
+    private final AtomicLong admitted = new AtomicLong();
+    private final AtomicLong queuedTotal = new AtomicLong();
+    private final AtomicLong rateLimited = new AtomicLong();
+    private final AtomicLong queueRejected = new AtomicLong();
+    private final AtomicLong queueTimeouts = new AtomicLong();
+
+    private static class UserState {
+        final String user;
+        final ArrayDeque<CompletableFuture<Void>> waiting = new ArrayDeque<>();
+        int inFlight;
+        boolean inRotation;
+
+        UserState(String user) {
+            this.user = user;
+        }
+    }
+
+    /**
+     * 입장 허가. 요청이 끝나면 close() 로 반납
+     */
+    public interface Permit extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    private static final Permit NOOP = () -> {
+    };
+
+    @PostConstruct
+    public void init() {
+        rateLimiter = new TokenBucketRateLimiter(ratePerSecond, burst, 64);
+    }
+
+    /**
+     * 입장 시도. 자리가 없으면 대기열에서 차례를 기다리며, 한도를 넘으면 TooManyRequestsException
+     */
+    public Permit acquire(String user) {
+        if (!enabled) {
+            return NOOP;
+        }
+
+        long waitMs = rateLimiter.tryAcquire(user);
+        if (waitMs > 0) {
+            rateLimited.incrementAndGet();
+            throw new TooManyRequestsException("요청 속도 한도 초과: " + user, toSeconds(waitMs));
+        }
+
+        CompletableFuture<Void> ticket;
+        UserState state;
+        synchronized (this) {
+            state = users.computeIfAbsent(user, UserState::new);
+            if (state.waiting.isEmpty() && inFlight < maxConcurrent && state.inFlight < perUserConcurrent) {
+                admit(state);
+                return permit(state);
+            }
+            if (queued >= maxQueued || state.waiting.size() >= perUserQueued) {
+                queueRejected.incrementAndGet();
+                removeIfIdle(state);
+                throw new TooManyRequestsException("대기 중인 요청이 너무 많습니다: " + user, toSeconds(queueTimeoutMs) / 2 + 1);
+            }
+            ticket = new CompletableFuture<>();
+            state.waiting.add(ticket);
+            queued++;
+            queuedTotal.incrementAndGet();
+            if (!state.inRotation) {
+                state.inRotation = true;
+                waitingUsers.add(state);
+            }
+        }
+
+        try {
+            ticket.get(queueTimeoutMs, TimeUnit.MILLISECONDS);
+            return permit(state);
+        } catch (TimeoutException | InterruptedException e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            synchronized (this) {
+                if (state.waiting.remove(ticket)) {
+                    queued--;
+                    removeIfIdle(state);
+                    queueTimeouts.incrementAndGet();
+                    throw new TooManyRequestsException("대기 시간 초과: " + user, 1);
+                }
+            }
+            // 제한 시간과 동시에 입장된 경우
+            return permit(state);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private Permit permit(UserState state) {
+        admitted.incrementAndGet();
+        AtomicBoolean closed = new AtomicBoolean();
+        return () -> {
+            if (closed.compareAndSet(false, true)) {
+                release(state);
+            }
+        };
+    }
+
+    private synchronized void release(UserState state) {
+        state.inFlight--;
+        inFlight--;
+        dispatch();
+        removeIfIdle(state);
+    }
+
+    private void admit(UserState state) {
+        state.inFlight++;
+        inFlight++;
+    }
+
+    /**
+     * 빈 자리만큼 대기 중인 사용자를 라운드 로빈으로 돌며 한 건씩 입장 (this 락 안에서 호출)
+     */
+    private void dispatch() {
+        int skipped = 0;
+        while (inFlight < maxConcurrent && !waitingUsers.isEmpty() && skipped < waitingUsers.size()) {
+            UserState state = waitingUsers.poll();
+            if (state.waiting.isEmpty()) {
+                // 대기 요청이 모두 시간 초과로 빠진 사용자
+                state.inRotation = false;
+                continue;
+            }
+            if (state.inFlight >= perUserConcurrent) {
+                // 이 사용자는 자기 한도가 찼으므로 다음 사용자에게 양보
+                waitingUsers.add(state);
+                skipped++;
+                continue;
+            }
+            CompletableFuture<Void> ticket = state.waiting.poll();
+            queued--;
+            admit(state);
+            ticket.complete(null);
+            skipped = 0;
+            if (state.waiting.isEmpty()) {
+                state.inRotation = false;
+            } else {
+                waitingUsers.add(state);
+            }
+        }
+    }
+
+    private void removeIfIdle(UserState state) {
+        if (state.waiting.isEmpty() && state.inRotation) {
+            waitingUsers.remove(state);
+            state.inRotation = false;
+        }
+        if (state.inFlight == 0 && state.waiting.isEmpty()) {
+            users.remove(state.user, state);
+        }
+    }
+
+    private long toSeconds(long millis) {
+        return Math.max(1, (millis + 999) / 1000);
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        synchronized (this) {
+            stats.put("inFlight", inFlight);
+            stats.put("queued", queued);
+            stats.put("activeUsers", users.size());
+        }
+        stats.put("admitted", admitted.get());
+        stats.put("queuedTotal", queuedTotal.get());
+        stats.put("rateLimited", rateLimited.get());
+        stats.put("queueRejected", queueRejected.get());
+        stats.put("queueTimeouts", queueTimeouts.get());
+        stats.put("rateLimitBuckets", rateLimiter.size());
+        return stats;
+    }
+}
@@ -1,22 +1,28 @@
 package com.example.finalproject.domain.report.controller;
 
-import com.example.finalproject.domain.report.entity.ReportEntity;
-import com.example.finalproject.domain.report.repository.ReportRepository;
+import com.example.finalproject.domain.report.dto.ReportPageDTO;
+import com.example.finalproject.domain.report.dto.ReportProjectionRequestDTO;
+import com.example.finalproject.domain.report.dto.ReportSummaryDTO;
+import com.example.finalproject.domain.report.service.JsonProjection;
+import com.example.finalproject.domain.report.service.ReportBytesCache.CachedReport;
+import com.example.finalproject.domain.report.service.ReportService;
+import com.example.finalproject.domain.report.service.ReportStore;
+import com.example.finalproject.domain.report.service.ReportStore.StoredReportRef;
 import com.example.finalproject.exception.ApiResponse;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.time.LocalDateTime;
+import java.time.LocalDate;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
@@ -27,16 +33,21 @@ import java.util.Optional;
  * <p>
  * ✅ 주요 기능:
  * - 기업명 기반 JSON 보고서 저장 (POST /api/report/save-json)
- * - 기업명 기반 JSON 보고서 조회 (GET /api/report/download-json/{corpName})
+ * - 기업명 기반 JSON 보고서 조회 (GET /api/report/download-json/{corpName}, fields= 로 필요한 필드만)
+ * - 여러 기업 보고서의 필드만 한 번에 조회 (POST /api/report/download-json/batch)
+ * - 기업 보고서 버전 목록 (GET /api/report/versions/{corpName})
+ * - 저장된 보고서 목록 (GET /api/report?corpName=|corpPrefix=&from=&to=&cursor=&size=, 최신순 keyset 페이지)
+ * - 보고서 캐시 / 저장소 / 정리 통계는 AdminController (/api/admin/report/**) 로 분리
  * <p>
  * ✅ 저장 구조:
- * - 저장 경로: /tmp/reports/{corpName}/report.json
- * - DB에는 corpName, 생성일, 접근 URL을 함께 저장
+ * - 저장소: report.store.type 으로 선택 (local: /tmp/reports/segments 의 append-only 세그먼트, database, s3)
+ * - 공백 없는 JSON 을 gzip 압축해 버전별로 추가
+ * - DB에는 corpName, 생성일, 접근 URL, 보고서 버전을 함께 저장
  * <p>
  * ✅ 특징:
  * - UUID 및 세션 기반이 아닌 기업명 기반 디렉토리 사용
  * - 전체 사용자 접근이 가능한 정적 URL 제공
- * - JSON 파일은 ObjectMapper를 이용해 저장/조회
+ * - JSON 파일은 저장 시 스트리밍 파서로 한 번 검증/압축하고, 조회 시 바이트 그대로 반환 (ReportService)
  * <p>
  * 사용 환경: Linux 서버 기준 (디렉토리 이름 정제 시 '/' 문자만 제거)
  */
@@ -47,43 +58,20 @@ import java.util.Optional;
 @Slf4j
 public class ReportController {
 
-    private final ReportRepository reportRepository;
-
-    // 임시 디렉토리 경로 설정
-    static private final String TEMP_DIR = System.getProperty("java.io.tmpdir") + "/reports";
-
-    // 클래스 로딩 시 디렉토리 생성
-    static {
-        try {
-            Files.createDirectories(Paths.get(TEMP_DIR));
-        } catch (IOException e) {
-            // 무시 (이미 존재할 수 있음)
-            log.warn("임시 디렉토리 생성 실패", e);
-        }
-    }
+    private final ReportService reportService;
+    private final ReportStore reportStore;
 
     // 1. JSON 형식의 보고서를 로컬 서버에 .json파일로 저장, DB에 경로 저장 후 URI 반환, 기업명 기반
+    // 본문은 Map 으로 바인딩하지 않고 바이트 그대로 받아 스트리밍 파서로 한 번만 검증 후 저장
     @PostMapping(value = "/save-json")
-    public ResponseEntity<ApiResponse<String>> saveJsonReport(@RequestBody Map<String, Object> reportJson) {
-        String corpName = (String) reportJson.get("company_name");
-        if (corpName == null || corpName.isBlank()) { // 회사 이름
-            // 이 없을 경우 기본값 설정
-            corpName = "알수없음";
-        }
-
-        log.info("JSON 보고서 저장 요청: 회사명 = {}", corpName);
-
+    public ResponseEntity<ApiResponse<String>> saveJsonReport(@RequestBody byte[] reportJson) {
         try {
-            String safeCorpName = sanitizeDirectoryName(corpName);
-            saveReportToFile(safeCorpName, reportJson); // JSON 파일 로컬에 저장
-            String reportUrl = "/api/report/download-json/" + safeCorpName; // 파일 다운로드 URI 생성
-            ReportEntity report = ReportEntity.builder()
-                    .corpName(corpName)
-                    .dateCreated(LocalDateTime.now())
-                    .reportUrl(reportUrl)
-                    .build();
-            reportRepository.save(report); // DB에 보고서 정보 저장\
-            return ResponseEntity.ok(ApiResponse.success(reportUrl));
+            ReportService.SavedReport saved = reportService.saveReportBytes(reportJson, null, null);
+            log.info("JSON 보고서 저장: 회사명 = {}, {} bytes", saved.corpName(), saved.json().length);
+            return ResponseEntity.ok(ApiResponse.success(saved.reportUrl()));
+        } catch (JsonProcessingException e) {
+            log.warn("올바르지 않은 보고서 JSON: {}", e.getOriginalMessage());
+            return ResponseEntity.badRequest().body(ApiResponse.error("보고서 JSON 형식이 올바르지 않습니다."));
         } catch (IOException e) {
             log.error("보고서 저장 실패", e);
             return ResponseEntity.internalServerError().body(ApiResponse.error("보고서 저장 중 오류 발생"));
@@ -91,62 +79,150 @@ public class ReportController {
     }
 
     //2. 기업명 기반 JSON 보고서 반환 (ApiResponse 없이 JSON 그대로 반환)
+    // 캐시(direct memory)에 있으면 바로 응답 (공유 저장소면 최신 버전 번호만 확인). 없으면 저장소에서 위치를 찾아
+    // 캐시할 수 있는 크기는 direct buffer 로 한 번에 읽어 캐시 후 응답, 더 큰 보고서는 저장소에서 바로 전송
+    // (JSON 트리 생성 없음, Range 요청 지원)
+    // version 을 주면 저장소에 남아 있는 이전 버전을 반환 (캐시하지 않음)
+    // gzip 을 받는 클라이언트에는 저장된 압축 바이트를 그대로, 그 외에는 전송하면서 압축 해제
+    // ETag(내용 해시)/Last-Modified(생성 시각)가 요청의 If-None-Match/If-Modified-Since 와 맞으면 파일을 읽지 않고 304
+    // fields 를 주면(쉼표 구분, JSON Pointer 또는 a.b) 그 필드만 스트리밍 파서로 추출해 반환 (목록 화면의 요약 조회용)
+    // 본문을 직접 쓴 경우 null 을 반환 (응답 처리 완료)
     @GetMapping(value = "/download-json/{corpName}", produces = MediaType.APPLICATION_JSON_VALUE)
     @ResponseBody
-    public ResponseEntity<Map<String, Object>> serveJsonReport(@PathVariable String corpName) {
-        log.info("JSON 보고서 요청: 기업명 = {}", corpName);
-        
-        Optional<ReportEntity> optionalReport = reportRepository.findByCorpName(corpName);
-        if (optionalReport.isEmpty()) {
-            log.warn("보고서를 찾을 수 없음: {}", corpName);
-            return ResponseEntity.status(HttpStatus.NOT_FOUND)
-                    .contentType(MediaType.APPLICATION_JSON)
-                    .body(Map.of("error", "보고서를 찾을 수 없습니다."));
+    public ResponseEntity<?> serveJsonReport(@PathVariable String corpName,
+                                             @RequestParam(required = false) Long version,
+                                             @RequestParam(required = false) String fields,
+                                             HttpServletRequest request,
+                                             HttpServletResponse response) throws IOException {
+        log.info("JSON 보고서 요청: 기업명 = {}, 버전 = {}, 필드 = {}", corpName, version, fields);
+        String safeCorpName = reportService.sanitizeDirectoryName(corpName);
+        JsonProjection projection = null;
+        if (fields != null) {
+            try {
+                projection = JsonProjection.parse(fields);
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest()
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body(Map.of("error", "fields 값이 올바르지 않습니다: " + e.getMessage()));
+            }
+        }
+
+        if (version == null) {
+            Optional<CachedReport> cached = reportService.findCachedReport(safeCorpName);
+            if (cached.isPresent()) {
+                CachedReport report = cached.get();
+                if (projection != null) {
+                    if (!ReportResponseWriter.checkNotModified(request, response, report.contentHash(),
+                            report.dateCreated(), projection)) {
+                        ReportResponseWriter.writeProjection(response, report.gzip(), projection);
+                    }
+                } else if (!ReportResponseWriter.checkNotModified(request, response, report.contentHash(),
+                        report.dateCreated())) {
+                    ReportResponseWriter.write(request, response, report.gzip());
+                }
+                return null;
+            }
         }
 
         try {
-            String safeCorpName = sanitizeDirectoryName(corpName);
-            Map<String, Object> reportJson = readReportFromFile(safeCorpName); // 로컬 서버에 저장된 JSON 파일 읽기
-            log.info("JSON 보고서 반환 성공: {}", corpName);
-            return ResponseEntity.ok()
-                    .contentType(MediaType.APPLICATION_JSON)
-                    .body(reportJson);
+            Optional<StoredReportRef> stored = reportService.findStoredReport(safeCorpName, version);
+            if (stored.isEmpty()) {
+                log.warn("보고서를 찾을 수 없음: {} (버전 {})", corpName, version);
+                return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body(Map.of("error", "보고서를 찾을 수 없습니다."));
+            }
+            StoredReportRef ref = stored.get();
+            if (projection != null) {
+                if (!ReportResponseWriter.checkNotModified(request, response, ref.contentHash(), ref.dateCreated(),
+                        projection)) {
+                    ReportResponseWriter.writeProjection(response, reportService.readGzip(ref), projection);
+                }
+                return null;
+            }
+            if (ReportResponseWriter.checkNotModified(request, response, ref.contentHash(), ref.dateCreated())) {
+                return null;
+            }
+
+            Optional<CachedReport> loaded = reportService.readCacheableReport(ref);
+            if (loaded.isPresent()) {
+                ReportResponseWriter.write(request, response, loaded.get().gzip());
+            } else {
+                ReportResponseWriter.write(request, response, reportStore, ref);
+            }
+            log.info("JSON 보고서 반환 성공: {} (버전 {})", corpName, ref.version());
+            return null;
         } catch (IOException e) {
+            if (response.isCommitted()) {
+                // 전송 중 연결이 끊긴 경우 등 (이미 헤더를 보냈으므로 오류 본문을 쓸 수 없음)
+                throw e;
+            }
             log.error("보고서 파일 읽기 실패: {}", corpName, e);
+            response.reset();
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .contentType(MediaType.APPLICATION_JSON)
                     .body(Map.of("error", "보고서 파일을 읽을 수 없습니다."));
         }
     }
 
-    /**
-     * 디렉토리 이름에서 "/" 제거 (Linux 기준)
-     */
-    private String sanitizeDirectoryName(String corpName) {
-        return corpName.replace("/", "_");
+    // 2-1. 여러 기업의 최신 보고서에서 fields 만 한 번에 반환 ({기업명: 결과}, 보고서가 없는 기업은 null)
+    // 기업 수는 report.projection.max-batch 까지. 본문을 직접 쓴 경우 null 을 반환
+    @PostMapping(value = "/download-json/batch", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> serveJsonReportProjections(@RequestBody ReportProjectionRequestDTO requestDTO,
+                                                        HttpServletResponse response) throws IOException {
+        if (requestDTO.getCorpNames() == null || requestDTO.getCorpNames().isEmpty() || requestDTO.getFields() == null) {
+            return ResponseEntity.badRequest()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(Map.of("error", "corpNames 와 fields 가 필요합니다."));
+        }
+        try {
+            JsonProjection projection = JsonProjection.of(requestDTO.getFields());
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            reportService.writeReportProjections(requestDTO.getCorpNames(), projection, response.getOutputStream());
+            return null;
+        } catch (IllegalArgumentException e) {
+            if (response.isCommitted()) {
+                throw e;
+            }
+            response.reset();
+            return ResponseEntity.badRequest()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(Map.of("error", e.getMessage()));
+        }
     }
 
-    /**
-     * JSON 파일 저장
-     */
-    private void saveReportToFile(String safeCorpName, Map<String, Object> reportJson) throws IOException {
-        Path corpDir = Paths.get(TEMP_DIR, safeCorpName);
-        Files.createDirectories(corpDir);
-
-        Path targetPath = corpDir.resolve("report.json");
-        ObjectMapper objectMapper = new ObjectMapper();
-        objectMapper.writerWithDefaultPrettyPrinter().writeValue(targetPath.toFile(), reportJson);
+    // 3. 기업 보고서의 저장소에 남아 있는 버전 목록 (오래된 순, download-json 의 version 으로 사용)
+    @GetMapping("/versions/{corpName}")
+    public ResponseEntity<ApiResponse<List<Long>>> getReportVersions(@PathVariable String corpName) throws IOException {
+        return ResponseEntity.ok(ApiResponse.success(
+                reportService.findReportVersions(reportService.sanitizeDirectoryName(corpName))));
     }
 
-    /**
-     * JSON 파일 읽기
-     */
-    private Map<String, Object> readReportFromFile(String safeCorpName) throws IOException {
-        Path filePath = Paths.get(TEMP_DIR, safeCorpName, "report.json");
-        if (!Files.exists(filePath)) {
-            throw new FileNotFoundException("파일이 존재하지 않음: " + filePath.toString());
+    // 4. 저장된 보고서 목록 (생성 시각 최신순). 다음 페이지는 응답의 nextCursor 를 cursor 로 전달
+    // corpName: 정확한 기업명 (IDX_REPORT_CORP_NAME_DATE_CREATED), corpPrefix: 기업명 접두어, from/to: 생성일 범위 (yyyy-MM-dd, 양끝 포함), size: 페이지 크기 (report.list.max-page-size 이하)
+    // DB 저장 대기 중인 보고서(ReportMetadataWriter)는 저장된 뒤에 나타남
+    @GetMapping
+    public ResponseEntity<ApiResponse<ReportPageDTO>> listReports(
+            @RequestParam(required = false) String corpName,
+            @RequestParam(required = false) String corpPrefix,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        ReportService.ReportPage page;
+        try {
+            page = reportService.findReports(corpName, corpPrefix, from, to, cursor, size);
+        } catch (IllegalArgumentException e) {
+            log.warn("보고서 목록 커서 오류: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(ApiResponse.error("cursor 값이 올바르지 않습니다."));
         }
-        ObjectMapper objectMapper = new ObjectMapper();
-        return objectMapper.readValue(filePath.toFile(), Map.class);
+        List<ReportSummaryDTO> reports = page.reports().stream()
+                .map(summary -> ReportSummaryDTO.of(summary,
+                        reportService.reportUrl(summary.getCorpName(), summary.getReportVersion())))
+                .toList();
+        return ResponseEntity.ok(ApiResponse.success(ReportPageDTO.builder()
+                .reports(reports)
+                .nextCursor(page.nextCursor())
+                .build()));
     }
 }
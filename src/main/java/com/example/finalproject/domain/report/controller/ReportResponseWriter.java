@@ -0,0 +1,338 @@
+package com.example.finalproject.domain.report.controller;
+
+import com.example.finalproject.domain.report.service.JsonProjection;
+import com.example.finalproject.domain.report.service.ReportStore;
+import com.example.finalproject.domain.report.service.ReportStore.StoredReportRef;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * 저장된 보고서(ReportStore 의 gzip 바이트 또는 캐시 버퍼)를 응답 스트림으로 바로 쓰는 헬퍼입니다.
+ *
+ * <ul>
+ *   <li>Accept-Encoding 에 gzip 이 있으면 저장된 압축 바이트를 그대로 보내고(Content-Encoding: gzip),
+ *       없으면 전송하면서 압축 해제. 어느 쪽이든 Content-Length 를 설정 (압축 해제 크기는 gzip trailer 의 ISIZE)</li>
+ *   <li>캐시된 보고서(ByteBuffer)는 버퍼를 힙 배열로 옮기지 않고 채널로 씀</li>
+ *   <li>압축 그대로 보내는 보고서는 저장소에서 요청 구간만 전송 (로컬 세그먼트는 FileChannel.transferTo, 읽기용 힙 버퍼 없음)</li>
+ *   <li>단일 구간 Range 요청은 보내는 표현(압축/비압축) 기준으로 206 응답
+ *       (여러 구간이나 해석할 수 없는 Range 는 무시하고 전체 전송, 범위를 벗어나면 416)</li>
+ *   <li>조건부 요청: ETag 는 보고서 내용 해시(ReportEntity.contentHash, 압축 표현은 "-gzip" 을 붙임),
+ *       Last-Modified 는 생성 시각. 변경이 없으면 파일을 읽지 않고 304.
+ *       If-Range 가 현재 보고서와 다르면 Range 를 무시하고 전체 전송</li>
+ *   <li>필드 선택(fields) 응답은 압축 해제하면서 선택한 필드만 추출해 전송 (JsonProjection, Range 미지원)</li>
+ * </ul>
+ */
+public final class ReportResponseWriter {
+
+    private ReportResponseWriter() {
+    }
+
+    /**
+     * 전송할 구간 [start, end)
+     */
+    private record ByteRange(long start, long end) {
+        long length() {
+            return end - start;
+        }
+    }
+
+    private static final ByteRange UNSATISFIABLE = new ByteRange(-1, -1);
+    private static final int BUFFER_SIZE = 8192;
+
+    // 같은 기업 보고서는 재생성되면 바뀌므로 캐시는 하되 매번 재검증 (변경이 없으면 304 로 본문 없이 끝남)
+    private static final String CACHE_CONTROL = "no-cache";
+    // /api/query/financial 은 로그인 사용자 요청이므로 공유 캐시에는 저장하지 않음
+    private static final String PRIVATE_CACHE_CONTROL = "private, no-cache";
+
+    public static String etag(String contentHash) {
+        return contentHash == null ? null : "\"" + contentHash + "\"";
+    }
+
+    /**
+     * 압축 표현의 ETag (같은 보고서라도 인코딩이 다르면 강한 ETag 가 달라야 함)
+     */
+    private static String gzipEtag(String contentHash) {
+        return contentHash == null ? null : "\"" + contentHash + "-gzip\"";
+    }
+
+    public static long lastModified(LocalDateTime dateCreated) {
+        return dateCreated == null ? -1 : dateCreated.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    /**
+     * GET/HEAD 조건부 요청 처리. ETag, Last-Modified, Cache-Control, Vary 를 설정하고
+     * If-None-Match / If-Modified-Since 로 보아 변경이 없으면 304 를 설정한 뒤 true (본문을 쓰지 않아야 함)
+     */
+    public static boolean checkNotModified(HttpServletRequest request, HttpServletResponse response,
+                                           String contentHash, LocalDateTime dateCreated) {
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        String etag = acceptsGzip(request) ? gzipEtag(contentHash) : etag(contentHash);
+        return new ServletWebRequest(request, response).checkNotModified(etag, lastModified(dateCreated));
+    }
+
+    /**
+     * 필드 선택(fields) 응답의 조건부 요청 처리. ETag 는 내용 해시에 선택한 필드 값(JsonProjection.fingerprint)을 붙임
+     * (압축하지 않고 보내므로 Accept-Encoding 과 무관)
+     */
+    public static boolean checkNotModified(HttpServletRequest request, HttpServletResponse response,
+                                           String contentHash, LocalDateTime dateCreated, JsonProjection projection) {
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+        String etag = contentHash == null ? null : "\"" + contentHash + "-" + projection.fingerprint() + "\"";
+        return new ServletWebRequest(request, response).checkNotModified(etag, lastModified(dateCreated));
+    }
+
+    /**
+     * 보고서(gzip)에서 선택한 필드만 압축 해제하면서 추출해 전송 (선택하지 않은 값은 트리를 만들지 않고 건너뜀)
+     */
+    public static void writeProjection(HttpServletResponse response, ByteBuffer gzip, JsonProjection projection)
+            throws IOException {
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        try (InputStream json = new GZIPInputStream(new ByteBufferBackedInputStream(gzip.duplicate()), BUFFER_SIZE)) {
+            projection.write(json, response.getOutputStream());
+        }
+    }
+
+    /**
+     * If-None-Match 에 이 보고서의 ETag 가 있는지 (POST /api/query/financial 의 재검증용)
+     */
+    public static boolean matchesIfNoneMatch(HttpServletRequest request, String contentHash) {
+        String header = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (header == null || contentHash == null) {
+            return false;
+        }
+        String etag = etag(contentHash);
+        for (String candidate : header.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * POST /api/query/financial 응답에 붙이는 검증 헤더
+     */
+    public static HttpHeaders validatorHeaders(String contentHash, LocalDateTime dateCreated) {
+        HttpHeaders headers = new HttpHeaders();
+        if (contentHash != null) {
+            headers.setETag(etag(contentHash));
+        }
+        if (dateCreated != null) {
+            headers.setLastModified(lastModified(dateCreated));
+        }
+        headers.setCacheControl(PRIVATE_CACHE_CONTROL);
+        return headers;
+    }
+
+    /**
+     * 캐시된 보고서(gzip) 전송
+     */
+    public static void write(HttpServletRequest request, HttpServletResponse response, ByteBuffer gzip) throws IOException {
+        if (acceptsGzip(request)) {
+            ByteRange range = prepare(request, response, gzip.remaining(), true);
+            if (range == null) {
+                return;
+            }
+            ByteBuffer part = gzip.duplicate();
+            part.position(gzip.position() + (int) range.start());
+            part.limit(gzip.position() + (int) range.end());
+
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            while (part.hasRemaining()) {
+                out.write(part);
+            }
+            return;
+        }
+
+        ByteRange range = prepare(request, response, uncompressedSize(gzip), false);
+        if (range != null) {
+            writeDecompressed(new ByteBufferBackedInputStream(gzip.duplicate()), range, response);
+        }
+    }
+
+    /**
+     * 저장소에 있는 보고서(gzip) 전송
+     * (로컬 세그먼트는 파일 구간을 transferTo 로, 공유 저장소는 요청 구간만 읽어서 전송)
+     */
+    public static void write(HttpServletRequest request, HttpServletResponse response, ReportStore store,
+                             StoredReportRef ref) throws IOException {
+        if (acceptsGzip(request)) {
+            ByteRange range = prepare(request, response, ref.length(), true);
+            if (range != null) {
+                store.transferTo(ref, range.start(), range.length(), Channels.newChannel(response.getOutputStream()));
+            }
+            return;
+        }
+
+        ByteBuffer gzip = ByteBuffer.wrap(store.readBytes(ref));
+        ByteRange range = prepare(request, response, uncompressedSize(gzip), false);
+        if (range != null) {
+            writeDecompressed(new ByteBufferBackedInputStream(gzip), range, response);
+        }
+    }
+
+    /**
+     * 압축 해제하면서 range 구간만 전송
+     */
+    private static void writeDecompressed(InputStream gzip, ByteRange range, HttpServletResponse response) throws IOException {
+        try (InputStream in = new GZIPInputStream(gzip, BUFFER_SIZE)) {
+            in.skipNBytes(range.start());
+            OutputStream out = response.getOutputStream();
+            byte[] buffer = new byte[BUFFER_SIZE];
+            long remaining = range.length();
+            while (remaining > 0) {
+                int read = in.read(buffer, 0, (int) Math.min(buffer.length, remaining));
+                if (read < 0) {
+                    throw new EOFException("보고서 파일이 전송 중에 줄어들었습니다.");
+                }
+                out.write(buffer, 0, read);
+                remaining -= read;
+            }
+        }
+    }
+
+    /**
+     * gzip trailer 의 ISIZE (압축 해제 크기 mod 2^32, 보고서 크기에서는 실제 크기)
+     */
+    private static long uncompressedSize(ByteBuffer gzip) {
+        return Integer.toUnsignedLong(gzip.duplicate().order(ByteOrder.LITTLE_ENDIAN).getInt(gzip.limit() - 4));
+    }
+
+    /**
+     * Accept-Encoding 에 gzip 이 있고 q=0 이 아니면 true
+     */
+    private static boolean acceptsGzip(HttpServletRequest request) {
+        String header = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        if (header == null) {
+            return false;
+        }
+        for (String coding : header.split(",")) {
+            String[] parts = coding.trim().split(";");
+            String name = parts[0].trim();
+            if (!name.equalsIgnoreCase("gzip") && !name.equals("*")) {
+                continue;
+            }
+            for (int i = 1; i < parts.length; i++) {
+                String param = parts[i].trim();
+                if (param.startsWith("q=")) {
+                    try {
+                        return Double.parseDouble(param.substring(2)) > 0;
+                    } catch (NumberFormatException e) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * 상태 코드와 헤더 설정 후 전송할 구간 반환 (416 으로 끝났으면 null)
+     */
+    private static ByteRange prepare(HttpServletRequest request, HttpServletResponse response, long size, boolean gzip) {
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+
+        ByteRange range = parseRange(request.getHeader(HttpHeaders.RANGE), size);
+        if (range != null && !ifRangeMatches(request, response)) {
+            range = null;
+        }
+        if (range == UNSATISFIABLE) {
+            response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+            response.setContentLengthLong(0);
+            return null;
+        }
+        if (range == null) {
+            response.setStatus(HttpServletResponse.SC_OK);
+            response.setContentLengthLong(size);
+            return new ByteRange(0, size);
+        }
+        response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+        response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + range.start() + "-" + (range.end() - 1) + "/" + size);
+        response.setContentLengthLong(range.length());
+        return range;
+    }
+
+    /**
+     * If-Range 가 없거나 이 응답의 ETag(강한 비교) / Last-Modified 와 같으면 true
+     */
+    private static boolean ifRangeMatches(HttpServletRequest request, HttpServletResponse response) {
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange == null) {
+            return true;
+        }
+        ifRange = ifRange.trim();
+        if (ifRange.startsWith("W/")) {
+            return false;
+        }
+        String validator = ifRange.startsWith("\"")
+                ? response.getHeader(HttpHeaders.ETAG)
+                : response.getHeader(HttpHeaders.LAST_MODIFIED);
+        return ifRange.equals(validator);
+    }
+
+    /**
+     * "bytes=a-b", "bytes=a-", "bytes=-n" 형식의 단일 구간만 해석. 그 외에는 null (전체 전송)
+     */
+    private static ByteRange parseRange(String header, long size) {
+        if (header == null || !header.startsWith("bytes=") || header.indexOf(',') >= 0) {
+            return null;
+        }
+        String spec = header.substring("bytes=".length()).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return null;
+        }
+        try {
+            String first = spec.substring(0, dash).trim();
+            String last = spec.substring(dash + 1).trim();
+            if (first.isEmpty()) {
+                // 마지막 n 바이트
+                long suffix = Long.parseLong(last);
+                if (suffix <= 0 || size == 0) {
+                    return UNSATISFIABLE;
+                }
+                return new ByteRange(Math.max(0, size - suffix), size);
+            }
+            long start = Long.parseLong(first);
+            long lastPos = last.isEmpty() ? Long.MAX_VALUE : Long.parseLong(last);
+            if (start < 0 || lastPos < start) {
+                // 형식 오류는 무시
+                return null;
+            }
+            if (start >= size) {
+                return UNSATISFIABLE;
+            }
+            return new ByteRange(start, Math.min(lastPos, size - 1) + 1);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.finalproject.domain.report.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class ReportPageDTO {
+    private List<ReportSummaryDTO> reports;
+    // 다음 페이지 요청에 cursor 로 전달 (마지막 페이지면 null)
+    private String nextCursor;
+}
@@ -0,0 +1,14 @@
+package com.example.finalproject.domain.report.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+public class ReportProjectionRequestDTO {
+    private List<String> corpNames;
+    // JSON Pointer("/analysis/grade") 또는 점으로 이은 이름("analysis.grade")
+    private List<String> fields;
+}
@@ -0,0 +1,28 @@
+package com.example.finalproject.domain.report.dto;
+
+import com.example.finalproject.domain.report.repository.ReportRepository.ReportSummary;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+public class ReportSummaryDTO {
+    private Long reportId;
+    private String corpName;
+    private Long version;
+    private LocalDateTime dateCreated;
+    // 이 버전을 받는 URL (버전이 없는 이전 보고서는 최신 버전 URL)
+    private String reportUrl;
+
+    public static ReportSummaryDTO of(ReportSummary summary, String reportUrl) {
+        return ReportSummaryDTO.builder()
+                .reportId(summary.getId())
+                .corpName(summary.getCorpName())
+                .version(summary.getReportVersion())
+                .dateCreated(summary.getDateCreated())
+                .reportUrl(reportUrl)
+                .build();
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.finalproject.domain.report.entity;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * DB 에 저장한 보고서 한 버전 (report.store.type=database 일 때 사용, DatabaseReportStore)
+ * 데이터베이스의 REPORT_BLOB 테이블과 매핑됩니다.
+ *
+ * <p>payload 는 gzip 압축된 보고서 JSON 입니다. 목록/최신 버전 조회는 payload 를 읽지 않도록
+ * ReportBlobRepository 의 ReportBlobMeta 프로젝션을 사용합니다.
+ */
+@Entity
+@Table(name = "REPORT_BLOB",
+        uniqueConstraints = @UniqueConstraint(name = "UK_REPORT_BLOB_KEY_VERSION", columnNames = {"corpKey", "version"}))
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@AllArgsConstructor
+@Builder
+public class ReportBlobEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "REPORT_BLOB_PK")
+    private Long id;
+
+    // 정제된 기업명 (ReportService.sanitizeDirectoryName)
+    @Column(nullable = false)
+    private String corpKey;
+
+    @Column(nullable = false)
+    private long version;
+
+    // 생성 시각 (epoch millis)
+    @Column(nullable = false)
+    private long createdAt;
+
+    @Column(length = 64)
+    private String contentHash;
+
+    @Column(nullable = false)
+    private int payloadLength;
+
+    @Lob
+    @Column(nullable = false, columnDefinition = "LONGBLOB")
+    private byte[] payload;
+}
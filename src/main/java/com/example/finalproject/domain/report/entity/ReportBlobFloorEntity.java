@@ -0,0 +1,32 @@
+package com.example.finalproject.domain.report.entity;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * 기업별로 삭제한 마지막 보고서 버전 (DatabaseReportStore)
+ * 데이터베이스의 REPORT_BLOB_FLOOR 테이블과 매핑됩니다.
+ *
+ * <p>REPORT_BLOB 행을 모두 지운 뒤에도 남아, 다시 저장하는 보고서가 이 번호 다음 버전부터 시작하게 합니다.
+ */
+@Entity
+@Table(name = "REPORT_BLOB_FLOOR")
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@AllArgsConstructor
+public class ReportBlobFloorEntity {
+
+    // 정제된 기업명 (ReportStore.keyOf)
+    @Id
+    private String corpKey;
+
+    @Column(nullable = false)
+    private long deletedThrough;
+
+    public void raiseTo(long version) {
+        deletedThrough = Math.max(deletedThrough, version);
+    }
+}
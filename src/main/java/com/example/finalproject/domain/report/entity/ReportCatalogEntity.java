@@ -0,0 +1,93 @@
+package com.example.finalproject.domain.report.entity;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 기업별 최신 보고서를 가리키는 카탈로그 엔티티입니다.
+ * 데이터베이스의 REPORT_CATALOG 테이블과 매핑됩니다.
+ *
+ * <p>기업마다 한 행이며 corpKey(CompanyKey 로 정규화한 기업명)에 유니크 인덱스가 있어
+ * 보고서가 몇 번 재생성되어도 기업명 조회는 인덱스 조회 한 번입니다.
+ * 보고서를 저장할 때마다 upsert 되며(ReportMetadataWriter), latestReportId / latestVersion 이 가장 최근 보고서를 가리킵니다.
+ */
+@Entity
+@Table(name = "REPORT_CATALOG",
+        uniqueConstraints = @UniqueConstraint(name = "UK_REPORT_CATALOG_CORP_KEY", columnNames = "corpKey"))
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@AllArgsConstructor
+@Builder
+public class ReportCatalogEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "REPORT_CATALOG_PK")
+    private Long id;
+
+    // 정규화한 기업명 (CompanyKey.of)
+    @Column(nullable = false)
+    private String corpKey;
+
+    // 가장 최근 보고서의 기업명 (표시용)
+    @Column(nullable = false)
+    private String corpName;
+
+    // 가장 최근 보고서 (REPORT.REPORT_PK)
+    @Column(nullable = false)
+    private Long latestReportId;
+
+    // 가장 최근 보고서의 ReportStore 버전 (버전 저장소 이전 보고서는 null)
+    private Long latestVersion;
+
+    @Column(length = 64)
+    private String contentHash;
+
+    @Column(nullable = false)
+    private String reportUrl;
+
+    @Column(nullable = false)
+    private LocalDateTime dateCreated;
+
+    public static ReportCatalogEntity of(String corpKey, ReportEntity report) {
+        return ReportCatalogEntity.builder()
+                .corpKey(corpKey)
+                .corpName(report.getCorpName())
+                .latestReportId(report.getId())
+                .latestVersion(report.getReportVersion())
+                .contentHash(report.getContentHash())
+                .reportUrl(report.getReportUrl())
+                .dateCreated(report.getDateCreated())
+                .build();
+    }
+
+    /**
+     * 더 최근 보고서면 가리키는 보고서를 바꾸고 true (이미 더 최근 보고서를 가리키면 false)
+     */
+    public boolean pointTo(ReportEntity report) {
+        if (latestReportId != null && report.getId() != null && report.getId() < latestReportId) {
+            return false;
+        }
+        this.corpName = report.getCorpName();
+        this.latestReportId = report.getId();
+        this.latestVersion = report.getReportVersion();
+        this.contentHash = report.getContentHash();
+        this.reportUrl = report.getReportUrl();
+        this.dateCreated = report.getDateCreated();
+        return true;
+    }
+
+    /**
+     * 가리키던 보고서가 삭제되었을 때 남은 보고서 중 가장 최근 것으로 되돌림 (ReportSweeper)
+     */
+    public void resetTo(ReportEntity report) {
+        this.latestReportId = null;
+        pointTo(report);
+    }
+}
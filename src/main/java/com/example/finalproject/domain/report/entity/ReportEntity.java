@@ -3,19 +3,31 @@ package com.example.finalproject.domain.report.entity;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "REPORT")
+// 목록 조회(ReportRepository.findPage)용 인덱스는 조회하는 컬럼을 모두 포함해 테이블을 읽지 않음 (covering index)
+@Table(name = "REPORT", indexes = {
+        @Index(name = "IDX_REPORT_DATA_FINGERPRINT", columnList = "dataFingerprint"),
+        @Index(name = "IDX_REPORT_DATE_CREATED", columnList = "dateCreated, REPORT_PK, corpName, reportVersion"),
+        @Index(name = "IDX_REPORT_CORP_NAME_DATE_CREATED", columnList = "corpName, dateCreated, REPORT_PK, reportVersion")
+})
+@Getter
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 public class ReportEntity {
 
+    public static final int ID_ALLOCATION_SIZE = 50;
+
+    // pooled 시퀀스: ID 를 allocationSize 개씩 미리 받아 두므로 insert 를 JDBC 배치로 묶을 수 있음 (ReportMetadataWriter)
+    // 시퀀스를 지원하지 않는 DB(MySQL)에서는 Hibernate 가 report_seq 테이블로 대신함
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "report_seq")
+    @SequenceGenerator(name = "report_seq", sequenceName = "report_seq", allocationSize = ID_ALLOCATION_SIZE)
     @Column(name = "REPORT_PK")
     private Long id;
 
@@ -27,4 +39,23 @@ public class ReportEntity {
 
     @Column(nullable = false)
     private String reportUrl;
+
+    // financial_data 내용 기반 지문 (ReportFingerprint). 직접 저장한 보고서는 null
+    @Column(length = 64)
+    private String dataFingerprint;
+
+    // 저장된 보고서 JSON 바이트의 SHA-256 (ETag). 이전 버전에서 저장된 보고서는 null
+    @Column(length = 64)
+    private String contentHash;
+
+    // ReportStore 의 보고서 버전. 버전 저장소 이전에 저장된 보고서는 null (최신 버전으로 조회)
+    private Long reportVersion;
+
+    /**
+     * 롤백된 배치를 다시 저장하기 전에 persist 때 할당된 ID 를 지움
+     * (ID 가 남아 있으면 새 행이 아니라 detached 엔티티로 보고 merge 하므로 저장에 실패함)
+     */
+    public void clearId() {
+        this.id = null;
+    }
 }
@@ -0,0 +1,7 @@
+package com.example.finalproject.domain.report.repository;
+
+import com.example.finalproject.domain.report.entity.ReportBlobFloorEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface ReportBlobFloorRepository extends JpaRepository<ReportBlobFloorEntity, String> {
+}
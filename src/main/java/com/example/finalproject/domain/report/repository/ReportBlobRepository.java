@@ -0,0 +1,51 @@
+package com.example.finalproject.domain.report.repository;
+
+import com.example.finalproject.domain.report.entity.ReportBlobEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface ReportBlobRepository extends JpaRepository<ReportBlobEntity, Long> {
+
+    /**
+     * payload 를 제외한 보고서 정보
+     */
+    interface ReportBlobMeta {
+        Long getId();
+
+        long getVersion();
+
+        long getCreatedAt();
+
+        String getContentHash();
+
+        int getPayloadLength();
+    }
+
+    Optional<ReportBlobMeta> findFirstByCorpKeyOrderByVersionDesc(String corpKey);
+
+    Optional<ReportBlobMeta> findByCorpKeyAndVersion(String corpKey, long version);
+
+    List<ReportBlobMeta> findByCorpKeyOrderByVersionAsc(String corpKey);
+
+    @Query("select b.payload from ReportBlobEntity b where b.id = :id")
+    Optional<byte[]> findPayloadById(@Param("id") Long id);
+
+    /**
+     * 기업별 최신 생성 시각과 바이트 합계 (payload 는 읽지 않음)
+     */
+    interface ReportBlobUsage {
+        String getCorpKey();
+
+        long getLatestCreatedAt();
+
+        long getBytes();
+    }
+
+    @Query("select b.corpKey as corpKey, max(b.createdAt) as latestCreatedAt, sum(b.payloadLength) as bytes " +
+            "from ReportBlobEntity b group by b.corpKey")
+    List<ReportBlobUsage> findUsage();
+}
@@ -0,0 +1,26 @@
+package com.example.finalproject.domain.report.repository;
+
+import com.example.finalproject.domain.report.entity.ReportCatalogEntity;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface ReportCatalogRepository extends JpaRepository<ReportCatalogEntity, Long> {
+
+    Optional<ReportCatalogEntity> findByCorpKey(String corpKey);
+
+    List<ReportCatalogEntity> findByCorpKeyIn(Collection<String> corpKeys);
+
+    /**
+     * id 이후에 추가된 기업 (자동완성 색인 동기화용 keyset 페이지)
+     */
+    List<ReportCatalogEntity> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    /**
+     * 삭제한 보고서를 가리키는 카탈로그 (ReportSweeper)
+     */
+    List<ReportCatalogEntity> findByLatestReportIdIn(Collection<Long> reportIds);
+}
@@ -1,10 +1,100 @@
 package com.example.finalproject.domain.report.repository;
 
 import com.example.finalproject.domain.report.entity.ReportEntity;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface ReportRepository extends JpaRepository<ReportEntity, Long> {
-    Optional<ReportEntity> findByCorpName(String corpName);
+
+    /**
+     * 목록 조회용 보고서 요약 (IDX_REPORT_DATE_CREATED 에 있는 컬럼만)
+     */
+    interface ReportSummary {
+        Long getId();
+
+        String getCorpName();
+
+        LocalDateTime getDateCreated();
+
+        Long getReportVersion();
+    }
+
+    Optional<ReportEntity> findFirstByDataFingerprintOrderByIdDesc(String dataFingerprint);
+
+    /**
+     * id 이후의 보고서 (카탈로그 채우기용 keyset 페이지)
+     */
+    List<ReportEntity> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    /**
+     * 기업명이 corpNames 중 하나인 보고서 (보고서를 삭제한 기업의 행 정리용, IDX_REPORT_CORP_NAME_DATE_CREATED)
+     */
+    List<ReportEntity> findByCorpNameIn(Collection<String> corpNames);
+
+    /**
+     * 기업의 가장 최근 보고서 (카탈로그 복구용, IDX_REPORT_CORP_NAME_DATE_CREATED)
+     */
+    Optional<ReportEntity> findFirstByCorpNameOrderByDateCreatedDescIdDesc(String corpName);
+
+    /**
+     * 최신순(생성 시각, ID 내림차순) keyset 페이지: (cursorDate, cursorId) 보다 앞선 보고서부터 pageable 크기만큼.
+     * 조건은 항상 같은 형태로 바인딩하므로(ReportService.findReports) 페이지 깊이와 무관하게
+     * IDX_REPORT_DATE_CREATED 를 정렬 순서대로 읽다가 pageable 크기만큼 모이면 멈춤 (filesort 없음)
+     * <p>
+     * 접두어는 LIKE 대신 locate() = 1 로 걸러 IDX_REPORT_CORP_NAME_DATE_CREATED 범위 조회로 바뀌지 않게 함.
+     * 그 인덱스로 여러 기업에 걸친 접두어 범위를 읽으면 기업별로만 날짜순이라 전체를 정렬(filesort)해야 하기 때문
+     * (정확한 기업명 조회는 findPageByCorpName)
+     *
+     * @param corpPrefix 기업명 접두어 (빈 문자열이면 전체)
+     * @param from       생성 시각 하한 (포함)
+     */
+    @Query("select r.id as id, r.corpName as corpName, r.dateCreated as dateCreated, r.reportVersion as reportVersion"
+            + " from ReportEntity r"
+            + " where (:corpPrefix = '' or locate(:corpPrefix, r.corpName) = 1)"
+            + " and r.dateCreated >= :from"
+            + " and (r.dateCreated < :cursorDate or (r.dateCreated = :cursorDate and r.id < :cursorId))"
+            + " order by r.dateCreated desc, r.id desc")
+    List<ReportSummary> findPage(@Param("corpPrefix") String corpPrefix,
+                                 @Param("from") LocalDateTime from,
+                                 @Param("cursorDate") LocalDateTime cursorDate,
+                                 @Param("cursorId") long cursorId,
+                                 Pageable pageable);
+
+    /**
+     * 한 기업의 최신순 keyset 페이지. 기업명이 같으면 IDX_REPORT_CORP_NAME_DATE_CREATED 가 (생성 시각, ID) 순이므로
+     * 범위 조회 한 번으로 정렬 없이 읽음
+     */
+    @Query("select r.id as id, r.corpName as corpName, r.dateCreated as dateCreated, r.reportVersion as reportVersion"
+            + " from ReportEntity r"
+            + " where r.corpName = :corpName"
+            + " and r.dateCreated >= :from"
+            + " and (r.dateCreated < :cursorDate or (r.dateCreated = :cursorDate and r.id < :cursorId))"
+            + " order by r.dateCreated desc, r.id desc")
+    List<ReportSummary> findPageByCorpName(@Param("corpName") String corpName,
+                                           @Param("from") LocalDateTime from,
+                                           @Param("cursorDate") LocalDateTime cursorDate,
+                                           @Param("cursorId") long cursorId,
+                                           Pageable pageable);
+
+    @Query("select max(r.id) from ReportEntity r")
+    Long findMaxId();
+
+    /**
+     * 시퀀스를 테이블로 대신하는 DB(MySQL)에서 next_val 을 nextVal 로 올림 (이미 더 크면 그대로).
+     * pooled 최적화는 읽은 값을 구간의 끝으로 보고 (값 - allocationSize, 값] 을 쓰므로,
+     * 호출하는 쪽은 기존 최대 ID + allocationSize 보다 큰 값을 넘겨야 함 (ReportMetadataWriter.alignIdSequence)
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "update report_seq set next_val = :nextVal where next_val < :nextVal", nativeQuery = true)
+    int advanceIdTable(@Param("nextVal") long nextVal);
 }
@@ -0,0 +1,39 @@
+package com.example.finalproject.domain.report.service;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * 기업명을 카탈로그 키로 정규화합니다. (ReportCatalogEntity.corpKey)
+ *
+ * <p>"(주)삼성전자", "삼성전자 주식회사", "삼성 전자", "㈜삼성전자" 가 모두 같은 키("삼성전자")가 됩니다.
+ * <ul>
+ *   <li>NFKC 정규화 (전각 문자, ㈜ 같은 호환 문자 분해)</li>
+ *   <li>법인 표기 제거: 주식회사, (주), (株), (유), 유한회사, Co., Ltd., Inc., Corp.</li>
+ *   <li>공백과 구두점 제거, 소문자 변환</li>
+ * </ul>
+ */
+public final class CompanyKey {
+
+    private CompanyKey() {
+    }
+
+    private static final Pattern LEGAL_FORM = Pattern.compile(
+            "주식회사|유한회사|\\(\\s*[주株유]\\s*\\)|\\b(co|ltd|inc|corp|corporation|company)\\b\\.?",
+            Pattern.CASE_INSENSITIVE);
+    private static final Pattern SEPARATORS = Pattern.compile("[\\s\\p{Punct}·]+");
+
+    public static String of(String corpName) {
+        if (corpName == null) {
+            return "";
+        }
+        String key = Normalizer.normalize(corpName, Normalizer.Form.NFKC);
+        String stripped = SEPARATORS.matcher(LEGAL_FORM.matcher(key).replaceAll("")).replaceAll("");
+        if (stripped.isEmpty()) {
+            // 법인 표기만으로 된 이름은 표기를 남김
+            stripped = SEPARATORS.matcher(key).replaceAll("");
+        }
+        return stripped.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,192 @@
+package com.example.finalproject.domain.report.service;
+
+import com.example.finalproject.domain.report.entity.ReportBlobEntity;
+import com.example.finalproject.domain.report.entity.ReportBlobFloorEntity;
+import com.example.finalproject.domain.report.repository.ReportBlobFloorRepository;
+import com.example.finalproject.domain.report.repository.ReportBlobRepository;
+import com.example.finalproject.domain.report.repository.ReportBlobRepository.ReportBlobMeta;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 보고서를 DB 의 REPORT_BLOB 테이블에 보관하는 저장소입니다. (report.store.type=database)
+ *
+ * <p>모든 서버가 같은 DB 를 보므로 별도 스토리지 없이 보고서를 공유할 수 있습니다.
+ * 버전 번호는 (기업, 버전) 유니크 제약으로 정하며, 다른 서버와 같은 번호로 충돌하면 다음 번호로 다시 저장합니다.
+ * 기업별로 최근 report.store.retain-versions 개 버전만 남깁니다.
+ * 기업을 삭제하면 삭제한 마지막 버전을 REPORT_BLOB_FLOOR 에 남겨, 다시 저장할 때 그 다음 번호부터 씁니다.
+ */
+@Component
+@ConditionalOnProperty(name = "report.store.type", havingValue = "database")
+@RequiredArgsConstructor
+public class DatabaseReportStore implements ReportStore {
+
+    private static final int MAX_APPEND_ATTEMPTS = 5;
+
+    private final ReportBlobRepository reportBlobRepository;
+    private final ReportBlobFloorRepository reportBlobFloorRepository;
+
+    @Value("${report.store.retain-versions:5}")
+    private int retainVersions;
+
+    private final AtomicLong appends = new AtomicLong();
+    private final AtomicLong versionConflicts = new AtomicLong();
+    private final AtomicLong bytesRead = new AtomicLong();
+    private final AtomicLong deletes = new AtomicLong();
+
+    @Override
+    public StoredReportRef append(String key, byte[] gzip, String contentHash, long createdAt) throws IOException {
+        for (int attempt = 1; ; attempt++) {
+            long version = Math.max(
+                    reportBlobRepository.findFirstByCorpKeyOrderByVersionDesc(key).map(ReportBlobMeta::getVersion).orElse(0L),
+                    deletedThrough(key)) + 1;
+            try {
+                ReportBlobEntity saved = reportBlobRepository.save(ReportBlobEntity.builder()
+                        .corpKey(key)
+                        .version(version)
+                        .createdAt(createdAt)
+                        .contentHash(contentHash)
+                        .payloadLength(gzip.length)
+                        .payload(gzip)
+                        .build());
+                appends.incrementAndGet();
+                deleteOldVersions(key);
+                return new StoredReportRef(key, version, createdAt, contentHash, gzip.length, saved.getId());
+            } catch (DataIntegrityViolationException e) {
+                // 다른 서버가 같은 버전을 먼저 저장함
+                versionConflicts.incrementAndGet();
+                if (attempt >= MAX_APPEND_ATTEMPTS) {
+                    throw new IOException("보고서 버전 충돌이 계속되어 저장하지 못했습니다: " + key, e);
+                }
+            }
+        }
+    }
+
+    /**
+     * BLOB 컬럼에 넣어야 하므로 파일 내용을 읽어서 저장
+     */
+    @Override
+    public StoredReportRef append(String key, Path gzipFile, String contentHash, long createdAt) throws IOException {
+        return append(key, Files.readAllBytes(gzipFile), contentHash, createdAt);
+    }
+
+    private void deleteOldVersions(String key) {
+        List<ReportBlobMeta> versions = reportBlobRepository.findByCorpKeyOrderByVersionAsc(key);
+        if (versions.size() <= retainVersions) {
+            return;
+        }
+        List<Long> ids = versions.subList(0, versions.size() - retainVersions).stream()
+                .map(ReportBlobMeta::getId)
+                .toList();
+        reportBlobRepository.deleteAllByIdInBatch(ids);
+    }
+
+    @Override
+    public Optional<StoredReportRef> latest(String key) {
+        return reportBlobRepository.findFirstByCorpKeyOrderByVersionDesc(key).map(meta -> toRef(key, meta));
+    }
+
+    @Override
+    public Optional<StoredReportRef> find(String key, long version) {
+        return reportBlobRepository.findByCorpKeyAndVersion(key, version).map(meta -> toRef(key, meta));
+    }
+
+    @Override
+    public List<Long> versions(String key) {
+        return reportBlobRepository.findByCorpKeyOrderByVersionAsc(key).stream()
+                .map(ReportBlobMeta::getVersion)
+                .toList();
+    }
+
+    @Override
+    public void read(StoredReportRef ref, ByteBuffer dst) throws IOException {
+        dst.put(loadPayload(ref));
+    }
+
+    @Override
+    public byte[] readBytes(StoredReportRef ref) throws IOException {
+        return loadPayload(ref);
+    }
+
+    @Override
+    public void transferTo(StoredReportRef ref, long position, long count, WritableByteChannel target) throws IOException {
+        ByteBuffer part = ByteBuffer.wrap(loadPayload(ref), (int) position, (int) count);
+        while (part.hasRemaining()) {
+            target.write(part);
+        }
+    }
+
+    private byte[] loadPayload(StoredReportRef ref) throws IOException {
+        byte[] payload = reportBlobRepository.findPayloadById((Long) ref.location())
+                .orElseThrow(() -> new IOException("보고서가 삭제되었습니다: " + ref.key() + " 버전 " + ref.version()));
+        bytesRead.addAndGet(payload.length);
+        return payload;
+    }
+
+    private static StoredReportRef toRef(String key, ReportBlobMeta meta) {
+        return new StoredReportRef(key, meta.getVersion(), meta.getCreatedAt(), meta.getContentHash(),
+                meta.getPayloadLength(), meta.getId());
+    }
+
+    @Override
+    public List<KeyUsage> usage() {
+        return reportBlobRepository.findUsage().stream()
+                .map(row -> new KeyUsage(row.getCorpKey(), row.getLatestCreatedAt(), row.getBytes()))
+                .toList();
+    }
+
+    /**
+     * 하한을 먼저 기록한 뒤 행 삭제 (삭제 도중 다른 서버가 저장해도 삭제한 번호를 쓰지 않도록)
+     */
+    @Override
+    public Deletion delete(String key) {
+        List<ReportBlobMeta> versions = reportBlobRepository.findByCorpKeyOrderByVersionAsc(key);
+        if (versions.isEmpty()) {
+            return new Deletion(0, deletedThrough(key));
+        }
+        long deletedThrough = versions.get(versions.size() - 1).getVersion();
+        ReportBlobFloorEntity floor = reportBlobFloorRepository.findById(key)
+                .orElseGet(() -> new ReportBlobFloorEntity(key, 0));
+        floor.raiseTo(deletedThrough);
+        reportBlobFloorRepository.save(floor);
+
+        reportBlobRepository.deleteAllByIdInBatch(versions.stream().map(ReportBlobMeta::getId).toList());
+        deletes.incrementAndGet();
+        return new Deletion(versions.stream().mapToLong(ReportBlobMeta::getPayloadLength).sum(), floor.getDeletedThrough());
+    }
+
+    private long deletedThrough(String key) {
+        return reportBlobFloorRepository.findById(key).map(ReportBlobFloorEntity::getDeletedThrough).orElse(0L);
+    }
+
+    @Override
+    public boolean isShared() {
+        return true;
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("type", "database");
+        stats.put("reports", reportBlobRepository.count());
+        stats.put("appends", appends.get());
+        stats.put("versionConflicts", versionConflicts.get());
+        stats.put("bytesRead", bytesRead.get());
+        stats.put("deletes", deletes.get());
+        return stats;
+    }
+}
@@ -0,0 +1,217 @@
+package com.example.finalproject.domain.report.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonPointer;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 보고서 JSON 에서 선택한 필드만 뽑아 쓰는 스트리밍 추출기입니다. (download-json 의 fields)
+ *
+ * <p>필드는 JSON Pointer("/analysis/grade", 배열은 "/items/0") 또는 점으로 이은 이름("analysis.grade")으로 지정합니다.
+ * 결과는 원본과 같은 구조에서 선택한 경로만 남긴 객체입니다. ({"analysis":{"grade":"A"}})
+ *
+ * <ul>
+ *   <li>선택하지 않은 값은 JsonParser.skipChildren 으로 건너뜀 (트리나 문자열을 만들지 않음)</li>
+ *   <li>선택한 값을 모두 찾으면 나머지는 읽지 않고 끝냄 (압축 해제도 거기서 멈춤)</li>
+ *   <li>없는 경로는 결과에서 빠짐 (경로 중간의 객체는 빈 객체로 남을 수 있음)</li>
+ * </ul>
+ */
+public final class JsonProjection {
+
+    private static final JsonFactory JSON_FACTORY = JsonFactory.builder()
+            .disable(JsonFactory.Feature.INTERN_FIELD_NAMES)
+            .build();
+
+    /**
+     * 보고서 여러 개의 결과를 이어 쓸 generator (out 은 닫지 않음)
+     */
+    public static JsonGenerator createGenerator(OutputStream out) throws IOException {
+        return JSON_FACTORY.createGenerator(out).disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+
+    /**
+     * 선택 경로 트리의 한 단계 (leaf 면 그 값 전체를 선택)
+     */
+    private static final class Node {
+        private final Map<String, Node> children = new LinkedHashMap<>();
+        private boolean leaf;
+    }
+
+    private final Node root = new Node();
+    private final int leafCount;
+    private final String fingerprint;
+
+    private JsonProjection(List<String> fields) {
+        for (String field : fields) {
+            add(toPointer(field));
+        }
+        this.leafCount = countLeaves(root);
+        this.fingerprint = sha256(String.join(",", fields)).substring(0, 16);
+    }
+
+    /**
+     * "a.b,/c/0" 처럼 쉼표로 구분한 필드 목록
+     *
+     * @throws IllegalArgumentException 선택한 필드가 없거나 JSON Pointer 형식이 올바르지 않은 경우
+     */
+    public static JsonProjection parse(String fields) {
+        return of(List.of(fields.split(",")));
+    }
+
+    public static JsonProjection of(List<String> fields) {
+        List<String> selected = fields.stream()
+                .map(String::strip)
+                .filter(field -> !field.isEmpty())
+                .toList();
+        if (selected.isEmpty()) {
+            throw new IllegalArgumentException("선택한 필드가 없습니다.");
+        }
+        return new JsonProjection(selected);
+    }
+
+    private static JsonPointer toPointer(String field) {
+        if (field.startsWith("/")) {
+            return JsonPointer.compile(field);
+        }
+        JsonPointer pointer = JsonPointer.empty();
+        for (String name : field.split("\\.")) {
+            pointer = pointer.appendProperty(name);
+        }
+        return pointer;
+    }
+
+    /**
+     * 경로 추가. 상위 경로가 이미 선택되었으면 무시하고, 하위 경로가 있던 경로가 선택되면 하위 경로를 지움
+     */
+    private void add(JsonPointer pointer) {
+        Node node = root;
+        for (JsonPointer p = pointer; !p.matches(); p = p.tail()) {
+            if (node.leaf) {
+                return;
+            }
+            node = node.children.computeIfAbsent(p.getMatchingProperty(), k -> new Node());
+        }
+        node.leaf = true;
+        node.children.clear();
+    }
+
+    private static int countLeaves(Node node) {
+        if (node.leaf) {
+            return 1;
+        }
+        int count = 0;
+        for (Node child : node.children.values()) {
+            count += countLeaves(child);
+        }
+        return count;
+    }
+
+    /**
+     * 선택한 필드로 정해지는 값 (ETag 에 붙여 필드 조합마다 다른 표현으로 구분)
+     */
+    public String fingerprint() {
+        return fingerprint;
+    }
+
+    /**
+     * json 에서 선택한 필드만 out 으로 씀 (out 은 닫지 않음)
+     */
+    public void write(InputStream json, OutputStream out) throws IOException {
+        try (JsonGenerator generator = createGenerator(out)) {
+            write(json, generator);
+        }
+    }
+
+    /**
+     * json 에서 선택한 필드만 generator 의 현재 위치에 값 하나로 씀 (여러 보고서를 한 응답에 쓸 때)
+     */
+    public void write(InputStream json, JsonGenerator generator) throws IOException {
+        try (JsonParser parser = JSON_FACTORY.createParser(json)) {
+            if (parser.nextToken() == null) {
+                generator.writeNull();
+            } else if (root.leaf) {
+                generator.copyCurrentStructure(parser);
+            } else if (parser.currentToken().isStructStart()) {
+                copySelected(parser, generator, root, new int[]{leafCount});
+            } else {
+                generator.writeNull();
+            }
+        }
+        generator.flush();
+    }
+
+    /**
+     * 현재 객체/배열에서 node 에 있는 경로만 복사. 선택한 값을 모두 찾았으면 true (남은 입력은 읽지 않음)
+     *
+     * @param remaining 아직 찾지 못한 선택 값 수
+     */
+    private static boolean copySelected(JsonParser parser, JsonGenerator generator, Node node, int[] remaining)
+            throws IOException {
+        boolean object = parser.currentToken() == JsonToken.START_OBJECT;
+        if (object) {
+            generator.writeStartObject();
+        } else {
+            generator.writeStartArray();
+        }
+        boolean done = false;
+        int index = 0;
+        JsonToken token;
+        while (!done && (token = parser.nextToken()) != null && !token.isStructEnd()) {
+            String name;
+            if (object) {
+                name = parser.currentName();
+                parser.nextToken();
+            } else {
+                name = Integer.toString(index++);
+            }
+            Node child = node.children.get(name);
+            if (child == null) {
+                parser.skipChildren();
+                continue;
+            }
+            if (child.leaf) {
+                if (object) {
+                    generator.writeFieldName(name);
+                }
+                generator.copyCurrentStructure(parser);
+                done = --remaining[0] == 0;
+            } else if (parser.currentToken().isStructStart()) {
+                if (object) {
+                    generator.writeFieldName(name);
+                }
+                done = copySelected(parser, generator, child, remaining);
+            } else {
+                // 경로 중간이 값(문자열, 숫자 등)이라 하위 필드가 없음
+                parser.skipChildren();
+            }
+        }
+        if (object) {
+            generator.writeEndObject();
+        } else {
+            generator.writeEndArray();
+        }
+        return done;
+    }
+
+    private static String sha256(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
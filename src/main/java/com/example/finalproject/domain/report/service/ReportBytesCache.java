@@ -0,0 +1,176 @@
+package com.example.finalproject.domain.report.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 자주 조회되는 보고서 파일 바이트(gzip)를 direct memory(힙 밖)에 보관하는 LRU 캐시입니다.
+ *
+ * <p>키는 정제된 기업명(sanitizeDirectoryName)입니다. 캐시가 커져도 힙과 GC 대상 객체 수는 거의 늘지 않습니다.
+ * 기업의 최신 버전만 보관하며, 조건부 요청(ETag/Last-Modified) 처리를 위해 버전, 내용 해시, 생성 시각도 함께 보관합니다.
+ *
+ * <p>정책:
+ * <ul>
+ *   <li>보관 중인 바이트 합계가 max-bytes 를 넘으면 가장 오래 사용되지 않은 항목부터 제거</li>
+ *   <li>max-entry-bytes 보다 큰 보고서는 캐시하지 않음 (한 건이 캐시 전체를 밀어내지 않도록)</li>
+ *   <li>보고서를 저장하면 해당 기업 항목 삭제. 파일을 읽는 동안 삭제가 일어났으면 읽은 값은 넣지 않음 (stamp)</li>
+ * </ul>
+ *
+ * <p>제거된 direct buffer 의 메모리는 버퍼 객체가 GC 될 때 반환되므로
+ * -XX:MaxDirectMemorySize 는 max-bytes 보다 여유 있게 잡아야 합니다.
+ */
+@Component
+@Slf4j
+public class ReportBytesCache {
+
+    @Value("${report.cache.max-bytes:67108864}")
+    private long maxBytes;
+
+    @Value("${report.cache.max-entry-bytes:4194304}")
+    private int maxEntryBytes;
+
+    // 아래 상태는 모두 this 락으로 보호
+    private final LinkedHashMap<String, CachedReport> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long bytesHeld;
+    // 삭제가 일어날 때마다 증가 (읽기 시작 시점 이후 삭제가 있었는지 판단)
+    private long stamp;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+
+    /**
+     * 캐시된 보고서
+     *
+     * @param gzip        gzip 압축된 보고서 JSON (읽기 전용)
+     * @param version     ReportStore 의 보고서 버전
+     * @param contentHash 압축 전 JSON 의 SHA-256 (이전 버전으로 저장된 보고서는 null)
+     * @param dateCreated 보고서 생성 시각
+     */
+    public record CachedReport(ByteBuffer gzip, long version, String contentHash, LocalDateTime dateCreated) {
+    }
+
+    /**
+     * 캐시된 보고서 (gzip 은 position 0 인 별도 버퍼). 없으면 null
+     */
+    public CachedReport get(String safeCorpName) {
+        CachedReport cached;
+        synchronized (this) {
+            cached = entries.get(safeCorpName);
+        }
+        if (cached == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return new CachedReport(cached.gzip().duplicate(), cached.version(), cached.contentHash(), cached.dateCreated());
+    }
+
+    /**
+     * 파일을 읽기 전에 받아 두고 put 에 넘김
+     */
+    public synchronized long stamp() {
+        return stamp;
+    }
+
+    /**
+     * 이 크기의 보고서를 캐시에 넣을 수 있는지 (max-entry-bytes 이하)
+     */
+    public boolean isCacheable(long size) {
+        return size <= maxEntryBytes && size <= maxBytes;
+    }
+
+    /**
+     * 보고서 바이트를 direct memory 로 복사해 보관 (stamp 이후 삭제가 있었으면 무시)
+     */
+    public void put(String safeCorpName, byte[] gzip, long version, String contentHash, LocalDateTime dateCreated, long loadStamp) {
+        if (!isCacheable(gzip.length)) {
+            rejected.incrementAndGet();
+            return;
+        }
+        ByteBuffer buffer = ByteBuffer.allocateDirect(gzip.length);
+        buffer.put(gzip).flip();
+        put(safeCorpName, buffer, version, contentHash, dateCreated, loadStamp);
+    }
+
+    /**
+     * 파일에서 바로 읽어 둔 direct buffer 를 그대로 보관 (position 0 ~ limit 이 보고서 내용)
+     */
+    public void put(String safeCorpName, ByteBuffer directBuffer, long version, String contentHash, LocalDateTime dateCreated,
+                    long loadStamp) {
+        if (!isCacheable(directBuffer.remaining())) {
+            rejected.incrementAndGet();
+            return;
+        }
+        CachedReport entry = new CachedReport(directBuffer.asReadOnlyBuffer(), version, contentHash, dateCreated);
+        synchronized (this) {
+            if (loadStamp != stamp) {
+                return;
+            }
+            CachedReport previous = entries.put(safeCorpName, entry);
+            if (previous != null) {
+                bytesHeld -= previous.gzip().capacity();
+            }
+            bytesHeld += entry.gzip().capacity();
+
+            Iterator<Map.Entry<String, CachedReport>> eldest = entries.entrySet().iterator();
+            while (bytesHeld > maxBytes && eldest.hasNext()) {
+                bytesHeld -= eldest.next().getValue().gzip().capacity();
+                eldest.remove();
+                evictions.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * 기업 보고서가 바뀌었을 때 삭제
+     */
+    public synchronized void invalidate(String safeCorpName) {
+        stamp++;
+        CachedReport removed = entries.remove(safeCorpName);
+        if (removed != null) {
+            bytesHeld -= removed.gzip().capacity();
+            invalidations.incrementAndGet();
+        }
+    }
+
+    public synchronized int invalidateAll() {
+        stamp++;
+        int size = entries.size();
+        entries.clear();
+        bytesHeld = 0;
+        log.info("보고서 캐시 전체 삭제: {}건", size);
+        return size;
+    }
+
+    public Map<String, Object> getStats() {
+        long hitCount = hits.get();
+        long missCount = misses.get();
+        long total = hitCount + missCount;
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        synchronized (this) {
+            stats.put("size", entries.size());
+            stats.put("bytesHeld", bytesHeld);
+        }
+        stats.put("maxBytes", maxBytes);
+        stats.put("maxEntryBytes", maxEntryBytes);
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("hitRate", total == 0 ? 0.0 : (double) hitCount / total);
+        stats.put("evictions", evictions.get());
+        stats.put("invalidations", invalidations.get());
+        stats.put("rejected", rejected.get());
+        return stats;
+    }
+}
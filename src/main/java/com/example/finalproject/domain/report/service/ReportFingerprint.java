@@ -0,0 +1,122 @@
+package com.example.finalproject.domain.report.service;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * financial_data 의 내용 기반 지문(SHA-256)을 만드는 유틸리티입니다.
+ *
+ * <p>같은 기업의 같은 수치면 같은 지문이 나오도록 정규화한 뒤 해시합니다.
+ * <ul>
+ *   <li>기업: 요청의 기업명을 CompanyKey 로 정규화해 포함 ("(주)삼성전자" / "삼성전자" 는 같은 지문, 다른 기업은 수치가 같아도 다른 지문)</li>
+ *   <li>객체 키: 소문자로 바꾸고 공백, '_', '-' 제거 후 정렬 (필드 순서, corp_name/corpName 같은 표기 차이 무시)</li>
+ *   <li>financial_data 의 기업명 필드(corp_name, company_name): 제외 (기업은 위의 정규화한 기업명으로만 구분)</li>
+ *   <li>숫자와 숫자 형태의 문자열("1,000", " 1000.0 "): 같은 값이면 같은 표현</li>
+ *   <li>그 외 문자열: 앞뒤 공백 제거, 연속 공백 1칸으로 축소</li>
+ * </ul>
+ */
+public final class ReportFingerprint {
+
+    private static final Set<String> NAME_KEYS = Set.of("corpname", "companyname");
+
+    private ReportFingerprint() {
+    }
+
+    /**
+     * @param companyName   요청의 기업명 (company_name, 없으면 financial_data.corp_name)
+     * @param financialData 요청의 financial_data
+     */
+    public static String of(String companyName, Object financialData) {
+        StringBuilder canonical = new StringBuilder();
+        writeString(canonical, CompanyKey.of(companyName));
+        canonical.append(':');
+        write(canonical, financialData, true);
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(canonical.toString().getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void write(StringBuilder out, Object value, boolean root) {
+        if (value instanceof Map<?, ?> map) {
+            TreeMap<String, Object> sorted = new TreeMap<>();
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                String key = normalizeKey(String.valueOf(entry.getKey()));
+                if (root && NAME_KEYS.contains(key)) {
+                    continue;
+                }
+                sorted.put(key, entry.getValue());
+            }
+            out.append('{');
+            boolean first = true;
+            for (Map.Entry<String, Object> entry : sorted.entrySet()) {
+                if (!first) {
+                    out.append(',');
+                }
+                first = false;
+                writeString(out, entry.getKey());
+                out.append(':');
+                write(out, entry.getValue(), false);
+            }
+            out.append('}');
+        } else if (value instanceof List<?> list) {
+            out.append('[');
+            for (int i = 0; i < list.size(); i++) {
+                if (i > 0) {
+                    out.append(',');
+                }
+                write(out, list.get(i), false);
+            }
+            out.append(']');
+        } else if (value instanceof Number number) {
+            out.append(normalizeNumber(new BigDecimal(number.toString())));
+        } else if (value instanceof String text) {
+            BigDecimal numeric = parseNumber(text);
+            if (numeric != null) {
+                out.append(normalizeNumber(numeric));
+            } else {
+                writeString(out, text.trim().replaceAll("\\s+", " "));
+            }
+        } else {
+            out.append(value);
+        }
+    }
+
+    private static String normalizeKey(String key) {
+        return key.toLowerCase(Locale.ROOT).replaceAll("[\\s_\\-]", "");
+    }
+
+    private static BigDecimal parseNumber(String text) {
+        String stripped = text.trim().replace(",", "");
+        if (stripped.isEmpty() || !stripped.matches("[-+]?\\d*\\.?\\d+([eE][-+]?\\d+)?")) {
+            return null;
+        }
+        return new BigDecimal(stripped);
+    }
+
+    private static String normalizeNumber(BigDecimal number) {
+        return number.signum() == 0 ? "0" : number.stripTrailingZeros().toPlainString();
+    }
+
+    private static void writeString(StringBuilder out, String text) {
+        out.append('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '"' || c == '\\') {
+                out.append('\\');
+            }
+            out.append(c);
+        }
+        out.append('"');
+    }
+}
@@ -0,0 +1,378 @@
+package com.example.finalproject.domain.report.service;
+
+import com.example.finalproject.domain.report.entity.ReportEntity;
+import com.example.finalproject.domain.report.entity.ReportCatalogEntity;
+import com.example.finalproject.domain.report.repository.ReportCatalogRepository;
+import com.example.finalproject.domain.report.repository.ReportRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 보고서 정보(ReportEntity)를 모아서 배치로 저장하는 write-behind 기록기입니다.
+ *
+ * <p>보고서 본문은 ReportStore 에 바로 기록(디스크 반영까지)되므로, 응답 경로에서는 DB 저장을 기다리지 않습니다.
+ * 대기열의 항목은 batch-size 개가 모이거나 flush-interval-ms 가 지나면 한 트랜잭션의 JDBC 배치 insert 로 저장됩니다.
+ * (ReportEntity 는 pooled 시퀀스로 ID 를 미리 할당하므로 IDENTITY 와 달리 배치 insert 가 가능)
+ * 같은 트랜잭션에서 기업별 카탈로그(ReportCatalogEntity)를 upsert 해 최신 보고서를 가리키게 합니다.
+ *
+ * <p>동작 방식:
+ * <ul>
+ *   <li>저장 전인 항목은 지문으로 조회할 수 있음 (같은 요청이 저장 전에 다시 들어와도 AI 서버에 재요청하지 않음)</li>
+ *   <li>저장에 실패한 배치는 다음 주기에 가장 먼저 다시 시도.
+ *       다른 서버와 같은 기업 카탈로그를 동시에 만들어 유니크 제약에 걸린 경우도 재시도 때 기존 행을 갱신</li>
+ *   <li>max-attempts 회 연속 실패한 배치는 dead-letter-file 에 한 줄씩 JSON 으로 기록하고,
+ *       다음 시작 시 그 파일의 항목을 다시 저장</li>
+ *   <li>종료 시 남은 항목을 모두 저장</li>
+ * </ul>
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ReportMetadataWriter {
+
+    private final ReportRepository reportRepository;
+    private final ReportCatalogRepository reportCatalogRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final ObjectMapper objectMapper;
+
+    @Value("${report.metadata.batch-size:50}")
+    private int batchSize;
+
+    @Value("${report.metadata.flush-interval-ms:200}")
+    private long flushIntervalMs;
+
+    @Value("${report.metadata.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${report.metadata.dead-letter-file:${java.io.tmpdir}/reports/metadata-dead-letter.jsonl}")
+    private String deadLetterFile;
+
+    private static final int BACKFILL_PAGE_SIZE = 1000;
+
+    private final ConcurrentLinkedQueue<ReportEntity> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    // 저장 전인 보고서 정보 (지문 -> 가장 최근 항목)
+    private final Map<String, ReportEntity> pendingByFingerprint = new ConcurrentHashMap<>();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    // flush 는 한 번에 하나만 실행 (대기열 순서 = 저장 순서)
+    private final Object flushLock = new Object();
+    // 아래 두 값은 flushLock 으로 보호: 저장에 실패해 다음 주기에 먼저 저장할 배치, 연속 실패 횟수
+    private List<ReportEntity> retryBatch = List.of();
+    private int failedAttempts;
+
+    private ScheduledExecutorService flusher;
+
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    /**
+     * 저장을 포기한 보고서 정보 (dead-letter 파일의 한 줄)
+     */
+    private record DroppedReport(String corpName, LocalDateTime dateCreated, String reportUrl, String dataFingerprint,
+                                 String contentHash, Long reportVersion) {
+
+        static DroppedReport of(ReportEntity report) {
+            return new DroppedReport(report.getCorpName(), report.getDateCreated(), report.getReportUrl(),
+                    report.getDataFingerprint(), report.getContentHash(), report.getReportVersion());
+        }
+
+        ReportEntity toEntity() {
+            return ReportEntity.builder()
+                    .corpName(corpName)
+                    .dateCreated(dateCreated)
+                    .reportUrl(reportUrl)
+                    .dataFingerprint(dataFingerprint)
+                    .contentHash(contentHash)
+                    .reportVersion(reportVersion)
+                    .build();
+        }
+    }
+
+    @PostConstruct
+    public void init() {
+        alignIdSequence();
+        flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "report-metadata-writer");
+            t.setDaemon(true);
+            return t;
+        });
+        // 카탈로그 채우기가 먼저 실행되도록 같은 스레드에서 실행
+        flusher.execute(this::backfillCatalog);
+        flusher.execute(this::replayDeadLetters);
+        flusher.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 카탈로그가 비어 있으면(카탈로그 도입 전 DB) 기존 보고서로 채움. id 순서로 keyset 페이지를 읽으므로 행 수와 무관하게 페이지당 인덱스 범위 조회
+     */
+    private void backfillCatalog() {
+        try {
+            if (reportCatalogRepository.count() > 0) {
+                return;
+            }
+            long lastId = 0;
+            long total = 0;
+            while (true) {
+                List<ReportEntity> page = reportRepository.findByIdGreaterThanOrderByIdAsc(lastId,
+                        PageRequest.of(0, BACKFILL_PAGE_SIZE));
+                if (page.isEmpty()) {
+                    break;
+                }
+                new TransactionTemplate(transactionManager).executeWithoutResult(status -> upsertCatalog(page));
+                lastId = page.get(page.size() - 1).getId();
+                total += page.size();
+            }
+            if (total > 0) {
+                log.info("보고서 카탈로그 채움: 보고서 {}건", total);
+            }
+        } catch (RuntimeException e) {
+            log.error("보고서 카탈로그 채우기 실패", e);
+        }
+    }
+
+    /**
+     * ID 가 IDENTITY 였던 때 저장된 행이 있으면 시퀀스 테이블을 그 뒤로 이동 (MySQL).
+     * pooled 최적화가 처음 받는 구간 (값 - allocationSize, 값] 이 기존 최대 ID 보다 뒤에 오도록 allocationSize 만큼 더 올림.
+     * 실제 시퀀스를 쓰는 DB(H2 등)에서는 테이블이 없어 실패하므로 무시
+     */
+    private void alignIdSequence() {
+        try {
+            Long maxId = reportRepository.findMaxId();
+            if (maxId != null && reportRepository.advanceIdTable(maxId + ReportEntity.ID_ALLOCATION_SIZE + 1) > 0) {
+                log.info("보고서 ID 시퀀스를 기존 최대 ID({}) 뒤로 이동", maxId);
+            }
+        } catch (RuntimeException e) {
+            log.debug("보고서 ID 시퀀스 테이블 없음: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 저장 대기열에 추가 후 그대로 반환 (ID 는 저장될 때 할당)
+     */
+    public ReportEntity enqueue(ReportEntity report) {
+        if (report.getDataFingerprint() != null) {
+            pendingByFingerprint.put(report.getDataFingerprint(), report);
+        }
+        queue.add(report);
+        if (queued.incrementAndGet() >= batchSize && flushScheduled.compareAndSet(false, true)) {
+            flusher.execute(this::flushQuietly);
+        }
+        return report;
+    }
+
+    /**
+     * 아직 DB 에 저장되지 않은 보고서 정보를 지문으로 조회
+     */
+    public Optional<ReportEntity> findPendingByFingerprint(String dataFingerprint) {
+        return Optional.ofNullable(pendingByFingerprint.get(dataFingerprint));
+    }
+
+    private void flushQuietly() {
+        flushScheduled.set(false);
+        try {
+            flush();
+        } catch (Exception e) {
+            log.error("보고서 정보 저장 실패", e);
+        }
+    }
+
+    /**
+     * 대기열이 빌 때까지 batch-size 개씩 저장 (실패하면 그 배치를 남겨 두고 중단)
+     */
+    public void flush() {
+        synchronized (flushLock) {
+            while (true) {
+                List<ReportEntity> batch = retryBatch;
+                retryBatch = List.of();
+                if (batch.isEmpty()) {
+                    batch = new ArrayList<>(batchSize);
+                    ReportEntity next;
+                    while (batch.size() < batchSize && (next = queue.poll()) != null) {
+                        batch.add(next);
+                    }
+                }
+                if (batch.isEmpty()) {
+                    return;
+                }
+                try {
+                    List<ReportEntity> saving = batch;
+                    new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                        reportRepository.saveAll(saving);
+                        upsertCatalog(saving);
+                    });
+                } catch (RuntimeException e) {
+                    failures.incrementAndGet();
+                    // 롤백되었으므로 다음 시도에서 새 행으로 persist
+                    batch.forEach(ReportEntity::clearId);
+                    if (++failedAttempts < maxAttempts) {
+                        retryBatch = batch;
+                        log.warn("보고서 정보 {}건 저장 실패 ({}회째), 다음 주기에 재시도: {}", batch.size(), failedAttempts,
+                                e.getMessage());
+                    } else {
+                        failedAttempts = 0;
+                        dropped.addAndGet(batch.size());
+                        queued.addAndGet(-batch.size());
+                        batch.forEach(this::release);
+                        log.error("보고서 정보 {}건 저장을 포기함", batch.size(), e);
+                        writeDeadLetters(batch);
+                    }
+                    return;
+                }
+                failedAttempts = 0;
+                queued.addAndGet(-batch.size());
+                written.addAndGet(batch.size());
+                batches.incrementAndGet();
+                batch.forEach(this::release);
+            }
+        }
+    }
+
+    /**
+     * 배치의 기업별 마지막 보고서로 카탈로그 갱신 (없으면 추가). 조회는 유니크 인덱스로 한 번에
+     */
+    private void upsertCatalog(List<ReportEntity> batch) {
+        Map<String, ReportEntity> latestByKey = new LinkedHashMap<>();
+        for (ReportEntity report : batch) {
+            latestByKey.put(CompanyKey.of(report.getCorpName()), report);
+        }
+        Map<String, ReportCatalogEntity> existing = new HashMap<>();
+        for (ReportCatalogEntity catalog : reportCatalogRepository.findByCorpKeyIn(latestByKey.keySet())) {
+            existing.put(catalog.getCorpKey(), catalog);
+        }
+        List<ReportCatalogEntity> changed = new ArrayList<>();
+        latestByKey.forEach((corpKey, report) -> {
+            ReportCatalogEntity catalog = existing.get(corpKey);
+            if (catalog == null) {
+                changed.add(ReportCatalogEntity.of(corpKey, report));
+            } else if (catalog.pointTo(report)) {
+                changed.add(catalog);
+            }
+        });
+        reportCatalogRepository.saveAll(changed);
+    }
+
+    /**
+     * 저장을 포기한 배치를 dead-letter 파일 끝에 추가 (파일에도 쓰지 못하면 항목을 로그로 남김)
+     */
+    private void writeDeadLetters(List<ReportEntity> batch) {
+        Path file = Paths.get(deadLetterFile);
+        try {
+            StringBuilder lines = new StringBuilder();
+            for (ReportEntity report : batch) {
+                lines.append(objectMapper.writeValueAsString(DroppedReport.of(report))).append('\n');
+            }
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            Files.writeString(file, lines, StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+                    StandardOpenOption.APPEND, StandardOpenOption.SYNC);
+            log.error("저장하지 못한 보고서 정보 {}건을 {} 에 기록 (다음 시작 시 다시 저장)", batch.size(), file);
+        } catch (IOException | RuntimeException e) {
+            log.error("dead-letter 파일 기록 실패: {}", file, e);
+            batch.forEach(report -> log.error("저장하지 못한 보고서 정보: {}", DroppedReport.of(report)));
+        }
+    }
+
+    /**
+     * 이전 실행에서 저장을 포기한 항목을 다시 저장. 파일을 .replay 로 옮긴 뒤 읽으므로
+     * 다시 실패한 항목은 새 dead-letter 파일에 기록되고, 도중에 종료되면 다음 시작 시 .replay 부터 이어서 처리
+     */
+    private void replayDeadLetters() {
+        Path file = Paths.get(deadLetterFile);
+        Path replaying = file.resolveSibling(file.getFileName() + ".replay");
+        try {
+            if (!Files.exists(replaying)) {
+                if (!Files.exists(file)) {
+                    return;
+                }
+                Files.move(file, replaying, StandardCopyOption.ATOMIC_MOVE);
+            }
+            int count = 0;
+            for (String line : Files.readAllLines(replaying, StandardCharsets.UTF_8)) {
+                if (!line.isBlank()) {
+                    enqueue(objectMapper.readValue(line, DroppedReport.class).toEntity());
+                    count++;
+                }
+            }
+            flush();
+            Files.delete(replaying);
+            log.info("dead-letter 파일의 보고서 정보 {}건을 다시 저장", count);
+        } catch (IOException | RuntimeException e) {
+            log.error("dead-letter 파일 다시 저장 실패: {}", replaying, e);
+        }
+    }
+
+    /**
+     * 저장이 끝난 항목을 지문 조회 대상에서 제외 (그 사이 같은 지문의 새 항목이 들어왔으면 유지)
+     */
+    private void release(ReportEntity report) {
+        if (report.getDataFingerprint() != null) {
+            pendingByFingerprint.remove(report.getDataFingerprint(), report);
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("queued", queued.get());
+        stats.put("written", written.get());
+        stats.put("batches", batches.get());
+        stats.put("failures", failures.get());
+        stats.put("dropped", dropped.get());
+        stats.put("batchSize", batchSize);
+        stats.put("flushIntervalMs", flushIntervalMs);
+        return stats;
+    }
+
+    /**
+     * 종료 전에 남은 항목 저장
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        flusher.shutdown();
+        flusher.awaitTermination(10, TimeUnit.SECONDS);
+        failedAttempts = 0;
+        flush();
+        if (queued.get() > 0) {
+            // 저장하지 못한 항목은 dead-letter 파일로 옮겨 다음 시작 시 다시 저장
+            synchronized (flushLock) {
+                List<ReportEntity> remaining = new ArrayList<>(retryBatch);
+                remaining.addAll(queue);
+                log.error("저장하지 못한 보고서 정보 {}건이 남은 채 종료", remaining.size());
+                writeDeadLetters(remaining);
+            }
+        }
+    }
+}
@@ -0,0 +1,928 @@
+package com.example.finalproject.domain.report.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.Builder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * 보고서를 이 서버의 디스크에 버전별로 보관하는 append-only 세그먼트 저장소입니다. (report.store.type=local, 기본값)
+ *
+ * <p>보고서(gzip 바이트)는 덮어쓰지 않고 세그먼트 파일(segment-0000000001.log) 끝에 레코드로 추가합니다.
+ * 메모리에는 기업(정제된 기업명)별, 버전별 위치(세그먼트, 오프셋, 길이) 인덱스를 두므로
+ * 최신 버전 조회는 인덱스 조회 + 위치 지정 읽기 1회입니다.
+ *
+ * <p>레코드 형식 (big-endian):
+ * <pre>
+ * int magic | int keyLength | long version | long createdAt | byte[32] contentHash | int payloadLength
+ * | key | payload | int crc32(keyLength ~ payload)
+ * </pre>
+ *
+ * <p>동작 방식:
+ * <ul>
+ *   <li>쓰기는 기업별 잠금(lock-stripes 개로 나눈 잠금 테이블)으로 직렬화하므로 다른 기업의 쓰기는 서로 기다리지 않음.
+ *       세그먼트 안의 자리 예약과 레코드 헤더 기록만 짧은 공용 잠금 안에서 하고, 본문 기록과 fsync 는 잠금 밖에서 수행</li>
+ *   <li>레코드는 fsync(force) 가 끝난 뒤에야 인덱스에 반영되므로 읽는 쪽은 쓰는 중이거나 디스크에 반영되지 않은 레코드를 볼 수 없음</li>
+ *   <li>활성 세그먼트가 segment-bytes 를 넘으면 새 세그먼트로 전환하고, 이전 세그먼트는 진행 중인 쓰기가 끝나면
+ *       인덱스 footer 를 붙여 봉인</li>
+ *   <li>시작 시 봉인된 세그먼트는 footer 만 읽어 인덱스 복구, 활성 세그먼트는 레코드를 순서대로 검사
+ *       (헤더는 온전하지만 CRC 가 맞지 않는 레코드는 본문 기록 중 종료된 것으로 보고 건너뛰고,
+ *       헤더가 깨졌거나 파일 끝을 넘는 꼬리는 잘라냄)</li>
+ *   <li>기업별로 최근 retain-versions 개 버전만 인덱스에 유지</li>
+ *   <li>봉인된 세그먼트 중 유효 바이트 비율이 compaction-live-ratio 미만이면 백그라운드에서
+ *       유효 레코드만 새 세그먼트로 옮기고 이전 세그먼트 삭제 (읽는 중인 요청을 위해 잠시 후 닫음).
+ *       복사 속도는 compaction-bytes-per-second 로 제한</li>
+ *   <li>기업 삭제(ReportSweeper)는 tombstone 파일(기업, 삭제한 마지막 버전)에 먼저 기록한 뒤 인덱스에서 제거.
+ *       재시작 시 세그먼트에서 복구한 삭제된 버전을 tombstone 으로 다시 지움.
+ *       tombstone 은 압축으로 삭제된 레코드가 모두 사라진 뒤에도 버전 번호의 하한으로 남겨 둠
+ *       (삭제한 기업을 다시 저장해도 이전 번호를 쓰지 않도록, 기업마다 한 항목)</li>
+ * </ul>
+ */
+@Component
+@ConditionalOnProperty(name = "report.store.type", havingValue = "local", matchIfMissing = true)
+@Slf4j
+public class ReportSegmentStore implements ReportStore {
+
+    private final Path storeDir;
+    private final long segmentBytes;
+    private final int retainVersions;
+    private final long compactionIntervalSeconds;
+    private final double compactionLiveRatio;
+    private final boolean fsync;
+    private final int lockStripes;
+    private final long compactionBytesPerSecond;
+    private final long retireDelaySeconds;
+
+    /**
+     * 저장소 설정 (report.store.*)
+     *
+     * @param retireDelaySeconds 압축으로 빠진 세그먼트를 닫기 전 기다리는 시간 (전송 중인 요청 보호, 0 이면 바로 삭제)
+     */
+    @Builder(toBuilder = true)
+    record Settings(Path storeDir, long segmentBytes, int retainVersions, long compactionIntervalSeconds,
+                    double compactionLiveRatio, boolean fsync, int lockStripes, long compactionBytesPerSecond,
+                    long retireDelaySeconds) {
+    }
+
+    @Autowired
+    public ReportSegmentStore(@Value("${report.store.dir:${java.io.tmpdir}/reports/segments}") Path storeDir,
+                              @Value("${report.store.segment-bytes:67108864}") long segmentBytes,
+                              @Value("${report.store.retain-versions:5}") int retainVersions,
+                              @Value("${report.store.compaction-interval-seconds:300}") long compactionIntervalSeconds,
+                              @Value("${report.store.compaction-live-ratio:0.5}") double compactionLiveRatio,
+                              @Value("${report.store.fsync:true}") boolean fsync,
+                              @Value("${report.store.lock-stripes:64}") int lockStripes,
+                              @Value("${report.store.compaction-bytes-per-second:0}") long compactionBytesPerSecond,
+                              @Value("${report.store.retire-delay-seconds:60}") long retireDelaySeconds) {
+        this(new Settings(storeDir, segmentBytes, retainVersions, compactionIntervalSeconds, compactionLiveRatio, fsync,
+                lockStripes, compactionBytesPerSecond, retireDelaySeconds));
+    }
+
+    ReportSegmentStore(Settings settings) {
+        this.storeDir = settings.storeDir();
+        this.segmentBytes = settings.segmentBytes();
+        this.retainVersions = settings.retainVersions();
+        this.compactionIntervalSeconds = settings.compactionIntervalSeconds();
+        this.compactionLiveRatio = settings.compactionLiveRatio();
+        this.fsync = settings.fsync();
+        this.lockStripes = settings.lockStripes();
+        this.compactionBytesPerSecond = settings.compactionBytesPerSecond();
+        this.retireDelaySeconds = settings.retireDelaySeconds();
+    }
+
+    private static final String TOMBSTONE_FILE_NAME = "tombstones.dat";
+
+    private static final int RECORD_MAGIC = 0x52505431; // "RPT1"
+    private static final int FOOTER_MAGIC = 0x52504649; // "RPFI"
+    private static final int TRAILER_MAGIC = 0x52504654; // "RPFT"
+    private static final int HASH_BYTES = 32;
+    private static final int RECORD_HEADER_BYTES = 4 + 4 + 8 + 8 + HASH_BYTES + 4;
+    private static final int TRAILER_BYTES = 8 + 4 + 4;
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+    private static final class Segment {
+        final long id;
+        final Path path;
+        final FileChannel channel;
+        // 예약된 끝 위치 (활성 세그먼트는 본문을 기록 중인 레코드 포함)
+        volatile long size;
+        volatile boolean sealed;
+        // 아래 두 값은 writeLock 으로 보호: 본문을 기록 중인 쓰기 수, 새 세그먼트로 전환되어 봉인을 기다리는지
+        int writers;
+        boolean rolled;
+        // 인덱스가 가리키는 레코드 바이트 합계
+        final AtomicLong liveBytes = new AtomicLong();
+
+        Segment(long id, Path path, FileChannel channel, long size) {
+            this.id = id;
+            this.path = path;
+            this.channel = channel;
+            this.size = size;
+        }
+    }
+
+    private record Entry(Segment segment, long recordOffset, int recordLength, long payloadOffset, int payloadLength,
+                         long version, long createdAt, String contentHash) {
+    }
+
+    private final Map<String, NavigableMap<Long, Entry>> index = new ConcurrentHashMap<>();
+    private final Map<Long, Segment> segments = new ConcurrentHashMap<>();
+    // 삭제한 기업 -> 삭제한 마지막 버전 (변경과 파일 기록은 이 맵으로 동기화)
+    private final Map<String, Long> tombstones = new ConcurrentHashMap<>();
+    // 세그먼트 자리 예약, 봉인, 압축 반영은 이 락으로 직렬화 (본문 기록과 fsync 는 락 밖에서 수행)
+    private final Object writeLock = new Object();
+    // 같은 기업의 쓰기는 직렬화 (버전 번호 부여 ~ 인덱스 반영), 다른 기업은 서로 다른 잠금을 쓸 가능성이 큼
+    private ReentrantLock[] stripes;
+    private Segment active;
+    private long nextSegmentId = 1;
+
+    private ScheduledExecutorService compactor;
+
+    private final AtomicLong appends = new AtomicLong();
+    private final AtomicLong skippedRecords = new AtomicLong();
+    private final AtomicLong compactions = new AtomicLong();
+    private final AtomicLong reclaimedBytes = new AtomicLong();
+    private final AtomicLong deletes = new AtomicLong();
+
+    @PostConstruct
+    public void init() throws IOException {
+        stripes = new ReentrantLock[Integer.highestOneBit(Math.max(1, lockStripes))];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        Files.createDirectories(storeDir);
+        long started = System.currentTimeMillis();
+
+        List<Path> files;
+        try (Stream<Path> list = Files.list(storeDir)) {
+            files = list.filter(path -> path.getFileName().toString().matches("segment-\\d+\\.log")).sorted().toList();
+        }
+        for (Path path : files) {
+            String name = path.getFileName().toString();
+            long id = Long.parseLong(name.substring("segment-".length(), name.length() - ".log".length()));
+            nextSegmentId = Math.max(nextSegmentId, id + 1);
+            loadSegment(id, path);
+        }
+        try (Stream<Path> list = Files.list(storeDir)) {
+            // 압축 도중 종료되어 남은 임시 파일
+            for (Path temp : list.filter(path -> path.getFileName().toString().endsWith(".tmp")).toList()) {
+                Files.deleteIfExists(temp);
+            }
+        }
+        loadTombstones();
+        if (active == null) {
+            active = createSegment();
+        }
+
+        compactor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "report-store-compactor");
+            t.setDaemon(true);
+            return t;
+        });
+        compactor.scheduleWithFixedDelay(this::compact, compactionIntervalSeconds, compactionIntervalSeconds, TimeUnit.SECONDS);
+
+        log.info("보고서 세그먼트 저장소 초기화: 세그먼트 {}개, 기업 {}개, {}ms", segments.size(), index.size(),
+                System.currentTimeMillis() - started);
+    }
+
+    @Override
+    public StoredReportRef append(String key, byte[] gzip, String contentHash, long createdAt) throws IOException {
+        return append(key, ByteBuffer.wrap(gzip), contentHash, createdAt);
+    }
+
+    @Override
+    public StoredReportRef append(String key, Path gzipFile, String contentHash, long createdAt) throws IOException {
+        try (FileChannel source = FileChannel.open(gzipFile, StandardOpenOption.READ)) {
+            long size = source.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("보고서가 너무 큽니다: " + size);
+            }
+            return appendRecord(key, (int) size, contentHash, createdAt, (channel, position, crc) -> {
+                ByteBuffer buffer = ByteBuffer.allocate(COPY_BUFFER_SIZE);
+                long read = 0;
+                while (read < size) {
+                    buffer.clear();
+                    int n = source.read(buffer, read);
+                    if (n < 0) {
+                        throw new IOException("보고서 파일이 복사 중에 줄어들었습니다.");
+                    }
+                    buffer.flip();
+                    crc.update(buffer.duplicate());
+                    writeFully(channel, buffer, position + read);
+                    read += n;
+                }
+            });
+        }
+    }
+
+    private StoredReportRef append(String key, ByteBuffer gzip, String contentHash, long createdAt) throws IOException {
+        return appendRecord(key, gzip.remaining(), contentHash, createdAt, (channel, position, crc) -> {
+            crc.update(gzip.duplicate());
+            writeFully(channel, gzip.duplicate(), position);
+        });
+    }
+
+    @FunctionalInterface
+    private interface PayloadWriter {
+        void write(FileChannel channel, long position, CRC32 crc) throws IOException;
+    }
+
+    private StoredReportRef appendRecord(String key, int payloadLength, String contentHash, long createdAt,
+                                         PayloadWriter payloadWriter) throws IOException {
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        int recordLength = RECORD_HEADER_BYTES + keyBytes.length + payloadLength + 4;
+
+        ReentrantLock stripe = stripeFor(key);
+        stripe.lock();
+        try {
+            NavigableMap<Long, Entry> versions = index.get(key);
+            long version = versions == null || versions.isEmpty() ? 1 : versions.lastKey() + 1;
+            Long deletedThrough = tombstones.get(key);
+            if (deletedThrough != null) {
+                // 삭제한 버전 번호는 다시 쓰지 않음 (재시작 시 tombstone 이 새 버전까지 지우지 않도록)
+                version = Math.max(version, deletedThrough + 1);
+            }
+
+            ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER_BYTES + keyBytes.length);
+            header.putInt(RECORD_MAGIC).putInt(keyBytes.length).putLong(version).putLong(createdAt)
+                    .put(hashBytes(contentHash)).putInt(payloadLength).put(keyBytes).flip();
+            CRC32 crc = new CRC32();
+            crc.update(header.duplicate().position(4));
+
+            // 1. 자리 예약 + 헤더 기록 (헤더가 항상 순서대로 기록되므로 복구 시 레코드 경계를 잃지 않음)
+            Segment segment;
+            long recordOffset;
+            synchronized (writeLock) {
+                if (active.size > 0 && active.size + recordLength > segmentBytes) {
+                    roll();
+                }
+                segment = active;
+                recordOffset = segment.size;
+                writeFully(segment.channel, header, recordOffset);
+                segment.size = recordOffset + recordLength;
+                segment.writers++;
+            }
+
+            // 2. 본문과 CRC 기록, fsync 후 인덱스 반영 (다른 기업의 쓰기와 동시에 진행)
+            try {
+                long payloadOffset = recordOffset + RECORD_HEADER_BYTES + keyBytes.length;
+                payloadWriter.write(segment.channel, payloadOffset, crc);
+                ByteBuffer checksum = ByteBuffer.allocate(4).putInt((int) crc.getValue()).flip();
+                writeFully(segment.channel, checksum, payloadOffset + payloadLength);
+                if (fsync) {
+                    segment.channel.force(false);
+                }
+
+                Entry entry = new Entry(segment, recordOffset, recordLength, payloadOffset, payloadLength,
+                        version, createdAt, contentHash);
+                addToIndex(key, entry);
+                appends.incrementAndGet();
+                return toRef(key, entry);
+            } finally {
+                // 실패한 레코드는 CRC 가 맞지 않으므로 복구 시 건너뛰고, 인덱스에 없으므로 압축 때 사라짐
+                finishWrite(segment);
+            }
+        } finally {
+            stripe.unlock();
+        }
+    }
+
+    private ReentrantLock stripeFor(String key) {
+        int hash = key.hashCode();
+        return stripes[(hash ^ (hash >>> 16)) & (stripes.length - 1)];
+    }
+
+    /**
+     * 새 활성 세그먼트로 전환 (writeLock 안에서 호출). 이전 세그먼트는 진행 중인 쓰기가 없으면 바로, 있으면 마지막 쓰기가 끝날 때 봉인
+     */
+    private void roll() throws IOException {
+        Segment previous = active;
+        active = createSegment();
+        previous.rolled = true;
+        if (previous.writers == 0) {
+            seal(previous);
+        }
+    }
+
+    private void finishWrite(Segment segment) throws IOException {
+        synchronized (writeLock) {
+            segment.writers--;
+            if (segment.rolled && segment.writers == 0 && !segment.sealed) {
+                seal(segment);
+            }
+        }
+    }
+
+    @Override
+    public Optional<StoredReportRef> latest(String key) {
+        NavigableMap<Long, Entry> versions = index.get(key);
+        if (versions == null) {
+            return Optional.empty();
+        }
+        Map.Entry<Long, Entry> last = versions.lastEntry();
+        return last == null ? Optional.empty() : Optional.of(toRef(key, last.getValue()));
+    }
+
+    @Override
+    public Optional<StoredReportRef> find(String key, long version) {
+        NavigableMap<Long, Entry> versions = index.get(key);
+        Entry entry = versions == null ? null : versions.get(version);
+        return entry == null ? Optional.empty() : Optional.of(toRef(key, entry));
+    }
+
+    @Override
+    public List<Long> versions(String key) {
+        NavigableMap<Long, Entry> versions = index.get(key);
+        return versions == null ? List.of() : new ArrayList<>(versions.keySet());
+    }
+
+    /**
+     * payload 를 dst 에 위치 지정 읽기 (세그먼트 채널의 position 은 바꾸지 않으므로 동시에 읽어도 됨)
+     */
+    @Override
+    public void read(StoredReportRef ref, ByteBuffer dst) throws IOException {
+        Entry entry = (Entry) ref.location();
+        ByteBuffer target = dst.duplicate();
+        target.limit(target.position() + ref.length());
+        long position = entry.payloadOffset();
+        while (target.hasRemaining()) {
+            int n = entry.segment().channel.read(target, position);
+            if (n < 0) {
+                throw new IOException("세그먼트 파일이 예상보다 짧습니다.");
+            }
+            position += n;
+        }
+        dst.position(dst.position() + ref.length());
+    }
+
+    /**
+     * 세그먼트 파일 구간을 FileChannel.transferTo 로 전송 (읽기용 힙 버퍼 없음)
+     */
+    @Override
+    public void transferTo(StoredReportRef ref, long position, long count, WritableByteChannel target) throws IOException {
+        Entry entry = (Entry) ref.location();
+        long offset = entry.payloadOffset() + position;
+        long remaining = count;
+        while (remaining > 0) {
+            long sent = entry.segment().channel.transferTo(offset, remaining, target);
+            if (sent <= 0) {
+                throw new IOException("세그먼트 파일이 예상보다 짧습니다.");
+            }
+            offset += sent;
+            remaining -= sent;
+        }
+    }
+
+    @Override
+    public List<KeyUsage> usage() {
+        List<KeyUsage> usage = new ArrayList<>(index.size());
+        index.forEach((key, versions) -> {
+            Map.Entry<Long, Entry> last = versions.lastEntry();
+            if (last != null) {
+                long bytes = 0;
+                for (Entry entry : versions.values()) {
+                    bytes += entry.recordLength();
+                }
+                usage.add(new KeyUsage(key, last.getValue().createdAt(), bytes));
+            }
+        });
+        return usage;
+    }
+
+    /**
+     * tombstone 을 기록한 뒤 인덱스에서 제거 (디스크 공간은 세그먼트 압축 때 회수)
+     */
+    @Override
+    public Deletion delete(String key) throws IOException {
+        ReentrantLock stripe = stripeFor(key);
+        stripe.lock();
+        try {
+            NavigableMap<Long, Entry> versions = index.get(key);
+            if (versions == null || versions.isEmpty()) {
+                return new Deletion(0, tombstones.getOrDefault(key, 0L));
+            }
+            long deletedThrough = versions.lastKey();
+            synchronized (tombstones) {
+                tombstones.put(key, deletedThrough);
+                writeTombstones();
+            }
+
+            // 압축 반영과 엇갈리지 않도록 writeLock 안에서 제거
+            long bytes = 0;
+            synchronized (writeLock) {
+                index.remove(key);
+                for (Entry entry : versions.values()) {
+                    entry.segment().liveBytes.addAndGet(-entry.recordLength());
+                    bytes += entry.recordLength();
+                }
+            }
+            deletes.incrementAndGet();
+            return new Deletion(bytes, deletedThrough);
+        } finally {
+            stripe.unlock();
+        }
+    }
+
+    @Override
+    public boolean isShared() {
+        return false;
+    }
+
+    private void addToIndex(String key, Entry entry) {
+        NavigableMap<Long, Entry> versions = index.computeIfAbsent(key, k -> new ConcurrentSkipListMap<>());
+        Entry previous = versions.put(entry.version(), entry);
+        if (previous != null) {
+            previous.segment().liveBytes.addAndGet(-previous.recordLength());
+        }
+        entry.segment().liveBytes.addAndGet(entry.recordLength());
+        while (versions.size() > retainVersions) {
+            Entry dropped = versions.pollFirstEntry().getValue();
+            dropped.segment().liveBytes.addAndGet(-dropped.recordLength());
+        }
+    }
+
+    private StoredReportRef toRef(String key, Entry entry) {
+        return new StoredReportRef(key, entry.version(), entry.createdAt(), entry.contentHash(),
+                entry.payloadLength(), entry);
+    }
+
+    // ---- 세그먼트 생성/봉인/복구 ----
+
+    private Segment createSegment() throws IOException {
+        long id = nextSegmentId++;
+        Path path = storeDir.resolve(segmentName(id));
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        Segment segment = new Segment(id, path, channel, 0);
+        segments.put(id, segment);
+        return segment;
+    }
+
+    private static String segmentName(long id) {
+        return String.format("segment-%010d.log", id);
+    }
+
+    /**
+     * 세그먼트 끝에 footer(인덱스) 를 붙여 봉인 (writeLock 안에서 호출)
+     */
+    private void seal(Segment segment) throws IOException {
+        List<Map.Entry<String, Entry>> entries = new ArrayList<>();
+        for (Map.Entry<String, NavigableMap<Long, Entry>> versions : index.entrySet()) {
+            for (Entry entry : versions.getValue().values()) {
+                if (entry.segment() == segment) {
+                    entries.add(Map.entry(versions.getKey(), entry));
+                }
+            }
+        }
+        writeFooter(segment.channel, segment.size, entries);
+        segment.channel.force(true);
+        segment.sealed = true;
+    }
+
+    private static void writeFooter(FileChannel channel, long footerStart, List<Map.Entry<String, Entry>> entries)
+            throws IOException {
+        int size = 8;
+        for (Map.Entry<String, Entry> entry : entries) {
+            size += 4 + entry.getKey().getBytes(StandardCharsets.UTF_8).length + 8 + 8 + HASH_BYTES + 8 + 4 + 8 + 4;
+        }
+        ByteBuffer footer = ByteBuffer.allocate(size + TRAILER_BYTES);
+        footer.putInt(FOOTER_MAGIC).putInt(entries.size());
+        for (Map.Entry<String, Entry> item : entries) {
+            byte[] key = item.getKey().getBytes(StandardCharsets.UTF_8);
+            Entry entry = item.getValue();
+            footer.putInt(key.length).put(key).putLong(entry.version()).putLong(entry.createdAt())
+                    .put(hashBytes(entry.contentHash())).putLong(entry.payloadOffset()).putInt(entry.payloadLength())
+                    .putLong(entry.recordOffset()).putInt(entry.recordLength());
+        }
+        CRC32 crc = new CRC32();
+        crc.update(footer.array(), 0, size);
+        footer.putLong(footerStart).putInt((int) crc.getValue()).putInt(TRAILER_MAGIC).flip();
+        writeFully(channel, footer, footerStart);
+    }
+
+    private void loadSegment(long id, Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long fileSize = channel.size();
+        Segment segment = new Segment(id, path, channel, fileSize);
+        segments.put(id, segment);
+
+        if (loadFooter(segment)) {
+            segment.sealed = true;
+            return;
+        }
+        long validEnd = scanRecords(segment);
+        if (validEnd < fileSize) {
+            log.warn("보고서 세그먼트 {} 의 손상된 꼬리 {} bytes 를 잘라냄", path.getFileName(), fileSize - validEnd);
+            channel.truncate(validEnd);
+        }
+        segment.size = validEnd;
+        // 봉인되지 않은 세그먼트는 하나만 활성으로 사용하고, 나머지(이전 비정상 종료분)는 봉인
+        if (active == null || active.id < id) {
+            if (active != null) {
+                seal(active);
+            }
+            active = segment;
+        } else {
+            seal(segment);
+        }
+    }
+
+    /**
+     * footer 로 인덱스 복구 (footer 가 없거나 손상되었으면 false)
+     */
+    private boolean loadFooter(Segment segment) throws IOException {
+        long fileSize = segment.channel.size();
+        if (fileSize < TRAILER_BYTES + 8) {
+            return false;
+        }
+        ByteBuffer trailer = readAt(segment.channel, fileSize - TRAILER_BYTES, TRAILER_BYTES);
+        long footerStart = trailer.getLong();
+        int expectedCrc = trailer.getInt();
+        if (trailer.getInt() != TRAILER_MAGIC || footerStart < 0 || footerStart > fileSize - TRAILER_BYTES) {
+            return false;
+        }
+        ByteBuffer footer = readAt(segment.channel, footerStart, (int) (fileSize - TRAILER_BYTES - footerStart));
+        CRC32 crc = new CRC32();
+        crc.update(footer.duplicate());
+        if ((int) crc.getValue() != expectedCrc || footer.getInt() != FOOTER_MAGIC) {
+            return false;
+        }
+        int count = footer.getInt();
+        for (int i = 0; i < count; i++) {
+            byte[] key = new byte[footer.getInt()];
+            footer.get(key);
+            long version = footer.getLong();
+            long createdAt = footer.getLong();
+            byte[] hash = new byte[HASH_BYTES];
+            footer.get(hash);
+            long payloadOffset = footer.getLong();
+            int payloadLength = footer.getInt();
+            long recordOffset = footer.getLong();
+            int recordLength = footer.getInt();
+            addRecovered(new String(key, StandardCharsets.UTF_8), new Entry(segment, recordOffset, recordLength,
+                    payloadOffset, payloadLength, version, createdAt, hashHex(hash)));
+        }
+        segment.size = footerStart;
+        return true;
+    }
+
+    /**
+     * 레코드를 처음부터 검사하며 인덱스 복구, 마지막 정상 레코드의 끝 위치 반환
+     */
+    private long scanRecords(Segment segment) throws IOException {
+        long fileSize = segment.channel.size();
+        long position = 0;
+        while (position + RECORD_HEADER_BYTES <= fileSize) {
+            ByteBuffer header = readAt(segment.channel, position, RECORD_HEADER_BYTES);
+            if (header.getInt() != RECORD_MAGIC) {
+                break;
+            }
+            int keyLength = header.getInt();
+            long version = header.getLong();
+            long createdAt = header.getLong();
+            byte[] hash = new byte[HASH_BYTES];
+            header.get(hash);
+            int payloadLength = header.getInt();
+            long recordLength = (long) RECORD_HEADER_BYTES + keyLength + payloadLength + 4;
+            if (keyLength < 0 || payloadLength < 0 || position + recordLength > fileSize) {
+                break;
+            }
+
+            CRC32 crc = new CRC32();
+            crc.update(header.flip().position(4));
+            ByteBuffer key = readAt(segment.channel, position + RECORD_HEADER_BYTES, keyLength);
+            crc.update(key.duplicate());
+            long payloadOffset = position + RECORD_HEADER_BYTES + keyLength;
+            ByteBuffer chunk = ByteBuffer.allocate(COPY_BUFFER_SIZE);
+            long read = 0;
+            while (read < payloadLength) {
+                chunk.clear().limit((int) Math.min(COPY_BUFFER_SIZE, payloadLength - read));
+                int n = segment.channel.read(chunk, payloadOffset + read);
+                if (n < 0) {
+                    break;
+                }
+                crc.update(chunk.flip());
+                read += n;
+            }
+            ByteBuffer checksum = readAt(segment.channel, payloadOffset + payloadLength, 4);
+            if (read != payloadLength) {
+                break;
+            }
+            if (checksum.getInt() != (int) crc.getValue()) {
+                // 헤더는 온전하므로 다음 레코드 위치는 알 수 있음 (본문 기록 중 종료되었거나 기록에 실패한 레코드)
+                log.warn("보고서 세그먼트 {} 의 손상된 레코드를 건너뜀 (위치 {})", segment.path.getFileName(), position);
+                skippedRecords.incrementAndGet();
+                position += recordLength;
+                continue;
+            }
+
+            addRecovered(StandardCharsets.UTF_8.decode(key).toString(), new Entry(segment, position, (int) recordLength,
+                    payloadOffset, payloadLength, version, createdAt, hashHex(hash)));
+            position += recordLength;
+        }
+        return position;
+    }
+
+    /**
+     * 복구 중 인덱스 추가 (같은 버전이 여러 세그먼트에 있으면 압축 도중 종료된 것이므로 하나만 사용)
+     */
+    private void addRecovered(String key, Entry entry) {
+        NavigableMap<Long, Entry> versions = index.get(key);
+        if (versions != null && versions.containsKey(entry.version())) {
+            return;
+        }
+        addToIndex(key, entry);
+    }
+
+    // ---- tombstone ----
+
+    /**
+     * tombstone 파일을 읽어 세그먼트에서 복구한 삭제된 버전을 인덱스에서 제거 (init 에서 세그먼트를 모두 읽은 뒤 호출)
+     */
+    private void loadTombstones() throws IOException {
+        Path tombstoneFile = storeDir.resolve(TOMBSTONE_FILE_NAME);
+        if (!Files.exists(tombstoneFile)) {
+            return;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(tombstoneFile)))) {
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                String key = in.readUTF();
+                long deletedThrough = in.readLong();
+                // 삭제된 레코드가 압축으로 모두 사라졌어도 버전 번호 하한으로 유지
+                tombstones.put(key, deletedThrough);
+                NavigableMap<Long, Entry> versions = index.get(key);
+                NavigableMap<Long, Entry> deleted = versions == null ? null : versions.headMap(deletedThrough, true);
+                if (deleted == null || deleted.isEmpty()) {
+                    continue;
+                }
+                for (Entry entry : deleted.values()) {
+                    entry.segment().liveBytes.addAndGet(-entry.recordLength());
+                }
+                deleted.clear();
+                if (versions.isEmpty()) {
+                    index.remove(key);
+                }
+            }
+        }
+    }
+
+    /**
+     * tombstone 전체를 임시 파일에 쓰고 fsync 후 교체 (tombstones 로 동기화한 상태에서 호출)
+     */
+    private void writeTombstones() throws IOException {
+        Path temp = storeDir.resolve(TOMBSTONE_FILE_NAME + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)));
+            out.writeInt(tombstones.size());
+            for (Map.Entry<String, Long> item : tombstones.entrySet()) {
+                out.writeUTF(item.getKey());
+                out.writeLong(item.getValue());
+            }
+            out.flush();
+            channel.force(true);
+        }
+        Files.move(temp, storeDir.resolve(TOMBSTONE_FILE_NAME), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    // ---- 압축 ----
+
+    /**
+     * 유효 바이트 비율이 낮은 봉인된 세그먼트를 하나씩 압축
+     */
+    private void compact() {
+        try {
+            for (Segment segment : new ArrayList<>(segments.values())) {
+                if (segment.sealed && segment.size > 0
+                        && (double) segment.liveBytes.get() / segment.size < compactionLiveRatio) {
+                    compactSegment(segment);
+                }
+            }
+        } catch (Exception e) {
+            log.error("보고서 세그먼트 압축 실패", e);
+        }
+    }
+
+    private void compactSegment(Segment source) throws IOException {
+        // 1. 옮길 레코드 목록 (이 시점 이후 인덱스에서 빠진 레코드는 반영 단계에서 건너뜀)
+        List<Map.Entry<String, Entry>> live = new ArrayList<>();
+        for (Map.Entry<String, NavigableMap<Long, Entry>> versions : index.entrySet()) {
+            for (Entry entry : versions.getValue().values()) {
+                if (entry.segment() == source) {
+                    live.add(Map.entry(versions.getKey(), entry));
+                }
+            }
+        }
+
+        if (live.isEmpty()) {
+            synchronized (writeLock) {
+                segments.remove(source.id);
+            }
+            compactions.incrementAndGet();
+            reclaimedBytes.addAndGet(source.size);
+            log.info("보고서 세그먼트 삭제 (유효 레코드 없음): {}", source.path.getFileName());
+            retire(source);
+            return;
+        }
+
+        long id;
+        synchronized (writeLock) {
+            id = nextSegmentId++;
+        }
+        Path temp = storeDir.resolve(segmentName(id) + ".tmp");
+        Path path = storeDir.resolve(segmentName(id));
+
+        // 2. 레코드를 그대로 복사 (레코드 단위 CRC 가 그대로 유효)
+        List<Map.Entry<String, Entry>> moved = new ArrayList<>();
+        FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        Segment target = new Segment(id, path, channel, 0);
+        long started = System.nanoTime();
+        try {
+            long position = 0;
+            for (Map.Entry<String, Entry> item : live) {
+                throttleCompaction(started, position);
+                Entry entry = item.getValue();
+                long copied = 0;
+                while (copied < entry.recordLength()) {
+                    long n = source.channel.transferTo(entry.recordOffset() + copied, entry.recordLength() - copied,
+                            channel.position(position + copied));
+                    if (n <= 0) {
+                        throw new IOException("세그먼트 파일이 예상보다 짧습니다: " + source.path);
+                    }
+                    copied += n;
+                }
+                long shift = position - entry.recordOffset();
+                moved.add(Map.entry(item.getKey(), new Entry(target, position, entry.recordLength(),
+                        entry.payloadOffset() + shift, entry.payloadLength(), entry.version(), entry.createdAt(),
+                        entry.contentHash())));
+                position += entry.recordLength();
+            }
+            target.size = position;
+            writeFooter(channel, position, moved);
+            channel.force(true);
+            Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE);
+            target.sealed = true;
+        } catch (IOException e) {
+            channel.close();
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+
+        // 3. 인덱스가 여전히 이전 위치를 가리키는 항목만 새 위치로 교체
+        synchronized (writeLock) {
+            segments.put(id, target);
+            for (int i = 0; i < live.size(); i++) {
+                String key = live.get(i).getKey();
+                Entry before = live.get(i).getValue();
+                Entry after = moved.get(i).getValue();
+                NavigableMap<Long, Entry> versions = index.get(key);
+                if (versions != null && versions.replace(before.version(), before, after)) {
+                    source.liveBytes.addAndGet(-before.recordLength());
+                    target.liveBytes.addAndGet(after.recordLength());
+                }
+            }
+            segments.remove(source.id);
+        }
+
+        compactions.incrementAndGet();
+        reclaimedBytes.addAndGet(source.size - target.size);
+        log.info("보고서 세그먼트 압축: {} -> {} ({} -> {} bytes)", source.path.getFileName(), path.getFileName(),
+                source.size, target.size);
+
+        retire(source);
+    }
+
+    /**
+     * 복사한 바이트가 compaction-bytes-per-second 를 넘지 않도록 대기 (0 이면 제한 없음, 요청 처리의 디스크 I/O 보호)
+     */
+    private void throttleCompaction(long startedNanos, long copiedBytes) {
+        if (compactionBytesPerSecond <= 0) {
+            return;
+        }
+        long waitNanos = copiedBytes * 1_000_000_000L / compactionBytesPerSecond - (System.nanoTime() - startedNanos);
+        if (waitNanos > 0) {
+            LockSupport.parkNanos(waitNanos);
+        }
+    }
+
+    /**
+     * 이전 세그먼트를 읽고 있는 요청이 끝나도록 잠시 후 닫고 삭제
+     */
+    private void retire(Segment source) {
+        Runnable delete = () -> {
+            try {
+                source.channel.close();
+                Files.deleteIfExists(source.path);
+            } catch (IOException e) {
+                log.warn("압축된 세그먼트 삭제 실패: {}", source.path, e);
+            }
+        };
+        if (retireDelaySeconds <= 0) {
+            delete.run();
+        } else {
+            compactor.schedule(delete, retireDelaySeconds, TimeUnit.SECONDS);
+        }
+    }
+
+    // ---- 공통 ----
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+
+    private static ByteBuffer readAt(FileChannel channel, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                break;
+            }
+        }
+        return buffer.flip();
+    }
+
+    private static byte[] hashBytes(String contentHash) {
+        return contentHash == null ? new byte[HASH_BYTES] : HexFormat.of().parseHex(contentHash);
+    }
+
+    private static String hashHex(byte[] hash) {
+        for (byte b : hash) {
+            if (b != 0) {
+                return HexFormat.of().formatHex(hash);
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("type", "local");
+        long totalBytes = 0;
+        long liveBytes = 0;
+        for (Segment segment : segments.values()) {
+            totalBytes += segment.size;
+            liveBytes += segment.liveBytes.get();
+        }
+        stats.put("segments", segments.size());
+        stats.put("companies", index.size());
+        stats.put("totalBytes", totalBytes);
+        stats.put("liveBytes", liveBytes);
+        stats.put("appends", appends.get());
+        stats.put("skippedRecords", skippedRecords.get());
+        stats.put("compactions", compactions.get());
+        stats.put("reclaimedBytes", reclaimedBytes.get());
+        stats.put("deletes", deletes.get());
+        stats.put("tombstones", tombstones.size());
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() throws IOException {
+        compactor.shutdownNow();
+        synchronized (writeLock) {
+            for (Segment segment : segments.values()) {
+                segment.channel.close();
+            }
+        }
+    }
+}
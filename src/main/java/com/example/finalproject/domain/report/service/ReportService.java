@@ -1,77 +1,597 @@
 package com.example.finalproject.domain.report.service;
 
+import com.example.finalproject.domain.company.service.CompanyNameIndex;
 import com.example.finalproject.domain.report.entity.ReportEntity;
+import com.example.finalproject.domain.report.entity.ReportCatalogEntity;
+import com.example.finalproject.domain.report.repository.ReportCatalogRepository;
 import com.example.finalproject.domain.report.repository.ReportRepository;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.example.finalproject.domain.report.repository.ReportRepository.ReportSummary;
+import com.example.finalproject.domain.report.service.ReportBytesCache.CachedReport;
+import com.example.finalproject.domain.report.service.ReportStore.StoredReportRef;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
+/**
+ * 보고서 저장/조회 서비스입니다.
+ *
+ * <p>보고서는 JSON 바이트 그대로 다룹니다. 저장 시 스트리밍 파서로 한 번만 검증하면서
+ * 공백 없는 형태로 gzip 압축해 ReportStore 에 새 버전으로 추가하고(company_name 도 같은 패스에서 추출),
+ * 조회 시에는 저장된 바이트를 그대로 반환합니다.
+ * (gzip 을 받는 클라이언트에는 압축된 바이트 그대로, 그 외에는 전송하면서 압축 해제)
+ * Map 으로 파싱하거나 다시 직렬화하는 단계는 없습니다.
+ *
+ * <p>저장소 기록(디스크 반영까지)이 끝나면 바로 반환하고, ReportEntity 는 ReportMetadataWriter 가 모아서 배치로 저장합니다.
+ * 아직 DB 에 저장되지 않은 보고서 정보도 지문으로 조회할 수 있습니다.
+ *
+ * <p>ReportEntity 한 행은 저장소의 한 버전(reportVersion)에 대응합니다.
+ * 세그먼트 저장소 이전의 {기업명}/report.json(.gz) 파일은 처음 조회할 때 저장소로 옮깁니다.
+ *
+ * <p>자주 읽는 보고서는 ReportBytesCache(direct memory)에 보관하며, 저장할 때마다 해당 기업 항목을 비웁니다.
+ * 저장한 JSON 바이트의 SHA-256 은 ReportEntity.contentHash 에 기록되어 ETag 로 사용됩니다.
+ */
 @Service
 @Slf4j
 @RequiredArgsConstructor
 public class ReportService {
 
     private final ReportRepository reportRepository;
+    private final ReportBytesCache reportBytesCache;
+    private final ReportStore reportStore;
+    private final ReportMetadataWriter reportMetadataWriter;
+    private final ReportCatalogRepository reportCatalogRepository;
+    private final CompanyNameIndex companyNameIndex;
+    private final ReportSweeper reportSweeper;
+    // 이전 보고서 파일을 옮기는 중인 기업별 잠금 (이전 파일이 남아 있는 기업만 들어오므로 크기는 그 수로 제한됨)
+    private final Map<String, ReentrantLock> legacyImportLocks = new ConcurrentHashMap<>();
     private static final String TEMP_DIR = System.getProperty("java.io.tmpdir") + "/reports";
+    private static final int STREAM_BUFFER_SIZE = 8192;
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    // 세그먼트 저장소 이전에 기업별 디렉토리에 저장하던 파일 (처음 조회할 때 저장소로 옮김)
+    private static final String LEGACY_GZIP_FILE = "report.json.gz";
+    private static final String LEGACY_REPORT_FILE = "report.json";
+    // 목록 조회에서 기간을 주지 않았을 때 쓰는 경계 (DB DATETIME 범위 안)
+    private static final LocalDateTime LIST_MIN_DATE = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final LocalDateTime LIST_MAX_DATE = LocalDateTime.of(9999, 1, 1, 0, 0);
+
+    @Value("${report.list.max-page-size:100}")
+    private int maxPageSize;
+
+    @Value("${report.projection.max-batch:100}")
+    private int maxProjectionBatch;
+
+    /**
+     * 저장된 보고서 (기업명, 다운로드 URL, JSON 바이트(압축 해제), JSON 의 SHA-256, 생성 시각)
+     */
+    public record SavedReport(String corpName, String reportUrl, byte[] json, String contentHash,
+                              LocalDateTime dateCreated) {
+    }
 
     public String saveReportFromJsonString(String json) throws IOException {
-        ObjectMapper objectMapper = new ObjectMapper();
-        Map<String, Object> reportJson = objectMapper.readValue(json, Map.class);
+        return saveReportBytes(json.getBytes(StandardCharsets.UTF_8), null, null).reportUrl();
+    }
 
-        String corpName = (String) reportJson.getOrDefault("company_name", "알수없음");
+    /**
+     * JSON 바이트를 검증 후 공백 없는 형태로 gzip 압축해 저장 (보고서 정보의 DB 저장은 비동기)
+     *
+     * @param rawJson          보고서 JSON
+     * @param fallbackCorpName 보고서에 company_name 이 없을 때 사용할 기업명 (null 이면 "알수없음")
+     * @param dataFingerprint  생성에 사용한 financial_data 의 지문 (ReportFingerprint, 없으면 null)
+     */
+    public SavedReport saveReportBytes(byte[] rawJson, String fallbackCorpName, String dataFingerprint) throws IOException {
+        ByteArrayOutputStream compact = new ByteArrayOutputStream(rawJson.length);
+        String corpName;
+        try (JsonParser parser = JSON_FACTORY.createParser(rawJson);
+             JsonGenerator generator = JSON_FACTORY.createGenerator(compact)) {
+            corpName = copyCompact(parser, generator);
+        }
+        corpName = resolveCorpName(corpName, fallbackCorpName);
         String safeCorpName = sanitizeDirectoryName(corpName);
 
-        // 저장
-        saveReportToFile(safeCorpName, reportJson);
+        byte[] json = compact.toByteArray();
+        String contentHash = HexFormat.of().formatHex(sha256().digest(json));
+        StoredReportRef ref = reportStore.append(safeCorpName, gzip(json), contentHash, System.currentTimeMillis());
 
-        LocalDateTime createdAt = LocalDateTime.now();
-        String reportUrl = "/api/report/download-json/" + safeCorpName;
+        ReportEntity report = saveReportEntity(corpName, safeCorpName, dataFingerprint, ref);
+        return new SavedReport(corpName, report.getReportUrl(), json, contentHash, report.getDateCreated());
+    }
+
+    /**
+     * AI 서버 응답 스트림을 클라이언트(tee)와 임시 파일에 동시에 기록한 뒤 보고서로 저장
+     * <p>
+     * 본문 전체를 메모리에 올리지 않고 고정 크기 버퍼로만 복사하며,
+     * 복사가 끝나면 스트리밍 파서로 JSON 유효성 검사, company_name 추출, 공백 제거, gzip 압축을 한 번에 수행한다.
+     * JSON 이 올바르지 않으면 임시 파일을 삭제하고 저장하지 않는다.
+     *
+     * @param body            AI 서버 응답 본문
+     * @param tee             응답을 함께 흘려보낼 출력 스트림 (클라이언트)
+     * @param fallbackCorpName 보고서에 company_name 이 없을 때 사용할 기업명
+     * @param dataFingerprint 생성에 사용한 financial_data 의 지문
+     * @return 저장된 보고서 URL
+     */
+    public String saveReportFromStream(InputStream body, OutputStream tee, String fallbackCorpName,
+                                       String dataFingerprint) throws IOException {
+        Path tempDir = Paths.get(TEMP_DIR);
+        Files.createDirectories(tempDir);
+        Path rawFile = Files.createTempFile(tempDir, "stream-", ".json.tmp");
+        Path compactFile = Files.createTempFile(tempDir, "stream-", ".json.gz.tmp");
+
+        try {
+            try (OutputStream file = Files.newOutputStream(rawFile)) {
+                byte[] buffer = new byte[STREAM_BUFFER_SIZE];
+                int read;
+                while ((read = body.read(buffer)) != -1) {
+                    file.write(buffer, 0, read);
+                    tee.write(buffer, 0, read);
+                }
+                tee.flush();
+            }
 
-        ReportEntity entity = ReportEntity.builder()
+            String corpName;
+            // 해시는 압축 전 JSON 기준 (ETag)
+            MessageDigest digest = sha256();
+            try (JsonParser parser = JSON_FACTORY.createParser(rawFile.toFile());
+                 JsonGenerator generator = JSON_FACTORY.createGenerator(new DigestOutputStream(
+                         new GZIPOutputStream(Files.newOutputStream(compactFile), STREAM_BUFFER_SIZE), digest))) {
+                corpName = copyCompact(parser, generator);
+            }
+            corpName = resolveCorpName(corpName, fallbackCorpName);
+            String safeCorpName = sanitizeDirectoryName(corpName);
+
+            String contentHash = HexFormat.of().formatHex(digest.digest());
+            StoredReportRef ref = reportStore.append(safeCorpName, compactFile, contentHash, System.currentTimeMillis());
+            return saveReportEntity(corpName, safeCorpName, dataFingerprint, ref).getReportUrl();
+        } finally {
+            Files.deleteIfExists(rawFile);
+            Files.deleteIfExists(compactFile);
+        }
+    }
+
+    private static String reportUrl(String safeCorpName) {
+        return "/api/report/download-json/" + safeCorpName;
+    }
+
+    /**
+     * 캐시 항목 삭제 후 보고서 정보를 DB 저장 대기열에 추가
+     * (캐시는 저장소의 버전을 기준으로 하므로 저장소 기록이 끝난 뒤 삭제해야 이전 버전이 다시 캐시되지 않음)
+     * 기업명은 자동완성 색인에 바로 추가
+     */
+    private ReportEntity saveReportEntity(String corpName, String safeCorpName, String dataFingerprint, StoredReportRef ref) {
+        reportBytesCache.invalidate(safeCorpName);
+        companyNameIndex.add(corpName, true);
+        return reportMetadataWriter.enqueue(ReportEntity.builder()
                 .corpName(corpName)
-                .dateCreated(createdAt)
-                .reportUrl(reportUrl)
-                .build();
+                .dateCreated(ref.dateCreated())
+                .reportUrl(reportUrl(safeCorpName))
+                .dataFingerprint(dataFingerprint)
+                .contentHash(ref.contentHash())
+                .reportVersion(ref.version())
+                .build());
+    }
+
+    private static byte[] gzip(byte[] json) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(json.length / 4 + 64);
+        try (OutputStream out = new GZIPOutputStream(compressed, STREAM_BUFFER_SIZE)) {
+            out.write(json);
+        }
+        return compressed.toByteArray();
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
 
-        reportRepository.save(entity);
-        return reportUrl;
+    private String resolveCorpName(String corpName, String fallbackCorpName) {
+        if (corpName != null && !corpName.isBlank()) {
+            return corpName;
+        }
+        return fallbackCorpName != null && !fallbackCorpName.isBlank() ? fallbackCorpName : "알수없음";
     }
 
-    public Map<String, Object> readReportFromFile(String safeCorpName) throws IOException {
-        Path path = Paths.get(TEMP_DIR, safeCorpName, "report.json");
-        if (!Files.exists(path)) {
-            throw new FileNotFoundException("보고서 파일이 존재하지 않습니다.");
+    /**
+     * 스트리밍 파서로 JSON 객체 하나를 끝까지 검증하면서 공백 없이 복사하고, 최상위 company_name 값을 반환 (트리 생성 없음)
+     */
+    private String copyCompact(JsonParser parser, JsonGenerator generator) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            throw new JsonParseException(parser, "보고서 JSON 은 객체여야 합니다.");
         }
+        generator.copyCurrentEvent(parser);
 
-        ObjectMapper objectMapper = new ObjectMapper();
-        return objectMapper.readValue(path.toFile(), Map.class);
+        String corpName = null;
+        while (true) {
+            JsonToken token = parser.nextToken();
+            if (token == null) {
+                throw new JsonParseException(parser, "보고서 JSON 이 완전하지 않습니다.");
+            }
+            generator.copyCurrentEvent(parser);
+            if (token == JsonToken.END_OBJECT && parser.getParsingContext().inRoot()) {
+                break;
+            }
+            if (token == JsonToken.FIELD_NAME && parser.getParsingContext().getParent().inRoot()
+                    && "company_name".equals(parser.currentName())) {
+                if (parser.nextToken() == JsonToken.VALUE_STRING) {
+                    corpName = parser.getText();
+                }
+                generator.copyCurrentEvent(parser);
+            }
+        }
+        if (parser.nextToken() != null) {
+            throw new JsonParseException(parser, "보고서 JSON 뒤에 불필요한 내용이 있습니다.");
+        }
+        generator.flush();
+        return corpName;
     }
 
-    private void saveReportToFile(String safeCorpName, Map<String, Object> reportJson) throws IOException {
-        Path dir = Paths.get(TEMP_DIR, safeCorpName);
-        Files.createDirectories(dir);
+    /**
+     * 저장소에서 보고서 한 버전 조회 (version 이 null 이면 최신)
+     * <p>
+     * 저장소에 없는 기업이면 세그먼트 저장소 이전의 {기업명}/report.json(.gz) 을 찾아 옮긴 뒤 조회하고,
+     * 그래도 없으면 카탈로그(정규화한 기업명)로 다른 표기로 저장된 보고서의 최신 버전을 조회.
+     * 버전을 지정한 조회는 카탈로그로 찾지 않음 (버전 번호는 저장소 키별이라 다른 키의 같은 번호는 다른 보고서)
+     */
+    public Optional<StoredReportRef> findStoredReport(String safeCorpName, Long version) throws IOException {
+        Optional<StoredReportRef> ref = version == null
+                ? reportStore.latest(safeCorpName)
+                : reportStore.find(safeCorpName, version);
+        if (ref.isEmpty() && importLegacyReport(safeCorpName)) {
+            ref = version == null ? reportStore.latest(safeCorpName) : reportStore.find(safeCorpName, version);
+        }
+        if (ref.isEmpty() && version == null) {
+            // 표기가 다른 기업명("(주)삼성전자" / "삼성전자")이면 카탈로그로 저장된 이름을 찾아 조회
+            Optional<String> storedKey = findCatalogEntry(safeCorpName)
+                    .map(catalog -> sanitizeDirectoryName(catalog.getCorpName()))
+                    .filter(key -> !key.equals(safeCorpName));
+            if (storedKey.isPresent()) {
+                ref = reportStore.latest(storedKey.get());
+            }
+        }
+        ref.ifPresent(found -> reportSweeper.recordAccess(found.key()));
+        return ref;
+    }
+
+    /**
+     * 보고서 정보(ReportEntity)가 가리키는 버전 조회 (reportVersion 이 없는 이전 행은 최신)
+     */
+    public Optional<StoredReportRef> findStoredReport(ReportEntity report) throws IOException {
+        return findStoredReport(sanitizeDirectoryName(report.getCorpName()), report.getReportVersion());
+    }
+
+    public List<Long> findReportVersions(String safeCorpName) throws IOException {
+        return reportStore.versions(safeCorpName);
+    }
 
-        Path filePath = dir.resolve("report.json");
-        ObjectMapper objectMapper = new ObjectMapper();
-        objectMapper.writerWithDefaultPrettyPrinter().writeValue(filePath.toFile(), reportJson);
+    /**
+     * 이전 방식으로 저장된 보고서 파일을 저장소로 옮김 (옮겼으면 true)
+     * <p>
+     * 이전 파일이 없으면(대부분의 저장소 미스) 잠금 없이 반환하고, 있으면 같은 기업끼리만 잠금으로 직렬화
+     */
+    private boolean importLegacyReport(String safeCorpName) throws IOException {
+        Path gzipFile = Paths.get(TEMP_DIR, safeCorpName, LEGACY_GZIP_FILE);
+        Path jsonFile = Paths.get(TEMP_DIR, safeCorpName, LEGACY_REPORT_FILE);
+        if (!Files.exists(gzipFile) && !Files.exists(jsonFile)) {
+            return reportStore.latest(safeCorpName).isPresent();
+        }
+        ReentrantLock lock = legacyImportLocks.computeIfAbsent(safeCorpName, key -> new ReentrantLock());
+        lock.lock();
+        try {
+            return importLegacyFiles(safeCorpName, gzipFile, jsonFile);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean importLegacyFiles(String safeCorpName, Path gzipFile, Path jsonFile) throws IOException {
+        if (reportStore.latest(safeCorpName).isPresent()) {
+            return true;
+        }
+        byte[] json;
+        Path source;
+        if (Files.exists(gzipFile)) {
+            source = gzipFile;
+            try (InputStream in = new GZIPInputStream(Files.newInputStream(gzipFile), STREAM_BUFFER_SIZE)) {
+                json = in.readAllBytes();
+            }
+        } else if (Files.exists(jsonFile)) {
+            source = jsonFile;
+            json = Files.readAllBytes(jsonFile);
+        } else {
+            return false;
+        }
+        String contentHash = HexFormat.of().formatHex(sha256().digest(json));
+        long createdAt = Files.getLastModifiedTime(source).toMillis();
+        reportStore.append(safeCorpName, gzip(json), contentHash, createdAt);
+        Files.deleteIfExists(gzipFile);
+        Files.deleteIfExists(jsonFile);
+        log.info("이전 보고서 파일을 세그먼트 저장소로 이동: {}", safeCorpName);
+        return true;
+    }
+
+    /**
+     * 캐시에 넣을 수 있는 크기면 저장된 바이트(gzip)를 읽어 반환하고, 최신 버전이면 캐시에도 넣음.
+     * 캐시에 넣을 최신 버전만 direct buffer 로 바로 읽고(힙 복사 없음), 이전 버전은 힙 버퍼로 읽음
+     * (direct memory 는 버퍼가 GC 될 때 반환되므로 한 번 쓰고 버릴 버퍼에 쓰지 않음).
+     * 더 크면 empty 이며, 호출하는 쪽은 ref 의 파일 구간을 바로 전송
+     */
+    public Optional<CachedReport> readCacheableReport(StoredReportRef ref) throws IOException {
+        if (!reportBytesCache.isCacheable(ref.length())) {
+            return Optional.empty();
+        }
+        // 최신 여부 확인 전에 받아 둠 (확인 후 새 버전이 저장되면 put 이 무시됨)
+        long stamp = reportBytesCache.stamp();
+        boolean latest = isLatest(ref);
+        ByteBuffer buffer = latest ? ByteBuffer.allocateDirect(ref.length()) : ByteBuffer.allocate(ref.length());
+        reportStore.read(ref, buffer);
+        buffer.flip();
+        if (latest) {
+            reportBytesCache.put(ref.key(), buffer, ref.version(), ref.contentHash(), ref.dateCreated(), stamp);
+        }
+        return Optional.of(new CachedReport(buffer.asReadOnlyBuffer(), ref.version(), ref.contentHash(), ref.dateCreated()));
+    }
+
+    /**
+     * 저장된 보고서(gzip) 바이트. 캐시할 수 있는 크기의 최신 버전이면 direct buffer 로 읽어 캐시
+     */
+    public ByteBuffer readGzip(StoredReportRef ref) throws IOException {
+        Optional<CachedReport> loaded = readCacheableReport(ref);
+        return loaded.isPresent() ? loaded.get().gzip() : ByteBuffer.wrap(reportStore.readBytes(ref));
+    }
+
+    /**
+     * 기업의 최신 보고서(gzip) 바이트 (캐시 → 저장소 순)
+     */
+    public Optional<ByteBuffer> readLatestGzip(String safeCorpName) throws IOException {
+        Optional<CachedReport> cached = findCachedReport(safeCorpName);
+        if (cached.isPresent()) {
+            return Optional.of(cached.get().gzip());
+        }
+        Optional<StoredReportRef> stored = findStoredReport(safeCorpName, null);
+        if (stored.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(readGzip(stored.get()));
+    }
+
+    /**
+     * 여러 기업의 최신 보고서에서 선택한 필드만 {기업명: 결과} 객체로 씀 (보고서가 없는 기업은 null)
+     * <p>
+     * 보고서마다 압축 해제하면서 스트리밍으로 추출하므로 보고서 전체를 메모리에 펼치지 않음
+     *
+     * @throws IllegalArgumentException 기업 수가 report.projection.max-batch 를 넘는 경우
+     */
+    public void writeReportProjections(List<String> corpNames, JsonProjection projection, OutputStream out)
+            throws IOException {
+        LinkedHashSet<String> distinct = new LinkedHashSet<>(corpNames);
+        if (distinct.size() > maxProjectionBatch) {
+            throw new IllegalArgumentException("한 번에 조회할 수 있는 기업은 " + maxProjectionBatch + "개까지입니다.");
+        }
+        try (JsonGenerator generator = JsonProjection.createGenerator(out)) {
+            generator.writeStartObject();
+            for (String corpName : distinct) {
+                generator.writeFieldName(corpName);
+                Optional<ByteBuffer> gzip = readLatestGzip(sanitizeDirectoryName(corpName));
+                if (gzip.isEmpty()) {
+                    generator.writeNull();
+                    continue;
+                }
+                try (InputStream json = new GZIPInputStream(new ByteBufferBackedInputStream(gzip.get()), STREAM_BUFFER_SIZE)) {
+                    projection.write(json, generator);
+                }
+            }
+            generator.writeEndObject();
+        }
+    }
+
+    /**
+     * 캐시에 있는 최신 보고서만 반환 (로컬 저장소면 DB/파일 조회 없음)
+     * <p>
+     * 여러 서버가 공유하는 저장소면 다른 서버가 새 버전을 추가했을 수 있으므로 최신 버전 번호만 확인 (본문은 읽지 않음)
+     */
+    public Optional<CachedReport> findCachedReport(String safeCorpName) throws IOException {
+        CachedReport cached = reportBytesCache.get(safeCorpName);
+        if (cached == null) {
+            return Optional.empty();
+        }
+        if (reportStore.isShared()) {
+            Optional<StoredReportRef> latest = reportStore.latest(safeCorpName);
+            if (latest.isEmpty() || latest.get().version() != cached.version()) {
+                reportBytesCache.invalidate(safeCorpName);
+                return Optional.empty();
+            }
+        }
+        reportSweeper.recordAccess(safeCorpName);
+        return Optional.of(cached);
+    }
+
+    /**
+     * 보고서 정보가 가리키는 버전의 JSON 바이트 (압축 해제). 저장소에 없으면 FileNotFoundException
+     */
+    public SavedReport readReport(ReportEntity report) throws IOException {
+        StoredReportRef ref = findStoredReport(report)
+                .orElseThrow(() -> new FileNotFoundException("보고서가 저장소에 없습니다: " + report.getCorpName()));
+
+        CachedReport cached = reportBytesCache.get(ref.key());
+        InputStream gzip;
+        if (cached != null && cached.version() == ref.version()) {
+            gzip = new ByteBufferBackedInputStream(cached.gzip());
+        } else {
+            long stamp = reportBytesCache.stamp();
+            byte[] compressed = reportStore.readBytes(ref);
+            if (isLatest(ref)) {
+                reportBytesCache.put(ref.key(), compressed, ref.version(), ref.contentHash(), ref.dateCreated(), stamp);
+            }
+            gzip = new ByteArrayInputStream(compressed);
+        }
+        byte[] json;
+        try (InputStream in = new GZIPInputStream(gzip, STREAM_BUFFER_SIZE)) {
+            json = in.readAllBytes();
+        }
+        return new SavedReport(report.getCorpName(), report.getReportUrl(), json, ref.contentHash(), ref.dateCreated());
+    }
+
+    private boolean isLatest(StoredReportRef ref) throws IOException {
+        return reportStore.latest(ref.key()).map(latest -> latest.version() == ref.version()).orElse(false);
+    }
+
+    /**
+     * 기업의 최신 보고서 정보 (카탈로그 조회 후 기본 키 조회, 표기가 달라도 정규화한 기업명이 같으면 같은 기업)
+     */
+    public Optional<ReportEntity> findLatestReport(String corpName) {
+        return reportCatalogRepository.findByCorpKey(CompanyKey.of(corpName))
+                .flatMap(catalog -> reportRepository.findById(catalog.getLatestReportId()));
+    }
+
+    /**
+     * 카탈로그에서 기업의 최신 보고서 정보 조회 (정규화한 기업명의 유니크 인덱스 조회 한 번)
+     */
+    public Optional<ReportCatalogEntity> findCatalogEntry(String corpName) {
+        return reportCatalogRepository.findByCorpKey(CompanyKey.of(corpName));
+    }
+
+    /**
+     * 같은 financial_data 로 생성한 보고서 조회
+     * <p>
+     * 아직 DB 에 저장되지 않은 보고서 정보(ReportMetadataWriter 대기열)를 먼저 확인 (저장 전에 AI 서버에 다시 요청하지 않도록)
+     * <p>
+     * 버전이 기록된 보고서는 이후 재생성되었어도 저장소에 남아 있으면 그 버전을 사용 (남아 있지 않으면 readReport 에서 FileNotFoundException).
+     * 버전이 없는 이전 행은 기업별 파일이 하나였으므로 그 기업의 최신 보고서가 이 지문으로 만든 것일 때만 반환
+     */
+    public Optional<ReportEntity> findReportByFingerprint(String dataFingerprint) {
+        Optional<ReportEntity> pending = reportMetadataWriter.findPendingByFingerprint(dataFingerprint);
+        if (pending.isPresent()) {
+            return pending;
+        }
+        return reportRepository.findFirstByDataFingerprintOrderByIdDesc(dataFingerprint)
+                .filter(report -> report.getReportVersion() != null
+                        || findCatalogEntry(report.getCorpName())
+                        .map(catalog -> report.getId().equals(catalog.getLatestReportId()))
+                        .orElse(false));
+    }
+
+    /**
+     * 보고서 목록 한 페이지
+     *
+     * @param nextCursor 다음 페이지 커서 (마지막 페이지면 null)
+     */
+    public record ReportPage(List<ReportSummary> reports, String nextCursor) {
+    }
+
+    /**
+     * 저장된 보고서 목록 (생성 시각, ID 최신순 keyset 페이지)
+     * <p>
+     * 커서는 이전 페이지 마지막 보고서의 (생성 시각, ID) 이므로 OFFSET 과 달리 앞 페이지를 읽고 버리지 않음.
+     * 주지 않은 조건은 경계값으로 채워 쿼리 형태를 하나로 유지 (커서가 없으면 기간 끝 다음 날 0시 이전부터)
+     *
+     * @param corpName   정확한 기업명 (지정하면 corpPrefix 무시)
+     * @param corpPrefix 기업명 접두어 (null 이면 전체)
+     * @param from       생성일 하한 (포함, null 이면 전체)
+     * @param to         생성일 상한 (포함, null 이면 전체)
+     * @param cursor     이전 페이지의 nextCursor (null 이면 첫 페이지)
+     * @throws IllegalArgumentException 커서 형식이 올바르지 않은 경우
+     */
+    public ReportPage findReports(String corpName, String corpPrefix, LocalDate from, LocalDate to, String cursor,
+                                  int size) {
+        int pageSize = Math.max(1, Math.min(size, maxPageSize));
+        LocalDateTime lower = from != null ? from.atStartOfDay() : LIST_MIN_DATE;
+        LocalDateTime cursorDate = to != null ? to.plusDays(1).atStartOfDay() : LIST_MAX_DATE;
+        // ID 는 1 부터이므로 cursorDate 와 같은 시각의 보고서는 제외됨
+        long cursorId = 0;
+        if (cursor != null && !cursor.isBlank()) {
+            ReportCursor after = ReportCursor.decode(cursor);
+            if (after.dateCreated().isBefore(cursorDate)) {
+                cursorDate = after.dateCreated();
+                cursorId = after.id();
+            }
+        }
+
+        // 한 건 더 읽어 다음 페이지가 있는지 확인
+        PageRequest limit = PageRequest.of(0, pageSize + 1);
+        List<ReportSummary> rows = corpName != null && !corpName.isBlank()
+                ? reportRepository.findPageByCorpName(corpName.strip(), lower, cursorDate, cursorId, limit)
+                : reportRepository.findPage(corpPrefix == null ? "" : corpPrefix.strip(), lower, cursorDate, cursorId,
+                limit);
+        if (rows.size() <= pageSize) {
+            return new ReportPage(rows, null);
+        }
+        List<ReportSummary> page = rows.subList(0, pageSize);
+        ReportSummary last = page.get(pageSize - 1);
+        return new ReportPage(page, new ReportCursor(last.getDateCreated(), last.getId()).encode());
+    }
+
+    /**
+     * 목록 커서: 마지막으로 반환한 보고서의 (생성 시각, ID) 를 base64url 로
+     */
+    private record ReportCursor(LocalDateTime dateCreated, long id) {
+
+        String encode() {
+            String value = dateCreated + "," + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static ReportCursor decode(String cursor) {
+            try {
+                String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int comma = value.indexOf(',');
+                if (comma < 0) {
+                    throw new IllegalArgumentException("커서 형식이 올바르지 않습니다: " + cursor);
+                }
+                return new ReportCursor(LocalDateTime.parse(value.substring(0, comma)),
+                        Long.parseLong(value.substring(comma + 1)));
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException("커서 형식이 올바르지 않습니다: " + cursor, e);
+            }
+        }
     }
 
-    public Optional<ReportEntity> findReportByCorpName(String corpName) {
-        return reportRepository.findByCorpName(corpName);
+    /**
+     * 보고서 한 버전을 받는 URL (버전이 없는 이전 보고서는 최신 버전 URL)
+     */
+    public String reportUrl(String corpName, Long version) {
+        String url = reportUrl(sanitizeDirectoryName(corpName));
+        return version != null ? url + "?version=" + version : url;
     }
 
     public String sanitizeDirectoryName(String corpName) {
-        return corpName.replace("/", "_");
+        return ReportStore.keyOf(corpName);
     }
 
 }
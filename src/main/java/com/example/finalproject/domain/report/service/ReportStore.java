@@ -0,0 +1,129 @@
+package com.example.finalproject.domain.report.service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * 보고서(gzip 압축된 JSON)를 기업별, 버전별로 보관하는 저장소입니다.
+ *
+ * <p>report.store.type 으로 구현을 선택합니다.
+ * <ul>
+ *   <li>local (기본값): 이 서버의 디스크에 append-only 세그먼트로 보관 (ReportSegmentStore)</li>
+ *   <li>database: DB 의 REPORT_BLOB 테이블에 보관 (DatabaseReportStore)</li>
+ *   <li>s3: S3 호환 오브젝트 스토리지(AWS S3, MinIO 등)에 보관 (S3ReportStore)</li>
+ * </ul>
+ * database, s3 는 여러 서버가 같은 보고서를 공유하므로 한 서버에서 만든 보고서를 다른 서버에서 다시 생성하지 않습니다.
+ *
+ * <p>키는 정제된 기업명(keyOf)이며 버전은 기업별로 1 부터 증가합니다.
+ * 저장된 버전의 내용은 바뀌지 않고, 삭제한 버전 번호도 다시 쓰지 않습니다.
+ * (REPORT 행은 기업명과 버전으로 보고서를 가리키므로 번호를 다시 쓰면 이전 행이 다른 보고서를 가리키게 됨)
+ */
+public interface ReportStore {
+
+    /**
+     * 기업명의 저장소 키 ('/' 를 '_' 로 바꾼 이름, 이전 방식의 기업별 디렉터리 이름과 같음)
+     */
+    static String keyOf(String corpName) {
+        return corpName.replace("/", "_");
+    }
+
+    /**
+     * 저장된 보고서 한 버전
+     *
+     * @param createdAt   생성 시각 (epoch millis)
+     * @param contentHash 압축 전 JSON 의 SHA-256 (hex)
+     * @param length      저장된 바이트(gzip) 길이
+     * @param location    구현별 위치 정보 (세그먼트 위치, 행 ID, 오브젝트 키)
+     */
+    record StoredReportRef(String key, long version, long createdAt, String contentHash, int length,
+                           Object location) {
+
+        public LocalDateTime dateCreated() {
+            return LocalDateTime.ofInstant(Instant.ofEpochMilli(createdAt), ZoneId.systemDefault());
+        }
+    }
+
+    /**
+     * 기업별 보관 현황 (ReportSweeper 의 TTL / 용량 정리용)
+     *
+     * @param latestCreatedAt 최신 버전 생성 시각 (epoch millis)
+     * @param bytes           보관 중인 모든 버전의 바이트 합계
+     */
+    record KeyUsage(String key, long latestCreatedAt, long bytes) {
+    }
+
+    /**
+     * 기업 삭제 결과
+     *
+     * @param bytes          삭제한 바이트 수 (없으면 0)
+     * @param deletedThrough 지금까지 삭제한 마지막 버전 (이 번호 이하의 버전은 다시 저장되지 않음, 삭제한 적 없으면 0)
+     */
+    record Deletion(long bytes, long deletedThrough) {
+    }
+
+    /**
+     * 새 버전으로 추가 후 위치 반환
+     *
+     * @param key         정제된 기업명
+     * @param gzip        gzip 압축된 보고서 JSON
+     * @param contentHash 압축 전 JSON 의 SHA-256 (hex)
+     * @param createdAt   생성 시각 (epoch millis)
+     */
+    StoredReportRef append(String key, byte[] gzip, String contentHash, long createdAt) throws IOException;
+
+    /**
+     * 파일에 있는 보고서(gzip)를 새 버전으로 추가 (메모리에 전부 올리지 않음)
+     */
+    StoredReportRef append(String key, Path gzipFile, String contentHash, long createdAt) throws IOException;
+
+    Optional<StoredReportRef> latest(String key) throws IOException;
+
+    Optional<StoredReportRef> find(String key, long version) throws IOException;
+
+    /**
+     * 보관 중인 버전 번호 (오래된 순)
+     */
+    List<Long> versions(String key) throws IOException;
+
+    /**
+     * 저장된 바이트 전체를 dst 에 읽음 (dst 의 남은 공간이 length 이상이어야 함)
+     */
+    void read(StoredReportRef ref, ByteBuffer dst) throws IOException;
+
+    default byte[] readBytes(StoredReportRef ref) throws IOException {
+        byte[] payload = new byte[ref.length()];
+        read(ref, ByteBuffer.wrap(payload));
+        return payload;
+    }
+
+    /**
+     * 저장된 바이트의 [position, position + count) 구간을 target 으로 전송
+     */
+    void transferTo(StoredReportRef ref, long position, long count, WritableByteChannel target) throws IOException;
+
+    /**
+     * 보관 중인 모든 기업의 현황
+     */
+    List<KeyUsage> usage() throws IOException;
+
+    /**
+     * 기업의 모든 버전 삭제. 이후 같은 기업을 다시 저장하면 버전 번호는 삭제한 마지막 번호 다음부터 이어짐
+     * (재시작 후에도 유지)
+     */
+    Deletion delete(String key) throws IOException;
+
+    /**
+     * 여러 서버가 같은 저장소를 보는지 (true 면 다른 서버가 새 버전을 추가할 수 있으므로 로컬 캐시를 재확인해야 함)
+     */
+    boolean isShared();
+
+    Map<String, Object> getStats();
+}
@@ -0,0 +1,407 @@
+package com.example.finalproject.domain.report.service;
+
+import com.example.finalproject.domain.query.service.TokenBucketRateLimiter;
+import com.example.finalproject.domain.report.entity.ReportCatalogEntity;
+import com.example.finalproject.domain.report.entity.ReportEntity;
+import com.example.finalproject.domain.report.repository.ReportCatalogRepository;
+import com.example.finalproject.domain.report.repository.ReportRepository;
+import com.example.finalproject.domain.report.service.ReportStore.Deletion;
+import com.example.finalproject.domain.report.service.ReportStore.KeyUsage;
+import com.example.finalproject.domain.report.service.ReportStore.StoredReportRef;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * 저장된 보고서를 보관 기간(TTL)과 용량 한도로 정리하는 백그라운드 작업입니다.
+ *
+ * <p>interval-seconds 마다 전용 스레드에서 아래 순서로 실행합니다.
+ * <ol>
+ *   <li>TTL: 최신 버전이 ttl-days 보다 오래된 기업의 보고서 삭제. 보관 기간은 보고서(버전)별이 아니라 기업별이며,
+ *       최근에 다시 생성된 기업은 이전 버전도 함께 남음 (이전 버전 수는 report.store.retain-versions 로 제한)</li>
+ *   <li>용량: 보관 중인 보고서 바이트 합계가 max-bytes 를 넘으면 가장 오래 조회되지 않은 기업부터 삭제
+ *       (조회 시각은 이 서버 기준이며, 조회 기록이 없으면 최신 버전 생성 시각)</li>
+ *   <li>파일: 세그먼트 저장소 이전의 기업별 디렉터리({기업명}/report.json(.gz) 만 있는 디렉터리) 중 TTL 이 지난 것과,
+ *       남아 있는 스트리밍 임시 파일 삭제</li>
+ *   <li>DB: 삭제한 기업의 REPORT 행 중 삭제한 마지막 버전 이하를 지우고 (삭제 후 다시 저장된 새 버전의 행은 남김),
+ *       지운 행을 가리키던 카탈로그는 남은 최신 행으로 되돌리거나 삭제 (같은 지문 요청이 없는 보고서를 가리키지 않도록).
+ *       삭제한 기업의 행은 저장소 키가 아니라 원래 기업명으로 찾음 (키, 카탈로그의 기업명).
+ *       reconcile-rows 를 켜면 저장소에 보고서가 없는 기업의 행도 전체 행 검사(reconcile)로 지움</li>
+ * </ol>
+ *
+ * <p>삭제는 deletes-per-second, DB 행 검사는 rows-per-second 로 속도를 제한해 요청 처리와 경합하지 않게 하며,
+ * 행 검사는 id 순서 keyset 페이지로 진행해 다음 실행에서 이어서 검사합니다.
+ * 로컬 디스크 저장소(local)의 공간은 세그먼트 압축 때 회수됩니다.
+ *
+ * <p>공유 저장소(database, s3)는 한 서버에서만 켜면 되고, local 저장소를 여러 서버에서 쓰면
+ * 다른 서버의 보고서 행을 지우지 않도록 reconcile-rows 를 끕니다.
+ * 이때도 삭제한 버전 이하의 행은 지우므로, 같은 기업의 다른 서버 행이 함께 지워지면 그 서버에서 다시 생성됩니다.
+ * 저장소는 삭제한 버전 번호를 다시 쓰지 않으므로 남은 행이 다른 보고서를 가리키는 일은 없습니다.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ReportSweeper {
+
+    private final ReportStore reportStore;
+    private final ReportBytesCache reportBytesCache;
+    private final ReportRepository reportRepository;
+    private final ReportCatalogRepository reportCatalogRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${report.sweeper.enabled:true}")
+    private boolean enabled;
+
+    @Value("${report.sweeper.interval-seconds:600}")
+    private long intervalSeconds;
+
+    @Value("${report.sweeper.initial-delay-seconds:60}")
+    private long initialDelaySeconds;
+
+    // 0 이면 용량 제한 없음
+    @Value("${report.sweeper.max-bytes:0}")
+    private long maxBytes;
+
+    // 0 이면 보관 기간 제한 없음
+    @Value("${report.sweeper.ttl-days:30}")
+    private int ttlDays;
+
+    @Value("${report.sweeper.deletes-per-second:10}")
+    private double deletesPerSecond;
+
+    @Value("${report.sweeper.rows-per-second:200}")
+    private double rowsPerSecond;
+
+    @Value("${report.sweeper.reconcile-rows:true}")
+    private boolean reconcileRows;
+
+    private static final Path REPORTS_DIR = Paths.get(System.getProperty("java.io.tmpdir"), "reports");
+    private static final Set<String> LEGACY_FILE_NAMES = Set.of("report.json", "report.json.gz");
+    private static final String STREAM_TEMP_PREFIX = "stream-";
+    private static final long TEMP_FILE_MAX_AGE_MS = TimeUnit.DAYS.toMillis(1);
+    private static final int RECONCILE_PAGE_SIZE = 200;
+    private static final String RATE_KEY = "sweeper";
+
+    // 정제된 기업명 -> 마지막 조회 시각 (epoch millis)
+    private final Map<String, Long> lastAccess = new ConcurrentHashMap<>();
+
+    private ScheduledExecutorService sweeper;
+    private TokenBucketRateLimiter deleteLimiter;
+    private TokenBucketRateLimiter rowLimiter;
+    // 다음 실행에서 행 검사를 이어갈 REPORT id (sweeper 스레드에서만 사용)
+    private long reconcileCursor;
+
+    private volatile long storedBytes;
+    private final AtomicLong sweeps = new AtomicLong();
+    private final AtomicLong expiredKeys = new AtomicLong();
+    private final AtomicLong evictedKeys = new AtomicLong();
+    private final AtomicLong deletedBytes = new AtomicLong();
+    private final AtomicLong deletedFiles = new AtomicLong();
+    private final AtomicLong deletedRows = new AtomicLong();
+    private final AtomicLong repairedCatalogs = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        if (!enabled) {
+            return;
+        }
+        // 0 이하면 제한 없음, 버킷 크기는 1초 분량
+        deleteLimiter = deletesPerSecond > 0
+                ? new TokenBucketRateLimiter(deletesPerSecond, Math.max(1, deletesPerSecond), 1) : null;
+        rowLimiter = rowsPerSecond > 0
+                ? new TokenBucketRateLimiter(rowsPerSecond, Math.max(1, rowsPerSecond), 1) : null;
+        sweeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "report-sweeper");
+            t.setDaemon(true);
+            return t;
+        });
+        sweeper.scheduleWithFixedDelay(this::sweep, initialDelaySeconds, intervalSeconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * 보고서 조회 기록 (용량 초과 시 오래 조회되지 않은 기업부터 삭제)
+     */
+    public void recordAccess(String safeCorpName) {
+        if (enabled) {
+            lastAccess.put(safeCorpName, System.currentTimeMillis());
+        }
+    }
+
+    private void sweep() {
+        try {
+            long now = System.currentTimeMillis();
+            List<KeyUsage> usage = new ArrayList<>(reportStore.usage());
+            // 삭제한 기업 -> 삭제한 마지막 버전
+            Map<String, Long> deleted = new LinkedHashMap<>();
+
+            // 1. 보관 기간
+            if (ttlDays > 0) {
+                long expireBefore = now - TimeUnit.DAYS.toMillis(ttlDays);
+                for (Iterator<KeyUsage> it = usage.iterator(); it.hasNext(); ) {
+                    KeyUsage key = it.next();
+                    if (key.latestCreatedAt() < expireBefore) {
+                        Optional<Deletion> deletion = deleteKey(key.key(), expireBefore - 1);
+                        if (deletion.isPresent()) {
+                            expiredKeys.incrementAndGet();
+                            deleted.put(key.key(), deletion.get().deletedThrough());
+                            it.remove();
+                        }
+                    }
+                }
+            }
+
+            // 2. 용량
+            long total = usage.stream().mapToLong(KeyUsage::bytes).sum();
+            if (maxBytes > 0 && total > maxBytes) {
+                usage.sort(Comparator.comparingLong(this::lastUsed));
+                for (KeyUsage key : usage) {
+                    if (total <= maxBytes) {
+                        break;
+                    }
+                    // 목록을 읽은 뒤 새 버전이 저장된 기업은 건너뜀
+                    Optional<Deletion> deletion = deleteKey(key.key(), key.latestCreatedAt());
+                    if (deletion.isPresent()) {
+                        evictedKeys.incrementAndGet();
+                        deleted.put(key.key(), deletion.get().deletedThrough());
+                        total -= key.bytes();
+                    }
+                }
+            }
+            storedBytes = total;
+
+            // 저장소에 없는 기업의 조회 기록 정리
+            Set<String> stored = new HashSet<>();
+            usage.forEach(key -> stored.add(key.key()));
+            stored.removeAll(deleted.keySet());
+            lastAccess.keySet().retainAll(stored);
+
+            // 3. 이전 방식 파일, 임시 파일
+            deleteOldFiles(now);
+
+            // 4. DB 행 (삭제 후 새 보고서가 저장되었어도 삭제한 버전의 행은 지움)
+            for (Map.Entry<String, Long> key : deleted.entrySet()) {
+                removeRows(findRows(key.getKey(), key.getValue()));
+            }
+            if (reconcileRows) {
+                reconcile();
+            }
+            sweeps.incrementAndGet();
+            if (!deleted.isEmpty()) {
+                log.info("보고서 정리: 기업 {}곳 삭제, 보관 중 {} bytes", deleted.size(), total);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException | RuntimeException e) {
+            failures.incrementAndGet();
+            log.error("보고서 정리 실패", e);
+        }
+    }
+
+    private long lastUsed(KeyUsage key) {
+        return Math.max(lastAccess.getOrDefault(key.key(), 0L), key.latestCreatedAt());
+    }
+
+    /**
+     * 최신 버전이 notAfter 이전에 만들어졌으면 기업의 모든 버전을 삭제하고 삭제 결과 반환
+     */
+    private Optional<Deletion> deleteKey(String key, long notAfter) throws IOException, InterruptedException {
+        pace(deleteLimiter);
+        Optional<StoredReportRef> latest = reportStore.latest(key);
+        if (latest.isEmpty() || latest.get().createdAt() > notAfter) {
+            return Optional.empty();
+        }
+        Deletion deletion = reportStore.delete(key);
+        deletedBytes.addAndGet(deletion.bytes());
+        reportBytesCache.invalidate(key);
+        lastAccess.remove(key);
+        return Optional.of(deletion);
+    }
+
+    /**
+     * 보관 기간이 지난 이전 방식 기업 디렉터리({기업명}/report.json(.gz))와 하루 넘게 남은 스트리밍 임시 파일 삭제
+     */
+    private void deleteOldFiles(long now) throws IOException {
+        // 저장소 디렉터리(report.store.dir 등)를 같은 위치에 두어도 지우지 않도록 이전 방식 디렉터리만 대상
+        if (!Files.isDirectory(REPORTS_DIR)) {
+            return;
+        }
+        long expireBefore = ttlDays > 0 ? now - TimeUnit.DAYS.toMillis(ttlDays) : Long.MIN_VALUE;
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(REPORTS_DIR)) {
+            for (Path entry : entries) {
+                String name = entry.getFileName().toString();
+                long modified = Files.getLastModifiedTime(entry).toMillis();
+                if (Files.isDirectory(entry)) {
+                    if (modified < expireBefore && isLegacyReportDir(entry)) {
+                        deleteRecursively(entry);
+                        deletedFiles.incrementAndGet();
+                    }
+                } else if (name.startsWith(STREAM_TEMP_PREFIX) && name.endsWith(".tmp")
+                        && modified < now - TEMP_FILE_MAX_AGE_MS) {
+                    Files.deleteIfExists(entry);
+                    deletedFiles.incrementAndGet();
+                }
+            }
+        }
+    }
+
+    /**
+     * 파일이 report.json, report.json.gz 뿐인 디렉터리 (ReportService 의 이전 방식 저장 위치)
+     */
+    private static boolean isLegacyReportDir(Path dir) throws IOException {
+        boolean found = false;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir)) {
+            for (Path file : files) {
+                if (!Files.isRegularFile(file) || !LEGACY_FILE_NAMES.contains(file.getFileName().toString())) {
+                    return false;
+                }
+                found = true;
+            }
+        }
+        return found;
+    }
+
+    private static void deleteRecursively(Path dir) throws IOException {
+        try (Stream<Path> paths = Files.walk(dir)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    /**
+     * REPORT 행을 id 순서로 rows-per-second 씩 검사해 저장소에 보고서가 없는 기업의 행 삭제.
+     * 한 번에 interval-seconds 까지만 진행하고 다음 실행에서 이어서 검사
+     */
+    private void reconcile() throws IOException, InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(intervalSeconds);
+        while (System.nanoTime() < deadline) {
+            List<ReportEntity> page = reportRepository.findByIdGreaterThanOrderByIdAsc(reconcileCursor,
+                    PageRequest.of(0, RECONCILE_PAGE_SIZE));
+            if (page.isEmpty()) {
+                reconcileCursor = 0;
+                return;
+            }
+            Map<String, Boolean> missing = new HashMap<>();
+            List<ReportEntity> orphans = new ArrayList<>();
+            for (ReportEntity row : page) {
+                pace(rowLimiter);
+                String key = ReportStore.keyOf(row.getCorpName());
+                Boolean gone = missing.get(key);
+                if (gone == null) {
+                    gone = reportStore.latest(key).isEmpty() && !Files.exists(REPORTS_DIR.resolve(key));
+                    missing.put(key, gone);
+                }
+                if (gone) {
+                    orphans.add(row);
+                }
+            }
+            removeRows(orphans);
+            reconcileCursor = page.get(page.size() - 1).getId();
+        }
+    }
+
+    /**
+     * 행 삭제 후 그 행을 가리키던 카탈로그를 기업의 남은 최신 행으로 되돌리거나(없으면 삭제) 한 트랜잭션에서 처리
+     */
+    private void removeRows(List<ReportEntity> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        List<Long> ids = rows.stream().map(ReportEntity::getId).toList();
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            reportRepository.deleteAllByIdInBatch(ids);
+            for (ReportCatalogEntity catalog : reportCatalogRepository.findByLatestReportIdIn(ids)) {
+                Optional<ReportEntity> remaining =
+                        reportRepository.findFirstByCorpNameOrderByDateCreatedDescIdDesc(catalog.getCorpName());
+                if (remaining.isPresent()) {
+                    catalog.resetTo(remaining.get());
+                } else {
+                    reportCatalogRepository.delete(catalog);
+                }
+                repairedCatalogs.incrementAndGet();
+            }
+        });
+        deletedRows.addAndGet(ids.size());
+    }
+
+    /**
+     * 저장소 키가 key 이고 버전이 deletedThrough 이하인 REPORT 행 (버전이 없는 이전 방식 행 포함).
+     * 키는 '/' 를 '_' 로 바꾼 이름이라 키로 조회하면 '/' 가 들어간 기업명의 행을 못 찾으므로
+     * 키 자체와 카탈로그에 남은 원래 기업명(CompanyKey 는 '/', '_' 를 모두 지우므로 같은 카탈로그)으로 조회
+     */
+    private List<ReportEntity> findRows(String key, long deletedThrough) {
+        Set<String> corpNames = new HashSet<>();
+        corpNames.add(key);
+        reportCatalogRepository.findByCorpKey(CompanyKey.of(key))
+                .map(ReportCatalogEntity::getCorpName)
+                .ifPresent(corpNames::add);
+        return reportRepository.findByCorpNameIn(corpNames).stream()
+                .filter(row -> ReportStore.keyOf(row.getCorpName()).equals(key))
+                .filter(row -> row.getReportVersion() == null || row.getReportVersion() <= deletedThrough)
+                .toList();
+    }
+
+    private static void pace(TokenBucketRateLimiter limiter) throws InterruptedException {
+        if (limiter == null) {
+            return;
+        }
+        long waitMs;
+        while ((waitMs = limiter.tryAcquire(RATE_KEY)) > 0) {
+            Thread.sleep(waitMs);
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("maxBytes", maxBytes);
+        stats.put("ttlDays", ttlDays);
+        stats.put("storedBytes", storedBytes);
+        stats.put("trackedKeys", lastAccess.size());
+        stats.put("sweeps", sweeps.get());
+        stats.put("expiredKeys", expiredKeys.get());
+        stats.put("evictedKeys", evictedKeys.get());
+        stats.put("deletedBytes", deletedBytes.get());
+        stats.put("deletedFiles", deletedFiles.get());
+        stats.put("deletedRows", deletedRows.get());
+        stats.put("repairedCatalogs", repairedCatalogs.get());
+        stats.put("failures", failures.get());
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (sweeper != null) {
+            sweeper.shutdownNow();
+        }
+    }
+}
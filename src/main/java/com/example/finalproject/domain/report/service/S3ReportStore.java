@@ -0,0 +1,531 @@
+package com.example.finalproject.domain.report.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3ClientBuilder;
+import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Request;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.PutObjectResponse;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+import software.amazon.awssdk.services.s3.model.S3Object;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 보고서를 S3 호환 오브젝트 스토리지(AWS S3, MinIO 등)에 보관하는 저장소입니다. (report.store.type=s3)
+ *
+ * <p>한 버전이 오브젝트 하나이며 키는 {prefix}{기업명}/{버전 12자리}.json.gz 입니다.
+ * 내용 해시와 생성 시각은 오브젝트 메타데이터(content-hash, created-at)에 둡니다.
+ *
+ * <ul>
+ *   <li>버전 번호는 조건부 쓰기(If-None-Match: *)로 정하며, 다른 서버가 같은 번호를 먼저 쓰면(412) 다음 번호로 다시 저장</li>
+ *   <li>delete 는 버전 오브젝트보다 먼저 {prefix}{기업명}/deleted-through-{버전 12자리} 표식을 남겨,
+ *       삭제 후 다시 저장해도 번호를 이어서 씀 (같은 오브젝트 키가 다른 내용을 가리키는 일이 없음)</li>
+ *   <li>최신 버전은 기업 prefix 목록 조회 1회로 찾고, 버전 메타데이터는 바뀌지 않으므로 한 번 조회한 값을
+ *       metadata-cache-entries 개까지 LRU 로 보관</li>
+ *   <li>읽을 때는 조회 당시의 ETag 로 If-Match 를 걸어, 다른 서버에서 오브젝트가 바뀌었으면(412) 캐시를 버리고 실패</li>
+ *   <li>part-bytes 보다 큰 보고서는 구간(Range) GET 을 병렬로 실행해 읽음</li>
+ *   <li>기업별로 최근 report.store.retain-versions 개 버전만 남김</li>
+ * </ul>
+ *
+ * <p>로컬에서는 MinIO 를 띄우고 endpoint 를 지정하면 됩니다 (path-style 주소 사용).
+ */
+@Component
+@ConditionalOnProperty(name = "report.store.type", havingValue = "s3")
+@Slf4j
+public class S3ReportStore implements ReportStore {
+
+    @Value("${report.store.s3.endpoint:}")
+    private String endpoint;
+
+    @Value("${report.store.s3.region:us-east-1}")
+    private String region;
+
+    @Value("${report.store.s3.bucket:reports}")
+    private String bucket;
+
+    @Value("${report.store.s3.prefix:reports/}")
+    private String prefix;
+
+    @Value("${report.store.s3.access-key:}")
+    private String accessKey;
+
+    @Value("${report.store.s3.secret-key:}")
+    private String secretKey;
+
+    @Value("${report.store.s3.path-style:true}")
+    private boolean pathStyle;
+
+    @Value("${report.store.s3.part-bytes:8388608}")
+    private int partBytes;
+
+    @Value("${report.store.s3.read-threads:8}")
+    private int readThreads;
+
+    @Value("${report.store.s3.metadata-cache-entries:10000}")
+    private int metadataCacheEntries;
+
+    @Value("${report.store.retain-versions:5}")
+    private int retainVersions;
+
+    private static final String OBJECT_SUFFIX = ".json.gz";
+    private static final String DELETED_MARKER = "deleted-through-";
+    private static final String META_CONTENT_HASH = "content-hash";
+    private static final String META_CREATED_AT = "created-at";
+    private static final int MAX_APPEND_ATTEMPTS = 5;
+
+    private S3Client s3;
+    private ExecutorService readPool;
+
+    // 오브젝트 키 -> 버전 정보 (저장된 버전은 바뀌지 않으므로 HEAD 는 버전당 한 번, 접근 순 LRU)
+    private Map<String, StoredReportRef> metadata;
+
+    /**
+     * StoredReportRef.location: 오브젝트 키와 조회 당시의 ETag
+     */
+    private record ObjectLocation(String objectKey, String eTag) {
+        @Override
+        public String toString() {
+            return objectKey;
+        }
+    }
+
+    /**
+     * 기업 prefix 목록 조회 결과
+     *
+     * @param versions       버전 오브젝트 (버전 오름차순)
+     * @param deletedThrough 삭제 표식이 가리키는 마지막 삭제 버전 (없으면 0)
+     * @param markers        삭제 표식 오브젝트 키
+     */
+    private record Listing(List<S3Object> versions, long deletedThrough, List<String> markers) {
+
+        List<Long> versionNumbers() {
+            return versions.stream().map(S3ReportStore::versionOf).toList();
+        }
+
+        long lastVersion() {
+            return versions.isEmpty() ? deletedThrough : Math.max(deletedThrough, versionOf(versions.get(versions.size() - 1)));
+        }
+    }
+
+    private final AtomicLong appends = new AtomicLong();
+    private final AtomicLong versionConflicts = new AtomicLong();
+    private final AtomicLong rangedReads = new AtomicLong();
+    private final AtomicLong bytesRead = new AtomicLong();
+    private final AtomicLong deletes = new AtomicLong();
+    private final AtomicLong staleReads = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        S3ClientBuilder builder = S3Client.builder()
+                .region(Region.of(region))
+                .forcePathStyle(pathStyle);
+        if (!endpoint.isBlank()) {
+            builder.endpointOverride(URI.create(endpoint));
+        }
+        builder.credentialsProvider(accessKey.isBlank()
+                ? DefaultCredentialsProvider.create()
+                : StaticCredentialsProvider.create(AwsBasicCredentials.create(accessKey, secretKey)));
+        s3 = builder.build();
+        metadata = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, StoredReportRef> eldest) {
+                return size() > metadataCacheEntries;
+            }
+        });
+
+        readPool = Executors.newFixedThreadPool(readThreads, r -> {
+            Thread t = new Thread(r, "report-s3-reader");
+            t.setDaemon(true);
+            return t;
+        });
+        log.info("S3 보고서 저장소 사용: bucket = {}, prefix = {}, endpoint = {}", bucket, prefix,
+                endpoint.isBlank() ? "(AWS)" : endpoint);
+    }
+
+    @Override
+    public StoredReportRef append(String key, byte[] gzip, String contentHash, long createdAt) throws IOException {
+        return append(key, gzip.length, contentHash, createdAt, () -> RequestBody.fromBytes(gzip));
+    }
+
+    @Override
+    public StoredReportRef append(String key, Path gzipFile, String contentHash, long createdAt) throws IOException {
+        long size = Files.size(gzipFile);
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("보고서가 너무 큽니다: " + size);
+        }
+        return append(key, (int) size, contentHash, createdAt, () -> RequestBody.fromFile(gzipFile));
+    }
+
+    @FunctionalInterface
+    private interface BodySupplier {
+        RequestBody get();
+    }
+
+    private StoredReportRef append(String key, int length, String contentHash, long createdAt, BodySupplier body)
+            throws IOException {
+        for (int attempt = 1; ; attempt++) {
+            Listing listing = list(key);
+            // 삭제된 번호도 건너뜀 (다른 서버가 캐시한 이전 오브젝트 키를 재사용하지 않도록)
+            long version = listing.lastVersion() + 1;
+            String objectKey = objectKey(key, version);
+
+            Map<String, String> userMetadata = new LinkedHashMap<>();
+            userMetadata.put(META_CREATED_AT, Long.toString(createdAt));
+            if (contentHash != null) {
+                userMetadata.put(META_CONTENT_HASH, contentHash);
+            }
+            PutObjectResponse put;
+            try {
+                put = s3.putObject(PutObjectRequest.builder()
+                        .bucket(bucket)
+                        .key(objectKey)
+                        .contentType("application/json")
+                        .contentEncoding("gzip")
+                        .contentLength((long) length)
+                        .metadata(userMetadata)
+                        .ifNoneMatch("*")
+                        .build(), body.get());
+            } catch (S3Exception e) {
+                // 412: 다른 서버가 같은 버전을 먼저 저장함, 409: 같은 키에 동시 조건부 쓰기
+                if ((e.statusCode() == 412 || e.statusCode() == 409) && attempt < MAX_APPEND_ATTEMPTS) {
+                    versionConflicts.incrementAndGet();
+                    continue;
+                }
+                throw new IOException("S3 보고서 저장 실패: " + objectKey, e);
+            } catch (SdkException e) {
+                throw new IOException("S3 보고서 저장 실패: " + objectKey, e);
+            }
+
+            StoredReportRef ref = new StoredReportRef(key, version, createdAt, contentHash, length,
+                    new ObjectLocation(objectKey, put.eTag()));
+            metadata.put(objectKey, ref);
+            appends.incrementAndGet();
+
+            List<Long> versions = new ArrayList<>(listing.versionNumbers());
+            versions.add(version);
+            deleteOldVersions(key, versions);
+            return ref;
+        }
+    }
+
+    private void deleteOldVersions(String key, List<Long> versions) {
+        for (int i = 0; i < versions.size() - retainVersions; i++) {
+            String objectKey = objectKey(key, versions.get(i));
+            try {
+                s3.deleteObject(DeleteObjectRequest.builder().bucket(bucket).key(objectKey).build());
+                metadata.remove(objectKey);
+            } catch (SdkException e) {
+                log.warn("이전 보고서 버전 삭제 실패: {}", objectKey, e);
+            }
+        }
+    }
+
+    @Override
+    public Optional<StoredReportRef> latest(String key) throws IOException {
+        List<Long> versions = versions(key);
+        return versions.isEmpty() ? Optional.empty() : find(key, versions.get(versions.size() - 1));
+    }
+
+    @Override
+    public Optional<StoredReportRef> find(String key, long version) throws IOException {
+        String objectKey = objectKey(key, version);
+        StoredReportRef cached = metadata.get(objectKey);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        try {
+            HeadObjectResponse head = s3.headObject(HeadObjectRequest.builder().bucket(bucket).key(objectKey).build());
+            Map<String, String> userMetadata = head.metadata();
+            String createdAt = userMetadata.get(META_CREATED_AT);
+            StoredReportRef ref = new StoredReportRef(key, version,
+                    createdAt == null ? head.lastModified().toEpochMilli() : Long.parseLong(createdAt),
+                    userMetadata.get(META_CONTENT_HASH), head.contentLength().intValue(),
+                    new ObjectLocation(objectKey, head.eTag()));
+            metadata.put(objectKey, ref);
+            return Optional.of(ref);
+        } catch (NoSuchKeyException e) {
+            return Optional.empty();
+        } catch (S3Exception e) {
+            if (e.statusCode() == 404) {
+                return Optional.empty();
+            }
+            throw new IOException("S3 보고서 조회 실패: " + objectKey, e);
+        } catch (SdkException e) {
+            throw new IOException("S3 보고서 조회 실패: " + objectKey, e);
+        }
+    }
+
+    @Override
+    public List<Long> versions(String key) throws IOException {
+        return list(key).versionNumbers();
+    }
+
+    /**
+     * 기업 prefix 아래 버전 오브젝트와 삭제 표식 목록 조회 (1회)
+     */
+    private Listing list(String key) throws IOException {
+        String keyPrefix = prefix + key + "/";
+        List<S3Object> versions = new ArrayList<>();
+        List<String> markers = new ArrayList<>();
+        long deletedThrough = 0;
+        try {
+            for (S3Object object : s3.listObjectsV2Paginator(ListObjectsV2Request.builder()
+                    .bucket(bucket)
+                    .prefix(keyPrefix)
+                    .build()).contents()) {
+                String name = object.key().substring(keyPrefix.length());
+                if (name.indexOf('/') >= 0) {
+                    continue;
+                }
+                try {
+                    if (name.endsWith(OBJECT_SUFFIX)) {
+                        Long.parseLong(name.substring(0, name.length() - OBJECT_SUFFIX.length()));
+                        versions.add(object);
+                    } else if (name.startsWith(DELETED_MARKER)) {
+                        deletedThrough = Math.max(deletedThrough, Long.parseLong(name.substring(DELETED_MARKER.length())));
+                        markers.add(object.key());
+                    }
+                } catch (NumberFormatException ignored) {
+                    // 이 저장소가 만든 오브젝트가 아님
+                }
+            }
+        } catch (SdkException e) {
+            throw new IOException("S3 보고서 목록 조회 실패: " + keyPrefix, e);
+        }
+        versions.sort((a, b) -> Long.compare(versionOf(a), versionOf(b)));
+        return new Listing(versions, deletedThrough, markers);
+    }
+
+    private static long versionOf(S3Object object) {
+        String objectKey = object.key();
+        int slash = objectKey.lastIndexOf('/');
+        return Long.parseLong(objectKey.substring(slash + 1, objectKey.length() - OBJECT_SUFFIX.length()));
+    }
+
+    /**
+     * prefix 아래 전체 목록을 한 번 훑어 기업별로 합산 (최신 시각은 가장 높은 버전 오브젝트의 수정 시각)
+     */
+    @Override
+    public List<KeyUsage> usage() throws IOException {
+        Map<String, long[]> byKey = new LinkedHashMap<>();
+        try {
+            for (S3Object object : s3.listObjectsV2Paginator(ListObjectsV2Request.builder()
+                    .bucket(bucket)
+                    .prefix(prefix)
+                    .build()).contents()) {
+                String name = object.key().substring(prefix.length());
+                int slash = name.indexOf('/');
+                if (slash <= 0 || !name.endsWith(OBJECT_SUFFIX)) {
+                    continue;
+                }
+                // {수정 시각, 바이트 합계}, 목록은 키 순서이므로 같은 기업의 뒤 오브젝트가 더 높은 버전
+                long[] totals = byKey.computeIfAbsent(name.substring(0, slash), k -> new long[2]);
+                totals[0] = object.lastModified().toEpochMilli();
+                totals[1] += object.size();
+            }
+        } catch (SdkException e) {
+            throw new IOException("S3 보고서 목록 조회 실패: " + prefix, e);
+        }
+        List<KeyUsage> usage = new ArrayList<>(byKey.size());
+        byKey.forEach((key, totals) -> usage.add(new KeyUsage(key, totals[0], totals[1])));
+        return usage;
+    }
+
+    /**
+     * 기업 prefix 아래 버전 오브젝트를 모두 삭제 (크기는 목록 조회 결과 사용)
+     * <p>
+     * 삭제 전에 마지막 버전 번호를 표식 오브젝트로 남겨 이후 append 가 번호를 이어서 쓰게 하고, 이전 표식은 지움
+     */
+    @Override
+    public Deletion delete(String key) throws IOException {
+        Listing listing = list(key);
+        if (listing.versions().isEmpty()) {
+            return new Deletion(0, listing.deletedThrough());
+        }
+        long deletedThrough = listing.lastVersion();
+        String marker = prefix + key + "/" + DELETED_MARKER + String.format("%012d", deletedThrough);
+        long bytes = 0;
+        try {
+            s3.putObject(PutObjectRequest.builder().bucket(bucket).key(marker).contentLength(0L).build(),
+                    RequestBody.empty());
+            for (S3Object object : listing.versions()) {
+                s3.deleteObject(DeleteObjectRequest.builder().bucket(bucket).key(object.key()).build());
+                metadata.remove(object.key());
+                bytes += object.size();
+            }
+            for (String previous : listing.markers()) {
+                if (!previous.equals(marker)) {
+                    s3.deleteObject(DeleteObjectRequest.builder().bucket(bucket).key(previous).build());
+                }
+            }
+        } catch (SdkException e) {
+            throw new IOException("S3 보고서 삭제 실패: " + prefix + key + "/", e);
+        }
+        if (bytes > 0) {
+            deletes.incrementAndGet();
+        }
+        return new Deletion(bytes, deletedThrough);
+    }
+
+    /**
+     * part-bytes 이하는 GET 1회, 더 크면 구간 GET 을 병렬로 실행해 dst 의 해당 위치에 바로 채움
+     */
+    @Override
+    public void read(StoredReportRef ref, ByteBuffer dst) throws IOException {
+        int base = dst.position();
+        if (ref.length() <= partBytes) {
+            readRange(ref, 0, ref.length(), dst.duplicate());
+        } else {
+            List<Future<?>> parts = new ArrayList<>();
+            for (long start = 0; start < ref.length(); start += partBytes) {
+                long partStart = start;
+                int partLength = (int) Math.min(partBytes, ref.length() - start);
+                ByteBuffer target = dst.duplicate().position(base + (int) partStart);
+                parts.add(readPool.submit(() -> {
+                    readRange(ref, partStart, partLength, target);
+                    return null;
+                }));
+            }
+            for (Future<?> part : parts) {
+                await(part, parts);
+            }
+        }
+        dst.position(base + ref.length());
+    }
+
+    private void await(Future<?> part, List<Future<?>> parts) throws IOException {
+        try {
+            part.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            parts.forEach(p -> p.cancel(true));
+            throw new IOException("S3 보고서 읽기 중단", e);
+        } catch (ExecutionException e) {
+            parts.forEach(p -> p.cancel(true));
+            throw e.getCause() instanceof IOException io ? io : new IOException("S3 보고서 읽기 실패", e.getCause());
+        }
+    }
+
+    private void readRange(StoredReportRef ref, long start, int length, ByteBuffer target) throws IOException {
+        try (ResponseInputStream<GetObjectResponse> in = getRange(ref, start, length)) {
+            byte[] chunk = in.readNBytes(length);
+            if (chunk.length != length) {
+                throw new IOException("S3 보고서가 예상보다 짧습니다: " + ref.location());
+            }
+            target.put(chunk);
+        }
+        rangedReads.incrementAndGet();
+        bytesRead.addAndGet(length);
+    }
+
+    /**
+     * 요청한 구간만 GET 해서 target 으로 흘려보냄 (보고서 전체를 메모리에 올리지 않음)
+     */
+    @Override
+    public void transferTo(StoredReportRef ref, long position, long count, WritableByteChannel target) throws IOException {
+        if (count <= 0) {
+            return;
+        }
+        try (InputStream in = getRange(ref, position, count)) {
+            long copied = in.transferTo(Channels.newOutputStream(target));
+            if (copied != count) {
+                throw new IOException("S3 보고서가 예상보다 짧습니다: " + ref.location());
+            }
+        }
+        rangedReads.incrementAndGet();
+        bytesRead.addAndGet(count);
+    }
+
+    /**
+     * 조회 당시 ETag 로 If-Match 를 걸어 구간 GET. 오브젝트가 바뀌었으면(412) 보관한 메타데이터를 버리고 실패
+     */
+    private ResponseInputStream<GetObjectResponse> getRange(StoredReportRef ref, long start, long length)
+            throws IOException {
+        ObjectLocation location = (ObjectLocation) ref.location();
+        try {
+            GetObjectRequest.Builder request = GetObjectRequest.builder()
+                    .bucket(bucket)
+                    .key(location.objectKey())
+                    .range("bytes=" + start + "-" + (start + length - 1));
+            if (location.eTag() != null) {
+                request.ifMatch(location.eTag());
+            }
+            return s3.getObject(request.build());
+        } catch (S3Exception e) {
+            if (e.statusCode() == 412 || e.statusCode() == 404) {
+                metadata.remove(location.objectKey());
+                staleReads.incrementAndGet();
+            }
+            throw new IOException("S3 보고서 읽기 실패: " + location.objectKey(), e);
+        } catch (SdkException e) {
+            throw new IOException("S3 보고서 읽기 실패: " + location.objectKey(), e);
+        }
+    }
+
+    private String objectKey(String key, long version) {
+        return prefix + key + "/" + String.format("%012d", version) + OBJECT_SUFFIX;
+    }
+
+    @Override
+    public boolean isShared() {
+        return true;
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("type", "s3");
+        stats.put("bucket", bucket);
+        stats.put("cachedMetadata", metadata.size());
+        stats.put("appends", appends.get());
+        stats.put("versionConflicts", versionConflicts.get());
+        stats.put("rangedReads", rangedReads.get());
+        stats.put("bytesRead", bytesRead.get());
+        stats.put("deletes", deletes.get());
+        stats.put("staleReads", staleReads.get());
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        readPool.shutdownNow();
+        s3.close();
+    }
+}
@@ -1,10 +1,13 @@
 package com.example.finalproject.exception;
 
+import com.example.finalproject.exception.error.AIServerOverloadedException;
 import com.example.finalproject.exception.error.AIServerUnavailableException;
 import com.example.finalproject.exception.error.DuplicateUserException;
 import com.example.finalproject.exception.error.FinancialDataParseException;
 import com.example.finalproject.exception.error.PdfGenerationException;
+import com.example.finalproject.exception.error.TooManyRequestsException;
 import com.example.finalproject.exception.error.UserNotFoundException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -20,6 +23,12 @@ import org.springframework.web.bind.annotation.RestControllerAdvice;
  * - AIServerUnavailableException:
  *   handleAIError() → GATEWAY_TIMEOUT (504) - AI 서버와의 통신에서 응답이 없거나 시간 초과가 발생한 경우
  *
+ * - AIServerOverloadedException:
+ *   handleAIOverloaded() → SERVICE_UNAVAILABLE (503) + Retry-After - 서킷 브레이커가 열려 있거나 동시 호출 한도를 초과한 경우
+ *
+ * - TooManyRequestsException:
+ *   handleTooManyRequests() → TOO_MANY_REQUESTS (429) + Retry-After - 사용자별 속도 제한 또는 대기열 한도를 초과한 경우
+ *
  * - PdfGenerationException:
  *   handlePdfError() → 에러 타입에 따라 다른 HTTP 상태 코드 반환
  *   * PDF_GENERATION_FAILED: INTERNAL_SERVER_ERROR (500) - 서버 내부 오류로 PDF 생성 실패
@@ -43,6 +52,22 @@ public class GlobalExceptionHandler {
                 .body("AI 서버 응답 없음: " + e.getMessage());
     }
 
+    @ExceptionHandler(AIServerOverloadedException.class)
+    public ResponseEntity<String> handleAIOverloaded(AIServerOverloadedException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .contentType(MediaType.APPLICATION_JSON)
+                .body("AI 서버 과부하: " + e.getMessage());
+    }
+
+    @ExceptionHandler(TooManyRequestsException.class)
+    public ResponseEntity<String> handleTooManyRequests(TooManyRequestsException e) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .contentType(MediaType.APPLICATION_JSON)
+                .body("요청 한도 초과: " + e.getMessage());
+    }
+
     @ExceptionHandler(PdfGenerationException.class)
     public ResponseEntity<String> handlePdfError(PdfGenerationException e) {
         if (e.getErrorType() == PdfGenerationException.ErrorType.PDF_GENERATION_FAILED) {
@@ -0,0 +1,19 @@
+package com.example.finalproject.exception.error;
+
+/**
+ * AI 서버 호출을 시도하지 않고 즉시 거절할 때 발생하는 예외입니다.
+ * 서킷 브레이커가 열려 있거나, 엔드포인트별 동시 호출 한도(bulkhead)를 초과한 경우에 사용됩니다.
+ * 클라이언트에게는 503 과 Retry-After 헤더로 전달됩니다.
+ */
+public class AIServerOverloadedException extends RuntimeException {
+    private final long retryAfterSeconds;
+
+    public AIServerOverloadedException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.finalproject.exception.error;
+
+/**
+ * 사용자별 요청 한도(속도 제한, 대기열 한도)를 넘었을 때 발생하는 예외입니다.
+ * 클라이언트에게는 429 와 Retry-After 헤더로 전달됩니다.
+ */
+public class TooManyRequestsException extends RuntimeException {
+    private final long retryAfterSeconds;
+
+    public TooManyRequestsException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.finalproject.domain.company.service;
+
+import com.example.finalproject.domain.company.service.CompanyNameIndex.MatchType;
+import com.example.finalproject.domain.company.service.CompanyNameIndex.Suggestion;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * CompanyNameIndex 의 접두어, 초성, 오타 검색 테스트
+ */
+class CompanyNameIndexTest {
+
+    private CompanyNameIndex index;
+
+    @BeforeEach
+    void setUp() {
+        // 카탈로그 동기화(init)는 하지 않고 add 로만 채움
+        index = new CompanyNameIndex(null, null);
+        ReflectionTestUtils.setField(index, "maxResults", 5);
+        for (String corpName : List.of("삼성전자", "삼성SDI", "삼성물산", "삼양식품", "SK하이닉스", "카카오", "카카오뱅크", "현대자동차")) {
+            index.add(corpName, false);
+        }
+    }
+
+    @Test
+    void prefixMatchesIncludePartialSyllable() {
+        assertEquals(List.of(new Suggestion("삼성전자", MatchType.PREFIX, false)), index.suggest("삼성저", 10));
+        assertEquals(List.of("카카오", "카카오뱅크"), names(index.suggest("카카", 10)));
+        assertEquals(List.of(), index.suggest("한화", 10));
+    }
+
+    @Test
+    void prefixMatchesPreferReportsThenShorterNames() {
+        // 같은 길이는 정규화한 이름 순, 영문은 소문자로 정규화
+        assertEquals(List.of("삼성물산", "삼성전자", "삼성SDI"), names(index.suggest("삼성", 10)));
+
+        index.add("삼성SDI", true);
+        List<Suggestion> suggestions = index.suggest("삼성", 10);
+        assertEquals(new Suggestion("삼성SDI", MatchType.PREFIX, true), suggestions.get(0));
+        assertEquals(List.of("삼성SDI", "삼성물산", "삼성전자"), names(suggestions));
+    }
+
+    @Test
+    void legalFormsAndSpacingDoNotMatter() {
+        assertEquals(List.of("삼성전자"), names(index.suggest("(주) 삼성 전자", 10)));
+        assertEquals(List.of("SK하이닉스"), names(index.suggest("sk하이", 10)));
+
+        // 이미 있는 기업은 보고서가 저장될 때 표시 이름만 바뀜
+        index.add("㈜삼성전자", true);
+        index.add("삼성전자 주식회사", false);
+        assertEquals(List.of(new Suggestion("㈜삼성전자", MatchType.PREFIX, true)), index.suggest("삼성전", 10));
+        assertEquals(8, index.getStats().get("companies"));
+    }
+
+    @Test
+    void chosungMatchesWholeAndMixedQueries() {
+        assertEquals(List.of(new Suggestion("삼성전자", MatchType.CHOSUNG, false)), index.suggest("ㅅㅅㅈㅈ", 10));
+        assertEquals(List.of("삼성물산", "삼성전자", "삼성SDI"), names(index.suggest("ㅅㅅ", 10)));
+        assertEquals(List.of(new Suggestion("SK하이닉스", MatchType.CHOSUNG, false)), index.suggest("skㅎㅇ", 10));
+    }
+
+    @Test
+    void typoFallsBackToFuzzyMatch() {
+        List<Suggestion> suggestions = index.suggest("삼송전자", 10);
+        assertEquals(new Suggestion("삼성전자", MatchType.FUZZY, false), suggestions.get(0));
+        assertTrue(suggestions.stream().allMatch(suggestion -> suggestion.match() == MatchType.FUZZY));
+
+        assertEquals(List.of(new Suggestion("현대자동차", MatchType.FUZZY, false)), index.suggest("현데자동", 10));
+        // 자모 4개 미만은 오타 검색 안 함
+        assertEquals(List.of(), index.suggest("솜", 10));
+    }
+
+    @Test
+    void fuzzyOnlyFillsRemainingSlots() {
+        // 접두어로 찾은 기업이 먼저, 남은 자리만 오타로
+        List<Suggestion> suggestions = index.suggest("카카오뱅", 10);
+        assertEquals(new Suggestion("카카오뱅크", MatchType.PREFIX, false), suggestions.get(0));
+        assertEquals(1, suggestions.stream().filter(suggestion -> suggestion.match() == MatchType.PREFIX).count());
+
+        assertEquals(1, index.suggest("카카오뱅", 1).size());
+    }
+
+    @Test
+    void limitIsCappedByMaxResults() {
+        for (int i = 0; i < 10; i++) {
+            index.add("삼성테스트" + i, false);
+        }
+        assertEquals(2, index.suggest("삼성", 2).size());
+        assertEquals(5, index.suggest("삼성", 100).size());
+        assertEquals(1, index.suggest("삼성", 0).size());
+        assertEquals(List.of(), index.suggest(" () ", 10));
+    }
+
+    @Test
+    void prefixEditDistanceComparesAgainstClosestPrefix() {
+        assertEquals(0, CompanyNameIndex.prefixEditDistance("abc", "abcdef", 1));
+        assertEquals(1, CompanyNameIndex.prefixEditDistance("abd", "abcdef", 1));
+        assertEquals(1, CompanyNameIndex.prefixEditDistance("abcd", "abc", 1));
+        // 허용치를 넘으면 maxEdits + 1
+        assertEquals(2, CompanyNameIndex.prefixEditDistance("xyz", "abcdef", 1));
+        assertEquals(3, CompanyNameIndex.prefixEditDistance("xyzw", "abcdef", 2));
+    }
+
+    private static List<String> names(List<Suggestion> suggestions) {
+        return suggestions.stream().map(Suggestion::corpName).toList();
+    }
+}
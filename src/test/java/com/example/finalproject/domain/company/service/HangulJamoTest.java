@@ -0,0 +1,54 @@
+package com.example.finalproject.domain.company.service;
+
+import com.example.finalproject.domain.report.service.CompanyKey;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * HangulJamo 자모 분해, 초성 변환 테스트
+ */
+class HangulJamoTest {
+
+    @Test
+    void decomposesSyllablesIntoCompatibilityJamo() {
+        assertEquals("ㅅㅏㅁㅅㅓㅇㅈㅓㄴㅈㅏ", HangulJamo.decompose("삼성전자"));
+        // 겹모음, 겹받침은 입력 순서대로
+        assertEquals("ㄱㅗㅏ", HangulJamo.decompose("과"));
+        assertEquals("ㄷㅏㄹㄱ", HangulJamo.decompose("닭"));
+        assertEquals("skㅎㅏㅇㅣㄴㅣㄱㅅㅡ", HangulJamo.decompose("sk하이닉스"));
+    }
+
+    @Test
+    void partialSyllableIsPrefixOfFullName() {
+        assertTrue(HangulJamo.decompose("삼성전자").startsWith(HangulJamo.decompose("삼성저")));
+        assertFalse(HangulJamo.decompose("삼성전자").startsWith(HangulJamo.decompose("삼성적")));
+    }
+
+    @Test
+    void normalizedConjoiningJamoDecomposeLikeCompatibilityJamo() {
+        // CompanyKey 의 NFKC 정규화는 호환 자모(ㅅ)를 첫가끝 자모로 바꿈
+        String key = CompanyKey.of("ㅅㅏㅁ");
+        assertFalse(key.equals("ㅅㅏㅁ"));
+        assertEquals("ㅅㅏㅁ", HangulJamo.decompose(key));
+        assertEquals("ㅅㅅㅈㅈ", HangulJamo.chosung(CompanyKey.of("ㅅㅅㅈㅈ")));
+    }
+
+    @Test
+    void chosungKeepsOnlyInitialConsonants() {
+        assertEquals("ㅅㅅㅈㅈ", HangulJamo.chosung("삼성전자"));
+        assertEquals("skㅎㅇㄴㅅ", HangulJamo.chosung("sk하이닉스"));
+    }
+
+    @Test
+    void chosungQueryHasConsonantsButNoSyllablesOrVowels() {
+        assertTrue(HangulJamo.isChosungQuery("ㅅㅅㅈㅈ"));
+        assertTrue(HangulJamo.isChosungQuery("skㅎㅇ"));
+        assertTrue(HangulJamo.isChosungQuery(CompanyKey.of("ㅅㅅ")));
+        assertFalse(HangulJamo.isChosungQuery("삼ㅅ"));
+        assertFalse(HangulJamo.isChosungQuery("ㅅㅏ"));
+        assertFalse(HangulJamo.isChosungQuery("sk"));
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.finalproject.domain.query.client;
+
+import com.example.finalproject.exception.error.AIServerOverloadedException;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * CircuitBreaker 의 HALF_OPEN 시험 호출과 이전 세대 호출 구분 테스트
+ */
+class CircuitBreakerTest {
+
+    // 2건 중 1건 이상 실패하면 열리고, 열린 직후 바로 HALF_OPEN 으로 시험 호출 1건 허용
+    private final CircuitBreaker breaker = new CircuitBreaker("test", 4, 2, 0.5, 1000, 0, 1);
+
+    @Test
+    void staleSuccessDoesNotCloseHalfOpenCircuit() {
+        CircuitBreaker.Permit stale = breaker.acquirePermission();
+        open();
+
+        CircuitBreaker.Permit probe = breaker.acquirePermission();
+        assertTrue(probe.probe());
+        breaker.onResult(stale, 10, false);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getStats().get("state"));
+
+        breaker.onResult(probe, 10, true);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getStats().get("state"));
+    }
+
+    @Test
+    void staleFailureDoesNotReopenAfterProbeSucceeds() {
+        CircuitBreaker.Permit stale = breaker.acquirePermission();
+        open();
+
+        CircuitBreaker.Permit probe = breaker.acquirePermission();
+        breaker.onResult(stale, 10, true);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getStats().get("state"));
+
+        breaker.onResult(probe, 10, false);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getStats().get("state"));
+        breaker.onResult(stale, 10, true);
+        assertEquals(0, breaker.getStats().get("recordedCalls"));
+    }
+
+    @Test
+    void staleReleaseDoesNotFreeProbeSlot() {
+        CircuitBreaker.Permit stale = breaker.acquirePermission();
+        open();
+
+        CircuitBreaker.Permit probe = breaker.acquirePermission();
+        breaker.releasePermission(stale);
+        assertThrows(AIServerOverloadedException.class, breaker::acquirePermission);
+
+        // 집계하지 않는 시험 호출(예: 4xx)을 반납하면 다음 호출이 시험 호출이 됨
+        breaker.releasePermission(probe);
+        CircuitBreaker.Permit next = breaker.acquirePermission();
+        assertTrue(next.probe());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getStats().get("state"));
+    }
+
+    @Test
+    void closedCallsAreNotProbes() {
+        CircuitBreaker.Permit permit = breaker.acquirePermission();
+        assertFalse(permit.probe());
+        breaker.onResult(permit, 10, false);
+        assertEquals(1, breaker.getStats().get("recordedCalls"));
+    }
+
+    private void open() {
+        for (int i = 0; i < 2; i++) {
+            breaker.onResult(breaker.acquirePermission(), 10, true);
+        }
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getStats().get("state"));
+    }
+}
@@ -0,0 +1,294 @@
+package com.example.finalproject.domain.query.service;
+
+import com.example.finalproject.domain.query.entity.ReportJobEntity;
+import com.example.finalproject.domain.query.entity.ReportJobStatus;
+import com.example.finalproject.domain.query.repository.ReportJobRepository;
+import com.example.finalproject.domain.report.service.ReportService.SavedReport;
+import com.example.finalproject.exception.error.AIServerOverloadedException;
+import com.example.finalproject.exception.error.AIServerUnavailableException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * ReportJobService 테스트
+ *
+ * <p>H2 의 REPORT_JOB 테이블로 작업 선점, 실패 종류별 재시도/즉시 실패와 backoff 간격, 재시작 시 진행 중 작업 복구를 확인합니다.
+ * 보고서 생성은 결과를 테스트가 정하는 ReportGenerationService 로 대신합니다.
+ * 저장소의 update 쿼리가 자체 트랜잭션으로 실행되므로 테스트 트랜잭션은 쓰지 않습니다.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ReportJobServiceTest {
+
+    @Autowired
+    ReportJobRepository reportJobRepository;
+
+    private final AtomicInteger generateCalls = new AtomicInteger();
+    private Callable<SavedReport> generate;
+    private ReportJobService service;
+
+    @BeforeEach
+    void setUp() {
+        ReportGenerationService generationService = new ReportGenerationService(null, null) {
+            @Override
+            public SavedReport getOrGenerate(Map<String, Object> payload, String companyName) throws Exception {
+                generateCalls.incrementAndGet();
+                return generate.call();
+            }
+        };
+        generate = () -> new SavedReport("삼성전자", "/api/report/download-json/삼성전자", new byte[0], "hash",
+                LocalDateTime.now());
+        service = new ReportJobService(reportJobRepository, generationService, new ObjectMapper());
+        ReflectionTestUtils.setField(service, "workers", 2);
+        ReflectionTestUtils.setField(service, "pollIntervalMs", TimeUnit.HOURS.toMillis(1));
+        ReflectionTestUtils.setField(service, "maxAttempts", 4);
+        ReflectionTestUtils.setField(service, "backoffInitialMs", 1000L);
+        ReflectionTestUtils.setField(service, "backoffMaxMs", 3000L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        reportJobRepository.deleteAll();
+    }
+
+    @Test
+    void claimSucceedsOnlyOnceAndCountsAttempt() {
+        ReportJobEntity job = save(ReportJobStatus.QUEUED, LocalDateTime.now());
+
+        assertEquals(1, reportJobRepository.claim(job.getId(), LocalDateTime.now()));
+        assertEquals(0, reportJobRepository.claim(job.getId(), LocalDateTime.now()));
+
+        ReportJobEntity claimed = reload(job);
+        assertEquals(ReportJobStatus.IN_PROGRESS, claimed.getStatus());
+        assertEquals(1, claimed.getAttempts());
+    }
+
+    @Test
+    void dispatchClaimsDueJobsUpToFreeWorkers() {
+        CapturingExecutor workerPool = new CapturingExecutor();
+        ReflectionTestUtils.setField(service, "workerPool", workerPool);
+        ReportJobEntity first = save(ReportJobStatus.QUEUED, LocalDateTime.now().minusSeconds(2));
+        ReportJobEntity second = save(ReportJobStatus.QUEUED, LocalDateTime.now().minusSeconds(1));
+        ReportJobEntity third = save(ReportJobStatus.QUEUED, LocalDateTime.now().minusSeconds(1));
+        ReportJobEntity notDue = save(ReportJobStatus.QUEUED, LocalDateTime.now().plusMinutes(1));
+
+        dispatch();
+
+        // 워커 2개 -> 먼저 등록된 두 작업만 선점, 아직 실행 시각이 안 된 작업은 제외
+        assertEquals(2, workerPool.tasks.size());
+        assertEquals(ReportJobStatus.IN_PROGRESS, reload(first).getStatus());
+        assertEquals(ReportJobStatus.IN_PROGRESS, reload(second).getStatus());
+        assertEquals(ReportJobStatus.QUEUED, reload(third).getStatus());
+        assertEquals(0, reload(third).getAttempts());
+        assertEquals(2, service.getStats().get("running"));
+
+        // 빈 워커가 없으면 선점하지 않음
+        dispatch();
+        assertEquals(2, workerPool.tasks.size());
+
+        workerPool.tasks.forEach(Runnable::run);
+        assertEquals(ReportJobStatus.DONE, reload(first).getStatus());
+        assertEquals("/api/report/download-json/삼성전자", reload(first).getReportUrl());
+        assertEquals(0, service.getStats().get("running"));
+
+        dispatch();
+        assertEquals(3, workerPool.tasks.size());
+        assertEquals(ReportJobStatus.IN_PROGRESS, reload(third).getStatus());
+        assertEquals(ReportJobStatus.QUEUED, reload(notDue).getStatus());
+    }
+
+    @Test
+    void overloadIsRetriedWithExponentialBackoffUntilMaxAttempts() {
+        generate = () -> {
+            throw new AIServerOverloadedException("AI 서버 과부하", 0);
+        };
+        ReportJobEntity job = save(ReportJobStatus.QUEUED, LocalDateTime.now());
+
+        // 1s, 2s, 4s -> 최대 3s 로 제한, 4번째 실패는 최종 실패
+        assertRetriedAfter(job, 1000);
+        assertRetriedAfter(job, 2000);
+        assertRetriedAfter(job, 3000);
+        claimAndRun(job);
+
+        ReportJobEntity failed = reload(job);
+        assertEquals(ReportJobStatus.FAILED, failed.getStatus());
+        assertEquals(4, failed.getAttempts());
+        assertEquals("AI 서버 과부하", failed.getLastError());
+        assertEquals(3L, service.getStats().get("retried"));
+        assertEquals(1L, service.getStats().get("failed"));
+    }
+
+    @Test
+    void retryWaitsAtLeastRetryAfter() {
+        generate = () -> {
+            throw new AIServerOverloadedException("AI 서버 과부하", 10);
+        };
+        ReportJobEntity job = save(ReportJobStatus.QUEUED, LocalDateTime.now());
+
+        assertRetriedAfter(job, 10_000);
+    }
+
+    @Test
+    void wrappedOverloadIsRetried() {
+        generate = () -> {
+            throw new ExecutionException(new AIServerOverloadedException("AI 서버 과부하", 0));
+        };
+        ReportJobEntity job = save(ReportJobStatus.QUEUED, LocalDateTime.now());
+
+        assertRetriedAfter(job, 1000);
+    }
+
+    @Test
+    void clientErrorFailsOnFirstAttempt() {
+        generate = () -> {
+            throw new AIServerUnavailableException("AI 서버 응답 코드 400");
+        };
+        ReportJobEntity job = save(ReportJobStatus.QUEUED, LocalDateTime.now());
+
+        claimAndRun(job);
+
+        ReportJobEntity failed = reload(job);
+        assertEquals(ReportJobStatus.FAILED, failed.getStatus());
+        assertEquals(1, failed.getAttempts());
+        assertEquals("AI 서버 응답 코드 400", failed.getLastError());
+        assertEquals(0L, service.getStats().get("retried"));
+        assertEquals(1L, service.getStats().get("failed"));
+    }
+
+    @Test
+    void invalidPayloadFailsOnFirstAttemptWithoutCallingAiServer() {
+        ReportJobEntity job = reportJobRepository.save(builder(ReportJobStatus.QUEUED, LocalDateTime.now())
+                .payload("{\"company_name\":")
+                .build());
+
+        claimAndRun(job);
+
+        ReportJobEntity failed = reload(job);
+        assertEquals(ReportJobStatus.FAILED, failed.getStatus());
+        assertEquals(1, failed.getAttempts());
+        assertEquals(0, generateCalls.get());
+    }
+
+    @Test
+    void startupRequeuesJobsLeftInProgress() {
+        ReportJobEntity interrupted = save(ReportJobStatus.IN_PROGRESS, LocalDateTime.now().minusMinutes(5));
+        ReportJobEntity queued = save(ReportJobStatus.QUEUED, LocalDateTime.now().plusMinutes(5));
+        ReportJobEntity done = save(ReportJobStatus.DONE, LocalDateTime.now().minusMinutes(5));
+        LocalDateTime before = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+
+        // 디스패처 첫 실행은 1시간 뒤이므로 init 은 복구만 확인됨
+        service.init();
+        try {
+            ReportJobEntity requeued = reload(interrupted);
+            assertEquals(ReportJobStatus.QUEUED, requeued.getStatus());
+            assertFalse(requeued.getNextAttemptAt().isBefore(before));
+            assertEquals(queued.getNextAttemptAt().truncatedTo(ChronoUnit.MILLIS),
+                    reload(queued).getNextAttemptAt().truncatedTo(ChronoUnit.MILLIS));
+            assertEquals(ReportJobStatus.DONE, reload(done).getStatus());
+        } finally {
+            service.shutdown();
+        }
+    }
+
+    /**
+     * 한 번 선점/실행하고 다시 QUEUED 로 돌아와 delayMs 뒤에 다시 실행되도록 예약되었는지 확인
+     */
+    private void assertRetriedAfter(ReportJobEntity job, long delayMs) {
+        LocalDateTime before = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+        claimAndRun(job);
+        LocalDateTime after = LocalDateTime.now();
+
+        ReportJobEntity retried = reload(job);
+        assertEquals(ReportJobStatus.QUEUED, retried.getStatus());
+        LocalDateTime nextAttemptAt = retried.getNextAttemptAt();
+        assertFalse(nextAttemptAt.isBefore(before.plus(delayMs, ChronoUnit.MILLIS)), nextAttemptAt::toString);
+        assertFalse(nextAttemptAt.isAfter(after.plus(delayMs, ChronoUnit.MILLIS)), nextAttemptAt::toString);
+    }
+
+    private void claimAndRun(ReportJobEntity job) {
+        assertEquals(1, reportJobRepository.claim(job.getId(), LocalDateTime.now()));
+        ReflectionTestUtils.invokeMethod(service, "run", job.getId());
+    }
+
+    private void dispatch() {
+        ReflectionTestUtils.invokeMethod(service, "dispatch");
+    }
+
+    private ReportJobEntity reload(ReportJobEntity job) {
+        return reportJobRepository.findById(job.getId()).orElseThrow();
+    }
+
+    private ReportJobEntity save(ReportJobStatus status, LocalDateTime nextAttemptAt) {
+        return reportJobRepository.save(builder(status, nextAttemptAt).build());
+    }
+
+    private static ReportJobEntity.ReportJobEntityBuilder builder(ReportJobStatus status, LocalDateTime nextAttemptAt) {
+        LocalDateTime now = LocalDateTime.now();
+        return ReportJobEntity.builder()
+                .companyName("삼성전자")
+                .payload("{\"company_name\":\"삼성전자\"}")
+                .status(status)
+                .attempts(0)
+                .nextAttemptAt(nextAttemptAt)
+                .dateCreated(now)
+                .dateUpdated(now);
+    }
+
+    /**
+     * 전달받은 작업을 실행하지 않고 모아 두는 워커 풀 (테스트가 직접 실행)
+     */
+    private static class CapturingExecutor extends AbstractExecutorService {
+
+        final List<Runnable> tasks = new ArrayList<>();
+
+        @Override
+        public void execute(Runnable command) {
+            tasks.add(command);
+        }
+
+        @Override
+        public void shutdown() {
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            return List.of();
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return false;
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return false;
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) {
+            return true;
+        }
+    }
+}
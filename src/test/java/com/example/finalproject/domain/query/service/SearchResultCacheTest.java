@@ -0,0 +1,75 @@
+package com.example.finalproject.domain.query.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+/**
+ * SearchResultCache 캐시 키 정규화 테스트
+ */
+class SearchResultCacheTest {
+
+    @Test
+    void nestedMapsAreSortedRegardlessOfInsertionOrder() {
+        Map<String, Object> first = new LinkedHashMap<>();
+        first.put("sector", "IT");
+        first.put("market", "KOSPI");
+        Map<String, Object> second = new LinkedHashMap<>();
+        second.put("market", "KOSPI");
+        second.put("sector", "IT");
+
+        assertEquals(SearchResultCache.buildKey(Map.of("prompt", "q", "filter", first)),
+                SearchResultCache.buildKey(Map.of("prompt", "q", "filter", second)));
+    }
+
+    @Test
+    void equalNumbersProduceTheSameKey() {
+        String key = SearchResultCache.buildKey(Map.of("prompt", "q", "top_k", 5));
+        assertEquals(key, SearchResultCache.buildKey(Map.of("prompt", "q", "top_k", 5.0)));
+        assertEquals(key, SearchResultCache.buildKey(Map.of("prompt", "q", "top_k", 5L)));
+        assertEquals(key, SearchResultCache.buildKey(Map.of("prompt", "q", "top_k", new BigDecimal("5.00"))));
+        assertNotEquals(key, SearchResultCache.buildKey(Map.of("prompt", "q", "top_k", 6)));
+    }
+
+    @Test
+    void listsKeepTheirOrderAndNormalizeElements() {
+        String key = SearchResultCache.buildKey(Map.of("prompt", "q", "ids", List.of(1, Map.of("b", 2, "a", 1.0))));
+        assertEquals(key, SearchResultCache.buildKey(Map.of("prompt", "q", "ids", List.of(1.0, Map.of("a", 1, "b", 2)))));
+        assertNotEquals(key, SearchResultCache.buildKey(Map.of("prompt", "q", "ids", List.of(Map.of("a", 1, "b", 2), 1))));
+    }
+
+    @Test
+    void promptIsNormalizedButOtherStringsAreNot() {
+        assertEquals(SearchResultCache.buildKey(Map.of("prompt", "  매출액이   높은 IT ")),
+                SearchResultCache.buildKey(Map.of("prompt", "매출액이 높은 it")));
+        assertNotEquals(SearchResultCache.buildKey(Map.of("prompt", "q", "sector", "IT")),
+                SearchResultCache.buildKey(Map.of("prompt", "q", "sector", "it")));
+        // 숫자와 숫자 형태의 문자열은 구분
+        assertNotEquals(SearchResultCache.buildKey(Map.of("prompt", "q", "top_k", 5)),
+                SearchResultCache.buildKey(Map.of("prompt", "q", "top_k", "5")));
+    }
+
+    @Test
+    void invalidatePromptRemovesEveryParameterCombination() {
+        SearchResultCache cache = new SearchResultCache();
+        ReflectionTestUtils.setField(cache, "maxEntries", 100);
+        ReflectionTestUtils.setField(cache, "ttlSeconds", 60L);
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.getOrLoad(Map.of("prompt", "Q", "top_k", 5), () -> "a" + loads.incrementAndGet());
+        cache.getOrLoad(Map.of("prompt", "q", "top_k", 10), () -> "b" + loads.incrementAndGet());
+        assertEquals("a1", cache.getOrLoad(Map.of("prompt", "q", "top_k", 5.0), () -> "c" + loads.incrementAndGet()));
+        cache.getOrLoad(Map.of("prompt", "other"), () -> "d" + loads.incrementAndGet());
+
+        assertEquals(2, cache.invalidatePrompt(" q "));
+        assertEquals(1, cache.getStats().get("size"));
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.finalproject.domain.query.service;
+
+import com.example.finalproject.exception.error.TooManyRequestsException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * UserAdmissionService 테스트
+ *
+ * <p>전체 동시 실행 1건으로 두고 대기열에서 사용자 사이의 라운드 로빈 입장 순서와 대기열 한도 초과 시 거절을 확인합니다.
+ */
+class UserAdmissionServiceTest {
+
+    private final UserAdmissionService admission = new UserAdmissionService();
+
+    // 대기 후 입장한 요청 (입장 순서대로)
+    private final BlockingQueue<Admitted> admittedQueue = new LinkedBlockingQueue<>();
+    private final List<Thread> waiters = new ArrayList<>();
+
+    private record Admitted(String user, UserAdmissionService.Permit permit) {
+    }
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(admission, "enabled", true);
+        // 속도 제한은 이 테스트 대상이 아님
+        ReflectionTestUtils.setField(admission, "ratePerSecond", 1000.0);
+        ReflectionTestUtils.setField(admission, "burst", 1000.0);
+        ReflectionTestUtils.setField(admission, "maxConcurrent", 1);
+        ReflectionTestUtils.setField(admission, "perUserConcurrent", 1);
+        ReflectionTestUtils.setField(admission, "maxQueued", 10);
+        ReflectionTestUtils.setField(admission, "perUserQueued", 10);
+        ReflectionTestUtils.setField(admission, "queueTimeoutMs", 10_000L);
+        admission.init();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        // 남은 대기 요청을 모두 입장/반납시켜 스레드 정리
+        for (Thread waiter : waiters) {
+            while (waiter.isAlive()) {
+                Admitted admitted = admittedQueue.poll(10, TimeUnit.MILLISECONDS);
+                if (admitted != null) {
+                    admitted.permit().close();
+                }
+            }
+        }
+        Admitted admitted;
+        while ((admitted = admittedQueue.poll()) != null) {
+            admitted.permit().close();
+        }
+    }
+
+    @Test
+    void waitingUsersAreAdmittedRoundRobin() throws InterruptedException {
+        UserAdmissionService.Permit running = admission.acquire("heavy");
+        // heavy 가 먼저 3건을 쌓은 뒤 light 가 2건 대기
+        enqueue("heavy");
+        enqueue("heavy");
+        enqueue("heavy");
+        enqueue("light");
+        enqueue("light");
+
+        List<String> order = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            running.close();
+            Admitted next = admittedQueue.poll(5, TimeUnit.SECONDS);
+            assertNotNull(next, "입장한 요청 없음: " + order);
+            order.add(next.user());
+            running = next.permit();
+        }
+        running.close();
+
+        // 먼저 쌓인 heavy 요청이 light 를 밀어내지 않고 번갈아 입장
+        assertEquals(List.of("heavy", "light", "heavy", "light", "heavy"), order);
+        assertEquals(0, admission.getStats().get("inFlight"));
+        assertEquals(0, admission.getStats().get("queued"));
+        assertEquals(0, admission.getStats().get("activeUsers"));
+    }
+
+    @Test
+    void requestsBeyondQueueLimitsAreRejected() throws InterruptedException {
+        ReflectionTestUtils.setField(admission, "maxQueued", 3);
+        ReflectionTestUtils.setField(admission, "perUserQueued", 2);
+        UserAdmissionService.Permit running = admission.acquire("heavy");
+        enqueue("heavy");
+        enqueue("heavy");
+
+        // 사용자 대기열(2건)이 찬 사용자는 바로 거절
+        TooManyRequestsException perUser = assertThrows(TooManyRequestsException.class, () -> admission.acquire("heavy"));
+        assertTrue(perUser.getRetryAfterSeconds() >= 1);
+
+        // 전체 대기열(3건)이 차면 처음 오는 사용자도 거절
+        enqueue("light");
+        assertThrows(TooManyRequestsException.class, () -> admission.acquire("other"));
+
+        assertEquals(2L, admission.getStats().get("queueRejected"));
+        assertEquals(3, admission.getStats().get("queued"));
+        // 거절된 사용자는 상태가 남지 않음 (heavy, light 만)
+        assertEquals(2, admission.getStats().get("activeUsers"));
+
+        running.close();
+    }
+
+    /**
+     * 별도 스레드에서 입장을 요청하고 대기열에 들어갈 때까지 기다림 (대기 순서를 고정)
+     */
+    private void enqueue(String user) throws InterruptedException {
+        int queued = (int) admission.getStats().get("queued");
+        Thread waiter = Thread.ofPlatform().daemon().start(() -> {
+            UserAdmissionService.Permit permit = admission.acquire(user);
+            admittedQueue.add(new Admitted(user, permit));
+        });
+        waiters.add(waiter);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while ((int) admission.getStats().get("queued") == queued) {
+            assertTrue(System.nanoTime() < deadline, "대기열에 들어가지 않음: " + user);
+            Thread.sleep(1);
+        }
+    }
+}
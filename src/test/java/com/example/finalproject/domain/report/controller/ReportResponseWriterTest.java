@@ -0,0 +1,326 @@
+package com.example.finalproject.domain.report.controller;
+
+import com.example.finalproject.domain.report.service.ReportSegmentStore;
+import com.example.finalproject.domain.report.service.ReportStoreTestSupport;
+import com.example.finalproject.domain.report.service.ReportStore.StoredReportRef;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+import static com.example.finalproject.domain.report.service.ReportStoreTestSupport.gzip;
+import static com.example.finalproject.domain.report.service.ReportStoreTestSupport.sha256;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * ReportResponseWriter 의 Range 응답과 조건부 요청(ETag, If-None-Match, If-Range) 테스트
+ */
+class ReportResponseWriterTest {
+
+    private static final byte[] REPORT = report();
+    private static final byte[] GZIP = gzip(REPORT);
+    private static final String HASH = sha256(REPORT);
+    private static final LocalDateTime CREATED = LocalDateTime.of(2026, 3, 2, 9, 30, 15);
+
+    @TempDir
+    Path dir;
+
+    private ReportSegmentStore store;
+
+    @AfterEach
+    void closeStore() throws IOException {
+        if (store != null) {
+            store.shutdown();
+        }
+    }
+
+    @Test
+    void withoutRangeSendsWholeDecompressedReport() throws IOException {
+        MockHttpServletResponse response = write(get(null));
+
+        assertEquals(200, response.getStatus());
+        assertEquals("bytes", response.getHeader(HttpHeaders.ACCEPT_RANGES));
+        assertNull(response.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(REPORT.length, response.getContentLengthLong());
+        assertArrayEquals(REPORT, response.getContentAsByteArray());
+    }
+
+    @Test
+    void closedRangeSendsRequestedBytes() throws IOException {
+        MockHttpServletResponse response = write(get("bytes=10-19"));
+
+        assertEquals(206, response.getStatus());
+        assertEquals("bytes 10-19/" + REPORT.length, response.getHeader(HttpHeaders.CONTENT_RANGE));
+        assertEquals(10, response.getContentLengthLong());
+        assertArrayEquals(Arrays.copyOfRange(REPORT, 10, 20), response.getContentAsByteArray());
+    }
+
+    @Test
+    void openAndOversizedRangesEndAtLastByte() throws IOException {
+        int size = REPORT.length;
+        MockHttpServletResponse open = write(get("bytes=" + (size - 7) + "-"));
+        assertEquals(206, open.getStatus());
+        assertEquals("bytes " + (size - 7) + "-" + (size - 1) + "/" + size, open.getHeader(HttpHeaders.CONTENT_RANGE));
+        assertArrayEquals(Arrays.copyOfRange(REPORT, size - 7, size), open.getContentAsByteArray());
+
+        MockHttpServletResponse oversized = write(get("bytes=" + (size - 3) + "-" + (size + 100)));
+        assertEquals(206, oversized.getStatus());
+        assertArrayEquals(Arrays.copyOfRange(REPORT, size - 3, size), oversized.getContentAsByteArray());
+    }
+
+    @Test
+    void suffixRangeSendsLastBytes() throws IOException {
+        int size = REPORT.length;
+        MockHttpServletResponse response = write(get("bytes=-5"));
+        assertEquals(206, response.getStatus());
+        assertEquals("bytes " + (size - 5) + "-" + (size - 1) + "/" + size, response.getHeader(HttpHeaders.CONTENT_RANGE));
+        assertArrayEquals(Arrays.copyOfRange(REPORT, size - 5, size), response.getContentAsByteArray());
+
+        // 보고서보다 긴 접미 구간은 전체
+        MockHttpServletResponse longer = write(get("bytes=-" + (size + 10)));
+        assertEquals(206, longer.getStatus());
+        assertArrayEquals(REPORT, longer.getContentAsByteArray());
+    }
+
+    @Test
+    void rangeOutsideReportIsNotSatisfiable() throws IOException {
+        for (String range : new String[]{"bytes=" + REPORT.length + "-", "bytes=" + (REPORT.length + 5) + "-" + (REPORT.length + 9), "bytes=-0"}) {
+            MockHttpServletResponse response = write(get(range));
+            assertEquals(416, response.getStatus(), range);
+            assertEquals("bytes */" + REPORT.length, response.getHeader(HttpHeaders.CONTENT_RANGE), range);
+            assertEquals(0, response.getContentAsByteArray().length, range);
+        }
+    }
+
+    @Test
+    void multipleOrMalformedRangesSendWholeReport() throws IOException {
+        for (String range : new String[]{"bytes=0-1,5-6", "bytes=9-3", "bytes=a-b", "items=0-1", "bytes=5"}) {
+            MockHttpServletResponse response = write(get(range));
+            assertEquals(200, response.getStatus(), range);
+            assertNull(response.getHeader(HttpHeaders.CONTENT_RANGE), range);
+            assertArrayEquals(REPORT, response.getContentAsByteArray(), range);
+        }
+    }
+
+    @Test
+    void gzipRangeAppliesToCompressedBytes() throws IOException {
+        MockHttpServletRequest request = get("bytes=0-9");
+        request.addHeader(HttpHeaders.ACCEPT_ENCODING, "br, gzip");
+        MockHttpServletResponse response = write(request);
+
+        assertEquals(206, response.getStatus());
+        assertEquals("gzip", response.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertEquals("bytes 0-9/" + GZIP.length, response.getHeader(HttpHeaders.CONTENT_RANGE));
+        assertArrayEquals(Arrays.copyOfRange(GZIP, 0, 10), response.getContentAsByteArray());
+    }
+
+    @Test
+    void gzipWithZeroQualityIsNotAccepted() throws IOException {
+        MockHttpServletRequest request = get(null);
+        request.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0");
+        MockHttpServletResponse response = write(request);
+
+        assertNull(response.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertArrayEquals(REPORT, response.getContentAsByteArray());
+    }
+
+    @Test
+    void storedReportRangesMatchCachedReportRanges() throws IOException {
+        StoredReportRef ref = storedReport();
+
+        MockHttpServletRequest gzipRequest = get("bytes=-20");
+        gzipRequest.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip");
+        MockHttpServletResponse gzip = new MockHttpServletResponse();
+        ReportResponseWriter.write(gzipRequest, gzip, store, ref);
+        assertEquals(206, gzip.getStatus());
+        assertArrayEquals(Arrays.copyOfRange(GZIP, GZIP.length - 20, GZIP.length), gzip.getContentAsByteArray());
+
+        MockHttpServletResponse identity = new MockHttpServletResponse();
+        ReportResponseWriter.write(get("bytes=100-199"), identity, store, ref);
+        assertEquals(206, identity.getStatus());
+        assertArrayEquals(Arrays.copyOfRange(REPORT, 100, 200), identity.getContentAsByteArray());
+
+        MockHttpServletResponse outside = new MockHttpServletResponse();
+        ReportResponseWriter.write(get("bytes=" + REPORT.length + "-"), outside, store, ref);
+        assertEquals(416, outside.getStatus());
+    }
+
+    @Test
+    void identityAndGzipRepresentationsHaveDifferentEtags() {
+        MockHttpServletResponse identity = new MockHttpServletResponse();
+        assertFalse(ReportResponseWriter.checkNotModified(get(null), identity, HASH, CREATED));
+        assertEquals("\"" + HASH + "\"", identity.getHeader(HttpHeaders.ETAG));
+        assertEquals(HttpHeaders.ACCEPT_ENCODING, identity.getHeader(HttpHeaders.VARY));
+        assertEquals("no-cache", identity.getHeader(HttpHeaders.CACHE_CONTROL));
+        assertNotNull(identity.getHeader(HttpHeaders.LAST_MODIFIED));
+
+        MockHttpServletResponse gzip = new MockHttpServletResponse();
+        assertFalse(ReportResponseWriter.checkNotModified(gzipGet(null), gzip, HASH, CREATED));
+        assertEquals("\"" + HASH + "-gzip\"", gzip.getHeader(HttpHeaders.ETAG));
+    }
+
+    @Test
+    void matchingIfNoneMatchReturnsNotModified() {
+        MockHttpServletRequest request = get(null);
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, "\"other\", \"" + HASH + "\"");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertTrue(ReportResponseWriter.checkNotModified(request, response, HASH, CREATED));
+        assertEquals(304, response.getStatus());
+        assertEquals(0, response.getContentAsByteArray().length);
+
+        MockHttpServletRequest gzip = gzipGet(null);
+        gzip.addHeader(HttpHeaders.IF_NONE_MATCH, "\"" + HASH + "-gzip\"");
+        MockHttpServletResponse gzipResponse = new MockHttpServletResponse();
+        assertTrue(ReportResponseWriter.checkNotModified(gzip, gzipResponse, HASH, CREATED));
+        assertEquals(304, gzipResponse.getStatus());
+    }
+
+    @Test
+    void etagOfOtherEncodingOrReportDoesNotMatch() {
+        // 비압축 표현의 ETag 로 압축 표현을 재검증하면 304 가 아님
+        MockHttpServletRequest gzip = gzipGet(null);
+        gzip.addHeader(HttpHeaders.IF_NONE_MATCH, "\"" + HASH + "\"");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        assertFalse(ReportResponseWriter.checkNotModified(gzip, response, HASH, CREATED));
+        assertEquals(200, response.getStatus());
+
+        MockHttpServletRequest regenerated = get(null);
+        regenerated.addHeader(HttpHeaders.IF_NONE_MATCH, "\"" + sha256(GZIP) + "\"");
+        assertFalse(ReportResponseWriter.checkNotModified(regenerated, new MockHttpServletResponse(), HASH, CREATED));
+    }
+
+    @Test
+    void unchangedLastModifiedReturnsNotModified() {
+        MockHttpServletResponse first = new MockHttpServletResponse();
+        ReportResponseWriter.checkNotModified(get(null), first, HASH, CREATED);
+
+        MockHttpServletRequest request = get(null);
+        request.addHeader(HttpHeaders.IF_MODIFIED_SINCE, first.getHeader(HttpHeaders.LAST_MODIFIED));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        assertTrue(ReportResponseWriter.checkNotModified(request, response, HASH, CREATED));
+        assertEquals(304, response.getStatus());
+
+        // 재생성된 보고서(생성 시각이 이후)는 다시 전송
+        MockHttpServletResponse newer = new MockHttpServletResponse();
+        assertFalse(ReportResponseWriter.checkNotModified(request, newer, HASH, CREATED.plusMinutes(1)));
+    }
+
+    @Test
+    void matchingIfRangeKeepsRange() throws IOException {
+        MockHttpServletRequest request = get("bytes=0-9");
+        request.addHeader(HttpHeaders.IF_RANGE, "\"" + HASH + "\"");
+        MockHttpServletResponse response = checkAndWrite(request);
+        assertEquals(206, response.getStatus());
+        assertArrayEquals(Arrays.copyOfRange(REPORT, 0, 10), response.getContentAsByteArray());
+
+        MockHttpServletRequest gzip = gzipGet("bytes=0-9");
+        gzip.addHeader(HttpHeaders.IF_RANGE, "\"" + HASH + "-gzip\"");
+        assertEquals(206, checkAndWrite(gzip).getStatus());
+    }
+
+    @Test
+    void mismatchedIfRangeSendsWholeReport() throws IOException {
+        String[] validators = {
+                "\"" + sha256(GZIP) + "\"",
+                // 압축 표현의 ETag 로 비압축 표현의 구간을 요청
+                "\"" + HASH + "-gzip\"",
+                // If-Range 는 강한 비교만 허용
+                "W/\"" + HASH + "\"",
+                "Mon, 02 Mar 2020 00:00:00 GMT"};
+        for (String validator : validators) {
+            MockHttpServletRequest request = get("bytes=0-9");
+            request.addHeader(HttpHeaders.IF_RANGE, validator);
+            MockHttpServletResponse response = checkAndWrite(request);
+            assertEquals(200, response.getStatus(), validator);
+            assertNull(response.getHeader(HttpHeaders.CONTENT_RANGE), validator);
+            assertArrayEquals(REPORT, response.getContentAsByteArray(), validator);
+        }
+    }
+
+    @Test
+    void ifRangeWithLastModifiedKeepsRange() throws IOException {
+        MockHttpServletResponse first = new MockHttpServletResponse();
+        ReportResponseWriter.checkNotModified(get(null), first, HASH, CREATED);
+
+        MockHttpServletRequest request = get("bytes=-4");
+        request.addHeader(HttpHeaders.IF_RANGE, first.getHeader(HttpHeaders.LAST_MODIFIED));
+        assertEquals(206, checkAndWrite(request).getStatus());
+    }
+
+    @Test
+    void postRevalidationMatchesIdentityEtag() {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/query/financial");
+        assertFalse(ReportResponseWriter.matchesIfNoneMatch(request, HASH));
+
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, "\"a\", W/\"" + HASH + "\"");
+        assertTrue(ReportResponseWriter.matchesIfNoneMatch(request, HASH));
+        assertFalse(ReportResponseWriter.matchesIfNoneMatch(request, sha256(GZIP)));
+        assertFalse(ReportResponseWriter.matchesIfNoneMatch(request, null));
+
+        MockHttpServletRequest any = new MockHttpServletRequest("POST", "/api/query/financial");
+        any.addHeader(HttpHeaders.IF_NONE_MATCH, "*");
+        assertTrue(ReportResponseWriter.matchesIfNoneMatch(any, HASH));
+
+        HttpHeaders headers = ReportResponseWriter.validatorHeaders(HASH, CREATED);
+        assertEquals("\"" + HASH + "\"", headers.getETag());
+        assertEquals("private, no-cache", headers.getCacheControl());
+    }
+
+    /**
+     * 컨트롤러와 같은 순서로 조건부 요청 확인 후 전송 (If-Range 는 checkNotModified 가 설정한 검증 헤더와 비교)
+     */
+    private static MockHttpServletResponse checkAndWrite(MockHttpServletRequest request) throws IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        assertFalse(ReportResponseWriter.checkNotModified(request, response, HASH, CREATED));
+        ReportResponseWriter.write(request, response, ByteBuffer.wrap(GZIP));
+        return response;
+    }
+
+    private StoredReportRef storedReport() throws IOException {
+        store = ReportStoreTestSupport.openSegmentStore(dir);
+        return store.append("삼성전자", GZIP, HASH, System.currentTimeMillis());
+    }
+
+    private static MockHttpServletResponse write(MockHttpServletRequest request) throws IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        ReportResponseWriter.write(request, response, ByteBuffer.wrap(GZIP));
+        return response;
+    }
+
+    private static MockHttpServletRequest gzipGet(String range) {
+        MockHttpServletRequest request = get(range);
+        request.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate");
+        return request;
+    }
+
+    private static MockHttpServletRequest get(String range) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/report/삼성전자");
+        if (range != null) {
+            request.addHeader(HttpHeaders.RANGE, range);
+        }
+        return request;
+    }
+
+    private static byte[] report() {
+        StringBuilder json = new StringBuilder("{\"corpName\":\"삼성전자\",\"items\":[");
+        for (int i = 0; i < 200; i++) {
+            json.append(i == 0 ? "" : ",").append("{\"year\":").append(2000 + i % 25).append(",\"value\":").append(i * 37).append('}');
+        }
+        return json.append("]}").toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
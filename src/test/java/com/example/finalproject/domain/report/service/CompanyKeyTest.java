@@ -0,0 +1,61 @@
+package com.example.finalproject.domain.report.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * CompanyKey 정규화 테스트
+ */
+class CompanyKeyTest {
+
+    @Test
+    void koreanLegalFormsAreRemoved() {
+        for (String corpName : List.of("삼성전자", "(주)삼성전자", "삼성전자(주)", "( 주 ) 삼성전자", "㈜삼성전자",
+                "삼성전자 주식회사", "주식회사 삼성전자", "(株)삼성전자", "삼성 전자")) {
+            assertEquals("삼성전자", CompanyKey.of(corpName), corpName);
+        }
+        assertEquals("한솔", CompanyKey.of("(유)한솔"));
+        assertEquals("한솔", CompanyKey.of("유한회사 한솔"));
+    }
+
+    @Test
+    void englishLegalFormsAreRemoved() {
+        assertEquals("samsungelectronics", CompanyKey.of("Samsung Electronics Co., Ltd."));
+        assertEquals("samsungelectronics", CompanyKey.of("SAMSUNG ELECTRONICS CO.,LTD"));
+        assertEquals("naver", CompanyKey.of("NAVER Corp."));
+        assertEquals("naver", CompanyKey.of("Naver Corporation"));
+        assertEquals("apple", CompanyKey.of("Apple Inc"));
+    }
+
+    @Test
+    void legalFormWordsInsideNamesAreKept() {
+        assertEquals("coupang", CompanyKey.of("Coupang, Inc."));
+        assertEquals("incheongas", CompanyKey.of("Incheon Gas"));
+        assertEquals("한국전력공사", CompanyKey.of("한국전력공사"));
+    }
+
+    @Test
+    void widthCasePunctuationAndSlashesAreNormalized() {
+        assertEquals("sk하이닉스", CompanyKey.of("ＳＫ하이닉스"));
+        assertEquals("sk하이닉스", CompanyKey.of("SK 하이닉스"));
+        assertEquals("soil", CompanyKey.of("S-Oil"));
+        assertEquals("lggs", CompanyKey.of("LG/GS"));
+        assertEquals("lggs", CompanyKey.of("LG_GS"));
+        assertEquals("삼성전자", CompanyKey.of("삼성·전자"));
+    }
+
+    @Test
+    void nameWithOnlyLegalFormKeepsIt() {
+        assertEquals("주식회사", CompanyKey.of("주식회사"));
+        assertEquals("company", CompanyKey.of(" Company "));
+    }
+
+    @Test
+    void nullAndBlankBecomeEmpty() {
+        assertEquals("", CompanyKey.of(null));
+        assertEquals("", CompanyKey.of("  "));
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.finalproject.domain.report.service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+/**
+ * 테스트용 메모리 ReportStore (버전 번호 규칙은 다른 구현과 같음: 삭제한 버전 번호는 다시 쓰지 않음)
+ */
+class InMemoryReportStore implements ReportStore {
+
+    private final Map<String, TreeMap<Long, Stored>> reports = new HashMap<>();
+    private final Map<String, Long> deletedThrough = new HashMap<>();
+    private final boolean shared;
+    // delete 직후 실행 (삭제와 다음 단계 사이에 다시 저장되는 경우 재현)
+    private Consumer<String> afterDelete = key -> {
+    };
+
+    private record Stored(StoredReportRef ref, byte[] gzip) {
+    }
+
+    InMemoryReportStore() {
+        this(false);
+    }
+
+    InMemoryReportStore(boolean shared) {
+        this.shared = shared;
+    }
+
+    void afterDelete(Consumer<String> hook) {
+        this.afterDelete = hook;
+    }
+
+    @Override
+    public synchronized StoredReportRef append(String key, byte[] gzip, String contentHash, long createdAt) {
+        TreeMap<Long, Stored> versions = reports.computeIfAbsent(key, k -> new TreeMap<>());
+        long latest = versions.isEmpty() ? 0 : versions.lastKey();
+        long version = Math.max(latest, deletedThrough.getOrDefault(key, 0L)) + 1;
+        StoredReportRef ref = new StoredReportRef(key, version, createdAt, contentHash, gzip.length, version);
+        versions.put(version, new Stored(ref, gzip.clone()));
+        return ref;
+    }
+
+    @Override
+    public StoredReportRef append(String key, Path gzipFile, String contentHash, long createdAt) throws IOException {
+        return append(key, Files.readAllBytes(gzipFile), contentHash, createdAt);
+    }
+
+    @Override
+    public synchronized Optional<StoredReportRef> latest(String key) {
+        TreeMap<Long, Stored> versions = reports.get(key);
+        return versions == null || versions.isEmpty()
+                ? Optional.empty() : Optional.of(versions.lastEntry().getValue().ref());
+    }
+
+    @Override
+    public synchronized Optional<StoredReportRef> find(String key, long version) {
+        TreeMap<Long, Stored> versions = reports.get(key);
+        return versions == null ? Optional.empty() : Optional.ofNullable(versions.get(version)).map(Stored::ref);
+    }
+
+    @Override
+    public synchronized List<Long> versions(String key) {
+        TreeMap<Long, Stored> versions = reports.get(key);
+        return versions == null ? List.of() : new ArrayList<>(versions.keySet());
+    }
+
+    @Override
+    public void read(StoredReportRef ref, ByteBuffer dst) throws IOException {
+        dst.put(stored(ref).gzip());
+    }
+
+    @Override
+    public void transferTo(StoredReportRef ref, long position, long count, WritableByteChannel target) throws IOException {
+        ByteBuffer src = ByteBuffer.wrap(stored(ref).gzip(), (int) position, (int) count);
+        while (src.hasRemaining()) {
+            target.write(src);
+        }
+    }
+
+    private synchronized Stored stored(StoredReportRef ref) throws IOException {
+        TreeMap<Long, Stored> versions = reports.get(ref.key());
+        Stored stored = versions == null ? null : versions.get(ref.version());
+        if (stored == null) {
+            throw new IOException("삭제된 보고서: " + ref.key() + " v" + ref.version());
+        }
+        return stored;
+    }
+
+    @Override
+    public synchronized List<KeyUsage> usage() {
+        List<KeyUsage> usage = new ArrayList<>();
+        reports.forEach((key, versions) -> {
+            if (!versions.isEmpty()) {
+                long bytes = versions.values().stream().mapToLong(stored -> stored.gzip().length).sum();
+                usage.add(new KeyUsage(key, versions.lastEntry().getValue().ref().createdAt(), bytes));
+            }
+        });
+        return usage;
+    }
+
+    @Override
+    public Deletion delete(String key) {
+        Deletion deletion;
+        synchronized (this) {
+            TreeMap<Long, Stored> versions = reports.remove(key);
+            if (versions == null || versions.isEmpty()) {
+                return new Deletion(0, deletedThrough.getOrDefault(key, 0L));
+            }
+            long bytes = versions.values().stream().mapToLong(stored -> stored.gzip().length).sum();
+            deletedThrough.merge(key, versions.lastKey(), Math::max);
+            deletion = new Deletion(bytes, deletedThrough.get(key));
+        }
+        afterDelete.accept(key);
+        return deletion;
+    }
+
+    @Override
+    public boolean isShared() {
+        return shared;
+    }
+
+    @Override
+    public synchronized Map<String, Object> getStats() {
+        return Map.of("keys", reports.size());
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.finalproject.domain.report.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * JsonProjection 의 경로 선택, 조기 종료 테스트
+ */
+class JsonProjectionTest {
+
+    private static final String REPORT = """
+            {"corpName":"삼성전자",
+             "analysis":{"grade":"A","summary":{"text":"양호","score":91.5},"risks":["환율","재고"]},
+             "items":[{"year":2023,"revenue":100},{"year":2024,"revenue":120},{"year":2025,"revenue":150}],
+             "tags":null}""";
+
+    @Test
+    void pointerSelectsNestedValuesInSourceShape() throws IOException {
+        assertEquals("{\"analysis\":{\"grade\":\"A\",\"summary\":{\"score\":91.5}}}",
+                project("/analysis/grade,/analysis/summary/score", REPORT));
+    }
+
+    @Test
+    void dottedNamesAreTheSameAsPointers() throws IOException {
+        assertEquals(project("/analysis/summary/text,/corpName", REPORT),
+                project("analysis.summary.text, corpName", REPORT));
+        assertEquals("{\"corpName\":\"삼성전자\",\"analysis\":{\"summary\":{\"text\":\"양호\"}}}",
+                project("analysis.summary.text,corpName", REPORT));
+    }
+
+    @Test
+    void arrayIndicesSelectElementsInOrder() throws IOException {
+        assertEquals("{\"items\":[{\"revenue\":120}]}", project("/items/1/revenue", REPORT));
+        // 선택한 원소와 필드만 선택 순서와 무관하게 원본 순서대로 남음
+        assertEquals("{\"analysis\":{\"risks\":[\"재고\"]},\"items\":[{\"year\":2023},{\"year\":2025}]}",
+                project("/items/2/year,/items/0/year,/analysis/risks/1", REPORT));
+        assertEquals("{\"analysis\":{\"risks\":[\"환율\",\"재고\"]}}", project("analysis.risks", REPORT));
+    }
+
+    @Test
+    void parentSelectionIncludesWholeSubtree() throws IOException {
+        String expected = "{\"analysis\":{\"grade\":\"A\",\"summary\":{\"text\":\"양호\",\"score\":91.5},\"risks\":[\"환율\",\"재고\"]}}";
+        assertEquals(expected, project("analysis.grade,analysis", REPORT));
+        assertEquals(expected, project("analysis,analysis.summary.text", REPORT));
+    }
+
+    @Test
+    void missingPathsAreLeftOut() throws IOException {
+        assertEquals("{}", project("/unknown/field", REPORT));
+        // 중간 객체는 있지만 끝 필드가 없으면 빈 객체로 남음
+        assertEquals("{\"analysis\":{}}", project("analysis.unknown", REPORT));
+        // 경로 중간이 값이거나 범위를 벗어난 인덱스
+        assertEquals("{}", project("corpName.first", REPORT));
+        assertEquals("{\"items\":[]}", project("/items/7/year", REPORT));
+        // null 값은 선택한 값으로 남고, 선택 순서와 무관하게 원본 순서로 씀
+        assertEquals("{\"corpName\":\"삼성전자\",\"tags\":null}", project("tags,corpName,tags.first", REPORT));
+    }
+
+    @Test
+    void nonStructuredReportsProduceNull() throws IOException {
+        assertEquals("null", project("a", "\"text\""));
+        assertEquals("null", project("a", ""));
+    }
+
+    @Test
+    void stopsReadingOnceAllSelectedValuesAreFound() throws IOException {
+        // 선택한 값 뒤에 큰 배열과 깨진 JSON 이 이어지지만 읽지 않고 끝남
+        String head = "{\"corpName\":\"삼성전자\",\"analysis\":{\"grade\":\"A\"},\"items\":[";
+        byte[] tail = "{\"year\":2024,\"revenue\":120},".repeat(200_000).getBytes(StandardCharsets.UTF_8);
+        CountingInputStream json = new CountingInputStream(new SequenceInputStream(
+                new ByteArrayInputStream(head.getBytes(StandardCharsets.UTF_8)),
+                new SequenceInputStream(new ByteArrayInputStream(tail),
+                        new ByteArrayInputStream("@@ not json".getBytes(StandardCharsets.UTF_8)))));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        JsonProjection.parse("analysis.grade,corpName").write(json, out);
+
+        assertEquals("{\"corpName\":\"삼성전자\",\"analysis\":{\"grade\":\"A\"}}", out.toString(StandardCharsets.UTF_8));
+        assertTrue(json.count < 64 * 1024, "읽은 바이트: " + json.count);
+    }
+
+    @Test
+    void fingerprintDependsOnSelectedFields() {
+        assertEquals(JsonProjection.parse("a,b").fingerprint(), JsonProjection.of(List.of(" a", "b ")).fingerprint());
+        assertNotEquals(JsonProjection.parse("a,b").fingerprint(), JsonProjection.parse("a,c").fingerprint());
+        assertEquals(16, JsonProjection.parse("a").fingerprint().length());
+    }
+
+    @Test
+    void emptySelectionIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> JsonProjection.parse(" , "));
+        assertThrows(IllegalArgumentException.class, () -> JsonProjection.of(List.of()));
+    }
+
+    private static String project(String fields, String json) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        JsonProjection.parse(fields).write(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)), out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private static final class CountingInputStream extends FilterInputStream {
+        private long count;
+
+        private CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int read = super.read(b, off, len);
+            if (read > 0) {
+                count += read;
+            }
+            return read;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.finalproject.domain.report.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+/**
+ * ReportFingerprint 지문 테스트
+ */
+class ReportFingerprintTest {
+
+    @Test
+    void sameCompanyInDifferentNotationWithSameFiguresSharesFingerprint() {
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("corp_name", "(주)삼성전자");
+        data.put("revenue", "1,000");
+        data.put("debt_ratio", 0.50);
+        Map<String, Object> reordered = new LinkedHashMap<>();
+        reordered.put("debtRatio", "0.5");
+        reordered.put("Revenue", 1000);
+        reordered.put("corpName", "삼성전자");
+
+        assertEquals(ReportFingerprint.of("(주)삼성전자", data), ReportFingerprint.of("삼성전자 주식회사", reordered));
+    }
+
+    @Test
+    void differentCompaniesWithSameFiguresGetDifferentFingerprints() {
+        Map<String, Object> data = Map.of("revenue", 1000, "debt_ratio", 0.5);
+
+        assertNotEquals(ReportFingerprint.of("삼성전자", data), ReportFingerprint.of("LG전자", data));
+        // financial_data 의 기업명만 다르고 요청 기업명이 같으면 같은 기업
+        assertEquals(ReportFingerprint.of("삼성전자", Map.of("corp_name", "삼성전자", "revenue", 1000)),
+                ReportFingerprint.of("삼성전자", Map.of("corp_name", "Samsung", "revenue", 1000)));
+    }
+}
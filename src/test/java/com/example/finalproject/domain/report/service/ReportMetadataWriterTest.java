@@ -0,0 +1,230 @@
+package com.example.finalproject.domain.report.service;
+
+import com.example.finalproject.domain.report.entity.ReportCatalogEntity;
+import com.example.finalproject.domain.report.entity.ReportEntity;
+import com.example.finalproject.domain.report.repository.ReportCatalogRepository;
+import com.example.finalproject.domain.report.repository.ReportRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.TransactionSystemException;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * ReportMetadataWriter 테스트
+ *
+ * <p>H2 에 실제로 저장하면서 커밋 실패를 주입해 재시도, dead-letter 기록, 다음 시작 시 다시 저장,
+ * 저장 중 같은 지문으로 들어온 새 항목의 보존을 확인합니다.
+ * 기록기가 배치마다 자체 트랜잭션을 쓰므로 테스트 트랜잭션은 쓰지 않습니다.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ReportMetadataWriterTest {
+
+    private static final LocalDateTime CREATED = LocalDateTime.of(2026, 3, 2, 9, 30, 15);
+
+    @Autowired
+    ReportRepository reportRepository;
+
+    @Autowired
+    ReportCatalogRepository reportCatalogRepository;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @TempDir
+    Path dir;
+
+    @AfterEach
+    void tearDown() {
+        reportCatalogRepository.deleteAll();
+        reportRepository.deleteAll();
+    }
+
+    @Test
+    void failedBatchIsRetriedFirstAndSavedOnceCommitSucceeds() {
+        FailingTransactionManager failing = new FailingTransactionManager(transactionManager);
+        ReportMetadataWriter writer = writer(failing, 5);
+        ReportEntity report = writer.enqueue(report("삼성전자", "fp-1", 1));
+
+        failing.failures = 2;
+        writer.flush();
+        writer.flush();
+        // 실패한 배치는 롤백되고 저장 전 항목으로 계속 조회됨
+        assertEquals(0, reportRepository.count());
+        assertSame(report, writer.findPendingByFingerprint("fp-1").orElseThrow());
+        assertEquals(2L, writer.getStats().get("failures"));
+
+        writer.flush();
+
+        List<ReportEntity> saved = reportRepository.findAll();
+        assertEquals(1, saved.size());
+        assertEquals("fp-1", saved.get(0).getDataFingerprint());
+        ReportCatalogEntity catalog = reportCatalogRepository.findByCorpKey(CompanyKey.of("삼성전자")).orElseThrow();
+        assertEquals(saved.get(0).getId(), catalog.getLatestReportId());
+        assertEquals(Optional.empty(), writer.findPendingByFingerprint("fp-1"));
+        assertEquals(1L, writer.getStats().get("written"));
+        assertEquals(0, writer.getStats().get("queued"));
+    }
+
+    @Test
+    void batchFailingMaxAttemptsIsWrittenToDeadLetterFile() throws Exception {
+        FailingTransactionManager failing = new FailingTransactionManager(transactionManager);
+        ReportMetadataWriter writer = writer(failing, 3);
+        writer.enqueue(report("삼성전자", "fp-1", 1));
+        writer.enqueue(report("LG전자", "fp-2", 1));
+
+        failing.failures = Integer.MAX_VALUE;
+        writer.flush();
+        writer.flush();
+        assertFalse(Files.exists(deadLetterFile()));
+
+        writer.flush();
+
+        assertEquals(0, reportRepository.count());
+        assertEquals(2L, writer.getStats().get("dropped"));
+        assertEquals(0, writer.getStats().get("queued"));
+        assertEquals(Optional.empty(), writer.findPendingByFingerprint("fp-1"));
+        List<String> lines = Files.readAllLines(deadLetterFile(), StandardCharsets.UTF_8);
+        assertEquals(2, lines.size());
+        assertTrue(lines.get(0).contains("삼성전자") && lines.get(0).contains("fp-1"), lines.get(0));
+        assertTrue(lines.get(1).contains("LG전자") && lines.get(1).contains("fp-2"), lines.get(1));
+
+        // 다음 주기에는 새 배치부터 처리
+        failing.failures = 0;
+        writer.flush();
+        assertEquals(0, reportRepository.count());
+    }
+
+    @Test
+    void deadLettersAreSavedOnNextStart() throws Exception {
+        FailingTransactionManager failing = new FailingTransactionManager(transactionManager);
+        failing.failures = Integer.MAX_VALUE;
+        ReportMetadataWriter previous = writer(failing, 1);
+        previous.enqueue(report("삼성전자", "fp-1", 3));
+        previous.flush();
+        assertTrue(Files.exists(deadLetterFile()));
+
+        ReportMetadataWriter restarted = writer(transactionManager, 5);
+        ReflectionTestUtils.invokeMethod(restarted, "replayDeadLetters");
+
+        List<ReportEntity> saved = reportRepository.findAll();
+        assertEquals(1, saved.size());
+        ReportEntity report = saved.get(0);
+        assertEquals("삼성전자", report.getCorpName());
+        assertEquals(CREATED, report.getDateCreated());
+        assertEquals("fp-1", report.getDataFingerprint());
+        assertEquals(3L, report.getReportVersion());
+        assertTrue(reportCatalogRepository.findByCorpKey(CompanyKey.of("삼성전자")).isPresent());
+        assertFalse(Files.exists(deadLetterFile()));
+        assertFalse(Files.exists(dir.resolve("dead-letter.jsonl.replay")));
+    }
+
+    @Test
+    void releaseKeepsNewerPendingEntryWithSameFingerprint() {
+        FailingTransactionManager hooked = new FailingTransactionManager(transactionManager);
+        ReportMetadataWriter writer = writer(hooked, 5);
+        writer.enqueue(report("삼성전자", "fp-1", 1));
+        ReportEntity[] newer = new ReportEntity[1];
+        List<Optional<ReportEntity>> pendingBeforeSecondBatch = new ArrayList<>();
+        // 첫 배치를 저장하는 동안 같은 지문의 보고서가 다시 생성됨. 두 번째 배치 직전(첫 배치 저장 후)의 조회 결과를 기록
+        hooked.beforeNextTransaction = () -> {
+            newer[0] = writer.enqueue(report("삼성전자", "fp-1", 2));
+            hooked.beforeNextTransaction = () -> pendingBeforeSecondBatch.add(writer.findPendingByFingerprint("fp-1"));
+        };
+
+        writer.flush();
+
+        assertEquals(1, pendingBeforeSecondBatch.size());
+        assertSame(newer[0], pendingBeforeSecondBatch.get(0).orElseThrow());
+        assertEquals(2, reportRepository.count());
+        assertEquals(Optional.empty(), writer.findPendingByFingerprint("fp-1"));
+        assertEquals(2L, reportCatalogRepository.findByCorpKey(CompanyKey.of("삼성전자")).orElseThrow().getLatestVersion());
+    }
+
+    private ReportMetadataWriter writer(PlatformTransactionManager manager, int maxAttempts) {
+        ReportMetadataWriter writer = new ReportMetadataWriter(reportRepository, reportCatalogRepository, manager,
+                new ObjectMapper().findAndRegisterModules());
+        // 크기로는 flush 가 예약되지 않도록 크게 (테스트가 직접 flush)
+        ReflectionTestUtils.setField(writer, "batchSize", 100);
+        ReflectionTestUtils.setField(writer, "maxAttempts", maxAttempts);
+        ReflectionTestUtils.setField(writer, "deadLetterFile", deadLetterFile().toString());
+        return writer;
+    }
+
+    private Path deadLetterFile() {
+        return dir.resolve("dead-letter.jsonl");
+    }
+
+    private static ReportEntity report(String corpName, String fingerprint, long version) {
+        return ReportEntity.builder()
+                .corpName(corpName)
+                .dateCreated(CREATED)
+                .reportUrl("/api/report/download-json/" + corpName)
+                .dataFingerprint(fingerprint)
+                .contentHash("hash-" + version)
+                .reportVersion(version)
+                .build();
+    }
+
+    /**
+     * failures 가 남아 있는 동안 커밋 대신 롤백 후 실패시키는 트랜잭션 매니저.
+     * beforeNextTransaction 은 다음 트랜잭션 시작 전에 한 번 실행
+     */
+    private static class FailingTransactionManager implements PlatformTransactionManager {
+
+        private final PlatformTransactionManager delegate;
+        int failures;
+        Runnable beforeNextTransaction;
+
+        FailingTransactionManager(PlatformTransactionManager delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public TransactionStatus getTransaction(TransactionDefinition definition) {
+            Runnable hook = beforeNextTransaction;
+            beforeNextTransaction = null;
+            if (hook != null) {
+                hook.run();
+            }
+            return delegate.getTransaction(definition);
+        }
+
+        @Override
+        public void commit(TransactionStatus status) {
+            if (failures > 0) {
+                failures--;
+                delegate.rollback(status);
+                throw new TransactionSystemException("커밋 실패 (테스트)");
+            }
+            delegate.commit(status);
+        }
+
+        @Override
+        public void rollback(TransactionStatus status) {
+            delegate.rollback(status);
+        }
+    }
+}
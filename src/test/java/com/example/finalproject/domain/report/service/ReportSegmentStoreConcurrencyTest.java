@@ -0,0 +1,183 @@
+package com.example.finalproject.domain.report.service;
+
+import com.example.finalproject.domain.report.service.ReportStore.StoredReportRef;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32;
+
+import static com.example.finalproject.domain.report.service.ReportStoreTestSupport.sha256;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * ReportSegmentStore 동시 쓰기/읽기 테스트
+ *
+ * <p>같은 기업(shared)과 서로 다른 기업에 동시에 append 하면서, 세그먼트 전환과 압축이 일어나는 동안
+ * 다른 스레드가 읽은 모든 버전이 쓰기를 시작한 보고서 중 하나와 내용 해시, CRC 까지 같은지 확인합니다.
+ */
+class ReportSegmentStoreConcurrencyTest {
+
+    private static final int WRITERS = 6;
+    private static final int READERS = 4;
+    private static final int APPENDS_PER_WRITER = 200;
+    private static final String SHARED_KEY = "shared";
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void concurrentAppendsAndReadsOnlySeeCompleteRecords() throws Exception {
+        ReportSegmentStore store = open();
+        // 내용 해시 -> CRC32 (append 호출 전에 기록, 완료되면 completed 에도 기록)
+        Map<String, Long> started = new ConcurrentHashMap<>();
+        Set<String> completed = ConcurrentHashMap.newKeySet();
+        Set<String> observed = ConcurrentHashMap.newKeySet();
+        Map<String, byte[]> lastByKey = new ConcurrentHashMap<>();
+        AtomicLong reads = new AtomicLong();
+        CountDownLatch writersDone = new CountDownLatch(WRITERS);
+
+        ExecutorService pool = Executors.newFixedThreadPool(WRITERS + READERS + 1);
+        List<Future<?>> tasks = new ArrayList<>();
+        try {
+            for (int w = 0; w < WRITERS; w++) {
+                String ownKey = "company-" + w;
+                tasks.add(pool.submit(() -> {
+                    try {
+                        for (int i = 0; i < APPENDS_PER_WRITER; i++) {
+                            String key = i % 2 == 0 ? SHARED_KEY : ownKey;
+                            byte[] report = randomReport();
+                            String hash = sha256(report);
+                            started.put(hash, crc32(report));
+                            StoredReportRef ref = store.append(key, report, hash, System.currentTimeMillis());
+                            assertEquals(hash, ref.contentHash());
+                            assertEquals(report.length, ref.length());
+                            completed.add(hash);
+                            if (!key.equals(SHARED_KEY)) {
+                                lastByKey.put(key, report);
+                            }
+                        }
+                    } finally {
+                        writersDone.countDown();
+                    }
+                    return null;
+                }));
+            }
+            for (int r = 0; r < READERS; r++) {
+                tasks.add(pool.submit(() -> {
+                    while (writersDone.getCount() > 0) {
+                        for (int w = -1; w < WRITERS; w++) {
+                            String key = w < 0 ? SHARED_KEY : "company-" + w;
+                            for (Long version : store.versions(key)) {
+                                Optional<StoredReportRef> ref = store.find(key, version);
+                                if (ref.isPresent()) {
+                                    observed.add(verify(store, ref.get(), started));
+                                    reads.incrementAndGet();
+                                }
+                            }
+                        }
+                    }
+                    return null;
+                }));
+            }
+            // 세그먼트 전환으로 봉인된 세그먼트를 계속 압축
+            tasks.add(pool.submit(() -> {
+                while (writersDone.getCount() > 0) {
+                    ReflectionTestUtils.invokeMethod(store, "compact");
+                    Thread.sleep(5);
+                }
+                return null;
+            }));
+            for (Future<?> task : tasks) {
+                task.get(2, TimeUnit.MINUTES);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertTrue(reads.get() > 0);
+        assertTrue(completed.containsAll(observed), "완료되지 않은 쓰기의 내용을 읽음");
+        assertTrue((long) store.getStats().get("compactions") > 0, "압축이 한 번도 실행되지 않음");
+
+        // 재시작 후에도 기업별 마지막 보고서와 남은 버전이 모두 온전
+        store.shutdown();
+        ReportSegmentStore reopened = open();
+        try {
+            for (int w = 0; w < WRITERS; w++) {
+                String key = "company-" + w;
+                StoredReportRef latest = reopened.latest(key).orElseThrow();
+                assertEquals(APPENDS_PER_WRITER / 2, latest.version());
+                assertArrayEquals(lastByKey.get(key), reopened.readBytes(latest));
+            }
+            assertEquals((long) WRITERS * APPENDS_PER_WRITER / 2, reopened.latest(SHARED_KEY).orElseThrow().version());
+            for (int w = -1; w < WRITERS; w++) {
+                String key = w < 0 ? SHARED_KEY : "company-" + w;
+                for (Long version : reopened.versions(key)) {
+                    assertTrue(completed.contains(verify(reopened, reopened.find(key, version).orElseThrow(), started)));
+                }
+            }
+        } finally {
+            reopened.shutdown();
+        }
+    }
+
+    /**
+     * 읽은 바이트가 ref 의 길이, 내용 해시와 같고 쓰기를 시작한 보고서의 CRC 와 같은지 확인 후 내용 해시 반환
+     */
+    private static String verify(ReportSegmentStore store, StoredReportRef ref, Map<String, Long> started)
+            throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(ref.length());
+        store.read(ref, buffer);
+        assertEquals(ref.length(), buffer.position());
+        byte[] bytes = buffer.array();
+        String hash = sha256(bytes);
+        assertEquals(ref.contentHash(), hash);
+        Long crc = started.get(hash);
+        assertNotNull(crc, "쓰지 않은 내용을 읽음");
+        assertEquals(crc.longValue(), crc32(bytes));
+        return hash;
+    }
+
+    private ReportSegmentStore open() throws IOException {
+        return ReportStoreTestSupport.open(ReportStoreTestSupport.settings(dir)
+                // 보고서 평균 4KB 이므로 16건 정도마다 새 세그먼트로 전환
+                .segmentBytes(64L * 1024)
+                .retainVersions(3)
+                .compactionLiveRatio(0.9)
+                .fsync(true)
+                // 압축 전 세그먼트를 읽고 있는 요청이 있으므로 테스트 동안 닫지 않음
+                .retireDelaySeconds(600)
+                .build());
+    }
+
+    private static byte[] randomReport() {
+        byte[] report = new byte[ThreadLocalRandom.current().nextInt(100, 8000)];
+        ThreadLocalRandom.current().nextBytes(report);
+        return report;
+    }
+
+    private static long crc32(byte[] bytes) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+        return crc.getValue();
+    }
+}
@@ -0,0 +1,248 @@
+package com.example.finalproject.domain.report.service;
+
+import com.example.finalproject.domain.report.service.ReportStore.StoredReportRef;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static com.example.finalproject.domain.report.service.ReportStoreTestSupport.sha256;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * ReportSegmentStore 의 재시작 복구, 압축, tombstone 테스트
+ */
+class ReportSegmentStoreTest {
+
+    // int magic | int keyLength | long version | long createdAt | byte[32] hash | int payloadLength
+    private static final int RECORD_HEADER_BYTES = 4 + 4 + 8 + 8 + 32 + 4;
+    private static final int PAYLOAD_BYTES = 1000;
+    // 1 바이트 키 + 1000 바이트 본문 레코드 4개는 들어가고 5개째에서 새 세그먼트로 전환
+    private static final long SEGMENT_BYTES = 4500;
+
+    @TempDir
+    Path dir;
+
+    private final List<ReportSegmentStore> opened = new ArrayList<>();
+
+    @AfterEach
+    void closeStores() throws IOException {
+        for (ReportSegmentStore store : opened) {
+            store.shutdown();
+        }
+    }
+
+    @Test
+    void restartTruncatesTornTailAndKeepsEarlierRecords() throws IOException {
+        ReportSegmentStore store = open();
+        byte[] first = payload(1);
+        byte[] second = payload(2);
+        store.append("A", first, sha256(first), 1000L);
+        store.append("A", second, sha256(second), 2000L);
+        close(store);
+
+        // 두 번째 레코드를 쓰는 중에 종료된 것처럼 꼬리를 자름
+        Path segment = onlySegment();
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 10);
+        }
+
+        ReportSegmentStore reopened = open();
+        StoredReportRef latest = reopened.latest("A").orElseThrow();
+        assertEquals(1, latest.version());
+        assertEquals(sha256(first), latest.contentHash());
+        assertArrayEquals(first, reopened.readBytes(latest));
+        assertEquals(recordLength("A", first), Files.size(segment));
+
+        // 잘라낸 위치부터 이어 쓴 레코드도 다시 복구됨
+        byte[] third = payload(3);
+        assertEquals(2, reopened.append("A", third, sha256(third), 3000L).version());
+        close(reopened);
+
+        ReportSegmentStore again = open();
+        assertEquals(List.of(1L, 2L), again.versions("A"));
+        assertArrayEquals(third, again.readBytes(again.latest("A").orElseThrow()));
+    }
+
+    @Test
+    void restartSkipsRecordWithBadCrcAndKeepsLaterRecords() throws IOException {
+        ReportSegmentStore store = open();
+        byte[] broken = payload(1);
+        byte[] intact = payload(2);
+        store.append("A", broken, sha256(broken), 1000L);
+        store.append("B", intact, sha256(intact), 2000L);
+        close(store);
+
+        // 첫 레코드의 본문 한 바이트를 바꿈 (헤더는 온전)
+        Path segment = onlySegment();
+        long size = Files.size(segment);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long position = RECORD_HEADER_BYTES + "A".length();
+            ByteBuffer one = ByteBuffer.allocate(1);
+            channel.read(one, position);
+            one.flip().put(0, (byte) ~one.get(0));
+            channel.write(one, position);
+        }
+
+        ReportSegmentStore reopened = open();
+        assertTrue(reopened.latest("A").isEmpty());
+        StoredReportRef b = reopened.latest("B").orElseThrow();
+        assertArrayEquals(intact, reopened.readBytes(b));
+        assertEquals(1L, reopened.getStats().get("skippedRecords"));
+        assertEquals(size, Files.size(segment));
+    }
+
+    @Test
+    void compactionKeepsLiveVersionsAndDropsDeletedOnes() throws IOException {
+        ReportSegmentStore store = open();
+        List<byte[]> a = writeRolledSegment(store);
+        store.delete("B");
+
+        compact(store);
+
+        assertEquals(1L, store.getStats().get("compactions"));
+        assertFalse(Files.exists(dir.resolve("segment-0000000001.log")));
+        assertTrue(Files.exists(dir.resolve("segment-0000000003.log")));
+        assertLiveVersions(store, a);
+        close(store);
+
+        ReportSegmentStore reopened = open();
+        assertLiveVersions(reopened, a);
+        assertTrue(reopened.latest("B").isEmpty());
+        assertTrue(reopened.latest("C").isPresent());
+    }
+
+    @Test
+    void tombstoneHidesDeletedVersionsAndKeepsVersionFloorAfterCompaction() throws IOException {
+        ReportSegmentStore store = open();
+        List<byte[]> a = writeRolledSegment(store);
+        assertEquals(new ReportStore.Deletion(recordLength("B", payload(4)), 1), store.delete("B"));
+        assertTrue(store.latest("B").isEmpty());
+        close(store);
+
+        // 봉인된 세그먼트의 footer 에는 B 가 남아 있지만 tombstone 으로 다시 지움
+        ReportSegmentStore reopened = open();
+        assertTrue(reopened.latest("B").isEmpty());
+        assertEquals(1, reopened.getStats().get("tombstones"));
+
+        compact(reopened);
+        assertLiveVersions(reopened, a);
+        close(reopened);
+
+        // 삭제된 레코드가 모두 사라져도 tombstone 은 버전 번호 하한으로 남음
+        ReportSegmentStore compacted = open();
+        assertTrue(compacted.latest("B").isEmpty());
+        assertEquals(1, compacted.getStats().get("tombstones"));
+        assertLiveVersions(compacted, a);
+        assertEquals(new ReportStore.Deletion(0, 1), compacted.delete("B"));
+
+        // 다시 저장한 보고서는 삭제한 번호를 쓰지 않고, 재시작 후에도 숨겨지지 않음
+        byte[] fresh = payload(6);
+        assertEquals(2, compacted.append("B", fresh, sha256(fresh), 6000L).version());
+        close(compacted);
+
+        ReportSegmentStore again = open();
+        assertEquals(List.of(2L), again.versions("B"));
+        assertArrayEquals(fresh, again.readBytes(again.latest("B").orElseThrow()));
+        byte[] next = payload(7);
+        assertEquals(3, again.append("B", next, sha256(next), 7000L).version());
+    }
+
+    @Test
+    void appendAfterDeleteContinuesVersionNumbers() throws IOException {
+        ReportSegmentStore store = open();
+        byte[] deleted = payload(1);
+        store.append("A", deleted, sha256(deleted), 1000L);
+        store.delete("A");
+        byte[] fresh = payload(2);
+        assertEquals(2, store.append("A", fresh, sha256(fresh), 2000L).version());
+        close(store);
+
+        // 같은 세그먼트에 남은 v1 은 복구하지 않음
+        ReportSegmentStore reopened = open();
+        assertEquals(List.of(2L), reopened.versions("A"));
+        assertArrayEquals(fresh, reopened.readBytes(reopened.latest("A").orElseThrow()));
+    }
+
+    /**
+     * 세그먼트 1: A v1~v3, B v1 (retain-versions 2 이므로 A v1 은 인덱스에서 빠짐), 세그먼트 2: C v1
+     *
+     * @return A 의 v2, v3 본문
+     */
+    private List<byte[]> writeRolledSegment(ReportSegmentStore store) throws IOException {
+        List<byte[]> a = new ArrayList<>();
+        for (int i = 1; i <= 3; i++) {
+            byte[] report = payload(i);
+            store.append("A", report, sha256(report), i * 1000L);
+            a.add(report);
+        }
+        byte[] b = payload(4);
+        store.append("B", b, sha256(b), 4000L);
+        byte[] c = payload(5);
+        store.append("C", c, sha256(c), 5000L);
+        assertTrue(Files.exists(dir.resolve("segment-0000000002.log")));
+        return a.subList(1, 3);
+    }
+
+    private static void assertLiveVersions(ReportSegmentStore store, List<byte[]> a) throws IOException {
+        assertEquals(List.of(2L, 3L), store.versions("A"));
+        for (int i = 0; i < a.size(); i++) {
+            StoredReportRef ref = store.find("A", i + 2).orElseThrow();
+            assertEquals(sha256(a.get(i)), ref.contentHash());
+            assertArrayEquals(a.get(i), store.readBytes(ref));
+        }
+    }
+
+    private ReportSegmentStore open() throws IOException {
+        ReportSegmentStore store = ReportStoreTestSupport.open(ReportStoreTestSupport.settings(dir)
+                .segmentBytes(SEGMENT_BYTES)
+                .compactionLiveRatio(1.0)
+                .fsync(true)
+                .lockStripes(16)
+                .build());
+        opened.add(store);
+        return store;
+    }
+
+    private void close(ReportSegmentStore store) throws IOException {
+        opened.remove(store);
+        store.shutdown();
+    }
+
+    private static void compact(ReportSegmentStore store) {
+        ReflectionTestUtils.invokeMethod(store, "compact");
+    }
+
+    private Path onlySegment() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            List<Path> segments = files.filter(path -> path.getFileName().toString().endsWith(".log")).toList();
+            assertEquals(1, segments.size());
+            return segments.get(0);
+        }
+    }
+
+    private static long recordLength(String key, byte[] payload) {
+        return RECORD_HEADER_BYTES + key.getBytes(StandardCharsets.UTF_8).length + payload.length + 4;
+    }
+
+    private static byte[] payload(int seed) {
+        byte[] payload = new byte[PAYLOAD_BYTES];
+        new Random(seed).nextBytes(payload);
+        return payload;
+    }
+}
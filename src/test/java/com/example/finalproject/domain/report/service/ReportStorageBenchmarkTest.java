@@ -0,0 +1,271 @@
+package com.example.finalproject.domain.report.service;
+
+import com.example.finalproject.domain.report.service.ReportStore.StoredReportRef;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import static com.example.finalproject.domain.report.service.ReportStoreTestSupport.gzip;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 보고서 저장 형식 벤치마크: 압축하지 않은 JSON 과 gzip 저장의 디스크 사용량, 쓰기 CPU, 읽기 지연 비교
+ *
+ * <p>기본 test 태스크에서는 제외되며 ./gradlew reportBenchmark 로 실행합니다. 결과는 표준 출력으로 나옵니다.
+ * -Preport.benchmark.corpus=/path/to/reports 를 주면 그 디렉터리의 *.json 파일(AI 서버가 만든 보고서)을,
+ * 없으면 고정 시드로 만든 합성 보고서를 사용합니다.
+ * <ul>
+ *   <li>raw: 공백을 제거한 JSON 을 그대로 저장하고 그대로 읽음</li>
+ *   <li>gzip: 저장한 압축 바이트를 그대로 읽음 (Accept-Encoding: gzip 클라이언트)</li>
+ *   <li>gzip+inflate: 읽은 뒤 압축 해제 (gzip 을 받지 않는 클라이언트)</li>
+ * </ul>
+ */
+@Tag("benchmark")
+class ReportStorageBenchmarkTest {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    private static final int SYNTHETIC_REPORTS = 300;
+    private static final int WARMUP_ROUNDS = 3;
+    private static final int MEASURED_ROUNDS = 5;
+
+    @TempDir
+    Path dir;
+
+    private final List<ReportSegmentStore> opened = new ArrayList<>();
+
+    @AfterEach
+    void closeStores() throws IOException {
+        for (ReportSegmentStore store : opened) {
+            store.shutdown();
+        }
+    }
+
+    @Test
+    void compareRawAndGzipStorage() throws IOException {
+        List<byte[]> source = loadCorpus();
+        List<byte[]> compact = new ArrayList<>(source.size());
+        List<byte[]> gzip = new ArrayList<>(source.size());
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        for (int round = 0; round < WARMUP_ROUNDS; round++) {
+            for (byte[] report : source) {
+                gzip(compact(report));
+            }
+        }
+
+        long compactCpu = threads.getCurrentThreadCpuTime();
+        for (byte[] report : source) {
+            compact.add(compact(report));
+        }
+        compactCpu = threads.getCurrentThreadCpuTime() - compactCpu;
+        long gzipCpu = threads.getCurrentThreadCpuTime();
+        for (byte[] report : compact) {
+            gzip.add(gzip(report));
+        }
+        gzipCpu = threads.getCurrentThreadCpuTime() - gzipCpu;
+
+        ReportSegmentStore rawStore = open(dir.resolve("raw"));
+        ReportSegmentStore gzipStore = open(dir.resolve("gzip"));
+        List<StoredReportRef> rawRefs = new ArrayList<>();
+        List<StoredReportRef> gzipRefs = new ArrayList<>();
+        for (int i = 0; i < source.size(); i++) {
+            rawRefs.add(rawStore.append("corp-" + i, compact.get(i), "0".repeat(64), i));
+            gzipRefs.add(gzipStore.append("corp-" + i, gzip.get(i), "0".repeat(64), i));
+        }
+
+        long sourceBytes = total(source);
+        long compactBytes = total(compact);
+        long gzipBytes = total(gzip);
+        long rawDisk = directorySize(dir.resolve("raw"));
+        long gzipDisk = directorySize(dir.resolve("gzip"));
+
+        long[] rawReads = measure(rawRefs, ref -> rawStore.readBytes(ref).length);
+        long[] gzipReads = measure(gzipRefs, ref -> gzipStore.readBytes(ref).length);
+        long[] inflateReads = measure(gzipRefs, ref -> inflate(gzipStore.readBytes(ref)).length);
+
+        System.out.printf("보고서 %d건 (%s)%n", source.size(),
+                System.getProperty("report.benchmark.corpus", "합성 보고서, seed 42"));
+        System.out.printf("  원본 JSON        %,14d bytes%n", sourceBytes);
+        System.out.printf("  공백 제거 JSON   %,14d bytes (세그먼트 %,d bytes)%n", compactBytes, rawDisk);
+        System.out.printf("  gzip             %,14d bytes (세그먼트 %,d bytes, 공백 제거 대비 %.1f%%)%n",
+                gzipBytes, gzipDisk, 100.0 * gzipBytes / compactBytes);
+        System.out.printf("  쓰기 CPU: 공백 제거 %.1f us/건, gzip %.1f us/건%n",
+                compactCpu / 1000.0 / source.size(), gzipCpu / 1000.0 / source.size());
+        print("raw", rawReads, compactBytes);
+        print("gzip", gzipReads, gzipBytes);
+        print("gzip+inflate", inflateReads, compactBytes);
+
+        // 결과가 의미 있으려면 왕복이 정확해야 함
+        for (int i = 0; i < source.size(); i++) {
+            assertArrayEquals(compact.get(i), inflate(gzipStore.readBytes(gzipRefs.get(i))));
+        }
+        assertTrue(gzipBytes < compactBytes);
+    }
+
+    private interface Read {
+        int apply(StoredReportRef ref) throws IOException;
+    }
+
+    /**
+     * 보고서를 섞은 순서로 읽은 1건당 지연(ns). 준비 라운드는 버림
+     */
+    private static long[] measure(List<StoredReportRef> refs, Read read) throws IOException {
+        List<StoredReportRef> order = new ArrayList<>(refs);
+        long[] nanos = new long[refs.size() * MEASURED_ROUNDS];
+        long sink = 0;
+        int n = 0;
+        for (int round = 0; round < WARMUP_ROUNDS + MEASURED_ROUNDS; round++) {
+            Collections.shuffle(order, new Random(round));
+            for (StoredReportRef ref : order) {
+                long started = System.nanoTime();
+                sink += read.apply(ref);
+                long elapsed = System.nanoTime() - started;
+                if (round >= WARMUP_ROUNDS) {
+                    nanos[n++] = elapsed;
+                }
+            }
+        }
+        assertTrue(sink > 0);
+        Arrays.sort(nanos);
+        return nanos;
+    }
+
+    private static void print(String name, long[] sorted, long bytesPerRound) {
+        long sum = 0;
+        for (long nanos : sorted) {
+            sum += nanos;
+        }
+        double seconds = sum / 1e9;
+        System.out.printf("  읽기 %-13s p50 %7.1f us, p99 %7.1f us, %8.1f MB/s (응답 본문 기준)%n", name,
+                sorted[sorted.length / 2] / 1000.0, sorted[(int) (sorted.length * 0.99)] / 1000.0,
+                bytesPerRound * (double) MEASURED_ROUNDS / seconds / (1024 * 1024));
+    }
+
+    private ReportSegmentStore open(Path storeDir) throws IOException {
+        // 저장 형식 비교가 목적이므로 fsync 비용은 제외 (기본 설정)
+        ReportSegmentStore store = ReportStoreTestSupport.open(ReportStoreTestSupport.settings(storeDir)
+                .segmentBytes(64L * 1024 * 1024)
+                .retainVersions(5)
+                .lockStripes(16)
+                .build());
+        opened.add(store);
+        return store;
+    }
+
+    private static List<byte[]> loadCorpus() throws IOException {
+        String corpus = System.getProperty("report.benchmark.corpus");
+        if (corpus == null || corpus.isBlank()) {
+            Random random = new Random(42);
+            List<byte[]> reports = new ArrayList<>(SYNTHETIC_REPORTS);
+            for (int i = 0; i < SYNTHETIC_REPORTS; i++) {
+                reports.add(syntheticReport(i, random));
+            }
+            return reports;
+        }
+        try (Stream<Path> files = Files.list(Paths.get(corpus))) {
+            List<byte[]> reports = new ArrayList<>();
+            for (Path file : files.filter(path -> path.toString().endsWith(".json")).sorted().toList()) {
+                reports.add(Files.readAllBytes(file));
+            }
+            assertTrue(!reports.isEmpty(), "보고서 파일이 없습니다: " + corpus);
+            return reports;
+        }
+    }
+
+    /**
+     * AI 서버 보고서와 비슷한 구조(기업 개요, 연도별 재무 수치, 지표별 분석 문장)의 들여쓰기 된 JSON
+     */
+    private static byte[] syntheticReport(int index, Random random) throws IOException {
+        String[] phrases = {"매출액이 전년 대비", "영업이익률이", "부채비율은 업종 평균보다", "현금흐름이 안정적으로",
+                "재고자산 회전율이", "유동비율이", "자기자본이익률(ROE)이", "배당성향은"};
+        String[] trends = {"증가했습니다.", "감소했습니다.", "유지되고 있습니다.", "개선되었습니다.", "악화되었습니다."};
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (JsonGenerator generator = JSON_FACTORY.createGenerator(out).useDefaultPrettyPrinter()) {
+            generator.writeStartObject();
+            generator.writeStringField("company_name", "테스트기업" + index);
+            generator.writeStringField("industry", "업종" + random.nextInt(30));
+            generator.writeArrayFieldStart("financials");
+            for (int year = 2015; year <= 2024; year++) {
+                generator.writeStartObject();
+                generator.writeNumberField("year", year);
+                for (String account : List.of("revenue", "operating_income", "net_income", "total_assets",
+                        "total_liabilities", "equity", "cash_flow")) {
+                    generator.writeNumberField(account, random.nextLong(1_000_000_000L, 900_000_000_000L));
+                }
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+            generator.writeObjectFieldStart("analysis");
+            generator.writeStringField("grade", String.valueOf("ABCDE".charAt(random.nextInt(5))));
+            generator.writeArrayFieldStart("comments");
+            int comments = 20 + random.nextInt(40);
+            for (int i = 0; i < comments; i++) {
+                generator.writeString(phrases[random.nextInt(phrases.length)] + " " + (random.nextInt(2000) / 10.0)
+                        + "% " + trends[random.nextInt(trends.length)]);
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+            generator.writeEndObject();
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * ReportService 와 같이 공백 없는 형태로 다시 씀
+     */
+    private static byte[] compact(byte[] json) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(json.length);
+        try (JsonParser parser = JSON_FACTORY.createParser(json);
+             JsonGenerator generator = JSON_FACTORY.createGenerator(out)) {
+            while (parser.nextToken() != null) {
+                generator.copyCurrentEvent(parser);
+            }
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] inflate(byte[] gzip) throws IOException {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(gzip), 8192)) {
+            return in.readAllBytes();
+        }
+    }
+
+    private static long total(List<byte[]> reports) {
+        long total = 0;
+        for (byte[] report : reports) {
+            total += report.length;
+        }
+        return total;
+    }
+
+    private static long directorySize(Path path) throws IOException {
+        try (Stream<Path> files = Files.walk(path)) {
+            long size = 0;
+            for (Path file : files.filter(Files::isRegularFile).toList()) {
+                size += Files.size(file);
+            }
+            return size;
+        }
+    }
+}
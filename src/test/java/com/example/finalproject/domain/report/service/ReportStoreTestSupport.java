@@ -0,0 +1,69 @@
+package com.example.finalproject.domain.report.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 보고서 저장소 테스트 공용 도구 (세그먼트 저장소 열기, 내용 해시, gzip)
+ */
+public final class ReportStoreTestSupport {
+
+    private ReportStoreTestSupport() {
+    }
+
+    /**
+     * 테스트 기본 설정: 압축은 테스트가 직접 호출할 때만 (주기 1시간), fsync 끔, 압축으로 빠진 세그먼트는 바로 삭제
+     */
+    static ReportSegmentStore.Settings.SettingsBuilder settings(Path storeDir) {
+        return ReportSegmentStore.Settings.builder()
+                .storeDir(storeDir)
+                .segmentBytes(1024L * 1024)
+                .retainVersions(2)
+                .compactionIntervalSeconds(3600)
+                .compactionLiveRatio(0.5)
+                .fsync(false)
+                .lockStripes(4)
+                .compactionBytesPerSecond(0)
+                .retireDelaySeconds(0);
+    }
+
+    static ReportSegmentStore open(ReportSegmentStore.Settings settings) throws IOException {
+        ReportSegmentStore store = new ReportSegmentStore(settings);
+        store.init();
+        return store;
+    }
+
+    /**
+     * 기본 설정으로 연 세그먼트 저장소 (다 쓰면 shutdown 호출)
+     */
+    public static ReportSegmentStore openSegmentStore(Path storeDir) throws IOException {
+        return open(settings(storeDir).build());
+    }
+
+    public static String sha256(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * ReportService 와 같은 압축 (기본 압축 수준, 8KB 버퍼)
+     */
+    public static byte[] gzip(byte[] json) {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(json.length / 4 + 64);
+        try (OutputStream out = new GZIPOutputStream(compressed, 8192)) {
+            out.write(json);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return compressed.toByteArray();
+    }
+}
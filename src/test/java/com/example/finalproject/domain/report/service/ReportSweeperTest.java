@@ -0,0 +1,208 @@
+package com.example.finalproject.domain.report.service;
+
+import com.example.finalproject.domain.report.entity.ReportCatalogEntity;
+import com.example.finalproject.domain.report.entity.ReportEntity;
+import com.example.finalproject.domain.report.repository.ReportCatalogRepository;
+import com.example.finalproject.domain.report.repository.ReportRepository;
+import com.example.finalproject.domain.report.service.ReportStore.StoredReportRef;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * ReportSweeper 테스트
+ *
+ * <p>메모리 저장소(InMemoryReportStore)와 H2 의 REPORT, REPORT_CATALOG 테이블로
+ * TTL 삭제, 용량 초과 시 오래 조회되지 않은 기업 삭제, 삭제 중 다시 저장된 보고서의 행 보존, 카탈로그 복구를 확인합니다.
+ * ReportSweeper 가 행 삭제와 카탈로그 복구를 자체 트랜잭션으로 처리하므로 테스트 트랜잭션은 쓰지 않습니다.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ReportSweeperTest {
+
+    private static final long DAY_MS = TimeUnit.DAYS.toMillis(1);
+
+    @Autowired
+    ReportRepository reportRepository;
+
+    @Autowired
+    ReportCatalogRepository reportCatalogRepository;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    private InMemoryReportStore store;
+    private ReportSweeper sweeper;
+    private long now;
+
+    @BeforeEach
+    void setUp() {
+        store = new InMemoryReportStore();
+        sweeper = new ReportSweeper(store, new ReportBytesCache(), reportRepository, reportCatalogRepository,
+                transactionManager);
+        ReflectionTestUtils.setField(sweeper, "enabled", true);
+        ReflectionTestUtils.setField(sweeper, "intervalSeconds", 60L);
+        ReflectionTestUtils.setField(sweeper, "ttlDays", 30);
+        ReflectionTestUtils.setField(sweeper, "maxBytes", 0L);
+        ReflectionTestUtils.setField(sweeper, "reconcileRows", false);
+        now = System.currentTimeMillis();
+    }
+
+    @AfterEach
+    void tearDown() {
+        reportCatalogRepository.deleteAll();
+        reportRepository.deleteAll();
+    }
+
+    @Test
+    void ttlDeletesCompaniesWhoseLatestVersionExpired() throws Exception {
+        ReportEntity expired = save("sweeper-expired", now - 40 * DAY_MS);
+        ReportEntity older = save("sweeper-fresh", now - 40 * DAY_MS);
+        ReportEntity fresh = save("sweeper-fresh", now - DAY_MS);
+
+        sweep();
+
+        assertEquals(Optional.empty(), store.latest("sweeper-expired"));
+        assertEquals(List.of(1L, 2L), store.versions("sweeper-fresh"));
+        assertTrue(reportRepository.findById(expired.getId()).isEmpty());
+        assertTrue(reportCatalogRepository.findByCorpKey(CompanyKey.of("sweeper-expired")).isEmpty());
+        // 최근에 다시 생성된 기업은 이전 버전의 행도 남음
+        assertTrue(reportRepository.findById(older.getId()).isPresent());
+        assertTrue(reportRepository.findById(fresh.getId()).isPresent());
+        assertEquals(1L, sweeper.getStats().get("expiredKeys"));
+        assertEquals(1L, sweeper.getStats().get("deletedRows"));
+    }
+
+    @Test
+    void quotaEvictsLeastRecentlyUsedCompaniesFirst() throws Exception {
+        ReflectionTestUtils.setField(sweeper, "ttlDays", 0);
+        ReflectionTestUtils.setField(sweeper, "maxBytes", 250L);
+        save("sweeper-a", now - 3 * DAY_MS);
+        save("sweeper-b", now - 2 * DAY_MS);
+        save("sweeper-c", now - DAY_MS);
+        // a 는 가장 먼저 생성되었지만 방금 조회됨 -> b 가 가장 오래 조회되지 않은 기업
+        sweeper.recordAccess("sweeper-a");
+
+        sweep();
+
+        assertTrue(store.latest("sweeper-a").isPresent());
+        assertEquals(Optional.empty(), store.latest("sweeper-b"));
+        assertTrue(store.latest("sweeper-c").isPresent());
+        assertEquals(1L, sweeper.getStats().get("evictedKeys"));
+        assertEquals(200L, sweeper.getStats().get("storedBytes"));
+        assertEquals(List.of("sweeper-a", "sweeper-c"), reportRepository.findAll().stream()
+                .map(ReportEntity::getCorpName).sorted().toList());
+    }
+
+    @Test
+    void reportRegeneratedDuringSweepKeepsItsRowAndCatalogMovesToIt() throws Exception {
+        ReportEntity deletedRow = save("sweeper-race", now - 40 * DAY_MS);
+        ReportEntity[] regenerated = new ReportEntity[1];
+        // 저장소 삭제와 DB 행 정리 사이에 같은 기업 보고서가 다시 생성됨 (카탈로그는 아직 이전 행을 가리킴)
+        store.afterDelete(key -> regenerated[0] = saveRow(key, store.append(key, new byte[100], "new", now)));
+
+        sweep();
+
+        assertEquals(2L, regenerated[0].getReportVersion());
+        assertEquals(List.of(2L), store.versions("sweeper-race"));
+        assertTrue(reportRepository.findById(deletedRow.getId()).isEmpty());
+        assertTrue(reportRepository.findById(regenerated[0].getId()).isPresent());
+        ReportCatalogEntity catalog = reportCatalogRepository.findByCorpKey(CompanyKey.of("sweeper-race")).orElseThrow();
+        assertEquals(regenerated[0].getId(), catalog.getLatestReportId());
+        assertEquals(2L, catalog.getLatestVersion());
+        assertEquals(1L, sweeper.getStats().get("repairedCatalogs"));
+    }
+
+    @Test
+    void removeRowsFindsRowsByOriginalNameAndDeletesCatalogWithoutRemainingRow() throws Exception {
+        // 저장소 키는 sweeper_slash 지만 행과 카탈로그는 원래 기업명(sweeper/slash)으로 저장됨
+        ReportEntity slashRow = save("sweeper/slash", now - 40 * DAY_MS);
+        // 버전 저장소 이전에 만든 행 (버전 없음)
+        ReportEntity legacy = reportRepository.save(ReportEntity.builder()
+                .corpName("sweeper-legacy")
+                .dateCreated(toDateTime(now - 50 * DAY_MS))
+                .reportUrl("/api/report/download-json/sweeper-legacy")
+                .build());
+        ReportEntity legacyLatest = save("sweeper-legacy", now - 40 * DAY_MS);
+
+        sweep();
+
+        assertEquals(Optional.empty(), store.latest("sweeper_slash"));
+        assertTrue(reportRepository.findById(slashRow.getId()).isEmpty());
+        assertTrue(reportCatalogRepository.findByCorpKey(CompanyKey.of("sweeper/slash")).isEmpty());
+
+        // 버전 없는 행도 삭제한 기업의 행이므로 함께 지워지고, 남은 행이 없으니 카탈로그도 삭제됨
+        assertTrue(reportRepository.findById(legacy.getId()).isEmpty());
+        assertTrue(reportRepository.findById(legacyLatest.getId()).isEmpty());
+        assertTrue(reportCatalogRepository.findByCorpKey(CompanyKey.of("sweeper-legacy")).isEmpty());
+        assertEquals(2L, sweeper.getStats().get("repairedCatalogs"));
+    }
+
+    @Test
+    void reconcileRemovesRowsOfCompaniesMissingFromStore() throws Exception {
+        ReflectionTestUtils.setField(sweeper, "reconcileRows", true);
+        ReportEntity kept = save("sweeper-kept", now - DAY_MS);
+        ReportEntity orphan = reportRepository.save(ReportEntity.builder()
+                .corpName("sweeper-orphan")
+                .dateCreated(toDateTime(now - DAY_MS))
+                .reportUrl("/api/report/download-json/sweeper-orphan")
+                .reportVersion(1L)
+                .build());
+        reportCatalogRepository.save(ReportCatalogEntity.of(CompanyKey.of("sweeper-orphan"), orphan));
+
+        sweep();
+
+        assertTrue(reportRepository.findById(kept.getId()).isPresent());
+        assertTrue(reportRepository.findById(orphan.getId()).isEmpty());
+        assertTrue(reportCatalogRepository.findByCorpKey(CompanyKey.of("sweeper-orphan")).isEmpty());
+    }
+
+    private void sweep() {
+        ReflectionTestUtils.invokeMethod(sweeper, "sweep");
+        assertEquals(0L, sweeper.getStats().get("failures"));
+    }
+
+    /**
+     * 저장소에 100 바이트 보고서를 추가하고 REPORT 행 저장 후 카탈로그가 그 행을 가리키게 함
+     */
+    private ReportEntity save(String corpName, long createdAt) throws Exception {
+        StoredReportRef ref = store.append(ReportStore.keyOf(corpName), new byte[100], "hash-" + createdAt, createdAt);
+        ReportEntity row = saveRow(corpName, ref);
+        String corpKey = CompanyKey.of(corpName);
+        ReportCatalogEntity catalog = reportCatalogRepository.findByCorpKey(corpKey)
+                .orElseGet(() -> ReportCatalogEntity.of(corpKey, row));
+        catalog.pointTo(row);
+        reportCatalogRepository.save(catalog);
+        return row;
+    }
+
+    private ReportEntity saveRow(String corpName, StoredReportRef ref) {
+        return reportRepository.save(ReportEntity.builder()
+                .corpName(corpName)
+                .dateCreated(ref.dateCreated())
+                .reportUrl("/api/report/download-json/" + corpName)
+                .contentHash(ref.contentHash())
+                .reportVersion(ref.version())
+                .build());
+    }
+
+    private static LocalDateTime toDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+}